@@ -0,0 +1,105 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Bitboard;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import random.RandomFactory;
+
+/**
+ * Benchmarks for {@link Bitboard} against a breadth-first search that visits one location at a
+ * time, on a maze without loops and on a fully interconnected grid.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BitboardBenchmark {
+
+  @Param({"32", "128"})
+  int size;
+
+  @Param({"0", "100"})
+  int interconnectivityPercent;
+
+  Dungeon dungeon;
+  Bitboard bitboard;
+  int target;
+
+  @Setup
+  public void setUp() {
+    int edges = 2 * size * size - 2 * size;
+    int nodes = size * size;
+    dungeon = new DungeonImpl(size, size, (edges - nodes + 1) * interconnectivityPercent / 100,
+            false, 0, "Bench", new RandomFactory().getRandomGenerator(42L));
+    bitboard = new Bitboard(dungeon);
+    target = size * size - 1;
+  }
+
+  @Benchmark
+  public int nodeByNodeDistance() {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    int[] distances = new int[rows * columns];
+    Arrays.fill(distances, -1);
+    distances[0] = 0;
+    Queue<Integer> queue = new ArrayDeque<>();
+    queue.add(0);
+    while (!queue.isEmpty()) {
+      int id = queue.remove();
+      if (id == target) {
+        return distances[id];
+      }
+      int row = id / columns;
+      int column = id % columns;
+      for (Direction direction : dungeon.getLocation(row, column).getPossibleMoves()) {
+        int next;
+        switch (direction) {
+          case NORTH:
+            next = id - columns;
+            break;
+          case SOUTH:
+            next = id + columns;
+            break;
+          case EAST:
+            next = id + 1;
+            break;
+          default:
+            next = id - 1;
+            break;
+        }
+        if (distances[next] < 0) {
+          distances[next] = distances[id] + 1;
+          queue.add(next);
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Benchmark
+  public int bitboardDistance() {
+    return bitboard.distance(0, target);
+  }
+
+  @Benchmark
+  public long[] bitboardReachableWithinFour() {
+    return bitboard.reachableWithin(0, 4);
+  }
+
+  @Benchmark
+  public int[] bitboardDistancesFrom() {
+    return bitboard.distancesFrom(0);
+  }
+}
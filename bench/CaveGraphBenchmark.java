@@ -0,0 +1,127 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Bitboard;
+import dungeon.CaveGraph;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import random.RandomFactory;
+
+/**
+ * Benchmarks for {@link CaveGraph} against searches of every location, one at a time and with a
+ * {@link Bitboard}, on dungeons from a pure maze to a fully interconnected grid. The share of
+ * tunnels, printed on setup, is the part of the locations the cave graph does not visit. The
+ * shortest paths of the cave graph are measured against {@link Dungeon#getShortestPath}, which
+ * uses the graph only where tunnels make up a large share of the locations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CaveGraphBenchmark {
+
+  @Param({"64", "256"})
+  int size;
+
+  @Param({"0", "10", "100"})
+  int interconnectivityPercent;
+
+  Dungeon dungeon;
+  Bitboard bitboard;
+  CaveGraph graph;
+  int source;
+  int target;
+
+  @Setup
+  public void setUp() {
+    int extraPaths = size * size - 2 * size + 1;
+    dungeon = new DungeonImpl(size, size, extraPaths * interconnectivityPercent / 100,
+            false, 0, "Bench", new RandomFactory().getRandomGenerator(42L));
+    bitboard = new Bitboard(dungeon);
+    graph = new CaveGraph(dungeon);
+    source = dungeon.getStartingCave().getId();
+    target = dungeon.getDestinationCave().getId();
+    System.out.printf("tunnels: %.0f%%%n", 100.0 - 100.0 * graph.getCaveCount() / (size * size));
+  }
+
+  @Benchmark
+  public int nodeByNodeDistance() {
+    int columns = dungeon.getColumns();
+    int[] distances = new int[dungeon.getRows() * columns];
+    Arrays.fill(distances, -1);
+    distances[source] = 0;
+    Queue<Integer> queue = new ArrayDeque<>();
+    queue.add(source);
+    while (!queue.isEmpty()) {
+      int id = queue.remove();
+      if (id == target) {
+        return distances[id];
+      }
+      for (Direction direction : dungeon.getLocation(id / columns, id % columns)
+              .getPossibleMoves()) {
+        int next;
+        switch (direction) {
+          case NORTH:
+            next = id - columns;
+            break;
+          case SOUTH:
+            next = id + columns;
+            break;
+          case EAST:
+            next = id + 1;
+            break;
+          default:
+            next = id - 1;
+            break;
+        }
+        if (distances[next] < 0) {
+          distances[next] = distances[id] + 1;
+          queue.add(next);
+        }
+      }
+    }
+    return -1;
+  }
+
+  @Benchmark
+  public int gridDistance() {
+    return bitboard.distance(source, target);
+  }
+
+  @Benchmark
+  public int caveGraphDistance() {
+    return graph.distance(source, target);
+  }
+
+  @Benchmark
+  public List<Direction> caveGraphShortestPath() {
+    return graph.shortestPath(source, target);
+  }
+
+  @Benchmark
+  public List<Direction> dungeonShortestPath() {
+    return dungeon.getShortestPath(dungeon.getStartingCave(), dungeon.getDestinationCave());
+  }
+
+  @Benchmark
+  public int[] gridDistancesFrom() {
+    return bitboard.distancesFrom(source);
+  }
+
+  @Benchmark
+  public int[] caveGraphDistancesFrom() {
+    return graph.distancesFrom(source);
+  }
+}
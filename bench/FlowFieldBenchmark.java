@@ -0,0 +1,81 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Bitboard;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.FlowField;
+import location.Location;
+import random.RandomFactory;
+
+/**
+ * Benchmarks for one step of a crowd of agents heading for the destination: every agent searching
+ * on its own against every agent looking its step up in a {@link FlowField}, with and without
+ * building the field first.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FlowFieldBenchmark {
+
+  @Param({"64", "256"})
+  int size;
+
+  @Param({"100", "1000"})
+  int agents;
+
+  Dungeon dungeon;
+  Bitboard bitboard;
+  Location[] positions;
+  int target;
+
+  @Setup
+  public void setUp() {
+    dungeon = new DungeonImpl(size, size, size, false, 0, "Bench",
+            new RandomFactory().getRandomGenerator(42L));
+    bitboard = new Bitboard(dungeon);
+    target = dungeon.getDestinationCave().getId();
+    positions = new Location[agents];
+    for (int i = 0; i < agents; i++) {
+      int id = (int) ((long) i * 7919 % (size * size));
+      positions[i] = dungeon.getLocation(id / size, id % size);
+    }
+    dungeon.nextStepToward(positions[0]);
+  }
+
+  @Benchmark
+  public int searchPerAgent() {
+    int total = 0;
+    for (Location position : positions) {
+      total += bitboard.distance(position.getId(), target);
+    }
+    return total;
+  }
+
+  @Benchmark
+  public int buildAndLookUp() {
+    FlowField field = new FlowField(dungeon, target);
+    int total = 0;
+    for (Location position : positions) {
+      total += field.distance(position.getId());
+    }
+    return total;
+  }
+
+  @Benchmark
+  public int lookUp() {
+    int total = 0;
+    for (Location position : positions) {
+      total += dungeon.nextStepToward(position) == null ? 0 : 1;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,50 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import random.RandomFactory;
+
+/**
+ * Benchmarks for {@link Dungeon#fork()}. Run with {@code -prof gc}; the normalized allocation
+ * rate ({@code gc.alloc.rate.norm}) is the memory cost of one fork in bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ForkBenchmark {
+
+  @Param({"10", "100", "500"})
+  int size;
+
+  Dungeon dungeon;
+
+  @Setup
+  public void setUp() {
+    dungeon = new DungeonImpl(size, size, 0, false, 50, "Bench",
+            new RandomFactory().getRandomGenerator(true));
+  }
+
+  @Benchmark
+  public Dungeon fork() {
+    return dungeon.fork();
+  }
+
+  @Benchmark
+  public Dungeon forkMoveAndCollect() {
+    Dungeon fork = dungeon.fork();
+    Direction move = fork.getPlayerLocation().getPossibleMoves().get(0);
+    fork.movePlayer(move);
+    fork.collectAllTreasures();
+    return fork;
+  }
+}
@@ -0,0 +1,38 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.ParallelPathGenerator;
+import random.RandomSeeded;
+
+/**
+ * Measures how generation of a single large dungeon with {@link ParallelPathGenerator} scales
+ * with the number of threads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ParallelGenerationBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  int threads;
+
+  @Param({"500", "1000"})
+  int size;
+
+  @Benchmark
+  public Dungeon generate() {
+    return new DungeonImpl(size, size, size, false, 20, "Bench", new RandomSeeded(42), 10,
+            new ParallelPathGenerator(threads));
+  }
+}
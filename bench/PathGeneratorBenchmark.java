@@ -0,0 +1,66 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+import dungeon.AldousBroderPathGenerator;
+import dungeon.BacktrackerPathGenerator;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.KruskalPathGenerator;
+import dungeon.PathGenerator;
+import dungeon.PrimPathGenerator;
+import dungeon.WilsonPathGenerator;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+/**
+ * Compares the {@link PathGenerator} implementations by generating whole dungeons of growing
+ * size. Run with {@code -prof gc} to compare the memory allocated per dungeon as well.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PathGeneratorBenchmark {
+
+  @Param({"kruskal", "wilson", "prim", "backtracker", "aldous-broder"})
+  String strategy;
+
+  @Param({"10", "30", "60"})
+  int size;
+
+  PathGenerator generator;
+  RandomGenerator rand;
+
+  @Setup
+  public void setUp() {
+    rand = new RandomFactory().getRandomGenerator(true);
+    switch (strategy) {
+      case "wilson":
+        generator = new WilsonPathGenerator();
+        break;
+      case "prim":
+        generator = new PrimPathGenerator();
+        break;
+      case "backtracker":
+        generator = new BacktrackerPathGenerator();
+        break;
+      case "aldous-broder":
+        generator = new AldousBroderPathGenerator();
+        break;
+      default:
+        generator = new KruskalPathGenerator();
+    }
+  }
+
+  @Benchmark
+  public Dungeon generate() {
+    return new DungeonImpl(size, size, size / 2, false, 20, "Bench", rand, 10, generator);
+  }
+}
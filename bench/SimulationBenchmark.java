@@ -0,0 +1,114 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import location.LocationUpdateState;
+import location.Treasure;
+import player.PlayerImpl;
+import random.RandomFactory;
+import simulation.Simulation;
+
+/**
+ * Benchmarks for one tick of a crowd of agents taking random moves: a {@link PlayerImpl} per
+ * agent on the cells of the dungeon against a {@link Simulation} on one and on four threads.
+ * Every operation is one agent-move attempt, so the throughput is in agent-moves per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SimulationBenchmark {
+
+  private static final int AGENTS = 100_000;
+  private static final int MOVE_SETS = 16;
+  private static final List<Treasure> ALL = List.of(Treasure.values());
+
+  @Param({"1", "4"})
+  int threads;
+
+  Dungeon dungeon;
+  Simulation simulation;
+  PlayerImpl[] players;
+  byte[][] moves;
+  int tick;
+
+  @Setup
+  public void setUp() {
+    dungeon = new DungeonImpl(64, 64, 200, true, 50, "Bench",
+            new RandomFactory().getRandomGenerator(42L));
+    simulation = new Simulation(dungeon, AGENTS, threads);
+    LocationUpdateState start = (LocationUpdateState) dungeon.getStartingCave();
+    players = new PlayerImpl[AGENTS];
+    for (int i = 0; i < AGENTS; i++) {
+      players[i] = new PlayerImpl("Bench", start, 0);
+    }
+    Random random = new Random(42L);
+    moves = new byte[MOVE_SETS][AGENTS];
+    for (byte[] set : moves) {
+      for (int i = 0; i < AGENTS; i++) {
+        set[i] = (byte) random.nextInt(4);
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    simulation.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(AGENTS)
+  public int objectPerAgent() {
+    byte[] set = moves[tick++ % MOVE_SETS];
+    int moved = 0;
+    for (int i = 0; i < AGENTS; i++) {
+      Location location = players[i].getLocation();
+      Direction direction = Direction.values()[set[i]];
+      if (!location.getPossibleMoves().contains(direction)) {
+        continue;
+      }
+      int row = location.getCoordinates().getX();
+      int column = location.getCoordinates().getY();
+      switch (direction) {
+        case NORTH:
+          row = (row + 63) % 64;
+          break;
+        case SOUTH:
+          row = (row + 1) % 64;
+          break;
+        case EAST:
+          column = (column + 1) % 64;
+          break;
+        default:
+          column = (column + 63) % 64;
+          break;
+      }
+      players[i].move((LocationUpdateState) dungeon.getLocation(row, column));
+      if (!players[i].getLocation().getTreasures().isEmpty()) {
+        players[i].collectTreasures(ALL);
+      }
+      moved++;
+    }
+    return moved;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(AGENTS)
+  public int simulationTick() {
+    return simulation.tick(moves[tick++ % MOVE_SETS]);
+  }
+}
@@ -0,0 +1,73 @@
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.DungeonSnapshot;
+import dungeon.SnapshotPublisher;
+import location.Direction;
+import random.RandomFactory;
+
+/**
+ * Benchmarks for readers of a {@link SnapshotPublisher} while a writer thread keeps moving the
+ * player and publishing. Run with {@code -t 1}, {@code -t 2}, ... to see the read throughput
+ * scale with the number of reader threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SnapshotReadBenchmark {
+
+  @Param({"100"})
+  int size;
+
+  SnapshotPublisher publisher;
+  Thread writer;
+  volatile boolean running;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    Dungeon dungeon = new DungeonImpl(size, size, size, false, 50, "Bench",
+            new RandomFactory().getRandomGenerator(true));
+    publisher = new SnapshotPublisher(dungeon);
+    running = true;
+    writer = new Thread(() -> {
+      int i = 0;
+      while (running) {
+        dungeon.collectAllTreasures();
+        List<Direction> moves = dungeon.getPlayerLocation().getPossibleMoves();
+        dungeon.movePlayer(moves.get(i++ % moves.size()));
+        publisher.publish();
+      }
+    });
+    writer.start();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws InterruptedException {
+    running = false;
+    writer.join();
+  }
+
+  @Benchmark
+  public int readPlayerSurroundings() {
+    DungeonSnapshot snapshot = publisher.getSnapshot();
+    int row = snapshot.getPlayerLocation().getCoordinates().getX();
+    int treasures = 0;
+    for (int column = 0; column < snapshot.getColumns(); column++) {
+      treasures += snapshot.getLocation(row, column).getTreasures().size();
+    }
+    return treasures;
+  }
+}
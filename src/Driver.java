@@ -1,11 +1,32 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import batch.BatchRunner;
+import batch.BufferedOutputSink;
+import batch.ChannelOutputSink;
+import batch.GameConfig;
+import batch.OutputSink;
+import batch.Verbosity;
 import dungeon.Dungeon;
 import dungeon.DungeonImpl;
 import location.Direction;
 import player.Player;
 import random.RandomFactory;
 import random.RandomGenerator;
+import server.GameServer;
+import strategy.PlayerStrategy;
+import strategy.RandomWalkStrategy;
+import strategy.StrategyResult;
+import strategy.Tournament;
 
 /**
  * The driver class that runs the {@link dungeon.Dungeon} depicting a user.
@@ -13,11 +34,30 @@ import random.RandomGenerator;
 public class Driver {
 
   /**
-   * Main method.
+   * Main method. With {@code --batch} as the first argument the games are played headless, see
+   * {@link #runBatch(String[])}. With {@code --serve port [maxLocations]} the games are hosted
+   * by a {@link GameServer} until the process is stopped. With {@code --tournament} the built-in
+   * strategies play against each other, see {@link #runTournament(String[])}.
    *
    * @param args the arguments.
+   * @throws IOException if the batch input or output fails.
    */
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0 && args[0].equals("--batch")) {
+      runBatch(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--tournament")) {
+      runTournament(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 1 && args[0].equals("--serve")) {
+      GameServer server = new GameServer(Integer.parseInt(args[1]), args.length > 2
+              ? Integer.parseInt(args[2]) : GameServer.DEFAULT_MAX_LOCATIONS);
+      server.start();
+      System.out.println("Serving dungeons on 127.0.0.1:" + server.getPort());
+      return;
+    }
     System.out.println("Welcome to the World of Dungeon");
     int rows;
     rows = Integer.parseInt(args[0]);
@@ -49,14 +89,14 @@ public class Driver {
             percentageOfTreasures, playerName, rand);
 
     Player player = dungeon.getPlayer();
+    PlayerStrategy strategy = new RandomWalkStrategy(rand);
     dungeon.collectAllTreasures();
     System.out.println(dungeon);
     System.out.println("Collected treasures: " + player.getCollectedTreasures());
 
     do {
       System.out.println();
-      List<Direction> possibleMoves = player.getLocation().getPossibleMoves();
-      Direction move = possibleMoves.get(rand.getRandom(possibleMoves.size(), 0));
+      Direction move = strategy.nextMove(dungeon);
       dungeon.movePlayer(move);
       System.out.println(player.getName() + " moved to " + move);
       System.out.println("Current location co-ordinates in grid: "
@@ -71,4 +111,77 @@ public class Driver {
 
     System.out.println("Destination reached!!");
   }
+
+  /**
+   * Plays many games headless. The arguments are
+   * {@code games summary|moves|frames output params...}, where {@code output} is a file or
+   * {@code -} for the standard output and {@code params} is either a parameter file with one
+   * {@code rows columns interconnectivity y|n percentage name [games]} line per set of games or
+   * those values themselves.
+   *
+   * @param args the arguments.
+   * @throws IOException if the parameter file cannot be read or the output cannot be written.
+   */
+  private static void runBatch(String[] args) throws IOException {
+    if (args.length < 4) {
+      System.err.println("Usage: --batch games summary|moves|frames output|- "
+              + "(params-file | rows columns interconnectivity y|n percentage name)");
+      return;
+    }
+    int games = Integer.parseInt(args[0]);
+    Verbosity verbosity = Verbosity.valueOf(args[1].toUpperCase());
+
+    List<GameConfig> configs;
+    if (args.length == 4) {
+      try (BufferedReader reader = Files.newBufferedReader(Path.of(args[3]),
+              StandardCharsets.UTF_8)) {
+        configs = GameConfig.readAll(reader, games);
+      }
+    } else {
+      configs = List.of(GameConfig.parse(Arrays.copyOfRange(args, 3, args.length), games));
+    }
+
+    OutputSink sink;
+    if (args[2].equals("-")) {
+      sink = new BufferedOutputSink(System.out, BufferedOutputSink.DEFAULT_BUFFER_SIZE);
+    } else {
+      sink = new ChannelOutputSink(FileChannel.open(Path.of(args[2]), StandardOpenOption.CREATE,
+              StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), 1 << 20);
+    }
+    try (OutputSink output = sink) {
+      new BatchRunner(output, verbosity, new RandomFactory().getRandomGenerator(true))
+              .run(configs);
+    }
+  }
+
+  /**
+   * Plays the built-in strategies on the same seeded dungeons, on all processors, and prints how
+   * each did. The arguments are {@code games rows columns interconnectivity y|n percentage}; the
+   * dungeons are built with seeds 1 to {@code games}.
+   *
+   * @param args the arguments.
+   */
+  private static void runTournament(String[] args) {
+    if (args.length < 6) {
+      System.err.println("Usage: --tournament games rows columns interconnectivity y|n "
+              + "percentage");
+      return;
+    }
+    int games = Integer.parseInt(args[0]);
+    String[] params = Arrays.copyOfRange(args, 1, 7);
+    params[5] = "Bot";
+    GameConfig config = GameConfig.parse(params, games);
+    Tournament tournament = new Tournament(Tournament.builtIns(),
+            100 * config.getRows() * config.getColumns());
+    // one thread per processor, so that no game is descheduled while its strategy is timed
+    ExecutorService executor =
+            Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+    try {
+      for (StrategyResult result : tournament.run(config, 1, executor)) {
+        System.out.println(result);
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
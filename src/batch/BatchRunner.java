@@ -0,0 +1,153 @@
+package batch;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import location.Treasure;
+import metrics.GameStatistics;
+import player.Player;
+import random.RandomGenerator;
+
+/**
+ * The batch.BatchRunner plays many games without a terminal. Like the interactive driver, the
+ * player collects every treasure it finds and moves at random until it reaches the destination.
+ * Everything is written to an {@link OutputSink} in the chosen {@link Verbosity}.
+ */
+public class BatchRunner {
+
+  private final OutputSink sink;
+  private final Verbosity verbosity;
+  private final RandomGenerator rand;
+  private final StringBuilder line;
+  private GameStatistics statistics;
+
+  /**
+   * Constructs a batch runner.
+   *
+   * @param sink      the sink the results are written to.
+   * @param verbosity how much is written per game.
+   * @param rand      the random generator for the dungeons and the moves.
+   * @throws IllegalArgumentException if any argument is {@code null}.
+   */
+  public BatchRunner(OutputSink sink, Verbosity verbosity, RandomGenerator rand)
+          throws IllegalArgumentException {
+    if (sink == null || verbosity == null || rand == null) {
+      throw new IllegalArgumentException("Sink, verbosity and random generator cannot be null.");
+    }
+    this.sink = sink;
+    this.verbosity = verbosity;
+    this.rand = rand;
+    this.line = new StringBuilder(256);
+  }
+
+  /**
+   * Records every game that reaches the destination in the given statistics from now on. The
+   * statistics may be shared with runners on other threads.
+   *
+   * @param statistics the statistics, {@code null} to stop recording.
+   */
+  public void setStatistics(GameStatistics statistics) {
+    this.statistics = statistics;
+  }
+
+  /**
+   * Plays all the games of all the given parameters and writes a final total. The sink is
+   * flushed at the end but not closed.
+   *
+   * @param configs the parameters of the games.
+   * @return the number of games played.
+   * @throws IOException if the sink fails.
+   */
+  public int run(List<GameConfig> configs) throws IOException {
+    int played = 0;
+    long totalMoves = 0;
+    long failed = 0;
+    for (GameConfig config : configs) {
+      for (int i = 0; i < config.getGames(); i++) {
+        played++;
+        try {
+          totalMoves += play(config, played);
+        } catch (IllegalArgumentException e) {
+          failed++;
+          this.line.setLength(0);
+          this.line.append("game ").append(played).append(": ").append(e.getMessage());
+          this.sink.writeLine(this.line);
+        }
+      }
+    }
+    this.line.setLength(0);
+    this.line.append("games: ").append(played).append(", failed: ").append(failed)
+            .append(", moves: ").append(totalMoves);
+    this.sink.writeLine(this.line);
+    this.sink.flush();
+    return played;
+  }
+
+  private long play(GameConfig config, int game) throws IOException {
+    Dungeon dungeon = new DungeonImpl(config.getRows(), config.getColumns(),
+            config.getInterconnectivity(), config.isWrapping(), config.getPercentageOfTreasures(),
+            config.getPlayerName(), this.rand);
+    Player player = dungeon.getPlayer();
+    // only the moves are timed, not the output
+    long startTime = System.nanoTime();
+    dungeon.collectAllTreasures();
+    long nanos = System.nanoTime() - startTime;
+    if (this.verbosity == Verbosity.FRAMES) {
+      this.sink.write(dungeon.toString());
+    }
+
+    long moves = 0;
+    while (!dungeon.isDestinationReached()) {
+      long moveStart = System.nanoTime();
+      List<Direction> possibleMoves = player.getLocation().getPossibleMoves();
+      Direction move = possibleMoves.get(this.rand.getRandom(possibleMoves.size(), 0));
+      dungeon.movePlayer(move);
+      dungeon.collectAllTreasures();
+      nanos += System.nanoTime() - moveStart;
+      moves++;
+      if (this.verbosity != Verbosity.SUMMARY) {
+        Location location = player.getLocation();
+        this.line.setLength(0);
+        this.line.append(player.getName()).append(" moved to ").append(move).append(' ')
+                .append(location.getCoordinates().getX()).append(',')
+                .append(location.getCoordinates().getY());
+        this.sink.writeLine(this.line);
+      }
+      if (this.verbosity == Verbosity.FRAMES) {
+        this.sink.write(dungeon.toString());
+      }
+    }
+
+    this.line.setLength(0);
+    this.line.append("game ").append(game).append(": ").append(config.getRows()).append('x')
+            .append(config.getColumns()).append(" moves=").append(moves);
+    Map<Treasure, Integer> treasures = player.getCollectedTreasures();
+    for (Treasure treasure : Treasure.values()) {
+      this.line.append(' ').append(treasure).append('=').append(treasures.get(treasure));
+    }
+    this.line.append(" destination reached");
+    this.sink.writeLine(this.line);
+    if (this.statistics != null) {
+      record(dungeon, moves, nanos, treasures);
+    }
+    return moves;
+  }
+
+  private void record(Dungeon dungeon, long moves, long nanos, Map<Treasure, Integer> treasures) {
+    int tunnels = 0;
+    for (int row = 0; row < dungeon.getRows(); row++) {
+      for (int column = 0; column < dungeon.getColumns(); column++) {
+        if (dungeon.getLocation(row, column).isTunnel()) {
+          tunnels++;
+        }
+      }
+    }
+    int caves = dungeon.getRows() * dungeon.getColumns() - tunnels;
+    this.statistics.recordGame(moves, nanos, treasures, caves, tunnels);
+  }
+}
@@ -0,0 +1,68 @@
+package batch;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The batch.BufferedOutputSink implements {@link OutputSink} on top of a {@link Writer} with a
+ * large buffer.
+ */
+public class BufferedOutputSink implements OutputSink {
+
+  /**
+   * The default buffer size in characters.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+  private final Writer writer;
+  private final boolean isStandardStream;
+
+  /**
+   * Constructs a sink writing UTF-8 text to the given stream.
+   *
+   * @param out        the stream.
+   * @param bufferSize the buffer size in characters.
+   * @throws IllegalArgumentException <ul><li>if {@code out} is {@code null}.</li>
+   *                                  <li>if {@code bufferSize} is not positive.</li></ul>
+   */
+  public BufferedOutputSink(OutputStream out, int bufferSize) throws IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    if (bufferSize <= 0) {
+      throw new IllegalArgumentException("Buffer size must be positive.");
+    }
+    this.isStandardStream = out == System.out || out == System.err;
+    this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8),
+            bufferSize);
+  }
+
+  @Override
+  public void write(CharSequence text) throws IOException {
+    this.writer.append(text);
+  }
+
+  @Override
+  public void flush() throws IOException {
+    this.writer.flush();
+  }
+
+  /**
+   * Writes out everything buffered so far and closes the stream, unless it is
+   * {@link System#out} or {@link System#err}, which stay open for the rest of the program.
+   *
+   * @throws IOException if the text cannot be written.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.isStandardStream) {
+      this.writer.flush();
+    } else {
+      this.writer.close();
+    }
+  }
+}
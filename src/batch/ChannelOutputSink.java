@@ -0,0 +1,111 @@
+package batch;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The batch.ChannelOutputSink implements {@link OutputSink} on top of a
+ * {@link WritableByteChannel}. Text is encoded as UTF-8 into a direct buffer that is written to
+ * the channel whenever it fills up.
+ */
+public class ChannelOutputSink implements OutputSink {
+
+  private final WritableByteChannel channel;
+  private final ByteBuffer buffer;
+  private final CharsetEncoder encoder;
+  // the first half of a surrogate pair split between two writes
+  private char pending;
+  private boolean hasPending;
+
+  /**
+   * Constructs a sink writing to the given channel.
+   *
+   * @param channel    the channel.
+   * @param bufferSize the buffer size in bytes.
+   * @throws IllegalArgumentException <ul><li>if {@code channel} is {@code null}.</li>
+   *                                  <li>if {@code bufferSize} is less than 16.</li></ul>
+   */
+  public ChannelOutputSink(WritableByteChannel channel, int bufferSize)
+          throws IllegalArgumentException {
+    if (channel == null) {
+      throw new IllegalArgumentException("Channel cannot be null.");
+    }
+    if (bufferSize < 16) {
+      throw new IllegalArgumentException("Buffer size must be at least 16 bytes.");
+    }
+    this.channel = channel;
+    this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    this.encoder = StandardCharsets.UTF_8.newEncoder();
+  }
+
+  @Override
+  public void write(CharSequence text) throws IOException {
+    CharBuffer chars;
+    if (this.hasPending) {
+      chars = CharBuffer.allocate(text.length() + 1);
+      chars.put(this.pending).append(text).flip();
+      this.hasPending = false;
+    } else {
+      chars = CharBuffer.wrap(text);
+    }
+    encode(chars, false);
+    if (chars.hasRemaining()) {
+      // the encoder leaves a trailing high surrogate until it sees the low one
+      this.pending = chars.get();
+      this.hasPending = true;
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    drain();
+  }
+
+  /**
+   * Writes out everything buffered so far and closes the channel.
+   *
+   * @throws IOException if the text cannot be written, e.g. if the last write ended with the
+   *                     first half of a surrogate pair.
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      CharBuffer chars = this.hasPending ? CharBuffer.wrap(new char[] {this.pending})
+              : CharBuffer.allocate(0);
+      this.hasPending = false;
+      encode(chars, true);
+      while (this.encoder.flush(this.buffer).isOverflow()) {
+        drain();
+      }
+      drain();
+    } finally {
+      this.channel.close();
+    }
+  }
+
+  private void encode(CharBuffer chars, boolean isEndOfInput) throws IOException {
+    while (true) {
+      CoderResult result = this.encoder.encode(chars, this.buffer, isEndOfInput);
+      if (result.isOverflow()) {
+        drain();
+      } else if (result.isError()) {
+        result.throwException();
+      } else {
+        return;
+      }
+    }
+  }
+
+  private void drain() throws IOException {
+    this.buffer.flip();
+    while (this.buffer.hasRemaining()) {
+      this.channel.write(this.buffer);
+    }
+    this.buffer.clear();
+  }
+}
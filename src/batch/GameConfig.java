@@ -0,0 +1,156 @@
+package batch;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This represents the parameters of the games of a batch run: the arguments of a
+ * {@link dungeon.DungeonImpl} and the number of games to be played with them.
+ */
+public class GameConfig {
+
+  private final int rows;
+  private final int columns;
+  private final int interconnectivity;
+  private final boolean isWrapping;
+  private final double percentageOfTreasures;
+  private final String playerName;
+  private final int games;
+
+  /**
+   * Constructs the parameters of a set of games.
+   *
+   * @param rows                  the number of rows.
+   * @param columns               the number of columns.
+   * @param interconnectivity     the interconnectivity.
+   * @param isWrapping            {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param playerName            the name of the player.
+   * @param games                 the number of games.
+   * @throws IllegalArgumentException if {@code games} is negative.
+   */
+  public GameConfig(int rows, int columns, int interconnectivity, boolean isWrapping,
+                    double percentageOfTreasures, String playerName, int games)
+          throws IllegalArgumentException {
+    if (games < 0) {
+      throw new IllegalArgumentException("Number of games cannot be negative.");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.interconnectivity = interconnectivity;
+    this.isWrapping = isWrapping;
+    this.percentageOfTreasures = percentageOfTreasures;
+    this.playerName = playerName;
+    this.games = games;
+  }
+
+  /**
+   * Parses the parameters from the command line format of the driver:
+   * {@code rows columns interconnectivity y|n percentage name [games]}.
+   *
+   * @param args         the arguments.
+   * @param defaultGames the number of games if not given.
+   * @return the parameters.
+   * @throws IllegalArgumentException if the arguments are missing or not numbers.
+   */
+  public static GameConfig parse(String[] args, int defaultGames)
+          throws IllegalArgumentException {
+    if (args.length < 6) {
+      throw new IllegalArgumentException("Expected: rows columns interconnectivity y|n "
+              + "percentage name [games]");
+    }
+    return new GameConfig(Integer.parseInt(args[0]), Integer.parseInt(args[1]),
+            Integer.parseInt(args[2]), args[3].equalsIgnoreCase("y"),
+            Double.parseDouble(args[4]), args[5],
+            args.length > 6 ? Integer.parseInt(args[6]) : defaultGames);
+  }
+
+  /**
+   * Reads one set of parameters per line. Empty lines and lines starting with {@code #} are
+   * skipped.
+   *
+   * @param reader       the reader.
+   * @param defaultGames the number of games of lines that do not give it.
+   * @return the parameters.
+   * @throws IOException              if the reader fails.
+   * @throws IllegalArgumentException if a line cannot be parsed.
+   */
+  public static List<GameConfig> readAll(BufferedReader reader, int defaultGames)
+          throws IOException, IllegalArgumentException {
+    List<GameConfig> configs = new ArrayList<>();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      line = line.trim();
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      configs.add(parse(line.split("\\s+"), defaultGames));
+    }
+    return configs;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return this.rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return this.columns;
+  }
+
+  /**
+   * Returns the interconnectivity.
+   *
+   * @return the interconnectivity.
+   */
+  public int getInterconnectivity() {
+    return this.interconnectivity;
+  }
+
+  /**
+   * Returns if the dungeon is wrapping.
+   *
+   * @return {@code true} if wrapping otherwise {@code false}.
+   */
+  public boolean isWrapping() {
+    return this.isWrapping;
+  }
+
+  /**
+   * Returns the percentage of caves to have treasures.
+   *
+   * @return the percentage of caves to have treasures.
+   */
+  public double getPercentageOfTreasures() {
+    return this.percentageOfTreasures;
+  }
+
+  /**
+   * Returns the name of the player.
+   *
+   * @return the name of the player.
+   */
+  public String getPlayerName() {
+    return this.playerName;
+  }
+
+  /**
+   * Returns the number of games.
+   *
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.games;
+  }
+}
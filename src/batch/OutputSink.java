@@ -0,0 +1,37 @@
+package batch;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * The batch.OutputSink represents the destination of the text written by a batch run. Sinks
+ * buffer the text and write it out in large blocks.
+ */
+public interface OutputSink extends Closeable {
+
+  /**
+   * Appends text to the sink.
+   *
+   * @param text the text.
+   * @throws IOException if the text cannot be written.
+   */
+  void write(CharSequence text) throws IOException;
+
+  /**
+   * Appends text followed by a line break to the sink.
+   *
+   * @param text the text.
+   * @throws IOException if the text cannot be written.
+   */
+  default void writeLine(CharSequence text) throws IOException {
+    write(text);
+    write("\n");
+  }
+
+  /**
+   * Writes out everything buffered so far.
+   *
+   * @throws IOException if the text cannot be written.
+   */
+  void flush() throws IOException;
+}
@@ -0,0 +1,9 @@
+package batch;
+
+/**
+ * This represents how much a batch run writes for each game: only a summary line, a line per
+ * move as well, or the full dungeon after every move.
+ */
+public enum Verbosity {
+  SUMMARY, MOVES, FRAMES
+}
@@ -0,0 +1,83 @@
+package dungeon;
+
+import java.util.List;
+
+/**
+ * This represents the potential paths of the dungeon grid indexed by location, so that path
+ * generators can walk the grid. A package-private class.
+ */
+class Adjacency {
+
+  private final int[] offsets;
+  private final Edge[] edges;
+
+  /**
+   * Constructs the adjacency of the given paths.
+   *
+   * @param nodes the number of locations.
+   * @param paths the paths.
+   */
+  Adjacency(int nodes, List<Edge> paths) {
+    this.offsets = new int[nodes + 1];
+    for (Edge edge : paths) {
+      this.offsets[edge.getFirstLocation() + 1]++;
+      this.offsets[edge.getSecondLocation() + 1]++;
+    }
+    for (int i = 0; i < nodes; i++) {
+      this.offsets[i + 1] += this.offsets[i];
+    }
+    this.edges = new Edge[this.offsets[nodes]];
+    int[] next = new int[nodes];
+    for (Edge edge : paths) {
+      int x = edge.getFirstLocation();
+      int y = edge.getSecondLocation();
+      this.edges[this.offsets[x] + next[x]++] = edge;
+      this.edges[this.offsets[y] + next[y]++] = edge;
+    }
+  }
+
+  /**
+   * Returns the number of paths leaving the location.
+   *
+   * @param node the id of the location.
+   * @return the degree.
+   */
+  int degree(int node) {
+    return this.offsets[node + 1] - this.offsets[node];
+  }
+
+  /**
+   * Returns the i-th path leaving the location.
+   *
+   * @param node the id of the location.
+   * @param i    the index between 0 and {@link #degree(int)}.
+   * @return the path.
+   */
+  Edge edge(int node, int i) {
+    return this.edges[this.offsets[node] + i];
+  }
+
+  /**
+   * Returns the location at the other end of the path.
+   *
+   * @param edge the path.
+   * @param node the id of the location at one end.
+   * @return the id of the location at the other end.
+   */
+  static int other(Edge edge, int node) {
+    return edge.getFirstLocation() == node ? edge.getSecondLocation() : edge.getFirstLocation();
+  }
+
+  /**
+   * Returns a bound on the number of steps a random walk may take to cover a grid. It is many
+   * times the expected cover time of a grid, so it is only reached if the random generator does
+   * not behave randomly, such as {@link random.RandomFalse}, which would walk forever.
+   *
+   * @param nodes the number of locations.
+   * @return the maximum number of steps.
+   */
+  static long maxWalkLength(int nodes) {
+    long log = Integer.SIZE - Integer.numberOfLeadingZeros(nodes) + 1;
+    return 16L * nodes * log * log;
+  }
+}
@@ -0,0 +1,42 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.AldousBroderPathGenerator implements {@link PathGenerator} with the Aldous-Broder
+ * algorithm: a single random walk covers the grid and keeps the path it first entered each
+ * location by. Every spanning tree is equally likely, but the walk is much longer than the one
+ * of {@link WilsonPathGenerator} on large grids. It needs a truly random generator.
+ */
+public class AldousBroderPathGenerator implements PathGenerator {
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    int nodes = rows * columns;
+    Adjacency adjacency = new Adjacency(nodes, potentialPaths);
+    boolean[] visited = new boolean[nodes];
+    List<Edge> paths = new ArrayList<>();
+
+    long stepsLeft = Adjacency.maxWalkLength(nodes);
+    int node = rand.getRandom(nodes, 0);
+    visited[node] = true;
+    while (paths.size() < nodes - 1) {
+      if (stepsLeft-- == 0) {
+        throw new IllegalStateException("Random walk did not cover the grid. The random "
+                + "generator does not generate random numbers.");
+      }
+      Edge edge = adjacency.edge(node, rand.getRandom(adjacency.degree(node), 0));
+      int next = Adjacency.other(edge, node);
+      if (!visited[next]) {
+        visited[next] = true;
+        paths.add(edge);
+      }
+      node = next;
+    }
+    return paths;
+  }
+}
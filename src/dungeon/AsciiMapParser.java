@@ -0,0 +1,318 @@
+package dungeon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import location.Cave;
+import location.Direction;
+import location.LocationUpdateState;
+
+/**
+ * The dungeon.AsciiMapParser builds a {@link Dungeon} from the text drawn by
+ * {@link DungeonImpl#toString()}. Every row of locations takes three lines and every location
+ * eleven characters: a {@code |} above and below the location for the exits to the north and to
+ * the south, {@code ---} left and right of it for the exits to the west and to the east, and the
+ * location itself as {@code [C]} for a cave, {@code [T]} for a tunnel, {@code [S]} for the
+ * starting cave, {@code [D]} for the destination cave and {@code [P]} for the player.
+ *
+ * <p>The dungeon is wrapping if any location has an exit over the border of the grid. The player
+ * starts at the starting cave if there is no {@code P}, and the player's location is the starting
+ * cave if there is no {@code S}. If there is no {@code D}, the player stands on the destination,
+ * as in a finished game. Trailing spaces may be left out. Maps have no treasures.
+ *
+ * <p>The map is read three lines at a time and takes time linear in its size; apart from the
+ * dungeon itself only one byte per location is kept while reading.
+ */
+public class AsciiMapParser {
+
+  private static final int WIDTH = 11;
+  private static final int SOUTH = 1;
+  private static final int NORTH = 2;
+  private static final int EAST = 4;
+  private static final int WEST = 8;
+
+  private final String playerName;
+
+  /**
+   * Constructs a parser.
+   *
+   * @param playerName the name of the player of the dungeons read.
+   * @throws IllegalArgumentException if {@code playerName} is {@code null} or empty.
+   */
+  public AsciiMapParser(String playerName) throws IllegalArgumentException {
+    if (playerName == null || playerName.equals("")) {
+      throw new IllegalArgumentException("Player name cannot be null or empty");
+    }
+    this.playerName = playerName;
+  }
+
+  /**
+   * Builds a dungeon from a map held in a string.
+   *
+   * @param map the map.
+   * @return the dungeon.
+   * @throws IllegalArgumentException if {@code map} is {@code null} or not a valid map, see
+   *                                  {@link #parse(Reader)}.
+   */
+  public Dungeon parse(String map) throws IllegalArgumentException {
+    if (map == null) {
+      throw new IllegalArgumentException("Map cannot be null.");
+    }
+    try {
+      return parse(new StringReader(map));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Builds a dungeon from a map read from the given reader. The reader is not closed.
+   *
+   * @param reader the reader.
+   * @return the dungeon.
+   * @throws IOException              if reading fails.
+   * @throws IllegalArgumentException <ul><li>if {@code reader} is {@code null}.</li>
+   *                                  <li>if the map is empty or has a character out of place.
+   *                                  </li>
+   *                                  <li>if the rows do not have the same number of locations.
+   *                                  </li>
+   *                                  <li>if the exits of two neighbouring locations do not
+   *                                  match.</li>
+   *                                  <li>if a location is drawn as a cave but is a tunnel or the
+   *                                  other way around.</li>
+   *                                  <li>if there is neither a destination nor both a start and
+   *                                  a player, more than one start, destination or player, or
+   *                                  neither a start nor a player.</li>
+   *                                  <li>if not every location can be reached.</li></ul>
+   */
+  public Dungeon parse(Reader reader) throws IOException, IllegalArgumentException {
+    if (reader == null) {
+      throw new IllegalArgumentException("Reader cannot be null.");
+    }
+    BufferedReader lines = reader instanceof BufferedReader
+            ? (BufferedReader) reader : new BufferedReader(reader);
+
+    // exits in the low four bits, the letter of the location in the high four
+    byte[] cells = new byte[64];
+    int columns = -1;
+    int rows = 0;
+    int lineNumber = 0;
+    while (true) {
+      String north = lines.readLine();
+      String middle = north == null ? null : lines.readLine();
+      if (middle == null || middle.isBlank()) {
+        if (north != null && !north.isBlank()) {
+          throw new IllegalArgumentException("Line " + (lineNumber + 1)
+                  + ": row has no locations.");
+        }
+        lineNumber += middle == null ? 1 : 2;
+        expectBlankRest(lines, lineNumber);
+        break;
+      }
+      String south = lines.readLine();
+      if (south == null) {
+        south = "";
+      }
+      if (columns < 0) {
+        columns = countLocations(middle);
+      } else if (countLocations(middle) != columns) {
+        throw new IllegalArgumentException("Line " + (lineNumber + 2) + ": expected " + columns
+                + " locations.");
+      }
+      if ((long) (rows + 1) * columns > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Map too large.");
+      }
+      if ((rows + 1) * columns > cells.length) {
+        cells = Arrays.copyOf(cells, Math.max(cells.length * 2, (rows + 1) * columns));
+      }
+      for (int j = 0; j < columns; j++) {
+        int offset = j * WIDTH;
+        int exits = 0;
+        if (isPassage(north, offset + 5, '|', 1, lineNumber + 1)) {
+          exits |= NORTH;
+        }
+        if (isPassage(middle, offset, '-', 3, lineNumber + 2)) {
+          exits |= WEST;
+        }
+        if (isPassage(middle, offset + 8, '-', 3, lineNumber + 2)) {
+          exits |= EAST;
+        }
+        if (isPassage(south, offset + 5, '|', 1, lineNumber + 3)) {
+          exits |= SOUTH;
+        }
+        char letter = charAt(middle, offset + 5);
+        int code = "CTSDP".indexOf(letter);
+        if (charAt(middle, offset + 4) != '[' || charAt(middle, offset + 6) != ']'
+                || code < 0) {
+          throw new IllegalArgumentException("Line " + (lineNumber + 2) + ": expected a location "
+                  + "at position " + (offset + 6) + ".");
+        }
+        cells[rows * columns + j] = (byte) (exits | code << 4);
+      }
+      rows++;
+      lineNumber += 3;
+    }
+    if (rows == 0) {
+      throw new IllegalArgumentException("Map is empty.");
+    }
+    return build(cells, rows, columns);
+  }
+
+  private Dungeon build(byte[] cells, int rows, int columns) throws IllegalArgumentException {
+    boolean isWrapping = false;
+    for (int i = 0; i < rows && !isWrapping; i++) {
+      isWrapping = (cells[i * columns] & WEST) != 0
+              || (cells[i * columns + columns - 1] & EAST) != 0;
+    }
+    for (int j = 0; j < columns && !isWrapping; j++) {
+      isWrapping = (cells[j] & NORTH) != 0 || (cells[(rows - 1) * columns + j] & SOUTH) != 0;
+    }
+
+    List<List<LocationUpdateState>> dungeon = new ArrayList<>(rows);
+    List<Edge> paths = new ArrayList<>();
+    UnionFind components = new UnionFind(rows * columns);
+    int unions = 0;
+    LocationUpdateState start = null;
+    LocationUpdateState end = null;
+    LocationUpdateState playerLocation = null;
+    for (int i = 0; i < rows; i++) {
+      List<LocationUpdateState> row = new ArrayList<>(columns);
+      for (int j = 0; j < columns; j++) {
+        int id = i * columns + j;
+        int exits = cells[id] & 0xF;
+        int east = Grid.neighbor(id, Direction.EAST, rows, columns);
+        int south = Grid.neighbor(id, Direction.SOUTH, rows, columns);
+        if (((exits & EAST) != 0) != ((cells[east] & WEST) != 0)) {
+          throw mismatch(id, east, columns);
+        }
+        if (((exits & SOUTH) != 0) != ((cells[south] & NORTH) != 0)) {
+          throw mismatch(id, south, columns);
+        }
+
+        List<Direction> moves = new ArrayList<>(4);
+        if ((exits & SOUTH) != 0) {
+          moves.add(Direction.SOUTH);
+          paths.add(new Edge(id, south));
+          unions += components.union(id, south) ? 1 : 0;
+        }
+        if ((exits & NORTH) != 0) {
+          moves.add(Direction.NORTH);
+        }
+        if ((exits & EAST) != 0) {
+          moves.add(Direction.EAST);
+          paths.add(new Edge(id, east));
+          unions += components.union(id, east) ? 1 : 0;
+        }
+        if ((exits & WEST) != 0) {
+          moves.add(Direction.WEST);
+        }
+        Cave cave = new Cave(id, i, j);
+        cave.setValidMoves(moves);
+        row.add(cave);
+
+        char letter = "CTSDP".charAt(cells[id] >> 4 & 0xF);
+        boolean shouldBeTunnel = letter == 'T';
+        boolean mayBeTunnel = letter == 'T' || letter == 'P';
+        if (cave.isTunnel() != shouldBeTunnel && !(mayBeTunnel && cave.isTunnel())) {
+          throw new IllegalArgumentException("Location at row " + i + " column " + j + " is "
+                  + (cave.isTunnel() ? "a tunnel" : "a cave") + " but drawn as " + letter + ".");
+        }
+        if (letter == 'S') {
+          start = unique(start, cave, "start");
+        } else if (letter == 'D') {
+          end = unique(end, cave, "destination");
+        } else if (letter == 'P') {
+          playerLocation = unique(playerLocation, cave, "player");
+        }
+      }
+      dungeon.add(row);
+    }
+
+    if (unions != rows * columns - 1) {
+      throw new IllegalArgumentException("Not every location of the map can be reached.");
+    }
+    if (start == null && playerLocation == null) {
+      throw new IllegalArgumentException("Map has neither a start nor a player.");
+    }
+    if (end == null) {
+      // a finished game draws the player over the destination
+      if (start == null || playerLocation == null || playerLocation.isTunnel()) {
+        throw new IllegalArgumentException("Map has no destination.");
+      }
+      end = playerLocation;
+    }
+    if (start == null) {
+      if (playerLocation.isTunnel()) {
+        throw new IllegalArgumentException("Player without a start must be in a cave.");
+      }
+      start = playerLocation;
+    }
+    if (playerLocation == null) {
+      playerLocation = start;
+    }
+    return new DungeonImpl(dungeon, isWrapping, paths, start, end, playerLocation,
+            this.playerName);
+  }
+
+  private static LocationUpdateState unique(LocationUpdateState found, LocationUpdateState cave,
+                                            String what) throws IllegalArgumentException {
+    if (found != null) {
+      throw new IllegalArgumentException("Map has more than one " + what + ".");
+    }
+    return cave;
+  }
+
+  private static IllegalArgumentException mismatch(int id, int neighbor, int columns) {
+    return new IllegalArgumentException("Exits of the locations at row " + id / columns
+            + " column " + id % columns + " and row " + neighbor / columns + " column "
+            + neighbor % columns + " do not match.");
+  }
+
+  private static boolean isPassage(String line, int offset, char passage, int length,
+                                   int lineNumber) throws IllegalArgumentException {
+    int found = 0;
+    for (int k = offset; k < offset + length; k++) {
+      char c = charAt(line, k);
+      if (c == passage) {
+        found++;
+      } else if (c != ' ') {
+        throw new IllegalArgumentException("Line " + lineNumber + ": unexpected '" + c
+                + "' at position " + (k + 1) + ".");
+      }
+    }
+    if (found != 0 && found != length) {
+      throw new IllegalArgumentException("Line " + lineNumber + ": broken passage at position "
+              + (offset + 1) + ".");
+    }
+    return found == length;
+  }
+
+  private static int countLocations(String middle) {
+    int count = 0;
+    for (int k = 0; k < middle.length(); k++) {
+      if (middle.charAt(k) == '[') {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static char charAt(String line, int index) {
+    return index < line.length() ? line.charAt(index) : ' ';
+  }
+
+  private static void expectBlankRest(BufferedReader lines, int lineNumber) throws IOException {
+    String line;
+    while ((line = lines.readLine()) != null) {
+      lineNumber++;
+      if (!line.isBlank()) {
+        throw new IllegalArgumentException("Line " + lineNumber + ": text after the last row.");
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.BacktrackerPathGenerator implements {@link PathGenerator} with a randomized depth
+ * first search on an explicit stack: the walk goes to a random unvisited neighbour and backtracks
+ * at dead ends. The result has long winding corridors.
+ */
+public class BacktrackerPathGenerator implements PathGenerator {
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    int nodes = rows * columns;
+    Adjacency adjacency = new Adjacency(nodes, potentialPaths);
+    boolean[] visited = new boolean[nodes];
+    int[] stack = new int[nodes];
+    Edge[] unvisited = new Edge[4];
+    List<Edge> paths = new ArrayList<>();
+
+    int top = 0;
+    stack[top] = rand.getRandom(nodes, 0);
+    visited[stack[top]] = true;
+    while (top >= 0) {
+      int node = stack[top];
+      int count = 0;
+      for (int i = 0; i < adjacency.degree(node); i++) {
+        Edge edge = adjacency.edge(node, i);
+        if (!visited[Adjacency.other(edge, node)]) {
+          if (count == unvisited.length) {
+            unvisited = Arrays.copyOf(unvisited, count * 2);
+          }
+          unvisited[count++] = edge;
+        }
+      }
+      if (count == 0) {
+        top--;
+      } else {
+        Edge edge = unvisited[rand.getRandom(count, 0)];
+        int next = Adjacency.other(edge, node);
+        visited[next] = true;
+        paths.add(edge);
+        stack[++top] = next;
+      }
+    }
+    return paths;
+  }
+}
@@ -0,0 +1,271 @@
+package dungeon;
+
+import java.util.Arrays;
+
+import location.Direction;
+
+/**
+ * The dungeon.Bitboard holds the exits of a {@link Dungeon} grid as bitsets, one bit per location
+ * in the order of the location ids, and searches the grid breadth-first a whole layer at a time.
+ * The next layer is the current one masked by the locations with an exit in a direction and
+ * shifted by the distance to the neighbour in that direction, 64 locations per operation. Exits
+ * over the border of a wrapping grid have their own masks and shifts.
+ *
+ * <p>A search keeps the list of the words its current layer has bits in and visits only those,
+ * with the masks of all directions of a word next to each other in memory. The ids run row by
+ * row, so a layer that spreads along a row shares words and is up to 64 times cheaper than a
+ * search location by location. A layer that runs diagonally across the rows, as the layers of a
+ * search from a corner do, has about one location per word and gains less.
+ */
+public class Bitboard {
+
+  private static final int DIRECTIONS = 8;
+
+  private final int locations;
+  private final int words;
+  // the mask of direction d for word w at index w * DIRECTIONS + d
+  private final long[] masks;
+  private final int[] shifts;
+  private final int directions;
+
+  /**
+   * Constructs the bitboard of the given dungeon.
+   *
+   * @param dungeon the dungeon.
+   * @throws IllegalArgumentException if {@code dungeon} is {@code null}.
+   */
+  public Bitboard(Dungeon dungeon) throws IllegalArgumentException {
+    this(checked(dungeon).getRows(), dungeon.getColumns(), dungeon::getLocation);
+  }
+
+  /**
+   * Constructs the bitboard of the given grid.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @param grid    the locations.
+   */
+  Bitboard(int rows, int columns, LocationGrid grid) {
+    this.locations = rows * columns;
+    this.words = (this.locations + 63) >>> 6;
+    // east, west, south, north; then the same across the border of a wrapping grid
+    this.shifts = new int[] {1, -1, columns, -columns,
+        -(columns - 1), columns - 1, -(rows - 1) * columns, (rows - 1) * columns};
+    this.masks = new long[this.words * DIRECTIONS];
+    boolean isWrapping = false;
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        int id = i * columns + j;
+        for (Direction direction : grid.get(i, j).getPossibleMoves()) {
+          int mask;
+          switch (direction) {
+            case EAST:
+              mask = j < columns - 1 ? 0 : 4;
+              break;
+            case WEST:
+              mask = j > 0 ? 1 : 5;
+              break;
+            case SOUTH:
+              mask = i < rows - 1 ? 2 : 6;
+              break;
+            case NORTH:
+              mask = i > 0 ? 3 : 7;
+              break;
+            default:
+              continue;
+          }
+          this.masks[(id >>> 6) * DIRECTIONS + mask] |= 1L << id;
+          isWrapping |= mask >= 4;
+        }
+      }
+    }
+    // the exits across the border are only looked at if there are any
+    this.directions = isWrapping ? DIRECTIONS : 4;
+  }
+
+  private static Dungeon checked(Dungeon dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    return dungeon;
+  }
+
+  /**
+   * Returns the number of locations.
+   *
+   * @return the number of locations.
+   */
+  public int size() {
+    return this.locations;
+  }
+
+  /**
+   * Returns the locations at most the given number of steps away from the source.
+   *
+   * @param source      the id of the source location.
+   * @param maxDistance the maximum number of steps.
+   * @return the bitset of the locations, bit {@code id % 64} of word {@code id / 64} for the
+   *         location with the given id.
+   * @throws IllegalArgumentException if {@code source} is not a location id or
+   *                                  {@code maxDistance} is negative.
+   */
+  public long[] reachableWithin(int source, int maxDistance) throws IllegalArgumentException {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("Distance cannot be negative.");
+    }
+    Search search = new Search(source);
+    for (int layer = 0; layer < maxDistance && search.expand(); layer++) {
+      // expanding is all there is to do
+    }
+    return search.visited;
+  }
+
+  /**
+   * Returns the length of the shortest path between two locations.
+   *
+   * @param source the id of the first location.
+   * @param target the id of the second location.
+   * @return the number of steps, -1 if the target cannot be reached.
+   * @throws IllegalArgumentException if either id is not a location id.
+   */
+  public int distance(int source, int target) throws IllegalArgumentException {
+    checkId(target);
+    Search search = new Search(source);
+    int distance = 0;
+    while (!contains(search.visited, target)) {
+      if (!search.expand()) {
+        return -1;
+      }
+      distance++;
+    }
+    return distance;
+  }
+
+  /**
+   * Returns the number of steps from the source to every location.
+   *
+   * @param source the id of the source location.
+   * @return the distances by location id, -1 for locations that cannot be reached.
+   * @throws IllegalArgumentException if {@code source} is not a location id.
+   */
+  public int[] distancesFrom(int source) throws IllegalArgumentException {
+    int[] distances = new int[this.locations];
+    Arrays.fill(distances, -1);
+    distances[source] = 0;
+    Search search = new Search(source);
+    for (int layer = 1; search.expand(); layer++) {
+      for (int k = 0; k < search.count; k++) {
+        int w = search.active[k];
+        long bits = search.frontier[w];
+        while (bits != 0) {
+          distances[(w << 6) + Long.numberOfTrailingZeros(bits)] = layer;
+          bits &= bits - 1;
+        }
+      }
+    }
+    return distances;
+  }
+
+  /**
+   * Returns if the location with the given id is in the bitset.
+   *
+   * @param bits the bitset.
+   * @param id   the id of the location.
+   * @return {@code true} if the bit of the location is set otherwise {@code false}.
+   */
+  public static boolean contains(long[] bits, int id) {
+    return (bits[id >>> 6] & 1L << id) != 0;
+  }
+
+  private void checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.locations) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+  }
+
+  /**
+   * The state of one breadth-first search: the locations found so far and the last layer, with
+   * the list of the words the layer has bits in.
+   */
+  private class Search {
+
+    private final long[] visited;
+    private long[] frontier;
+    private long[] next;
+    private int[] active;
+    private int[] nextActive;
+    private int count;
+
+    private Search(int source) throws IllegalArgumentException {
+      checkId(source);
+      this.visited = new long[words];
+      this.frontier = new long[words];
+      this.next = new long[words];
+      this.active = new int[words];
+      this.nextActive = new int[words];
+      this.visited[source >>> 6] |= 1L << source;
+      this.frontier[source >>> 6] |= 1L << source;
+      this.active[0] = source >>> 6;
+      this.count = 1;
+    }
+
+    /**
+     * Replaces the frontier by the locations one step further that were not visited yet.
+     *
+     * @return {@code false} if there are no such locations.
+     */
+    private boolean expand() {
+      long[] next = this.next;
+      int[] touched = this.nextActive;
+      int touchedCount = 0;
+      for (int k = 0; k < this.count; k++) {
+        int w = this.active[k];
+        long bits = this.frontier[w];
+        this.frontier[w] = 0;
+        int base = w * DIRECTIONS;
+        for (int d = 0; d < directions; d++) {
+          long moving = bits & masks[base + d];
+          if (moving == 0) {
+            continue;
+          }
+          // a shift of s bits moves word w to words w + (s >> 6) and w + (s >> 6) + 1
+          int shift = shifts[d];
+          int to = w + (shift >> 6);
+          int bitShift = shift & 63;
+          long low = moving << bitShift;
+          if (low != 0 && to >= 0 && to < words) {
+            if (next[to] == 0) {
+              touched[touchedCount++] = to;
+            }
+            next[to] |= low;
+          }
+          long high = bitShift == 0 ? 0 : moving >>> (64 - bitShift);
+          if (high != 0 && to + 1 >= 0 && to + 1 < words) {
+            if (next[to + 1] == 0) {
+              touched[touchedCount++] = to + 1;
+            }
+            next[to + 1] |= high;
+          }
+        }
+      }
+
+      int count = 0;
+      for (int k = 0; k < touchedCount; k++) {
+        int w = touched[k];
+        long fresh = next[w] & ~this.visited[w];
+        next[w] = fresh;
+        if (fresh != 0) {
+          this.visited[w] |= fresh;
+          touched[count++] = w;
+        }
+      }
+      this.next = this.frontier;
+      this.frontier = next;
+      this.nextActive = this.active;
+      this.active = touched;
+      this.count = count;
+      return count > 0;
+    }
+
+  }
+}
@@ -0,0 +1,471 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+
+/**
+ * The dungeon.CaveGraph is a {@link Dungeon} with its tunnels contracted: the caves are the nodes
+ * and every corridor, a chain of tunnels between two caves, is one edge weighted by its number of
+ * steps. Searches visit caves only, so on maze-like dungeons, where most locations are tunnels,
+ * they visit a fraction of the locations a search of the grid does. Distances to and from tunnels
+ * are derived from the caves at both ends of their corridor.
+ *
+ * <p>The graph is kept in flat arrays, the corridors of cave {@code i} being
+ * {@code edgeStart[i]} to {@code edgeStart[i + 1] - 1}, and reflects the exits of the dungeon
+ * when it was built.
+ */
+public class CaveGraph {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int rows;
+  private final int columns;
+  private final LocationGrid grid;
+  private final int[] nodeOf;
+  private final int[] caveIds;
+  private final int[] edgeStart;
+  private final int[] edgeTarget;
+  private final int[] edgeLength;
+  private final byte[] edgeDirection;
+  private final int[] chainOf;
+  private final int[] offsetOf;
+
+  /**
+   * Constructs the cave graph of the given dungeon.
+   *
+   * @param dungeon the dungeon.
+   * @throws IllegalArgumentException if {@code dungeon} is {@code null}.
+   */
+  public CaveGraph(Dungeon dungeon) throws IllegalArgumentException {
+    this(checked(dungeon).getRows(), dungeon.getColumns(), dungeon::getLocation);
+  }
+
+  /**
+   * Constructs the cave graph of the given grid.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @param grid    the locations.
+   */
+  CaveGraph(int rows, int columns, LocationGrid grid) {
+    this.rows = rows;
+    this.columns = columns;
+    this.grid = grid;
+    int locations = rows * columns;
+    this.nodeOf = new int[locations];
+    this.chainOf = new int[locations];
+    this.offsetOf = new int[locations];
+    Arrays.fill(this.chainOf, -1);
+
+    int caves = 0;
+    for (int id = 0; id < locations; id++) {
+      this.nodeOf[id] = location(id).isTunnel() ? -1 : caves++;
+    }
+    this.caveIds = new int[caves];
+    this.edgeStart = new int[caves + 1];
+    int edges = 0;
+    for (int id = 0; id < locations; id++) {
+      if (this.nodeOf[id] >= 0) {
+        this.caveIds[this.nodeOf[id]] = id;
+        edges += location(id).getPossibleMoves().size();
+      }
+    }
+    this.edgeTarget = new int[edges];
+    this.edgeLength = new int[edges];
+    this.edgeDirection = new byte[edges];
+
+    int edge = 0;
+    for (int node = 0; node < caves; node++) {
+      this.edgeStart[node] = edge;
+      for (Direction direction : location(this.caveIds[node]).getPossibleMoves()) {
+        int length = 1;
+        Direction heading = direction;
+        int current = neighbor(this.caveIds[node], heading);
+        // a corridor ends at a cave, as the tunnels alone cannot form a cycle of a connected
+        // dungeon with caves; the bound only guards against grids that are not connected
+        while (this.nodeOf[current] < 0 && length <= locations) {
+          if (this.chainOf[current] < 0) {
+            this.chainOf[current] = edge;
+            this.offsetOf[current] = length;
+          }
+          heading = onwards(current, heading);
+          current = neighbor(current, heading);
+          length++;
+        }
+        this.edgeTarget[edge] = this.nodeOf[current];
+        this.edgeLength[edge] = length;
+        this.edgeDirection[edge] = (byte) direction.ordinal();
+        edge++;
+      }
+    }
+    this.edgeStart[caves] = edge;
+  }
+
+  private static Dungeon checked(Dungeon dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    return dungeon;
+  }
+
+  /**
+   * Returns the number of caves, the nodes of the graph.
+   *
+   * @return the number of caves.
+   */
+  public int getCaveCount() {
+    return this.caveIds.length;
+  }
+
+  /**
+   * Returns the number of corridors, the edges of the graph. A path between two neighbouring
+   * caves counts as a corridor of length 1.
+   *
+   * @return the number of corridors.
+   */
+  public int getCorridorCount() {
+    return this.edgeTarget.length / 2;
+  }
+
+  /**
+   * Returns the length of the shortest path between two locations.
+   *
+   * @param source the id of the first location.
+   * @param target the id of the second location.
+   * @return the number of steps, -1 if the target cannot be reached.
+   * @throws IllegalArgumentException if either id is not a location id.
+   */
+  public int distance(int source, int target) throws IllegalArgumentException {
+    checkId(target);
+    int[] caveDistances;
+    if (this.nodeOf[target] >= 0) {
+      caveDistances = searchFrom(source, null, this.nodeOf[target], this.nodeOf[target]);
+    } else {
+      int corridor = this.chainOf[target];
+      caveDistances = searchFrom(source, null, sourceOf(corridor), this.edgeTarget[corridor]);
+    }
+    return distanceTo(source, target, caveDistances);
+  }
+
+  /**
+   * Returns the number of steps from the source to every location.
+   *
+   * @param source the id of the source location.
+   * @return the distances by location id, -1 for locations that cannot be reached.
+   * @throws IllegalArgumentException if {@code source} is not a location id.
+   */
+  public int[] distancesFrom(int source) throws IllegalArgumentException {
+    int[] caveDistances = searchFrom(source, null, -1, -1);
+    int[] distances = new int[this.nodeOf.length];
+    for (int id = 0; id < distances.length; id++) {
+      distances[id] = distanceTo(source, id, caveDistances);
+    }
+    return distances;
+  }
+
+  /**
+   * Returns the locations at most the given number of steps away from the source, in the form
+   * of {@link Bitboard#reachableWithin(int, int)}.
+   *
+   * @param source      the id of the source location.
+   * @param maxDistance the maximum number of steps.
+   * @return the bitset of the locations.
+   * @throws IllegalArgumentException if {@code source} is not a location id or
+   *                                  {@code maxDistance} is negative.
+   */
+  public long[] reachableWithin(int source, int maxDistance) throws IllegalArgumentException {
+    if (maxDistance < 0) {
+      throw new IllegalArgumentException("Distance cannot be negative.");
+    }
+    int[] distances = distancesFrom(source);
+    long[] bits = new long[(distances.length + 63) >>> 6];
+    for (int id = 0; id < distances.length; id++) {
+      if (distances[id] >= 0 && distances[id] <= maxDistance) {
+        bits[id >>> 6] |= 1L << id;
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Returns the moves of a shortest path between two locations. The search runs over the caves
+   * only; the tunnels at either end are walked along their corridors.
+   *
+   * @param source the id of the first location.
+   * @param target the id of the second location.
+   * @return the moves, empty if the locations are the same, {@code null} if the target cannot
+   *         be reached.
+   * @throws IllegalArgumentException if either id is not a location id.
+   */
+  public List<Direction> shortestPath(int source, int target) throws IllegalArgumentException {
+    checkId(source);
+    checkId(target);
+    int[] via = new int[this.caveIds.length];
+    Arrays.fill(via, -1);
+    int[] caveDistances;
+    int last;
+    if (this.nodeOf[target] >= 0) {
+      caveDistances = searchFrom(source, via, this.nodeOf[target], this.nodeOf[target]);
+      last = this.nodeOf[target];
+    } else {
+      int corridor = this.chainOf[target];
+      int start = sourceOf(corridor);
+      int end = this.edgeTarget[corridor];
+      caveDistances = searchFrom(source, via, start, end);
+      int distance = distanceTo(source, target, caveDistances);
+      if (distance < 0) {
+        return null;
+      }
+      int offset = this.offsetOf[target];
+      if (this.nodeOf[source] < 0 && this.chainOf[source] == corridor
+              && Math.abs(offset - this.offsetOf[source]) == distance) {
+        return along(corridor, this.offsetOf[source], offset);
+      }
+      List<Direction> moves;
+      if (caveDistances[start] >= 0 && caveDistances[start] + offset == distance) {
+        moves = pathTo(source, start, via, caveDistances);
+        moves.addAll(along(corridor, 0, offset));
+      } else {
+        moves = pathTo(source, end, via, caveDistances);
+        moves.addAll(along(corridor, this.edgeLength[corridor], offset));
+      }
+      return moves;
+    }
+    if (caveDistances[last] < 0) {
+      return null;
+    }
+    if (source == target) {
+      return new ArrayList<>();
+    }
+    return pathTo(source, last, via, caveDistances);
+  }
+
+  /**
+   * Returns the moves from the source to a cave the search reached, following the last corridor
+   * of the path to every cave back to a cave the search started from.
+   */
+  private List<Direction> pathTo(int source, int node, int[] via, int[] caveDistances) {
+    List<Integer> corridors = new ArrayList<>();
+    int current = node;
+    while (via[current] >= 0) {
+      corridors.add(via[current]);
+      current = sourceOf(via[current]);
+    }
+    Collections.reverse(corridors);
+
+    List<Direction> moves = new ArrayList<>();
+    if (this.nodeOf[source] < 0) {
+      // the search started from both ends of the corridor of the source
+      int corridor = this.chainOf[source];
+      int offset = this.offsetOf[source];
+      if (current == sourceOf(corridor) && caveDistances[current] == offset) {
+        moves.addAll(along(corridor, offset, 0));
+      } else {
+        moves.addAll(along(corridor, offset, this.edgeLength[corridor]));
+      }
+    }
+    for (int corridor : corridors) {
+      moves.addAll(along(corridor, 0, this.edgeLength[corridor]));
+    }
+    return moves;
+  }
+
+  /**
+   * Returns the moves along a corridor between two of its steps, 0 being the cave it starts at
+   * and its length the cave it ends at.
+   */
+  private List<Direction> along(int corridor, int from, int to) {
+    Direction[] steps = new Direction[this.edgeLength[corridor]];
+    int current = this.caveIds[sourceOf(corridor)];
+    Direction heading = DIRECTIONS[this.edgeDirection[corridor]];
+    for (int step = 0; step < steps.length; step++) {
+      if (step > 0) {
+        heading = onwards(current, heading);
+      }
+      steps[step] = heading;
+      current = neighbor(current, heading);
+    }
+    List<Direction> moves = new ArrayList<>(Math.abs(to - from));
+    for (int step = from; step < to; step++) {
+      moves.add(steps[step]);
+    }
+    for (int step = from - 1; step >= to; step--) {
+      moves.add(Grid.opposite(steps[step]));
+    }
+    return moves;
+  }
+
+  /**
+   * Runs Dijkstra's algorithm over the caves from the caves closest to the source, until the
+   * given caves are reached or, if they are -1, every cave is.
+   *
+   * @param source the id of the source location.
+   * @param via    the array to store the last corridor of the path to every cave in, or
+   *               {@code null}.
+   * @param first  the index of a cave to stop at or -1.
+   * @param second the index of another cave to stop at once both are reached, or -1.
+   * @return the distances by cave index, -1 for caves that cannot be reached or were not reached
+   *         before stopping.
+   */
+  private int[] searchFrom(int source, int[] via, int first, int second)
+          throws IllegalArgumentException {
+    checkId(source);
+    int caves = this.caveIds.length;
+    int[] distances = new int[caves];
+    Arrays.fill(distances, -1);
+    // entries are distance << 32 | cave; stale entries are skipped when polled
+    long[] heap = new long[this.edgeTarget.length + 2];
+    int size = 0;
+    int[] tentative = new int[caves];
+    Arrays.fill(tentative, Integer.MAX_VALUE);
+    if (this.nodeOf[source] >= 0) {
+      tentative[this.nodeOf[source]] = 0;
+      heap[size++] = this.nodeOf[source];
+    } else {
+      int corridor = this.chainOf[source];
+      int offset = this.offsetOf[source];
+      tentative[sourceOf(corridor)] = offset;
+      size = push(heap, size, (long) offset << 32 | sourceOf(corridor));
+      int end = this.edgeTarget[corridor];
+      tentative[end] = Math.min(tentative[end], this.edgeLength[corridor] - offset);
+      size = push(heap, size, (long) (this.edgeLength[corridor] - offset) << 32 | end);
+    }
+    while (size > 0) {
+      long entry = heap[0];
+      heap[0] = heap[--size];
+      siftDown(heap, size);
+      int node = (int) entry;
+      int distance = (int) (entry >>> 32);
+      if (distances[node] >= 0) {
+        continue;
+      }
+      distances[node] = distance;
+      if (first >= 0 && distances[first] >= 0 && distances[second] >= 0) {
+        break;
+      }
+      for (int edge = this.edgeStart[node]; edge < this.edgeStart[node + 1]; edge++) {
+        int next = this.edgeTarget[edge];
+        int candidate = distance + this.edgeLength[edge];
+        if (distances[next] < 0 && candidate < tentative[next]) {
+          tentative[next] = candidate;
+          if (via != null) {
+            via[next] = edge;
+          }
+          if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+          }
+          size = push(heap, size, (long) candidate << 32 | next);
+        }
+      }
+    }
+    return distances;
+  }
+
+  private int distanceTo(int source, int target, int[] caveDistances) {
+    if (this.nodeOf[target] >= 0) {
+      return caveDistances[this.nodeOf[target]];
+    }
+    int corridor = this.chainOf[target];
+    int offset = this.offsetOf[target];
+    int best = Integer.MAX_VALUE;
+    int fromStart = caveDistances[sourceOf(corridor)];
+    if (fromStart >= 0) {
+      best = fromStart + offset;
+    }
+    int fromEnd = caveDistances[this.edgeTarget[corridor]];
+    if (fromEnd >= 0) {
+      best = Math.min(best, fromEnd + this.edgeLength[corridor] - offset);
+    }
+    if (this.nodeOf[source] < 0 && this.chainOf[source] == corridor) {
+      best = Math.min(best, Math.abs(offset - this.offsetOf[source]));
+    }
+    return best == Integer.MAX_VALUE ? -1 : best;
+  }
+
+  private static int push(long[] heap, int size, long entry) {
+    int i = size;
+    heap[i] = entry;
+    while (i > 0 && heap[(i - 1) >>> 1] > heap[i]) {
+      long parent = heap[(i - 1) >>> 1];
+      heap[(i - 1) >>> 1] = heap[i];
+      heap[i] = parent;
+      i = (i - 1) >>> 1;
+    }
+    return size + 1;
+  }
+
+  private static void siftDown(long[] heap, int size) {
+    int i = 0;
+    while (true) {
+      int smallest = i;
+      int left = 2 * i + 1;
+      if (left < size && heap[left] < heap[smallest]) {
+        smallest = left;
+      }
+      if (left + 1 < size && heap[left + 1] < heap[smallest]) {
+        smallest = left + 1;
+      }
+      if (smallest == i) {
+        return;
+      }
+      long swap = heap[i];
+      heap[i] = heap[smallest];
+      heap[smallest] = swap;
+      i = smallest;
+    }
+  }
+
+  private int sourceOf(int edge) {
+    int low = 0;
+    int high = this.caveIds.length - 1;
+    while (low < high) {
+      int middle = (low + high + 1) >>> 1;
+      if (this.edgeStart[middle] <= edge) {
+        low = middle;
+      } else {
+        high = middle - 1;
+      }
+    }
+    return low;
+  }
+
+  private Location location(int id) {
+    return this.grid.get(id / this.columns, id % this.columns);
+  }
+
+  private Direction onwards(int tunnel, Direction heading) {
+    return onwards(location(tunnel), heading);
+  }
+
+  /**
+   * Returns the exit of a tunnel other than the one leading back the way the player came.
+   *
+   * @param tunnel  the tunnel.
+   * @param heading the direction the player moved in to enter the tunnel.
+   * @return the other exit.
+   */
+  static Direction onwards(Location tunnel, Direction heading) {
+    Direction back = Grid.opposite(heading);
+    for (Direction exit : tunnel.getPossibleMoves()) {
+      if (exit != back) {
+        return exit;
+      }
+    }
+    return back;
+  }
+
+  private int neighbor(int id, Direction direction) {
+    return Grid.neighbor(id, direction, this.rows, this.columns);
+  }
+
+  private void checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.nodeOf.length) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package dungeon;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import location.LocationUpdateState;
+
+/**
+ * This represents one copy-on-write layer of the mutable cell state of a {@link Dungeon}. A layer
+ * holds only the cells that were changed after a {@link Dungeon#fork()} and delegates every other
+ * lookup to its parent layer. Once a layer is shared by a fork it is frozen and never written to
+ * again. A package-private class.
+ */
+class CellOverlay {
+
+  private final CellOverlay parent;
+  private final Map<Integer, LocationUpdateState> cells;
+  private final int depth;
+  private boolean frozen;
+
+  /**
+   * Constructs an empty layer on top of the given parent layer.
+   *
+   * @param parent the parent layer, {@code null} if the layer sits directly on the base grid.
+   */
+  CellOverlay(CellOverlay parent) {
+    this.parent = parent;
+    this.cells = new HashMap<>();
+    this.depth = parent == null ? 1 : parent.depth + 1;
+    this.frozen = false;
+  }
+
+  /**
+   * Returns the number of layers a lookup may have to walk, this layer included.
+   *
+   * @return the depth of the layer.
+   */
+  int getDepth() {
+    return this.depth;
+  }
+
+  /**
+   * Returns a frozen layer directly on the base grid that holds the newest copy of every cell
+   * held by this layer or any of its ancestors. The layers themselves are left untouched, so
+   * forks still built on them are not affected.
+   *
+   * @return the flattened layer.
+   */
+  CellOverlay flatten() {
+    CellOverlay flat = new CellOverlay(null);
+    for (CellOverlay layer = this; layer != null; layer = layer.parent) {
+      for (LocationUpdateState cell : layer.cells.values()) {
+        flat.cells.putIfAbsent(cell.getId(), cell);
+      }
+    }
+    flat.frozen = true;
+    return flat;
+  }
+
+  /**
+   * Returns the copy of the cell held by this layer or any of its ancestors.
+   *
+   * @param id the id of the cell.
+   * @return the cell or {@code null} if no layer has a copy and the base grid has to be used.
+   */
+  LocationUpdateState get(int id) {
+    CellOverlay layer = this;
+    while (layer != null) {
+      LocationUpdateState cell = layer.cells.get(id);
+      if (cell != null) {
+        return cell;
+      }
+      layer = layer.parent;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the copy of the cell held by this very layer, ignoring the ancestors.
+   *
+   * @param id the id of the cell.
+   * @return the cell or {@code null} if this layer has not copied the cell yet.
+   */
+  LocationUpdateState getOwn(int id) {
+    return this.cells.get(id);
+  }
+
+  /**
+   * Stores the private copy of a cell in this layer.
+   *
+   * @param cell the copied cell.
+   * @throws IllegalStateException if the layer is frozen.
+   */
+  void put(LocationUpdateState cell) throws IllegalStateException {
+    if (this.frozen) {
+      throw new IllegalStateException("Cannot write to a shared layer.");
+    }
+    this.cells.put(cell.getId(), cell);
+  }
+
+  /**
+   * Freezes the layer so that it can be shared between forks and returns the layer new forks
+   * should be built on. An empty layer is skipped so that forking without writes does not deepen
+   * the chain.
+   *
+   * @return the layer to be shared.
+   */
+  CellOverlay share() {
+    if (this.cells.isEmpty()) {
+      return this.parent;
+    }
+    this.frozen = true;
+    return this;
+  }
+}
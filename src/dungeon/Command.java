@@ -0,0 +1,65 @@
+package dungeon;
+
+import location.Direction;
+
+/**
+ * This represents one action of a batch given to {@link Dungeon#execute(java.util.List)}: either
+ * a move of the player in a direction or the collection of all the treasures at the location of
+ * the player.
+ */
+public class Command {
+
+  private static final Command COLLECT = new Command(null);
+
+  private final Direction direction;
+
+  private Command(Direction direction) {
+    this.direction = direction;
+  }
+
+  /**
+   * Returns the command that moves the player in the given direction.
+   *
+   * @param direction the direction.
+   * @return the command.
+   * @throws IllegalArgumentException if {@code direction} is {@code null}.
+   */
+  public static Command move(Direction direction) throws IllegalArgumentException {
+    if (direction == null) {
+      throw new IllegalArgumentException("Direction cannot be null.");
+    }
+    return new Command(direction);
+  }
+
+  /**
+   * Returns the command that collects all the treasures at the location of the player.
+   *
+   * @return the command.
+   */
+  public static Command collect() {
+    return COLLECT;
+  }
+
+  /**
+   * Returns if the command is a move.
+   *
+   * @return {@code true} for a move, {@code false} for a collection.
+   */
+  public boolean isMove() {
+    return this.direction != null;
+  }
+
+  /**
+   * Returns the direction of a move.
+   *
+   * @return the direction, {@code null} for a collection.
+   */
+  public Direction getDirection() {
+    return this.direction;
+  }
+
+  @Override
+  public String toString() {
+    return isMove() ? "MOVE " + this.direction : "COLLECT";
+  }
+}
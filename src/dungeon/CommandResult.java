@@ -0,0 +1,99 @@
+package dungeon;
+
+import location.Location;
+
+/**
+ * This represents the outcome of a batch of {@link Command}s applied by
+ * {@link Dungeon#execute(java.util.List)}.
+ */
+public class CommandResult {
+
+  private final int commandsApplied;
+  private final int stepsTaken;
+  private final int treasuresCollected;
+  private final Location finalLocation;
+  private final boolean isDestinationReached;
+  private final boolean isComplete;
+
+  /**
+   * Constructs the result of a batch.
+   *
+   * @param commandsApplied      the number of commands applied.
+   * @param stepsTaken           the number of moves made.
+   * @param treasuresCollected   the number of treasures collected.
+   * @param finalLocation        the location of the player after the batch.
+   * @param isDestinationReached if the player is at the destination after the batch.
+   * @param isComplete           if every command of the batch was applied.
+   */
+  CommandResult(int commandsApplied, int stepsTaken, int treasuresCollected,
+                Location finalLocation, boolean isDestinationReached, boolean isComplete) {
+    this.commandsApplied = commandsApplied;
+    this.stepsTaken = stepsTaken;
+    this.treasuresCollected = treasuresCollected;
+    this.finalLocation = finalLocation;
+    this.isDestinationReached = isDestinationReached;
+    this.isComplete = isComplete;
+  }
+
+  /**
+   * Returns the number of commands applied. If the batch stopped at an invalid move this is also
+   * the index of that move.
+   *
+   * @return the number of commands applied.
+   */
+  public int getCommandsApplied() {
+    return this.commandsApplied;
+  }
+
+  /**
+   * Returns the number of moves made.
+   *
+   * @return the number of steps.
+   */
+  public int getStepsTaken() {
+    return this.stepsTaken;
+  }
+
+  /**
+   * Returns the number of treasures collected.
+   *
+   * @return the number of treasures.
+   */
+  public int getTreasuresCollected() {
+    return this.treasuresCollected;
+  }
+
+  /**
+   * Returns the location of the player after the batch.
+   *
+   * @return the location.
+   */
+  public Location getFinalLocation() {
+    return this.finalLocation;
+  }
+
+  /**
+   * Returns if the player is at the destination after the batch.
+   *
+   * @return {@code true} if the destination is reached otherwise {@code false}.
+   */
+  public boolean isDestinationReached() {
+    return this.isDestinationReached;
+  }
+
+  /**
+   * Returns if every command of the batch was applied.
+   *
+   * @return {@code false} if the batch stopped at an invalid move.
+   */
+  public boolean isComplete() {
+    return this.isComplete;
+  }
+
+  @Override
+  public String toString() {
+    return "applied=" + this.commandsApplied + " steps=" + this.stepsTaken + " treasures="
+            + this.treasuresCollected + " location=" + this.finalLocation.getId()
+            + " destination=" + this.isDestinationReached + " complete=" + this.isComplete;
+  }
+}
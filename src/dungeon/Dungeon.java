@@ -44,6 +44,37 @@ public interface Dungeon {
    */
   Location getDestinationCave();
 
+  /**
+   * Returns the number of rows of the dungeon grid.
+   *
+   * @return the number of rows.
+   */
+  int getRows();
+
+  /**
+   * Returns the number of columns of the dungeon grid.
+   *
+   * @return the number of columns.
+   */
+  int getColumns();
+
+  /**
+   * Returns if moving off one side of the grid leads to the opposite side.
+   *
+   * @return {@code true} if the dungeon is wrapping otherwise {@code false}.
+   */
+  boolean isWrapping();
+
+  /**
+   * Returns the {@link Location} at the given position of the dungeon grid.
+   *
+   * @param row    the row (x) coordinate.
+   * @param column the column (y) coordinate.
+   * @return the location.
+   * @throws IllegalArgumentException if the position is outside the grid.
+   */
+  Location getLocation(int row, int column);
+
   /**
    * Move the {@link Player} one step in the given {@link Direction}.
    *
@@ -74,4 +105,158 @@ public interface Dungeon {
    * @return {@code true} if current location is destination cave otherwise {@code false}.
    */
   boolean isDestinationReached();
+
+  /**
+   * Applies a batch of commands in order, validating each as it goes. The batch stops at the
+   * first move that is not possible from the location of the player; the commands before it stay
+   * applied and the ones after it are skipped.
+   *
+   * @param commands the commands.
+   * @return the outcome of the batch.
+   * @throws IllegalArgumentException if {@code commands} is {@code null} or holds {@code null}.
+   *                                  Nothing is applied in that case.
+   */
+  CommandResult execute(List<Command> commands);
+
+  /**
+   * Moves the player in the given direction and on through the corridor of tunnels it enters,
+   * collecting every treasure on the way, until it reaches a cave. A move to a neighbouring cave
+   * is a single step.
+   *
+   * @param direction the direction to leave the current location in.
+   * @return the number of steps taken.
+   * @throws IllegalArgumentException if the direction is not a possible move from the current
+   *                                  location.
+   */
+  default int moveToNextCave(Direction direction) throws IllegalArgumentException {
+    movePlayer(direction);
+    int steps = 1;
+    Direction heading = direction;
+    int maxSteps = getRows() * getColumns();
+    while (true) {
+      Location location = getPlayerLocation();
+      if (!location.getTreasures().isEmpty()) {
+        collectAllTreasures();
+      }
+      if (!location.isTunnel() || steps >= maxSteps) {
+        return steps;
+      }
+      heading = CaveGraph.onwards(location, heading);
+      movePlayer(heading);
+      steps++;
+    }
+  }
+
+  /**
+   * Returns the first move of a shortest path from the given location to the destination cave.
+   * The distances to the destination are found for all locations at once on the first call, so
+   * every later call takes constant time whichever location it is asked for.
+   *
+   * @param location the location, e.g. of an agent heading for the destination.
+   * @return the direction to move in, {@code null} at the destination.
+   * @throws IllegalArgumentException if {@code location} is {@code null} or not a location of
+   *                                  this dungeon.
+   */
+  Direction nextStepToward(Location location);
+
+  /**
+   * Returns the length of the shortest path between two locations of this dungeon. This
+   * implementation searches the whole map on every call; {@link DungeonImpl} keeps its search
+   * structures between calls.
+   *
+   * @param from the first location.
+   * @param to   the second location.
+   * @return the number of steps, -1 if {@code to} cannot be reached.
+   * @throws IllegalArgumentException if either location is {@code null} or not a location of
+   *                                  this dungeon.
+   */
+  default int getDistance(Location from, Location to) throws IllegalArgumentException {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Locations cannot be null.");
+    }
+    return new PathFinder(getRows(), getColumns(), this::getLocation)
+            .distance(from.getId(), to.getId());
+  }
+
+  /**
+   * Returns the moves of a shortest path between two locations of this dungeon. On maps where
+   * tunnels make up a large share of the locations, the search runs over the caves only and
+   * walks the corridors at either end. This implementation searches the whole map on every
+   * call; {@link DungeonImpl} keeps its search structures between calls.
+   *
+   * @param from the first location.
+   * @param to   the second location.
+   * @return the moves, empty if the locations are the same, {@code null} if {@code to} cannot be
+   *         reached.
+   * @throws IllegalArgumentException if either location is {@code null} or not a location of
+   *                                  this dungeon.
+   */
+  default List<Direction> getShortestPath(Location from, Location to)
+          throws IllegalArgumentException {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Locations cannot be null.");
+    }
+    return new PathFinder(getRows(), getColumns(), this::getLocation)
+            .shortestPath(from.getId(), to.getId());
+  }
+
+  /**
+   * Returns a 128-bit Zobrist fingerprint of the map: the size, whether it wraps, the exits of
+   * every location and the start and destination. Two dungeons with the same map have the same
+   * fingerprint whatever their implementation and however far their games have gone, and two
+   * different maps almost never do, so fingerprints tell maps apart without comparing them
+   * location by location.
+   *
+   * @return the fingerprint.
+   */
+  default Fingerprint getLayoutFingerprint() {
+    return Zobrist.layout(this);
+  }
+
+  /**
+   * Returns a 64-bit Zobrist hash of the state of the game: the map, the location of the player
+   * and the treasures left at every location. Games in the same state have the same hash, so it
+   * serves as the key of a transposition table of a search over moves and collections. This
+   * implementation looks at every location; {@link DungeonImpl} keeps the hash up to date in
+   * constant time per move and collection once it was asked for.
+   *
+   * @return the hash.
+   */
+  default long getStateHash() {
+    return Zobrist.state(this, getLayoutFingerprint().getLow());
+  }
+
+  /**
+   * Returns an independent copy of the game that shares the topology of this dungeon. Moves and
+   * treasure collection on the fork do not affect this dungeon and vice versa. Forking takes
+   * constant time; each side only copies a location the first time it changes its treasures.
+   *
+   * @return the forked dungeon.
+   */
+  Dungeon fork();
+
+  /**
+   * Returns the dungeon drawn like {@link Object#toString()}, but with only the locations the
+   * {@link Player} has seen. The others are left blank.
+   *
+   * @return the drawing of the explored part of the dungeon.
+   */
+  String renderExplored();
+
+  /**
+   * Adds a listener to be told about the moves of the player, the treasures it collects and its
+   * arrival at the destination. Listeners are not carried over to forks.
+   *
+   * @param listener the listener.
+   * @throws IllegalArgumentException if {@code listener} is {@code null}.
+   */
+  void addListener(GameListener listener);
+
+  /**
+   * Removes a listener added with {@link #addListener(GameListener)}. Listeners that were not
+   * added are ignored.
+   *
+   * @param listener the listener.
+   */
+  void removeListener(GameListener listener);
 }
@@ -0,0 +1,306 @@
+package dungeon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Objects;
+
+import random.RandomGenerator;
+import random.RandomSeeded;
+
+/**
+ * This represents everything needed to build a {@link DungeonImpl} again: the version of the
+ * generator, the arguments of the constructor with the seed of the random generator in place of
+ * the generator itself, and the {@link Dungeon#getLayoutFingerprint()} and
+ * {@link Dungeon#getStateHash()} the dungeon had when it was built. The generator is
+ * deterministic, so the descriptor stands in for the whole map and its treasures; written out it
+ * takes under eighty bytes. {@link DungeonLoader} builds the dungeon of a descriptor and checks it
+ * against both.
+ */
+public class DungeonDescriptor {
+
+  /**
+   * The version of the generator. It is raised whenever a change to {@link DungeonImpl} or a path
+   * generator builds a different dungeon from the same arguments and seed, so that descriptors
+   * written before are recognised rather than silently built into another dungeon.
+   */
+  public static final int GENERATOR_VERSION = 1;
+
+  private static final int MAGIC = 0x44534332;
+
+  private static final int KRUSKAL = 0;
+  private static final int WILSON = 1;
+  private static final int PRIM = 2;
+  private static final int BACKTRACKER = 3;
+  private static final int ALDOUS_BRODER = 4;
+  private static final int PARALLEL = 5;
+
+  private final int generatorVersion;
+  private final int rows;
+  private final int columns;
+  private final int interconnectivity;
+  private final boolean isWrapping;
+  private final double percentageOfTreasures;
+  private final String playerName;
+  private final int maxAttempts;
+  private final int pathGenerator;
+  private final int threads;
+  private final long seed;
+  private final Fingerprint layoutFingerprint;
+  private final long stateHash;
+
+  private DungeonDescriptor(int generatorVersion, int rows, int columns, int interconnectivity,
+                            boolean isWrapping, double percentageOfTreasures, String playerName,
+                            int maxAttempts, int pathGenerator, int threads, long seed,
+                            Fingerprint layoutFingerprint, long stateHash) {
+    this.generatorVersion = generatorVersion;
+    this.rows = rows;
+    this.columns = columns;
+    this.interconnectivity = interconnectivity;
+    this.isWrapping = isWrapping;
+    this.percentageOfTreasures = percentageOfTreasures;
+    this.playerName = playerName;
+    this.maxAttempts = maxAttempts;
+    this.pathGenerator = pathGenerator;
+    this.threads = threads;
+    this.seed = seed;
+    this.layoutFingerprint = layoutFingerprint;
+    this.stateHash = stateHash;
+  }
+
+  /**
+   * Returns the descriptor of a dungeon just built with the given arguments, or {@code null} if
+   * the dungeon cannot be built again from a descriptor: if the random generator is not a
+   * {@link RandomSeeded} or was drawn from before, or the path generator is not one of those that
+   * come with the game.
+   *
+   * @param dungeon               the dungeon, before anything was played.
+   * @param interconnectivity     the interconnectivity.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param rand                  the random generator.
+   * @param draws                 the number of numbers drawn from the random generator before
+   *                              the dungeon was built.
+   * @param maxAttempts           the maximum number of times the paths are generated.
+   * @param pathGenerator         the path generator.
+   * @return the descriptor or {@code null}.
+   */
+  static DungeonDescriptor describe(DungeonImpl dungeon, int interconnectivity,
+                                    double percentageOfTreasures, RandomGenerator rand,
+                                    long draws, int maxAttempts, PathGenerator pathGenerator) {
+    int code = codeOf(pathGenerator);
+    if (draws != 0 || !(rand instanceof RandomSeeded) || code < 0) {
+      return null;
+    }
+    Fingerprint layout = dungeon.getLayoutFingerprint();
+    return new DungeonDescriptor(GENERATOR_VERSION, dungeon.getRows(), dungeon.getColumns(),
+            interconnectivity, dungeon.isWrapping(), percentageOfTreasures,
+            dungeon.getPlayer().getName(), maxAttempts, code, pathGenerator.getParallelism(),
+            ((RandomSeeded) rand).getSeed(), layout, Zobrist.state(dungeon, layout.getLow()));
+  }
+
+  private static int codeOf(PathGenerator pathGenerator) {
+    // exact classes only, a subclass may build other paths
+    Class<?> type = pathGenerator.getClass();
+    if (type == KruskalPathGenerator.class) {
+      return KRUSKAL;
+    } else if (type == WilsonPathGenerator.class) {
+      return WILSON;
+    } else if (type == PrimPathGenerator.class) {
+      return PRIM;
+    } else if (type == BacktrackerPathGenerator.class) {
+      return BACKTRACKER;
+    } else if (type == AldousBroderPathGenerator.class) {
+      return ALDOUS_BRODER;
+    } else if (type == ParallelPathGenerator.class) {
+      return PARALLEL;
+    }
+    return -1;
+  }
+
+  /**
+   * Builds the dungeon of this descriptor. It is not checked against the fingerprint and hash.
+   *
+   * @return the dungeon.
+   * @throws IllegalArgumentException if the descriptor was written by another version of the
+   *                                  generator or its arguments do not make a dungeon.
+   */
+  DungeonImpl build() throws IllegalArgumentException {
+    if (this.generatorVersion != GENERATOR_VERSION) {
+      throw new IllegalArgumentException("Unsupported generator version "
+              + this.generatorVersion + ".");
+    }
+    PathGenerator generator;
+    switch (this.pathGenerator) {
+      case KRUSKAL:
+        generator = new KruskalPathGenerator();
+        break;
+      case WILSON:
+        generator = new WilsonPathGenerator();
+        break;
+      case PRIM:
+        generator = new PrimPathGenerator();
+        break;
+      case BACKTRACKER:
+        generator = new BacktrackerPathGenerator();
+        break;
+      case ALDOUS_BRODER:
+        generator = new AldousBroderPathGenerator();
+        break;
+      case PARALLEL:
+        generator = new ParallelPathGenerator(this.threads);
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown path generator " + this.pathGenerator + ".");
+    }
+    return new DungeonImpl(this.rows, this.columns, this.interconnectivity, this.isWrapping,
+            this.percentageOfTreasures, this.playerName, new RandomSeeded(this.seed),
+            this.maxAttempts, generator);
+  }
+
+  /**
+   * Returns the version of the generator that built the dungeon.
+   *
+   * @return the version.
+   */
+  public int getGeneratorVersion() {
+    return this.generatorVersion;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return this.rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return this.columns;
+  }
+
+  /**
+   * Returns the seed of the random generator.
+   *
+   * @return the seed.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Returns the fingerprint of the map of the dungeon when it was built, see
+   * {@link Dungeon#getLayoutFingerprint()}.
+   *
+   * @return the fingerprint.
+   */
+  public Fingerprint getLayoutFingerprint() {
+    return this.layoutFingerprint;
+  }
+
+  /**
+   * Returns the hash of the state of the game when the dungeon was built, with every treasure in
+   * place and the player at the start, see {@link Dungeon#getStateHash()}.
+   *
+   * @return the hash.
+   */
+  public long getStateHash() {
+    return this.stateHash;
+  }
+
+  /**
+   * Writes the descriptor in the binary form. Nothing is buffered, so descriptors can be written
+   * one after the other to the same stream.
+   *
+   * @param out the stream. It is not closed.
+   * @throws IOException              if writing fails.
+   * @throws IllegalArgumentException if {@code out} is {@code null}.
+   */
+  public void writeTo(OutputStream out) throws IOException, IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(MAGIC);
+    data.writeShort(this.generatorVersion);
+    data.writeInt(this.rows);
+    data.writeInt(this.columns);
+    data.writeInt(this.interconnectivity);
+    data.writeBoolean(this.isWrapping);
+    data.writeDouble(this.percentageOfTreasures);
+    data.writeUTF(this.playerName);
+    data.writeInt(this.maxAttempts);
+    data.writeByte(this.pathGenerator);
+    data.writeInt(this.threads);
+    data.writeLong(this.seed);
+    data.writeLong(this.layoutFingerprint.getHigh());
+    data.writeLong(this.layoutFingerprint.getLow());
+    data.writeLong(this.stateHash);
+    data.flush();
+  }
+
+  /**
+   * Reads a descriptor written by {@link #writeTo(OutputStream)}. Exactly the bytes of the
+   * descriptor are read.
+   *
+   * @param in the stream. It is not closed.
+   * @return the descriptor.
+   * @throws IOException              if reading fails or the stream ends too early.
+   * @throws IllegalArgumentException <ul><li>if {@code in} is {@code null}.</li>
+   *                                  <li>if the stream does not hold a descriptor.</li></ul>
+   */
+  public static DungeonDescriptor readFrom(InputStream in)
+          throws IOException, IllegalArgumentException {
+    if (in == null) {
+      throw new IllegalArgumentException("Input stream cannot be null.");
+    }
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a dungeon descriptor.");
+    }
+    return new DungeonDescriptor(data.readUnsignedShort(), data.readInt(), data.readInt(),
+            data.readInt(), data.readBoolean(), data.readDouble(), data.readUTF(), data.readInt(),
+            data.readUnsignedByte(), data.readInt(), data.readLong(),
+            new Fingerprint(data.readLong(), data.readLong()), data.readLong());
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof DungeonDescriptor)) {
+      return false;
+    }
+    DungeonDescriptor other = (DungeonDescriptor) o;
+    return this.generatorVersion == other.generatorVersion && this.rows == other.rows
+            && this.columns == other.columns && this.interconnectivity == other.interconnectivity
+            && this.isWrapping == other.isWrapping
+            && Double.compare(this.percentageOfTreasures, other.percentageOfTreasures) == 0
+            && this.playerName.equals(other.playerName) && this.maxAttempts == other.maxAttempts
+            && this.pathGenerator == other.pathGenerator && this.threads == other.threads
+            && this.seed == other.seed && this.layoutFingerprint.equals(other.layoutFingerprint)
+            && this.stateHash == other.stateHash;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(this.generatorVersion, this.rows, this.columns, this.interconnectivity,
+            this.isWrapping, this.percentageOfTreasures, this.playerName, this.maxAttempts,
+            this.pathGenerator, this.threads, this.seed, this.layoutFingerprint, this.stateHash);
+  }
+
+  @Override
+  public String toString() {
+    return "v" + this.generatorVersion + " " + this.rows + "x" + this.columns + " seed="
+            + this.seed + " fingerprint=" + this.layoutFingerprint + " state="
+            + Long.toHexString(this.stateHash);
+  }
+}
@@ -1,11 +1,21 @@
 package dungeon;
 
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import location.Cave;
@@ -13,10 +23,15 @@ import location.Direction;
 import location.Location;
 import location.LocationUpdateState;
 import location.Treasure;
+import metrics.Counter;
+import metrics.GenerationRecorder;
+import metrics.Heatmap;
+import metrics.Phase;
 import player.Player;
 import player.PlayerImpl;
 import player.PlayerUpdateState;
 import random.RandomGenerator;
+import random.RandomSeeded;
 
 /**
  * The dungeon.DungeonImpl implements {@link Dungeon} and represents a world of game that consists
@@ -25,6 +40,10 @@ import random.RandomGenerator;
  */
 public class DungeonImpl implements Dungeon {
 
+  // forks taken over and over, e.g. one snapshot per move, would otherwise make every lookup
+  // walk one layer per fork
+  private static final int MAX_OVERLAY_DEPTH = 16;
+
   private final List<Edge> paths;
   private final List<Edge> potentialPaths;
   private final int rows;
@@ -32,10 +51,26 @@ public class DungeonImpl implements Dungeon {
   private final int interconnectivity;
   private final boolean isWrapping;
   private final RandomGenerator rand;
+  private final PathGenerator pathGenerator;
   private final PlayerUpdateState player;
   private final LocationUpdateState start;
   private final LocationUpdateState end;
   private final List<List<LocationUpdateState>> dungeon;
+  private final GenerationRecorder metrics;
+  private final DungeonDescriptor descriptor;
+  private GenerationTask task;
+  private Heatmap heatmap;
+  private GameEvents events;
+  private CellOverlay overlay;
+  private boolean isRevealingExits;
+  // the exits are fixed once the dungeon is built, so the field only goes stale if the
+  // destination does; forks share it as they share the grid
+  private FlowField flowField;
+  private PathFinder pathFinder;
+  private Fingerprint layoutFingerprint;
+  // kept up to date by every move and collection once it was first asked for
+  private boolean isStateHashed;
+  private long stateHash;
 
   /**
    * Constructs a dungeon.
@@ -59,6 +94,78 @@ public class DungeonImpl implements Dungeon {
   public DungeonImpl(int rows, int columns, int interconnectivity, boolean isWrapping,
                      double percentageOfTreasures, String playerName, RandomGenerator rand)
           throws IllegalArgumentException {
+    this(rows, columns, interconnectivity, isWrapping, percentageOfTreasures, playerName, rand, 1);
+  }
+
+  /**
+   * Constructs a dungeon, generating new paths up to {@code maxAttempts} times if the paths of an
+   * attempt have no two caves at least 5 apart. Only the paths and the exits are generated again;
+   * treasures are placed once the start and the destination are found. The paths are generated
+   * by a {@link KruskalPathGenerator}.
+   *
+   * @param rows                  the number of rows.
+   * @param columns               the number of columns.
+   * @param interconnectivity     the interconnectivity.
+   * @param isWrapping            {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param rand                  the random generator.
+   * @param maxAttempts           the maximum number of times the paths are generated.
+   * @throws IllegalArgumentException <ul><li>if the configuration is not feasible, see
+   *                                  {@link #isFeasible(int, int, int, boolean)}.</li>
+   *                                  <li>if no attempt has a path between any two caves of the
+   *                                  dungeon with at least length 5.</li>
+   *                                  <li>if percentage of treasures is less than 0 or more than
+   *                                  100.</li>
+   *                                  <li>if {@code rand} is {@code null}.</li>
+   *                                  <li>if {@code maxAttempts} is less than 1.</li></ul>
+   */
+  public DungeonImpl(int rows, int columns, int interconnectivity, boolean isWrapping,
+                     double percentageOfTreasures, String playerName, RandomGenerator rand,
+                     int maxAttempts)
+          throws IllegalArgumentException {
+    this(rows, columns, interconnectivity, isWrapping, percentageOfTreasures, playerName, rand,
+            maxAttempts, new KruskalPathGenerator());
+  }
+
+  /**
+   * Constructs a dungeon, generating new paths up to {@code maxAttempts} times if the paths of an
+   * attempt have no two caves at least 5 apart. Only the paths and the exits are generated again;
+   * treasures are placed once the start and the destination are found.
+   *
+   * @param rows                  the number of rows.
+   * @param columns               the number of columns.
+   * @param interconnectivity     the interconnectivity.
+   * @param isWrapping            {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param rand                  the random generator.
+   * @param maxAttempts           the maximum number of times the paths are generated.
+   * @param pathGenerator         the algorithm connecting the locations, see
+   *                              {@link KruskalPathGenerator}, {@link WilsonPathGenerator},
+   *                              {@link PrimPathGenerator}, {@link BacktrackerPathGenerator} and
+   *                              {@link AldousBroderPathGenerator}.
+   * @throws IllegalArgumentException <ul><li>if the configuration is not feasible, see
+   *                                  {@link #isFeasible(int, int, int, boolean)}.</li>
+   *                                  <li>if no attempt has a path between any two caves of the
+   *                                  dungeon with at least length 5.</li>
+   *                                  <li>if percentage of treasures is less than 0 or more than
+   *                                  100.</li>
+   *                                  <li>if {@code rand} is {@code null}.</li>
+   *                                  <li>if {@code maxAttempts} is less than 1.</li>
+   *                                  <li>if {@code pathGenerator} is {@code null}.</li></ul>
+   * @throws IllegalStateException if {@code pathGenerator} does not create a spanning tree.
+   */
+  public DungeonImpl(int rows, int columns, int interconnectivity, boolean isWrapping,
+                     double percentageOfTreasures, String playerName, RandomGenerator rand,
+                     int maxAttempts, PathGenerator pathGenerator)
+          throws IllegalArgumentException, IllegalStateException {
+    this(rows, columns, interconnectivity, isWrapping, percentageOfTreasures, playerName, rand,
+            maxAttempts, pathGenerator, null);
+  }
+
+  private DungeonImpl(int rows, int columns, int interconnectivity, boolean isWrapping,
+                      double percentageOfTreasures, String playerName, RandomGenerator rand,
+                      int maxAttempts, PathGenerator pathGenerator, GenerationTask task)
+          throws IllegalArgumentException, IllegalStateException, CancellationException {
 
     if (rows + columns < 7 && isWrapping) {
       throw new IllegalArgumentException("Too small dungeon. Increase number of rows and/or "
@@ -89,20 +196,267 @@ public class DungeonImpl implements Dungeon {
       throw new IllegalArgumentException("Random generator cannot be null.");
     }
 
+    if (maxAttempts < 1) {
+      throw new IllegalArgumentException("Number of attempts must be positive.");
+    }
+
+    if (pathGenerator == null) {
+      throw new IllegalArgumentException("Path generator cannot be null.");
+    }
+
+    if (!isFeasible(rows, columns, interconnectivity, isWrapping)) {
+      throw new IllegalArgumentException("Dungeon too small or interconnected! Cannot find any"
+              + " path of at length 5 between two nodes.");
+    }
+
     this.rows = rows;
     this.columns = columns;
     this.interconnectivity = interconnectivity;
     this.isWrapping = isWrapping;
     this.rand = rand;
+    this.pathGenerator = pathGenerator;
+    this.task = task;
+    long draws = rand instanceof RandomSeeded ? ((RandomSeeded) rand).getDraws() : -1;
+    this.metrics = GenerationRecorder.start(rows, columns);
+    long phaseStart = startPhase(Phase.CREATE_DUNGEON);
     this.dungeon = createDungeon();
+    endPhase(Phase.CREATE_DUNGEON, phaseStart);
+    phaseStart = startPhase(Phase.CREATE_POTENTIAL_PATHS);
     this.potentialPaths = createPotentialPaths();
-    this.paths = createPaths();
-    getValidMovesForCaves();
+    endPhase(Phase.CREATE_POTENTIAL_PATHS, phaseStart);
+
+    List<Edge> paths = null;
+    Map.Entry<LocationUpdateState, LocationUpdateState> sourceAndDestination = null;
+    for (int attempt = 0; attempt < maxAttempts && sourceAndDestination == null; attempt++) {
+      if (attempt > 0) {
+        count(Counter.PATH_REGENERATIONS);
+      }
+      phaseStart = startPhase(Phase.CREATE_PATHS);
+      paths = createPaths();
+      endPhase(Phase.CREATE_PATHS, phaseStart);
+      phaseStart = startPhase(Phase.VALID_MOVES);
+      getValidMovesForCaves(paths);
+      endPhase(Phase.VALID_MOVES, phaseStart);
+      phaseStart = startPhase(Phase.START_AND_END);
+      sourceAndDestination = setStartAndEndCave();
+      endPhase(Phase.START_AND_END, phaseStart);
+    }
+    if (sourceAndDestination == null) {
+      throw new IllegalArgumentException("Dungeon too small or interconnected! Cannot find any"
+              + " path of at length 5 between two nodes.");
+    }
+    this.paths = paths;
+    phaseStart = startPhase(Phase.ADD_TREASURE);
     addTreasureToCaves(percentageOfTreasures);
-    Map.Entry<LocationUpdateState, LocationUpdateState> sourceAndDestination = setStartAndEndCave();
+    endPhase(Phase.ADD_TREASURE, phaseStart);
     this.start = sourceAndDestination.getKey();
     this.end = sourceAndDestination.getValue();
-    this.player = new PlayerImpl(playerName, this.start);
+    this.player = new PlayerImpl(playerName, this.start, rows * columns);
+    this.overlay = null;
+    this.isRevealingExits = false;
+    this.descriptor = DungeonDescriptor.describe(this, interconnectivity, percentageOfTreasures,
+            rand, draws, maxAttempts, pathGenerator);
+    if (this.metrics != null) {
+      this.metrics.finish();
+    }
+    this.task = null;
+  }
+
+  /**
+   * Constructs a dungeon with a fixed layout, e.g. one read by {@link AsciiMapParser}. Nothing is
+   * generated; the locations already have their exits and treasures.
+   *
+   * @param dungeon        the locations by row and column.
+   * @param isWrapping     {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param paths          the paths between the locations, one edge per pair of exits.
+   * @param start          the starting cave.
+   * @param end            the destination cave.
+   * @param playerLocation the location of the player.
+   * @param playerName     the name of the player.
+   * @throws IllegalArgumentException if {@code playerName} is {@code null} or empty.
+   */
+  DungeonImpl(List<List<LocationUpdateState>> dungeon, boolean isWrapping, List<Edge> paths,
+              LocationUpdateState start, LocationUpdateState end,
+              LocationUpdateState playerLocation, String playerName)
+          throws IllegalArgumentException {
+    this(dungeon, isWrapping, paths, start, end, new PlayerImpl(playerName, playerLocation,
+            dungeon.size() * dungeon.get(0).size()));
+  }
+
+  /**
+   * Constructs a dungeon with a fixed layout and a player that may already have explored it, e.g.
+   * a fork of a {@link MappedDungeon}.
+   *
+   * @param dungeon    the locations by row and column.
+   * @param isWrapping {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param paths      the paths between the locations, one edge per pair of exits.
+   * @param start      the starting cave.
+   * @param end        the destination cave.
+   * @param player     the player, standing at one of the given locations.
+   */
+  DungeonImpl(List<List<LocationUpdateState>> dungeon, boolean isWrapping, List<Edge> paths,
+              LocationUpdateState start, LocationUpdateState end, PlayerUpdateState player) {
+    this.rows = dungeon.size();
+    this.columns = dungeon.get(0).size();
+    this.interconnectivity = paths.size() - (this.rows * this.columns - 1);
+    this.isWrapping = isWrapping;
+    // the layout is fixed, there is nothing left to generate
+    this.rand = null;
+    this.pathGenerator = new KruskalPathGenerator();
+    this.metrics = null;
+    this.descriptor = null;
+    this.dungeon = dungeon;
+    this.potentialPaths = paths;
+    this.paths = paths;
+    this.start = start;
+    this.end = end;
+    this.player = player;
+    this.overlay = null;
+    this.isRevealingExits = false;
+  }
+
+  /**
+   * Returns if a dungeon with the given configuration may have a start and a destination cave at
+   * least 5 apart. The check takes constant time and is a necessary condition only: a rejected
+   * configuration can never be built, an accepted one may still fail every attempt of the
+   * constructor. It rejects every configuration the constructor rejects for its size or
+   * interconnectivity. At the maximum interconnectivity of a grid with at least 3 rows and 3
+   * columns every possible path is used, so the layout is fixed and the check is exact; below
+   * the maximum the configuration is accepted. That is safe for non-wrapping grids, whose rows
+   * and columns add up to at least 9, but a small wrapping grid or one with fewer than 3 rows or
+   * columns may have too many loops for any two caves to be that far apart, e.g. 3 by 4 with an
+   * interconnectivity of 12. The constructor then fails after {@code maxAttempts} attempts;
+   * each attempt tries every pair of caves before the paths are generated again.
+   *
+   * @param rows              the number of rows.
+   * @param columns           the number of columns.
+   * @param interconnectivity the interconnectivity.
+   * @param isWrapping        {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @return {@code true} if the configuration is feasible otherwise {@code false}.
+   */
+  public static boolean isFeasible(int rows, int columns, int interconnectivity,
+                                   boolean isWrapping) {
+    if (rows < 1 || columns < 1 || interconnectivity < 0) {
+      return false;
+    }
+    if (rows + columns < (isWrapping ? 7 : 9)) {
+      return false;
+    }
+    int maxInterconnectivity = isWrapping
+            ? 2 * rows * columns - rows * columns + 1
+            : (2 * rows * columns - rows - columns) - rows * columns + 1;
+    if (interconnectivity > maxInterconnectivity) {
+      return false;
+    }
+    if (interconnectivity < maxInterconnectivity) {
+      return true;
+    }
+    if (isWrapping && rows >= 3 && columns >= 3) {
+      // every location has 4 exits, so every location is a cave
+      return rows / 2 + columns / 2 >= 5;
+    }
+    if (!isWrapping && rows >= 3 && columns >= 3) {
+      // the corners are tunnels, the farthest caves are next to opposite corners
+      return rows + columns - 4 >= 5;
+    }
+    return true;
+  }
+
+  /**
+   * Builds a dungeon on the common fork-join pool without reporting progress or a deadline, see
+   * {@link #generateAsync(GenerationParameters, GenerationListener, Duration, Executor)}.
+   *
+   * @param params the arguments of the dungeon.
+   * @return the future of the dungeon.
+   * @throws IllegalArgumentException if {@code params} is {@code null}.
+   */
+  public static CompletableFuture<Dungeon> generateAsync(GenerationParameters params)
+          throws IllegalArgumentException {
+    return generateAsync(params, (phase, fraction) -> { }, null, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Builds a dungeon on the given executor. The future fails with the exception of the
+   * constructor if the arguments are not valid. The construction checks the future between and
+   * inside its phases and stops as soon as the future is cancelled, reaches the timeout or is
+   * completed exceptionally by the caller; the future is completed at once in those cases and the
+   * partly built dungeon is left to the garbage collector when the construction stops.
+   *
+   * @param params   the arguments of the dungeon.
+   * @param listener the listener to be told the progress, on the thread building the dungeon.
+   * @param timeout  the time after which the future fails with a
+   *                 {@link java.util.concurrent.TimeoutException}, {@code null} for no deadline.
+   * @param executor the executor to build the dungeon on.
+   * @return the future of the dungeon.
+   * @throws IllegalArgumentException if {@code params}, {@code listener} or {@code executor} is
+   *                                  {@code null}.
+   */
+  public static CompletableFuture<Dungeon> generateAsync(GenerationParameters params,
+                                                         GenerationListener listener,
+                                                         Duration timeout, Executor executor)
+          throws IllegalArgumentException {
+    if (params == null) {
+      throw new IllegalArgumentException("Parameters cannot be null.");
+    }
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    if (executor == null) {
+      throw new IllegalArgumentException("Executor cannot be null.");
+    }
+    CompletableFuture<Dungeon> future = new CompletableFuture<>();
+    if (timeout != null) {
+      future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+    GenerationTask task = new GenerationTask(future, listener);
+    try {
+      executor.execute(() -> {
+        try {
+          task.checkpoint();
+          future.complete(new DungeonImpl(params.getRows(), params.getColumns(),
+                  params.getInterconnectivity(), params.isWrapping(),
+                  params.getPercentageOfTreasures(), params.getPlayerName(), params.getRand(),
+                  params.getMaxAttempts(), params.getPathGenerator(), task));
+        } catch (RuntimeException | Error e) {
+          future.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+  /**
+   * Constructs a fork of the given dungeon. The fork shares the grid and the paths with the
+   * original and gets its own copy-on-write layer over the shared cell state.
+   *
+   * @param other  the dungeon to be forked.
+   * @param shared the frozen layer shared by the original and the fork.
+   */
+  private DungeonImpl(DungeonImpl other, CellOverlay shared) {
+    this.rows = other.rows;
+    this.columns = other.columns;
+    this.interconnectivity = other.interconnectivity;
+    this.isWrapping = other.isWrapping;
+    this.rand = other.rand;
+    this.pathGenerator = other.pathGenerator;
+    this.dungeon = other.dungeon;
+    this.potentialPaths = other.potentialPaths;
+    this.paths = other.paths;
+    this.start = other.start;
+    this.end = other.end;
+    this.metrics = null;
+    this.descriptor = other.descriptor;
+    this.overlay = new CellOverlay(shared);
+    this.isRevealingExits = other.isRevealingExits;
+    this.heatmap = other.heatmap;
+    this.flowField = other.flowField;
+    this.pathFinder = other.pathFinder;
+    this.layoutFingerprint = other.layoutFingerprint;
+    this.isStateHashed = other.isStateHashed;
+    this.stateHash = other.stateHash;
+    this.player = other.player.copy(other.getCell(other.player.getLocation().getId()));
   }
 
   @Override
@@ -117,156 +471,388 @@ public class DungeonImpl implements Dungeon {
 
   @Override
   public Location getStartingCave() {
-    return this.start;
+    return getCell(this.start.getId());
   }
 
   @Override
   public Location getDestinationCave() {
-    return this.end;
+    return getCell(this.end.getId());
+  }
+
+  @Override
+  public int getRows() {
+    return this.rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public boolean isWrapping() {
+    return this.isWrapping;
+  }
+
+  @Override
+  public Location getLocation(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+      throw new IllegalArgumentException("Location is outside the dungeon.");
+    }
+    return getCell((this.columns * row) + column);
   }
 
   @Override
   public void movePlayer(Direction direction)
-          throws IllegalArgumentException {
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
     if (direction == null || !this.player.getLocation().getPossibleMoves().contains(direction)) {
       throw new IllegalArgumentException("Invalid direction!");
     }
 
-    LocationUpdateState newLocation = null;
+    int from = this.player.getLocation().getId();
+    LocationUpdateState newLocation = getCell(getNeighbor(this.player.getLocation(), direction));
+    this.player.move(newLocation);
+    revealExits();
+    moved(from, newLocation, direction);
+  }
 
-    int currentRow = 0;
-    int currentColumn = 0;
+  @Override
+  public void collectAllTreasures() throws IllegalStateException {
+    checkNotDispatching();
+    collect(List.of(Treasure.values()));
+  }
 
-    for (int i = 0; i < this.rows; i++) {
-      for (int j = 0; j < this.columns; j++) {
-        if (this.dungeon.get(i).get(j).getId() == this.player.getLocation().getId()) {
-          currentRow = i;
-          currentColumn = j;
-        }
-      }
+  @Override
+  public void collectTreasure(List<Treasure> treasures)
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
+    if (treasures == null) {
+      throw new IllegalArgumentException("Treasures cannot be null.");
     }
+    collect(new ArrayList<>(treasures));
+  }
 
-    int newRow = currentRow;
-    int newCol = currentColumn;
+  @Override
+  public boolean isDestinationReached() {
+    return this.player.getLocation().getId() == this.end.getId();
+  }
 
-    switch (direction) {
-      case SOUTH:
-        newRow = currentRow + 1;
-        if (this.isWrapping) {
-          if (newRow == this.rows) {
-            newRow = 0;
-          }
+  @Override
+  public CommandResult execute(List<Command> commands)
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
+    if (commands == null) {
+      throw new IllegalArgumentException("Commands cannot be null.");
+    }
+    for (Command command : commands) {
+      if (command == null) {
+        throw new IllegalArgumentException("Command cannot be null.");
+      }
+    }
+    int applied = 0;
+    int steps = 0;
+    int treasures = 0;
+    boolean isComplete = true;
+    for (Command command : commands) {
+      Location location = this.player.getLocation();
+      if (command.isMove()) {
+        if (!location.getPossibleMoves().contains(command.getDirection())) {
+          isComplete = false;
+          break;
         }
-        break;
+        LocationUpdateState newLocation = getCell(getNeighbor(location,
+                command.getDirection()));
+        this.player.move(newLocation);
+        revealExits();
+        moved(location.getId(), newLocation, command.getDirection());
+        steps++;
+      } else if (!location.getTreasures().isEmpty()) {
+        treasures += collect(List.of(Treasure.values()));
+      }
+      applied++;
+    }
+    return new CommandResult(applied, steps, treasures, this.player.getLocation(),
+            isDestinationReached(), isComplete);
+  }
 
-      case NORTH:
-        newRow = currentRow - 1;
-        if (this.isWrapping) {
-          if (newRow == -1) {
-            newRow = this.rows - 1;
-          }
-        }
-        break;
+  @Override
+  public Direction nextStepToward(Location location) throws IllegalArgumentException {
+    if (location == null) {
+      throw new IllegalArgumentException("Location cannot be null.");
+    }
+    FlowField field = this.flowField;
+    if (field == null || field.getTarget() != this.end.getId()) {
+      field = new FlowField(this.rows, this.columns, (i, j) -> this.dungeon.get(i).get(j),
+              this.end.getId());
+      this.flowField = field;
+    }
+    return field.nextStep(location.getId());
+  }
 
-      case WEST:
-        newCol = currentColumn - 1;
-        if (this.isWrapping) {
-          if (newCol == -1) {
-            newCol = this.columns - 1;
-          }
-        }
-        break;
+  @Override
+  public int getDistance(Location from, Location to) throws IllegalArgumentException {
+    checkLocations(from, to);
+    return pathFinder().distance(from.getId(), to.getId());
+  }
 
-      case EAST:
-        newCol = currentColumn + 1;
-        if (this.isWrapping) {
-          if (newCol == this.columns) {
-            newCol = 0;
-          }
-        }
-        break;
+  @Override
+  public List<Direction> getShortestPath(Location from, Location to)
+          throws IllegalArgumentException {
+    checkLocations(from, to);
+    return pathFinder().shortestPath(from.getId(), to.getId());
+  }
 
-      default: //No action required.
+  private PathFinder pathFinder() {
+    PathFinder finder = this.pathFinder;
+    if (finder == null) {
+      finder = new PathFinder(this.rows, this.columns, (i, j) -> this.dungeon.get(i).get(j));
+      this.pathFinder = finder;
     }
-    newLocation = this.dungeon.get(newRow).get(newCol);
-    this.player.move(newLocation);
+    return finder;
   }
 
-  @Override
-  public void collectAllTreasures() {
-    this.player.collectTreasures(List.of(Treasure.values()));
+  private void checkLocations(Location from, Location to) throws IllegalArgumentException {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("Locations cannot be null.");
+    }
   }
 
   @Override
-  public void collectTreasure(List<Treasure> treasures) throws IllegalArgumentException {
-    if (treasures == null) {
-      throw new IllegalArgumentException("Treasures cannot be null.");
+  public Fingerprint getLayoutFingerprint() {
+    // the map never changes once the dungeon is built
+    Fingerprint fingerprint = this.layoutFingerprint;
+    if (fingerprint == null) {
+      fingerprint = Zobrist.layout(this);
+      this.layoutFingerprint = fingerprint;
     }
-    this.player.collectTreasures(new ArrayList<>(treasures));
+    return fingerprint;
   }
 
   @Override
-  public boolean isDestinationReached() {
-    return this.player.getLocation().getId() == this.end.getId();
+  public long getStateHash() {
+    if (!this.isStateHashed) {
+      this.stateHash = Zobrist.state(this, getLayoutFingerprint().getLow());
+      this.isStateHashed = true;
+    }
+    return this.stateHash;
   }
 
   @Override
-  public String toString() {
-    StringBuilder dungeonBuilder = new StringBuilder();
-    for (int i = 0; i < rows; i++) {
-      for (int j = 0; j < columns; j++) {
-        if (this.dungeon.get(i).get(j).getPossibleMoves().contains(Direction.NORTH)) {
-          dungeonBuilder.append("     |     ");
-        } else {
-          dungeonBuilder.append("           ");
-        }
-      }
-      dungeonBuilder.append("\n");
-      for (int j = 0; j < columns; j++) {
+  public Dungeon fork() {
+    if (this.overlay == null) {
+      this.overlay = new CellOverlay(null);
+    }
+    CellOverlay shared = this.overlay.share();
+    if (shared != null && shared.getDepth() > MAX_OVERLAY_DEPTH) {
+      shared = shared.flatten();
+    }
+    this.overlay = new CellOverlay(shared);
+    return new DungeonImpl(this, shared);
+  }
 
-        if (this.dungeon.get(i).get(j).getPossibleMoves().contains(Direction.WEST)) {
-          dungeonBuilder.append("--- ");
-        } else {
-          dungeonBuilder.append("    ");
-        }
-        Location location = this.dungeon.get(i).get(j);
-        String locationString;
-        if (this.player != null && location.getId() == this.player.getLocation().getId()) {
-          locationString = "P";
-        } else if (location.getId() == this.getStartingCave().getId()) {
-          locationString = "S";
-        } else if (location.getId() == this.getDestinationCave().getId()) {
-          locationString = "D";
-        } else {
-          locationString = location.toString();
-        }
-        dungeonBuilder.append(String.format("[%s]", locationString));
-        if (this.dungeon.get(i).get(j).getPossibleMoves().contains(Direction.EAST)) {
-          dungeonBuilder.append(" ---");
-        } else {
-          dungeonBuilder.append("    ");
+  private int getNeighbor(Location location, Direction direction) {
+    // only called with exits of the location, which never cross the edge of a grid that does
+    // not wrap
+    return Grid.neighbor(location.getId(), direction, this.rows, this.columns);
+  }
+
+  private void revealExits() {
+    if (!this.isRevealingExits) {
+      return;
+    }
+    Location location = this.player.getLocation();
+    for (Direction direction : location.getPossibleMoves()) {
+      this.player.reveal(getNeighbor(location, direction));
+    }
+  }
+
+  private long startPhase(Phase phase) {
+    if (this.task != null) {
+      this.task.report(phase, 0);
+    }
+    return this.metrics == null ? 0 : this.metrics.startPhase();
+  }
+
+  private void endPhase(Phase phase, long phaseStart) {
+    if (this.metrics != null) {
+      this.metrics.endPhase(phase, phaseStart);
+    }
+    if (this.task != null) {
+      this.task.report(phase, 1);
+    }
+  }
+
+  private void checkNotDispatching() throws IllegalStateException {
+    if (this.events != null) {
+      this.events.checkNotDispatching();
+    }
+  }
+
+  private void moved(int from, Location newLocation, Direction direction) {
+    if (this.isStateHashed) {
+      this.stateHash ^= Zobrist.position(from) ^ Zobrist.position(newLocation.getId());
+    }
+    if (this.heatmap != null) {
+      this.heatmap.recordVisit(newLocation.getId());
+    }
+    if (this.events != null && this.events.hasListeners()) {
+      this.events.moved(newLocation.getId(), direction, newLocation.getId() == this.end.getId());
+    }
+  }
+
+  private int collect(List<Treasure> treasures) {
+    List<Treasure> before = this.player.getLocation().getTreasures();
+    if (Collections.disjoint(before, treasures)) {
+      // nothing to take, so a fork keeps sharing the location
+      return 0;
+    }
+    makePlayerLocationWritable();
+    before = this.player.getLocation().getTreasures();
+    this.player.collectTreasures(treasures);
+    int collected = before.size() - this.player.getLocation().getTreasures().size();
+    int id = this.player.getLocation().getId();
+    if (collected > 0 && this.isStateHashed) {
+      this.stateHash ^= Zobrist.treasures(id, before)
+              ^ Zobrist.treasures(id, this.player.getLocation().getTreasures());
+    }
+    if (this.heatmap != null) {
+      this.heatmap.recordPickups(id, collected);
+    }
+    if (collected > 0 && this.events != null && this.events.hasListeners()) {
+      for (Treasure treasure : before) {
+        if (treasures.contains(treasure)) {
+          this.events.addCollected(treasure, 1);
         }
       }
-      dungeonBuilder.append("\n");
-      for (int j = 0; j < columns; j++) {
-        if (this.dungeon.get(i).get(j).getPossibleMoves().contains(Direction.SOUTH)) {
-          dungeonBuilder.append("     |     ");
-        } else {
-          dungeonBuilder.append("           ");
-        }
+      this.events.collected(id);
+    }
+    return collected;
+  }
+
+  private void checkpoint() {
+    if (this.task != null) {
+      this.task.checkpoint();
+    }
+  }
+
+  private void count(Counter counter) {
+    if (this.metrics != null) {
+      this.metrics.increment(counter);
+    }
+  }
+
+  private void count(Counter counter, long amount) {
+    if (this.metrics != null) {
+      this.metrics.add(counter, amount);
+    }
+  }
+
+  private LocationUpdateState getCell(int id) {
+    if (this.overlay != null) {
+      LocationUpdateState cell = this.overlay.get(id);
+      if (cell != null) {
+        return cell;
       }
-      dungeonBuilder.append("\n");
     }
+    return this.dungeon.get(id / this.columns).get(id % this.columns);
+  }
+
+  private void makePlayerLocationWritable() {
+    if (this.overlay == null) {
+      // never forked, the grid is owned by this dungeon alone
+      return;
+    }
+    int id = this.player.getLocation().getId();
+    if (this.overlay.getOwn(id) == null) {
+      LocationUpdateState copy = new Cave(getCell(id));
+      this.overlay.put(copy);
+      this.player.move(copy);
+    }
+  }
+
+  /**
+   * Returns the descriptor this dungeon can be built again from, see {@link DungeonLoader}. Forks
+   * have the descriptor of the dungeon they were forked from; it describes the dungeon as it was
+   * built, not the game played on it since.
+   *
+   * @return the descriptor.
+   * @throws IllegalStateException if the dungeon was not built by a {@link RandomSeeded} generator
+   *                               nothing had been drawn from and one of the path generators that
+   *                               come with the game, or has a fixed layout.
+   */
+  public DungeonDescriptor getDescriptor() throws IllegalStateException {
+    if (this.descriptor == null) {
+      throw new IllegalStateException("Dungeon cannot be built again from a seed.");
+    }
+    return this.descriptor;
+  }
+
+  /**
+   * Makes the player see the locations behind the exits of every location it moves to, on top of
+   * the locations it visits.
+   *
+   * @param isRevealingExits {@code true} to reveal the neighbouring locations otherwise
+   *                         {@code false}.
+   */
+  public void setRevealingExits(boolean isRevealingExits) {
+    this.isRevealingExits = isRevealingExits;
+    revealExits();
+  }
 
-    return dungeonBuilder.toString();
+  @Override
+  public void addListener(GameListener listener) throws IllegalArgumentException {
+    if (this.events == null) {
+      this.events = new GameEvents(this);
+    }
+    this.events.add(listener);
+  }
+
+  @Override
+  public void removeListener(GameListener listener) {
+    if (this.events != null) {
+      this.events.remove(listener);
+    }
+  }
+
+  /**
+   * Counts the locations the player moves to and the treasures it picks up in the given heatmap
+   * from now on. Forks taken afterwards count in the same heatmap, which then has to be a
+   * {@link metrics.ConcurrentHeatmap} if they are played on different threads.
+   *
+   * @param heatmap the heatmap, {@code null} to stop counting.
+   * @throws IllegalArgumentException if the heatmap is not of the size of the dungeon.
+   */
+  public void setHeatmap(Heatmap heatmap) throws IllegalArgumentException {
+    if (heatmap != null
+            && (heatmap.getRows() != this.rows || heatmap.getColumns() != this.columns)) {
+      throw new IllegalArgumentException("Heatmap is not of the size of the dungeon.");
+    }
+    this.heatmap = heatmap;
+  }
+
+  @Override
+  public String renderExplored() {
+    return MapRenderer.render(this, true);
+  }
+
+  @Override
+  public String toString() {
+    return MapRenderer.render(this, false);
   }
 
   private void addTreasureToCaves(double percentageOfTreasures) {
-    List<LocationUpdateState> allLocations = getCavesOnly();
+    if (this.pathGenerator.getParallelism() > 1) {
+      addTreasureToCavesByStripes(percentageOfTreasures);
+      return;
+    }
+    OrderStatisticList<LocationUpdateState> allLocations =
+            new OrderStatisticList<>(getCavesOnly());
     int cavesWithTreasures = (int) (allLocations.size() * percentageOfTreasures / 100);
     final List<Treasure> allTreasures = List.of(Treasure.values());
 
     for (int i = 0; i < cavesWithTreasures; i++) {
+      checkpoint();
       List<Treasure> treasuresToBeAdded = new ArrayList<>();
       int numberOfTreasures = rand.getRandom(4, 1);
 
@@ -275,14 +861,73 @@ public class DungeonImpl implements Dungeon {
                 0)));
       }
       int index = rand.getRandom(allLocations.size(), 0);
-      allLocations.get(index).addTreasures(treasuresToBeAdded);
-      allLocations.remove(index);
+      allLocations.remove(index).addTreasures(treasuresToBeAdded);
+    }
+  }
+
+  private void addTreasureToCavesByStripes(double percentageOfTreasures) {
+    Stripes stripes = new Stripes(this.rows, this.pathGenerator.getParallelism());
+    List<List<LocationUpdateState>> cavesOfStripes = new ArrayList<>();
+    for (int i = 0; i < stripes.count(); i++) {
+      cavesOfStripes.add(null);
+    }
+    stripes.forEach((stripe, firstRow, endRow) -> {
+      List<LocationUpdateState> caves = new ArrayList<>();
+      for (int i = firstRow; i < endRow; i++) {
+        for (LocationUpdateState location : this.dungeon.get(i)) {
+          if (!location.isTunnel()) {
+            caves.add(location);
+          }
+        }
+      }
+      cavesOfStripes.set(stripe, caves);
+    });
+
+    // share the caves with treasures out between the stripes in proportion to their caves
+    long allCaves = 0;
+    for (List<LocationUpdateState> caves : cavesOfStripes) {
+      allCaves += caves.size();
+    }
+    int cavesWithTreasures = (int) (allCaves * percentageOfTreasures / 100);
+    int[] quota = new int[stripes.count()];
+    int remaining = cavesWithTreasures;
+    for (int i = 0; i < stripes.count() && allCaves > 0; i++) {
+      quota[i] = (int) ((long) cavesWithTreasures * cavesOfStripes.get(i).size() / allCaves);
+      remaining -= quota[i];
+    }
+    for (int i = 0; i < stripes.count() && remaining > 0; i++) {
+      if (quota[i] < cavesOfStripes.get(i).size()) {
+        quota[i]++;
+        remaining--;
+      }
     }
+
+    long seed = ParallelPathGenerator.seedFrom(this.rand);
+    final Treasure[] allTreasures = Treasure.values();
+    stripes.forEach((stripe, firstRow, endRow) -> {
+      Random random = new Random(seed + stripe + 1);
+      List<LocationUpdateState> caves = cavesOfStripes.get(stripe);
+      for (int i = 0; i < quota[stripe]; i++) {
+        checkpoint();
+        int index = i + random.nextInt(caves.size() - i);
+        LocationUpdateState cave = caves.get(index);
+        caves.set(index, caves.get(i));
+        caves.set(i, cave);
+
+        List<Treasure> treasuresToBeAdded = new ArrayList<>();
+        int numberOfTreasures = random.nextInt(3) + 1;
+        for (int j = 0; j < numberOfTreasures; j++) {
+          treasuresToBeAdded.add(allTreasures[random.nextInt(allTreasures.length)]);
+        }
+        cave.addTreasures(treasuresToBeAdded);
+      }
+    });
   }
 
   private List<List<LocationUpdateState>> createDungeon() {
     List<List<LocationUpdateState>> dungeon = new ArrayList<>();
     for (int i = 0; i < this.rows; i++) {
+      checkpoint();
       List<LocationUpdateState> dungeonCol = new ArrayList<>();
       for (int j = 0; j < this.columns; j++) {
         dungeonCol.add(new Cave((this.columns * i) + j, i, j));
@@ -295,6 +940,7 @@ public class DungeonImpl implements Dungeon {
   private List<Edge> createPotentialPaths() {
     List<Edge> possibleEdges = new ArrayList<>();
     for (int i = 0; i < rows - 1; i++) {
+      checkpoint();
       for (int j = 0; j < columns - 1; j++) {
         possibleEdges.add(new Edge(this.dungeon.get(i).get(j).getId(),
                 this.dungeon.get(i).get(j + 1).getId()));
@@ -328,113 +974,98 @@ public class DungeonImpl implements Dungeon {
   }
 
   private List<Edge> createPaths() {
-    List<Edge> potentialPaths = new ArrayList<>(this.potentialPaths);
-    List<Edge> paths = new ArrayList<>();
-    List<Edge> leftOverPaths = new ArrayList<>();
     int nodes = this.rows * this.columns;
-    Subset[] subsets = new Subset[nodes];
-    for (int i = 0; i < nodes; i++) {
-      subsets[i] = new Subset(i, 0);
-    }
-    int currentEdge = 0;
-
-    while (currentEdge < nodes - 1 && potentialPaths.size() > 1) {
-      int randomIndex = this.rand.getRandom(potentialPaths.size(), 0);
-      Edge nextEdge = potentialPaths.get(randomIndex);
-
-      int x = find(subsets, nextEdge.getFirstLocation());
-      int y = find(subsets, nextEdge.getSecondLocation());
-
-      if (x != y) {
-        paths.add(nextEdge);
-        union(subsets, x, y);
-        currentEdge++;
-      } else {
-        leftOverPaths.add(nextEdge);
+    // about one progress report per percent of the paths
+    double allPaths = nodes - 1 + this.interconnectivity;
+    int step = Math.max(1, (int) (allPaths / 100));
+    IntConsumer onPath = this.task == null ? found -> { } : found -> {
+      if (found % step == 0) {
+        this.task.report(Phase.CREATE_PATHS, found / allPaths);
+      }
+    };
+    RandomGenerator rand = this.task == null ? this.rand : this.task.watch(this.rand);
+    List<Edge> tree = this.pathGenerator.createSpanningTree(this.rows, this.columns,
+            this.potentialPaths, rand, onPath, unions -> count(Counter.UNION_FIND_OPERATIONS,
+                    unions));
+    List<Edge> paths = new ArrayList<>(tree);
+
+    UnionFind subsets = new UnionFind(nodes);
+    for (Edge path : paths) {
+      if (!subsets.union(path.getFirstLocation(), path.getSecondLocation())) {
+        throw new IllegalStateException("Path generator created a cycle.");
       }
-      potentialPaths.remove(randomIndex);
+    }
+    if (paths.size() != nodes - 1) {
+      throw new IllegalStateException("Path generator did not connect every location.");
     }
 
+    List<OrderStatisticList<Edge>> candidates = new ArrayList<>();
+    for (List<Edge> group : this.pathGenerator.extraPathCandidates(this.potentialPaths, tree)) {
+      candidates.add(new OrderStatisticList<>(group));
+    }
+    int group = 0;
     for (int i = 0; i < this.interconnectivity; i++) {
-      if (leftOverPaths.size() == 0) {
-        int randomIndex = this.rand.getRandom(potentialPaths.size(), 0);
-        paths.add(potentialPaths.get(randomIndex));
-        potentialPaths.remove(randomIndex);
-      } else {
-        int randomIndex = this.rand.getRandom(leftOverPaths.size(), 0);
-        paths.add(leftOverPaths.get(randomIndex));
-        leftOverPaths.remove(randomIndex);
+      while (candidates.get(group).size() == 0) {
+        group++;
       }
-      currentEdge++;
+      int randomIndex = this.rand.getRandom(candidates.get(group).size(), 0);
+      paths.add(candidates.get(group).remove(randomIndex));
+      onPath.accept(paths.size());
     }
     return paths;
   }
 
-  private int find(Subset[] subsets, int i) {
-    if (subsets[i].parent != i) {
-      subsets[i].parent = find(subsets, subsets[i].parent);
-    }
-    return subsets[i].parent;
+  private void getValidMovesForCaves(List<Edge> paths) {
+    Set<Edge> pathSet = new HashSet<>(paths);
+    new Stripes(this.rows, this.pathGenerator.getParallelism()).forEach(
+        (stripe, firstRow, endRow) -> getValidMovesForRows(pathSet, firstRow, endRow));
   }
 
-  private void union(Subset[] subsets, int x, int y) {
-    int rootOfX = find(subsets, x);
-    int rootOfY = find(subsets, y);
-
-    if (subsets[rootOfX].rank < subsets[rootOfY].rank) {
-      subsets[rootOfX].parent = rootOfY;
-    } else if (subsets[rootOfX].rank > subsets[rootOfY].rank) {
-      subsets[rootOfY].parent = rootOfX;
-    } else {
-      subsets[rootOfY].parent = rootOfX;
-      subsets[rootOfX].rank++;
-    }
-  }
-
-  private void getValidMovesForCaves() {
-    for (int i = 0; i < this.rows; i++) {
+  private void getValidMovesForRows(Set<Edge> paths, int firstRow, int endRow) {
+    for (int i = firstRow; i < endRow; i++) {
+      checkpoint();
       for (int j = 0; j < this.columns; j++) {
         List<Direction> validDirections = new ArrayList<>();
         LocationUpdateState cave = this.dungeon.get(i).get(j);
 
         //down
         if (i < this.rows - 1) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i + 1).get(j).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i + 1).get(j).getId()))) {
             validDirections.add(Direction.SOUTH);
           }
         } else if (isWrapping) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(0).get(j).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(0).get(j).getId()))) {
             validDirections.add(Direction.SOUTH);
           }
         }
         //up
         if (i > 0) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i - 1).get(j).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i - 1).get(j).getId()))) {
             validDirections.add(Direction.NORTH);
           }
         } else if (isWrapping) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(this.rows - 1).get(j)
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(this.rows - 1).get(j)
                   .getId()))) {
             validDirections.add(Direction.NORTH);
           }
         }
         //right
         if (j < this.columns - 1) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(j + 1).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(j + 1).getId()))) {
             validDirections.add(Direction.EAST);
           }
         } else if (isWrapping) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(0).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(0).getId()))) {
             validDirections.add(Direction.EAST);
           }
         }
         //left
         if (j > 0) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(j - 1).getId()))) {
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(j - 1).getId()))) {
             validDirections.add(Direction.WEST);
           }
         } else if (isWrapping) {
-          if (this.paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(this.columns - 1)
+          if (paths.contains(new Edge(cave.getId(), this.dungeon.get(i).get(this.columns - 1)
                   .getId()))) {
             validDirections.add(Direction.WEST);
           }
@@ -459,171 +1090,59 @@ public class DungeonImpl implements Dungeon {
   }
 
   private AbstractMap.SimpleImmutableEntry<LocationUpdateState, LocationUpdateState>
-              setStartAndEndCave() throws IllegalArgumentException {
+              setStartAndEndCave() {
     List<LocationUpdateState> potentialSources = getCavesOnly();
+    Bitboard bitboard = new Bitboard(this.rows, this.columns,
+        (row, column) -> this.dungeon.get(row).get(column));
     LocationUpdateState source;
     LocationUpdateState destination;
 
     do {
+      checkpoint();
       source = getRandomCave(potentialSources);
-      destination = setEndCave(source);
+      destination = setEndCave(source, bitboard);
       potentialSources.remove(source);
+      if (destination == null) {
+        count(Counter.START_END_RETRIES);
+      }
     }
     while (destination == null && potentialSources.size() != 0);
 
     if (destination == null) {
-      throw new IllegalArgumentException("Dungeon too small or interconnected! Cannot find any"
-              + " path of at length 5 between two nodes.");
+      return null;
     }
 
     return new AbstractMap.SimpleImmutableEntry<>(source, destination);
   }
 
-  private LocationUpdateState setEndCave(LocationUpdateState source) {
+  private LocationUpdateState setEndCave(LocationUpdateState source, Bitboard bitboard) {
     LocationUpdateState destination;
-    int distance;
+    boolean isTooClose;
     List<LocationUpdateState> allLocations = getCavesOnly();
+    long[] near = bitboard.reachableWithin(source.getId(), 4);
+    count(Counter.BFS_INVOCATIONS);
+    count(Counter.NODES_VISITED, popCount(near));
 
     do {
       destination = getRandomCave(allLocations);
-      distance = getMinimumDistance(source, destination);
+      isTooClose = Bitboard.contains(near, destination.getId());
       allLocations.remove(destination);
     }
-    while (distance < 5 && allLocations.size() > 0);
+    while (isTooClose && allLocations.size() > 0);
 
-    if (distance < 5) {
+    if (isTooClose) {
       return null;
     }
 
     return destination;
   }
 
-  private int getMinimumDistance(LocationUpdateState start, LocationUpdateState end) {
-    NodeWithDistanceFromSource source = new NodeWithDistanceFromSource(0, 0, 0);
-    Queue<NodeWithDistanceFromSource> nodes = new LinkedList<>();
-    boolean[][] visited = new boolean[this.dungeon.size()][this.dungeon.get(0).size()];
-
-    sourceLoop:
-    for (int i = 0; i < this.rows; i++) {
-      for (int j = 0; j < this.columns; j++) {
-        if (this.dungeon.get(i).get(j).getId() == start.getId()) {
-          source.x = i;
-          source.y = j;
-          break sourceLoop;
-        }
-      }
-    }
-
-    nodes.add(new NodeWithDistanceFromSource(source.x, source.y, 0));
-    visited[source.x][source.y] = true;
-
-    while (!nodes.isEmpty()) {
-      NodeWithDistanceFromSource node = nodes.remove();
-      int x;
-      int y;
-
-      // Destination reached
-      if (this.dungeon.get(node.x).get(node.y).getId() == end.getId()) {
-        return node.distance;
-      }
-
-      // up
-      x = node.x - 1;
-      y = node.y;
-      if (this.isWrapping && node.x == 0) {
-        x = this.rows - 1;
-      }
-      if (isValid(x, y, visited)
-              && this.dungeon.get(node.x).get(node.y).getPossibleMoves()
-              .contains(Direction.NORTH)) {
-        nodes.add(new NodeWithDistanceFromSource(x, y,
-                node.distance + 1));
-        visited[x][y] = true;
-      }
-
-      // down
-      x = node.x + 1;
-      y = node.y;
-      if (this.isWrapping && node.x == this.rows - 1) {
-        x = 0;
-      }
-      if (isValid(x, y, visited)
-              && this.dungeon.get(node.x).get(node.y).getPossibleMoves()
-              .contains(Direction.SOUTH)) {
-        nodes.add(new NodeWithDistanceFromSource(x, y,
-                node.distance + 1));
-        visited[x][y] = true;
-      }
-
-      // left
-      x = node.x;
-      y = node.y - 1;
-      if (this.isWrapping && node.y == 0) {
-        y = this.columns - 1;
-      }
-      if (isValid(x, y, visited)
-              && this.dungeon.get(node.x).get(node.y).getPossibleMoves().contains(Direction.WEST)) {
-        nodes.add(new NodeWithDistanceFromSource(x, y,
-                node.distance + 1));
-        visited[x][y] = true;
-      }
-
-      // right
-      x = node.x;
-      y = node.y + 1;
-      if (this.isWrapping && node.y == this.columns - 1) {
-        y = 0;
-      }
-      if (isValid(x, y, visited)
-              && this.dungeon.get(node.x).get(node.y).getPossibleMoves().contains(Direction.EAST)) {
-        nodes.add(new NodeWithDistanceFromSource(x, y,
-                node.distance + 1));
-        visited[x][y] = true;
-      }
-    }
-    return -1;
-  }
-
-  private boolean isValid(int x, int y, boolean[][] visited) {
-    return (x >= 0 && y >= 0 && x < this.dungeon.size() && y < this.dungeon.get(0).size()
-            && !visited[x][y]);
-  }
-
-  /**
-   * This represents a {@link Location} in the dungeon with co-ordinates of the location in the
-   * dungeon grid and its distance from the source location.
-   */
-  private static class NodeWithDistanceFromSource {
-    private int x;
-    private int y;
-    private final int distance;
-
-    /**
-     * Constructs a location node.
-     *
-     * @param x        the x co-ordinate of location in the dungeon grid.
-     * @param y        the y co-ordinate of location in the dungeon grid.
-     * @param distance the distance from the source location.
-     */
-    private NodeWithDistanceFromSource(int x, int y, int distance) {
-      this.x = x;
-      this.y = y;
-      this.distance = distance;
-    }
-  }
-
-  /**
-   * This represents a subset of the dungeon grid with the root parent and rank. This class is used
-   * for building the dungeon grid.
-   */
-  private static class Subset {
-    private int parent;
-    private int rank;
-
-    private Subset(int parent, int rank) {
-      this.parent = parent;
-      this.rank = rank;
+  private static long popCount(long[] bits) {
+    long count = 0;
+    for (long word : bits) {
+      count += Long.bitCount(word);
     }
+    return count;
   }
 
 }
@@ -0,0 +1,181 @@
+package dungeon;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The dungeon.DungeonLoader builds dungeons from their {@link DungeonDescriptor}s and checks every
+ * dungeon it builds against the layout fingerprint and the state hash of its descriptor. The most
+ * recently loaded dungeons are kept in a small least-recently-used cache, so loading one of them
+ * again only forks it.
+ *
+ * <p>Every load returns a fresh game at the start of the dungeon: the cached dungeons are never
+ * played, only forked. The loader is thread-safe. Dungeons are built outside its lock, so loads
+ * of other dungeons go on meanwhile, and loads of a dungeon that is being built wait for that
+ * build instead of starting their own.
+ */
+public class DungeonLoader {
+
+  private final int capacity;
+  private final Map<DungeonDescriptor, DungeonImpl> cache;
+  // the dungeons being built, which other loads of the same descriptor wait for
+  private final Map<DungeonDescriptor, CompletableFuture<DungeonImpl>> loading;
+  private long hits;
+  private long misses;
+
+  /**
+   * Constructs a loader.
+   *
+   * @param capacity the number of dungeons to keep, 0 to build every dungeon anew.
+   * @throws IllegalArgumentException if {@code capacity} is negative.
+   */
+  public DungeonLoader(int capacity) throws IllegalArgumentException {
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Capacity cannot be negative.");
+    }
+    this.capacity = capacity;
+    this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<DungeonDescriptor, DungeonImpl> eldest) {
+        return size() > DungeonLoader.this.capacity;
+      }
+    };
+    this.loading = new HashMap<>();
+  }
+
+  /**
+   * Returns a new game on the dungeon of the given descriptor.
+   *
+   * @param descriptor the descriptor.
+   * @return the dungeon, with the player at the start and every treasure in place.
+   * @throws IllegalArgumentException <ul><li>if {@code descriptor} is {@code null}.</li>
+   *                                  <li>if the descriptor was written by another version of the
+   *                                  generator or its arguments do not make a dungeon.</li></ul>
+   * @throws IllegalStateException    if the dungeon built does not match the layout fingerprint
+   *                                  or the state hash of the descriptor.
+   */
+  public Dungeon load(DungeonDescriptor descriptor)
+          throws IllegalArgumentException, IllegalStateException {
+    if (descriptor == null) {
+      throw new IllegalArgumentException("Descriptor cannot be null.");
+    }
+    CompletableFuture<DungeonImpl> pending;
+    synchronized (this) {
+      DungeonImpl dungeon = this.cache.get(descriptor);
+      if (dungeon != null) {
+        this.hits++;
+        return dungeon.fork();
+      }
+      pending = this.loading.get(descriptor);
+      if (pending != null) {
+        this.hits++;
+      } else {
+        this.misses++;
+        if (this.capacity > 0) {
+          this.loading.put(descriptor, new CompletableFuture<>());
+        }
+      }
+    }
+    if (pending != null) {
+      return awaitFork(pending);
+    }
+
+    DungeonImpl dungeon;
+    try {
+      dungeon = build(descriptor);
+    } catch (RuntimeException e) {
+      CompletableFuture<DungeonImpl> loaded = done(descriptor, null);
+      if (loaded != null) {
+        loaded.completeExceptionally(e);
+      }
+      throw e;
+    }
+    if (this.capacity == 0) {
+      return dungeon;
+    }
+    Dungeon fork;
+    CompletableFuture<DungeonImpl> loaded;
+    synchronized (this) {
+      loaded = done(descriptor, dungeon);
+      fork = dungeon.fork();
+    }
+    loaded.complete(dungeon);
+    return fork;
+  }
+
+  private static DungeonImpl build(DungeonDescriptor descriptor)
+          throws IllegalArgumentException, IllegalStateException {
+    DungeonImpl dungeon = descriptor.build();
+    Fingerprint layout = dungeon.getLayoutFingerprint();
+    if (!layout.equals(descriptor.getLayoutFingerprint())) {
+      throw new IllegalStateException("Dungeon built from " + descriptor
+              + " does not match its fingerprint.");
+    }
+    // from scratch, so the cached dungeon and its forks do not keep the hash up to date
+    if (Zobrist.state(dungeon, layout.getLow()) != descriptor.getStateHash()) {
+      throw new IllegalStateException("Dungeon built from " + descriptor
+              + " does not match its state hash.");
+    }
+    return dungeon;
+  }
+
+  /**
+   * Ends the load of the given descriptor, caching the dungeon if it was built.
+   *
+   * @return the future the other loads of the descriptor wait for, {@code null} if none.
+   */
+  private synchronized CompletableFuture<DungeonImpl> done(DungeonDescriptor descriptor,
+                                                          DungeonImpl dungeon) {
+    if (dungeon != null) {
+      this.cache.put(descriptor, dungeon);
+    }
+    return this.loading.remove(descriptor);
+  }
+
+  private Dungeon awaitFork(CompletableFuture<DungeonImpl> pending)
+          throws IllegalArgumentException, IllegalStateException {
+    DungeonImpl dungeon;
+    try {
+      dungeon = pending.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+    // forking writes to the cached dungeon, so forks are taken one at a time
+    synchronized (this) {
+      return dungeon.fork();
+    }
+  }
+
+  /**
+   * Returns the number of dungeons in the cache.
+   *
+   * @return the number of dungeons.
+   */
+  public synchronized int size() {
+    return this.cache.size();
+  }
+
+  /**
+   * Returns the number of loads served from the cache.
+   *
+   * @return the number of loads.
+   */
+  public synchronized long getHits() {
+    return this.hits;
+  }
+
+  /**
+   * Returns the number of loads that built the dungeon.
+   *
+   * @return the number of loads.
+   */
+  public synchronized long getMisses() {
+    return this.misses;
+  }
+}
@@ -0,0 +1,156 @@
+package dungeon;
+
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+import location.Treasure;
+import player.Player;
+
+/**
+ * This represents a read-only view of a {@link Dungeon} as it was when a
+ * {@link SnapshotPublisher} published it. The view is backed by a {@link Dungeon#fork()} that no
+ * thread ever writes to, so any number of threads can read it without locking while the game
+ * goes on. Every method that would change the game throws {@link UnsupportedOperationException}.
+ */
+public class DungeonSnapshot implements Dungeon {
+
+  private final long version;
+  private final Dungeon dungeon;
+
+  /**
+   * Constructs a snapshot.
+   *
+   * @param version the version of the snapshot.
+   * @param dungeon the fork backing the snapshot. It must not be written to after this.
+   */
+  DungeonSnapshot(long version, Dungeon dungeon) {
+    this.version = version;
+    this.dungeon = dungeon;
+  }
+
+  /**
+   * Returns the version of the snapshot. Versions increase by one with every publication.
+   *
+   * @return the version.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+
+  @Override
+  public Player getPlayer() {
+    return this.dungeon.getPlayer();
+  }
+
+  @Override
+  public Location getPlayerLocation() {
+    return this.dungeon.getPlayerLocation();
+  }
+
+  @Override
+  public Location getStartingCave() {
+    return this.dungeon.getStartingCave();
+  }
+
+  @Override
+  public Location getDestinationCave() {
+    return this.dungeon.getDestinationCave();
+  }
+
+  @Override
+  public int getRows() {
+    return this.dungeon.getRows();
+  }
+
+  @Override
+  public int getColumns() {
+    return this.dungeon.getColumns();
+  }
+
+  @Override
+  public boolean isWrapping() {
+    return this.dungeon.isWrapping();
+  }
+
+  @Override
+  public Location getLocation(int row, int column) throws IllegalArgumentException {
+    return this.dungeon.getLocation(row, column);
+  }
+
+  @Override
+  public void movePlayer(Direction direction) {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public void collectAllTreasures() {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public void collectTreasure(List<Treasure> treasures) {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public boolean isDestinationReached() {
+    return this.dungeon.isDestinationReached();
+  }
+
+  @Override
+  public CommandResult execute(List<Command> commands) {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public Direction nextStepToward(Location location) {
+    return this.dungeon.nextStepToward(location);
+  }
+
+  @Override
+  public Fingerprint getLayoutFingerprint() {
+    return this.dungeon.getLayoutFingerprint();
+  }
+
+  @Override
+  public long getStateHash() {
+    // from scratch, as the hash the fork keeps up to date would be written by its readers
+    return Zobrist.state(this.dungeon, getLayoutFingerprint().getLow());
+  }
+
+  /**
+   * Forking a snapshot is not supported as it would write to state shared by all its readers.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public Dungeon fork() {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public String renderExplored() {
+    return this.dungeon.renderExplored();
+  }
+
+  /**
+   * Listening to a snapshot is not supported as it never changes.
+   *
+   * @throws UnsupportedOperationException always.
+   */
+  @Override
+  public void addListener(GameListener listener) {
+    throw new UnsupportedOperationException("A snapshot is read-only.");
+  }
+
+  @Override
+  public void removeListener(GameListener listener) {
+    // no listener can have been added
+  }
+
+  @Override
+  public String toString() {
+    return this.dungeon.toString();
+  }
+}
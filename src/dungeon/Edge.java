@@ -1,11 +1,11 @@
 package dungeon;
 
-import java.util.Objects;
-
 /**
- * This represents an undirected edge of the {@link Dungeon}. A package-private class.
+ * This represents an undirected edge, or path, of the {@link Dungeon} between two locations.
+ * Edges are only created by the dungeon; a {@link PathGenerator} chooses among the potential
+ * paths it is given.
  */
-class Edge {
+public class Edge {
 
   private final int x;
   private final int y;
@@ -21,17 +21,28 @@ class Edge {
     this.y = y;
   }
 
-  int getFirstLocation() {
+  /**
+   * Returns the id of the first location of the edge.
+   *
+   * @return the id.
+   */
+  public int getFirstLocation() {
     return this.x;
   }
 
-  int getSecondLocation() {
+  /**
+   * Returns the id of the second location of the edge.
+   *
+   * @return the id.
+   */
+  public int getSecondLocation() {
     return this.y;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(x, y);
+    // symmetric like equals
+    return 31 * Math.min(x, y) + Math.max(x, y);
   }
 
   @Override
@@ -0,0 +1,62 @@
+package dungeon;
+
+/**
+ * This represents a 128-bit fingerprint of a {@link Dungeon} map, see
+ * {@link Dungeon#getLayoutFingerprint()}. Two fingerprints are equal if both halves are.
+ */
+public class Fingerprint {
+
+  private final long high;
+  private final long low;
+
+  /**
+   * Constructs a fingerprint.
+   *
+   * @param high the upper 64 bits.
+   * @param low  the lower 64 bits.
+   */
+  public Fingerprint(long high, long low) {
+    this.high = high;
+    this.low = low;
+  }
+
+  /**
+   * Returns the upper 64 bits.
+   *
+   * @return the upper half.
+   */
+  public long getHigh() {
+    return this.high;
+  }
+
+  /**
+   * Returns the lower 64 bits, a fingerprint of its own where 64 bits are enough.
+   *
+   * @return the lower half.
+   */
+  public long getLow() {
+    return this.low;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof Fingerprint) {
+      Fingerprint other = (Fingerprint) o;
+      return this.high == other.high && this.low == other.low;
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(this.low);
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%016x%016x", this.high, this.low);
+  }
+}
@@ -0,0 +1,128 @@
+package dungeon;
+
+import java.util.Arrays;
+
+import location.Direction;
+
+/**
+ * The dungeon.FlowField holds, for every location of a {@link Dungeon}, the number of steps to one
+ * target location and the direction of the first of them, found by a single breadth-first search
+ * outwards from the target. Any number of agents heading for the same target then look up their
+ * next move in constant time instead of searching on their own.
+ *
+ * <p>The field reflects the exits of the dungeon when it was built. Both arrays are written only
+ * in the constructor, so a field may be shared between threads once it is built.
+ */
+public class FlowField {
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int rows;
+  private final int columns;
+  private final int target;
+  private final int[] distances;
+  private final byte[] steps;
+
+  /**
+   * Constructs the flow field towards a location of the given dungeon.
+   *
+   * @param dungeon the dungeon.
+   * @param target  the id of the target location.
+   * @throws IllegalArgumentException if {@code dungeon} is {@code null} or {@code target} is not
+   *                                  a location id.
+   */
+  public FlowField(Dungeon dungeon, int target) throws IllegalArgumentException {
+    this(checked(dungeon).getRows(), dungeon.getColumns(), dungeon::getLocation, target);
+  }
+
+  /**
+   * Constructs the flow field towards a location of the given grid.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @param grid    the locations.
+   * @param target  the id of the target location.
+   * @throws IllegalArgumentException if {@code target} is not a location id.
+   */
+  FlowField(int rows, int columns, LocationGrid grid, int target)
+          throws IllegalArgumentException {
+    int locations = rows * columns;
+    if (target < 0 || target >= locations) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+    this.rows = rows;
+    this.columns = columns;
+    this.target = target;
+    this.distances = new int[locations];
+    this.steps = new byte[locations];
+    Arrays.fill(this.distances, -1);
+    Arrays.fill(this.steps, (byte) -1);
+
+    // the exits of neighbouring locations match, so the location reached by leaving a location
+    // in some direction steps back towards it in the opposite one
+    int[] queue = new int[locations];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = target;
+    this.distances[target] = 0;
+    while (head < tail) {
+      int id = queue[head++];
+      for (Direction direction : grid.get(id / columns, id % columns).getPossibleMoves()) {
+        int next = Grid.neighbor(id, direction, this.rows, this.columns);
+        if (next >= 0 && this.distances[next] < 0) {
+          this.distances[next] = this.distances[id] + 1;
+          this.steps[next] = (byte) Grid.opposite(direction).ordinal();
+          queue[tail++] = next;
+        }
+      }
+    }
+  }
+
+  private static Dungeon checked(Dungeon dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    return dungeon;
+  }
+
+  /**
+   * Returns the id of the location the field leads to.
+   *
+   * @return the id of the target location.
+   */
+  public int getTarget() {
+    return this.target;
+  }
+
+  /**
+   * Returns the length of the shortest path from the given location to the target.
+   *
+   * @param id the id of the location.
+   * @return the number of steps, -1 if the target cannot be reached.
+   * @throws IllegalArgumentException if {@code id} is not a location id.
+   */
+  public int distance(int id) throws IllegalArgumentException {
+    checkId(id);
+    return this.distances[id];
+  }
+
+  /**
+   * Returns the first move of a shortest path from the given location to the target.
+   *
+   * @param id the id of the location.
+   * @return the direction to move in, {@code null} at the target or if the target cannot be
+   *         reached.
+   * @throws IllegalArgumentException if {@code id} is not a location id.
+   */
+  public Direction nextStep(int id) throws IllegalArgumentException {
+    checkId(id);
+    byte step = this.steps[id];
+    return step < 0 ? null : DIRECTIONS[step];
+  }
+
+  private void checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.distances.length) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+  }
+}
@@ -0,0 +1,115 @@
+package dungeon;
+
+import location.Direction;
+import location.Treasure;
+
+/**
+ * This represents something that happened in a game, as told to a {@link GameListener}. A
+ * dungeon has one event object that it fills in again for every event, so telling the listeners
+ * allocates nothing; an event is only valid while the listeners are being called.
+ */
+public class GameEvent {
+
+  private final Dungeon dungeon;
+  private final int[] collected;
+  private GameEventType type;
+  private int locationId;
+  private Direction direction;
+
+  /**
+   * Constructs the event object of the given dungeon.
+   *
+   * @param dungeon the dungeon the events happen in.
+   */
+  GameEvent(Dungeon dungeon) {
+    this.dungeon = dungeon;
+    this.collected = new int[Treasure.values().length];
+  }
+
+  /**
+   * Returns the dungeon the event happened in.
+   *
+   * @return the dungeon.
+   */
+  public Dungeon getDungeon() {
+    return this.dungeon;
+  }
+
+  /**
+   * Returns the kind of the event.
+   *
+   * @return the kind of the event.
+   */
+  public GameEventType getType() {
+    return this.type;
+  }
+
+  /**
+   * Returns the id of the location of the player after the event.
+   *
+   * @return the id of the location.
+   */
+  public int getLocationId() {
+    return this.locationId;
+  }
+
+  /**
+   * Returns the direction the player moved in.
+   *
+   * @return the direction for {@link GameEventType#MOVED} and
+   *         {@link GameEventType#DESTINATION_REACHED} otherwise {@code null}.
+   */
+  public Direction getDirection() {
+    return this.direction;
+  }
+
+  /**
+   * Returns the number of treasures of the given kind collected.
+   *
+   * @param treasure the kind of treasure.
+   * @return the number of treasures, 0 unless the event is
+   *         {@link GameEventType#TREASURE_COLLECTED}.
+   * @throws IllegalArgumentException if {@code treasure} is {@code null}.
+   */
+  public int getCollected(Treasure treasure) throws IllegalArgumentException {
+    if (treasure == null) {
+      throw new IllegalArgumentException("Treasure cannot be null.");
+    }
+    return this.collected[treasure.ordinal()];
+  }
+
+  /**
+   * Returns the number of treasures of all kinds collected.
+   *
+   * @return the number of treasures, 0 unless the event is
+   *         {@link GameEventType#TREASURE_COLLECTED}.
+   */
+  public int getTotalCollected() {
+    int total = 0;
+    for (int count : this.collected) {
+      total += count;
+    }
+    return total;
+  }
+
+  void set(GameEventType type, int locationId, Direction direction) {
+    this.type = type;
+    this.locationId = locationId;
+    this.direction = direction;
+  }
+
+  void addCollected(Treasure treasure, int count) {
+    this.collected[treasure.ordinal()] += count;
+  }
+
+  void clearCollected() {
+    for (int i = 0; i < this.collected.length; i++) {
+      this.collected[i] = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.type + " at " + this.locationId;
+  }
+}
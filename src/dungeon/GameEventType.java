@@ -0,0 +1,9 @@
+package dungeon;
+
+/**
+ * This represents the kinds of {@link GameEvent} a {@link Dungeon} tells its
+ * {@link GameListener}s about.
+ */
+public enum GameEventType {
+  MOVED, TREASURE_COLLECTED, DESTINATION_REACHED
+}
@@ -0,0 +1,136 @@
+package dungeon;
+
+import java.util.Arrays;
+
+import location.Direction;
+import location.Treasure;
+
+/**
+ * This represents the listeners of one {@link Dungeon} and the event object they are told about
+ * events with. Listeners are kept in an array that is replaced when one is added or removed, so
+ * telling them is a loop over an array with no allocation. A dungeon creates its events only
+ * when the first listener is added, so games nobody listens to pay a single {@code null} check.
+ * A package-private class.
+ */
+class GameEvents {
+
+  private final GameEvent event;
+  private GameListener[] listeners;
+  private boolean isDispatching;
+
+  /**
+   * Constructs the events of the given dungeon with no listeners.
+   *
+   * @param dungeon the dungeon.
+   */
+  GameEvents(Dungeon dungeon) {
+    this.event = new GameEvent(dungeon);
+    this.listeners = new GameListener[0];
+  }
+
+  /**
+   * Adds a listener. A listener added twice is told about every event twice.
+   *
+   * @param listener the listener.
+   * @throws IllegalArgumentException if {@code listener} is {@code null}.
+   */
+  void add(GameListener listener) throws IllegalArgumentException {
+    if (listener == null) {
+      throw new IllegalArgumentException("Listener cannot be null.");
+    }
+    this.listeners = Arrays.copyOf(this.listeners, this.listeners.length + 1);
+    this.listeners[this.listeners.length - 1] = listener;
+  }
+
+  /**
+   * Removes one occurrence of a listener. Listeners that were not added are ignored.
+   *
+   * @param listener the listener.
+   */
+  void remove(GameListener listener) {
+    for (int i = 0; i < this.listeners.length; i++) {
+      if (this.listeners[i] == listener) {
+        GameListener[] rest = new GameListener[this.listeners.length - 1];
+        System.arraycopy(this.listeners, 0, rest, 0, i);
+        System.arraycopy(this.listeners, i + 1, rest, i, rest.length - i);
+        this.listeners = rest;
+        return;
+      }
+    }
+  }
+
+  /**
+   * Returns if there is any listener.
+   *
+   * @return {@code true} if there is a listener otherwise {@code false}.
+   */
+  boolean hasListeners() {
+    return this.listeners.length > 0;
+  }
+
+  /**
+   * Throws if a listener is being told about an event. A dungeon calls this before it changes
+   * anything, so a listener that tries to change the dungeon leaves it as it was.
+   *
+   * @throws IllegalStateException if a listener is being told about an event.
+   */
+  void checkNotDispatching() throws IllegalStateException {
+    if (this.isDispatching) {
+      throw new IllegalStateException("Listeners must not change the dungeon.");
+    }
+  }
+
+  /**
+   * Tells the listeners that the player moved and, if it did, that it reached the destination.
+   *
+   * @param locationId    the id of the new location.
+   * @param direction     the direction moved in.
+   * @param isDestination {@code true} if the new location is the destination.
+   */
+  void moved(int locationId, Direction direction, boolean isDestination) {
+    this.event.set(GameEventType.MOVED, locationId, direction);
+    dispatch();
+    if (isDestination) {
+      this.event.set(GameEventType.DESTINATION_REACHED, locationId, direction);
+      dispatch();
+    }
+  }
+
+  /**
+   * Counts treasures picked up for the next {@link #collected(int)}.
+   *
+   * @param treasure the kind of treasure.
+   * @param count    the number of treasures.
+   */
+  void addCollected(Treasure treasure, int count) {
+    this.event.addCollected(treasure, count);
+  }
+
+  /**
+   * Tells the listeners about the treasures counted since the last call, if there are any.
+   *
+   * @param locationId the id of the location of the player.
+   */
+  void collected(int locationId) {
+    if (this.event.getTotalCollected() > 0) {
+      this.event.set(GameEventType.TREASURE_COLLECTED, locationId, null);
+      try {
+        dispatch();
+      } finally {
+        this.event.clearCollected();
+      }
+    }
+  }
+
+  private void dispatch() throws IllegalStateException {
+    checkNotDispatching();
+    this.isDispatching = true;
+    try {
+      for (GameListener listener : this.listeners) {
+        listener.onEvent(this.event);
+      }
+    } finally {
+      this.isDispatching = false;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package dungeon;
+
+/**
+ * The dungeon.GameListener is told about the moves of the player and the treasures it picks up,
+ * as they happen, instead of asking the {@link Dungeon} after every call.
+ */
+@FunctionalInterface
+public interface GameListener {
+
+  /**
+   * Called after the player moved, collected treasures or reached the destination. The event
+   * object is reused for every event of the dungeon, so it must not be kept after the call; copy
+   * what is needed. The listener must not change the dungeon while it is called: moving the
+   * player, collecting treasures or executing commands from the listener throws an
+   * {@link IllegalStateException} before anything is changed.
+   *
+   * @param event the event.
+   */
+  void onEvent(GameEvent event);
+}
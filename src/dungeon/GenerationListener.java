@@ -0,0 +1,23 @@
+package dungeon;
+
+import metrics.Phase;
+
+/**
+ * The dungeon.GenerationListener is told how far the construction of a {@link Dungeon} started
+ * with {@link DungeonImpl#generateAsync(GenerationParameters, GenerationListener,
+ * java.time.Duration, java.util.concurrent.Executor)} has come. It is called on the thread
+ * building the dungeon, so it should return quickly.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+  /**
+   * Called when a phase starts, with {@code 0}, when it ends, with {@code 1}, and in between for
+   * {@link Phase#CREATE_PATHS} as paths are chosen. The phases of the paths are repeated, starting
+   * from {@code 0} again, when the paths of an attempt are generated anew.
+   *
+   * @param phase    the phase.
+   * @param fraction the part of the phase done, from {@code 0} to {@code 1}.
+   */
+  void onProgress(Phase phase, double fraction);
+}
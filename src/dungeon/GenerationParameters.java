@@ -0,0 +1,151 @@
+package dungeon;
+
+import random.RandomGenerator;
+
+/**
+ * This represents the arguments of a {@link DungeonImpl} to be built by
+ * {@link DungeonImpl#generateAsync(GenerationParameters)}. They are checked when the dungeon is
+ * built, see
+ * {@link DungeonImpl#DungeonImpl(int, int, int, boolean, double, String, RandomGenerator, int,
+ * PathGenerator)}.
+ */
+public class GenerationParameters {
+
+  private final int rows;
+  private final int columns;
+  private final int interconnectivity;
+  private final boolean isWrapping;
+  private final double percentageOfTreasures;
+  private final String playerName;
+  private final RandomGenerator rand;
+  private final int maxAttempts;
+  private final PathGenerator pathGenerator;
+
+  /**
+   * Constructs the arguments of a dungeon generated in one attempt with
+   * {@link KruskalPathGenerator}.
+   *
+   * @param rows                  the number of rows.
+   * @param columns               the number of columns.
+   * @param interconnectivity     the interconnectivity.
+   * @param isWrapping            {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param playerName            the name of the player.
+   * @param rand                  the random generator.
+   */
+  public GenerationParameters(int rows, int columns, int interconnectivity, boolean isWrapping,
+                              double percentageOfTreasures, String playerName,
+                              RandomGenerator rand) {
+    this(rows, columns, interconnectivity, isWrapping, percentageOfTreasures, playerName, rand, 1,
+            new KruskalPathGenerator());
+  }
+
+  /**
+   * Constructs the arguments of a dungeon.
+   *
+   * @param rows                  the number of rows.
+   * @param columns               the number of columns.
+   * @param interconnectivity     the interconnectivity.
+   * @param isWrapping            {@code true} is dungeon is wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param playerName            the name of the player.
+   * @param rand                  the random generator.
+   * @param maxAttempts           the maximum number of times the paths are generated.
+   * @param pathGenerator         the algorithm connecting the locations.
+   */
+  public GenerationParameters(int rows, int columns, int interconnectivity, boolean isWrapping,
+                              double percentageOfTreasures, String playerName,
+                              RandomGenerator rand, int maxAttempts,
+                              PathGenerator pathGenerator) {
+    this.rows = rows;
+    this.columns = columns;
+    this.interconnectivity = interconnectivity;
+    this.isWrapping = isWrapping;
+    this.percentageOfTreasures = percentageOfTreasures;
+    this.playerName = playerName;
+    this.rand = rand;
+    this.maxAttempts = maxAttempts;
+    this.pathGenerator = pathGenerator;
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return this.rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return this.columns;
+  }
+
+  /**
+   * Returns the interconnectivity.
+   *
+   * @return the interconnectivity.
+   */
+  public int getInterconnectivity() {
+    return this.interconnectivity;
+  }
+
+  /**
+   * Returns if the dungeon is wrapping.
+   *
+   * @return {@code true} is dungeon is wrapping otherwise {@code false}.
+   */
+  public boolean isWrapping() {
+    return this.isWrapping;
+  }
+
+  /**
+   * Returns the percentage of caves to have treasures.
+   *
+   * @return the percentage.
+   */
+  public double getPercentageOfTreasures() {
+    return this.percentageOfTreasures;
+  }
+
+  /**
+   * Returns the name of the player.
+   *
+   * @return the name.
+   */
+  public String getPlayerName() {
+    return this.playerName;
+  }
+
+  /**
+   * Returns the random generator.
+   *
+   * @return the random generator.
+   */
+  public RandomGenerator getRand() {
+    return this.rand;
+  }
+
+  /**
+   * Returns the maximum number of times the paths are generated.
+   *
+   * @return the number of attempts.
+   */
+  public int getMaxAttempts() {
+    return this.maxAttempts;
+  }
+
+  /**
+   * Returns the algorithm connecting the locations.
+   *
+   * @return the path generator.
+   */
+  public PathGenerator getPathGenerator() {
+    return this.pathGenerator;
+  }
+}
@@ -0,0 +1,71 @@
+package dungeon;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import metrics.Phase;
+import random.RandomGenerator;
+
+/**
+ * This represents the construction of a {@link DungeonImpl} on behalf of a future. The
+ * construction calls {@link #checkpoint()} inside its loops and gives up as soon as the future is
+ * cancelled, times out or is otherwise completed exceptionally. A package-private class.
+ */
+class GenerationTask {
+
+  private final GenerationListener listener;
+  private volatile boolean isStopped;
+
+  /**
+   * Constructs a task building the dungeon of the given future.
+   *
+   * @param future   the future of the dungeon.
+   * @param listener the listener to be told the progress.
+   */
+  GenerationTask(CompletableFuture<?> future, GenerationListener listener) {
+    this.listener = listener;
+    future.whenComplete((dungeon, error) -> {
+      if (error != null) {
+        this.isStopped = true;
+      }
+    });
+  }
+
+  /**
+   * Stops the construction if the future no longer waits for it.
+   *
+   * @throws CancellationException if the future is cancelled, timed out or failed.
+   */
+  void checkpoint() throws CancellationException {
+    if (this.isStopped) {
+      throw new CancellationException("Dungeon generation was stopped.");
+    }
+  }
+
+  /**
+   * Tells the listener the progress of a phase and stops the construction if the future no longer
+   * waits for it.
+   *
+   * @param phase    the phase.
+   * @param fraction the part of the phase done.
+   * @throws CancellationException if the future is cancelled, timed out or failed.
+   */
+  void report(Phase phase, double fraction) throws CancellationException {
+    checkpoint();
+    this.listener.onProgress(phase, fraction);
+  }
+
+  /**
+   * Returns a random generator that calls {@link #checkpoint()} before every number it draws, so
+   * that path generators that know nothing of the task stop too.
+   *
+   * @param rand the random generator.
+   * @return the checked random generator.
+   */
+  RandomGenerator watch(RandomGenerator rand) {
+    return (upperBound, lowerBound) -> {
+      checkpoint();
+      return rand.getRandom(upperBound, lowerBound);
+    };
+  }
+}
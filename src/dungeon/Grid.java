@@ -0,0 +1,65 @@
+package dungeon;
+
+import location.Direction;
+
+/**
+ * The dungeon.Grid finds the neighbours of locations on one floor of a dungeon and the way back
+ * from them. The id of the location at row {@code r} and column {@code c} is
+ * {@code r * columns + c}. Moves wrap around the edges of the grid; a dungeon that does not wrap
+ * simply has no exits there, so the same arithmetic serves both.
+ */
+public final class Grid {
+
+  private Grid() {
+  }
+
+  /**
+   * Returns the id of the location one step from the given one in the given direction.
+   *
+   * @param id        the id of the location.
+   * @param direction the direction.
+   * @param rows      the number of rows of the floor.
+   * @param columns   the number of columns of the floor.
+   * @return the id of the neighbour, -1 for {@link Direction#UP} and {@link Direction#DOWN} as
+   *         stairs lead off the floor.
+   */
+  public static int neighbor(int id, Direction direction, int rows, int columns) {
+    int row = id / columns;
+    int column = id % columns;
+    switch (direction) {
+      case NORTH:
+        return (row - 1 + rows) % rows * columns + column;
+      case SOUTH:
+        return (row + 1) % rows * columns + column;
+      case EAST:
+        return row * columns + (column + 1) % columns;
+      case WEST:
+        return row * columns + (column - 1 + columns) % columns;
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * Returns the direction that leads back the way the given one came.
+   *
+   * @param direction the direction.
+   * @return the opposite direction.
+   */
+  public static Direction opposite(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      case WEST:
+        return Direction.EAST;
+      case UP:
+        return Direction.DOWN;
+      default:
+        return Direction.UP;
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.KruskalPathGenerator implements {@link PathGenerator} with randomized Kruskal's
+ * algorithm: potential paths are drawn at random and kept if they join two unconnected parts of
+ * the grid. This is the default generator of the {@link Dungeon}.
+ */
+public class KruskalPathGenerator implements PathGenerator {
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    return createSpanningTree(rows, columns, potentialPaths, rand, found -> { });
+  }
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand, IntConsumer onPath) {
+    return createSpanningTree(rows, columns, potentialPaths, rand, onPath, unions -> { });
+  }
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand, IntConsumer onPath,
+                                       LongConsumer onUnions) {
+    OrderStatisticList<Edge> candidates = new OrderStatisticList<>(potentialPaths);
+    SpanningTree paths = new SpanningTree();
+    int nodes = rows * columns;
+    UnionFind subsets = new UnionFind(nodes);
+    long unions = 0;
+
+    while (paths.size() < nodes - 1 && candidates.size() > 0) {
+      int randomIndex = rand.getRandom(candidates.size(), 0);
+      Edge nextEdge = candidates.remove(randomIndex);
+      unions++;
+      if (subsets.union(nextEdge.getFirstLocation(), nextEdge.getSecondLocation())) {
+        paths.add(nextEdge);
+        onPath.accept(paths.size());
+      } else {
+        paths.rejected.add(nextEdge);
+      }
+    }
+    for (int i = 0; i < candidates.size(); i++) {
+      paths.notDrawn.add(candidates.get(i));
+    }
+    onUnions.accept(unions);
+    return paths;
+  }
+
+  /**
+   * Returns the paths that would have closed a loop, in the order they were drawn, and then the
+   * paths that were never drawn, so that seeded dungeons have the same extra paths as before
+   * generators were pluggable. Trees this generator did not return get the order of
+   * {@link PathGenerator}.
+   */
+  @Override
+  public List<List<Edge>> extraPathCandidates(List<Edge> potentialPaths,
+                                              List<Edge> spanningTree) {
+    if (!(spanningTree instanceof SpanningTree)) {
+      return PathGenerator.super.extraPathCandidates(potentialPaths, spanningTree);
+    }
+    SpanningTree tree = (SpanningTree) spanningTree;
+    return List.of(tree.rejected, tree.notDrawn);
+  }
+
+  /**
+   * The paths of a spanning tree and the potential paths it left out.
+   */
+  private static class SpanningTree extends ArrayList<Edge> {
+
+    private final List<Edge> rejected = new ArrayList<>();
+    private final List<Edge> notDrawn = new ArrayList<>();
+  }
+}
@@ -0,0 +1,19 @@
+package dungeon;
+
+import location.Location;
+
+/**
+ * This represents the locations of one grid of the dungeon by row and column. A package-private
+ * interface.
+ */
+interface LocationGrid {
+
+  /**
+   * Returns the location at the given position.
+   *
+   * @param row    the row.
+   * @param column the column.
+   * @return the location.
+   */
+  Location get(int row, int column);
+}
@@ -0,0 +1,102 @@
+package dungeon;
+
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+import player.Player;
+
+/**
+ * This draws a {@link Dungeon} as text, eleven characters and three lines per location, in the
+ * format {@link AsciiMapParser} reads back. A package-private class.
+ */
+final class MapRenderer {
+
+  private static final String BLANK = "           ";
+  private static final String VERTICAL = "     |     ";
+
+  private MapRenderer() {
+  }
+
+  /**
+   * Draws the dungeon.
+   *
+   * @param dungeon      the dungeon.
+   * @param exploredOnly {@code true} to leave the locations the player has not seen blank.
+   * @return the drawing.
+   */
+  static String render(Dungeon dungeon, boolean exploredOnly) {
+    StringBuilder dungeonBuilder = new StringBuilder(
+            dungeon.getRows() * (3 * dungeon.getColumns() * BLANK.length() + 3));
+    render(dungeonBuilder, dungeon.getRows(), dungeon.getColumns(), dungeon::getLocation,
+            dungeon.getPlayer(), dungeon.getStartingCave().getId(),
+            dungeon.getDestinationCave().getId(), exploredOnly);
+    return dungeonBuilder.toString();
+  }
+
+  /**
+   * Draws one grid of locations. Stairs up and down are drawn as {@code ^} and {@code v} next to
+   * the location.
+   *
+   * @param dungeonBuilder the builder the drawing is appended to.
+   * @param rows           the number of rows.
+   * @param columns        the number of columns.
+   * @param grid           the locations of the grid.
+   * @param player         the player.
+   * @param startId        the id of the starting cave.
+   * @param endId          the id of the destination cave.
+   * @param exploredOnly   {@code true} to leave the locations the player has not seen blank.
+   */
+  static void render(StringBuilder dungeonBuilder, int rows, int columns, LocationGrid grid,
+                     Player player, int startId, int endId, boolean exploredOnly) {
+    int playerId = player.getLocation().getId();
+    Location[] row = new Location[columns];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        Location location = grid.get(i, j);
+        row[j] = exploredOnly && !player.hasSeen(location.getId()) ? null : location;
+      }
+      for (int j = 0; j < columns; j++) {
+        if (row[j] != null && row[j].getPossibleMoves().contains(Direction.NORTH)) {
+          dungeonBuilder.append(VERTICAL);
+        } else {
+          dungeonBuilder.append(BLANK);
+        }
+      }
+      dungeonBuilder.append("\n");
+      for (int j = 0; j < columns; j++) {
+        Location location = row[j];
+        if (location == null) {
+          dungeonBuilder.append(BLANK);
+          continue;
+        }
+
+        List<Direction> moves = location.getPossibleMoves();
+        dungeonBuilder.append(moves.contains(Direction.WEST) ? "---" : "   ");
+        dungeonBuilder.append(moves.contains(Direction.UP) ? '^' : ' ');
+        String locationString;
+        if (location.getId() == playerId) {
+          locationString = "P";
+        } else if (location.getId() == startId) {
+          locationString = "S";
+        } else if (location.getId() == endId) {
+          locationString = "D";
+        } else {
+          locationString = location.toString();
+        }
+        dungeonBuilder.append('[').append(locationString).append(']');
+        dungeonBuilder.append(moves.contains(Direction.DOWN) ? 'v' : ' ');
+        dungeonBuilder.append(moves.contains(Direction.EAST) ? "---" : "   ");
+      }
+      dungeonBuilder.append("\n");
+      for (int j = 0; j < columns; j++) {
+        if (row[j] != null && row[j].getPossibleMoves().contains(Direction.SOUTH)) {
+          dungeonBuilder.append(VERTICAL);
+        } else {
+          dungeonBuilder.append(BLANK);
+        }
+      }
+      dungeonBuilder.append("\n");
+    }
+  }
+}
@@ -0,0 +1,690 @@
+package dungeon;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import location.Cave;
+import location.Direction;
+import location.Location;
+import location.LocationUpdateState;
+import location.Treasure;
+import location.coordinate.Coordinate;
+import location.coordinate.CoordinateImpl;
+import player.Player;
+import player.PlayerImpl;
+
+/**
+ * The dungeon.MappedDungeon implements {@link Dungeon} and keeps the whole state of the game in a
+ * memory-mapped file instead of on the heap: the exits and the treasure counts of every location,
+ * the position and the treasures of the player and the locations the player has visited and
+ * seen. Moves and treasure collection update the mapping in place, so the world survives the
+ * process and a restart with {@link #open(Path, boolean)} only reads the header of the file;
+ * locations are read from the mapping when they are asked for.
+ *
+ * <p>Every update that touches more than one value first writes the old values to an undo record
+ * in the file. If the process dies in the middle of an update, opening the file again rolls the
+ * update back. In durable mode the record and the values the update touched are also forced to
+ * the storage device so that the same holds after a crash of the machine, at the cost of a sync
+ * per update.
+ *
+ * <p>The file is limited to 2 GB, about 400 million locations, and a location holds at most 255
+ * treasures of each kind. Like {@link DungeonImpl} the dungeon is not thread-safe.
+ */
+public class MappedDungeon implements Dungeon, Closeable {
+
+  private static final int MAGIC = 0x44474E31;
+  private static final int VERSION = 2;
+
+  private static final int ROWS = 8;
+  private static final int COLUMNS = 12;
+  private static final int WRAPPING = 16;
+  private static final int START = 20;
+  private static final int END = 24;
+  private static final int POSITION = 28;
+  private static final int SEEN_COUNT = 32;
+  private static final int COLLECTED = 36;
+  private static final int NAME_LENGTH = 48;
+  private static final int NAME = 52;
+  private static final int MAX_NAME_LENGTH = 76;
+
+  private static final int UNDO_STATE = 128;
+  private static final int UNDO_COUNT = 132;
+  private static final int UNDO_ENTRIES = 136;
+  private static final int MAX_UNDO_ENTRIES = 4;
+  private static final int CLEAN = 0;
+  private static final int PENDING = 1;
+
+  private static final int CELLS = 192;
+
+  private static final int SOUTH = 1;
+  private static final int NORTH = 2;
+  private static final int EAST = 4;
+  private static final int WEST = 8;
+
+  private final FileChannel channel;
+  private final MappedByteBuffer buffer;
+  private final boolean isDurable;
+  private final int rows;
+  private final int columns;
+  private final boolean isWrapping;
+  private final int visitedOffset;
+  private final int seenOffset;
+  private final String playerName;
+  private final Player player;
+  private GameEvents events;
+  private FlowField flowField;
+  private int[] touched;
+
+  private MappedDungeon(FileChannel channel, MappedByteBuffer buffer, boolean isDurable) {
+    this.channel = channel;
+    this.buffer = buffer;
+    this.isDurable = isDurable;
+    this.rows = buffer.getInt(ROWS);
+    this.columns = buffer.getInt(COLUMNS);
+    this.isWrapping = buffer.getInt(WRAPPING) != 0;
+    this.visitedOffset = CELLS + 4 * this.rows * this.columns;
+    this.seenOffset = this.visitedOffset + 4 * ((this.rows * this.columns + 31) / 32);
+    byte[] name = new byte[buffer.getInt(NAME_LENGTH)];
+    buffer.get(NAME, name);
+    this.playerName = new String(name, StandardCharsets.UTF_8);
+    this.player = new MappedPlayer();
+  }
+
+  /**
+   * Writes the given dungeon to a new file and returns the dungeon backed by it. The file is
+   * complete and forced to the storage device before this returns.
+   *
+   * @param file      the file, which must not exist yet.
+   * @param source    the dungeon whose locations, treasures and player are copied.
+   * @param isDurable {@code true} to force every update to the storage device.
+   * @return the dungeon backed by the file.
+   * @throws IOException              if the file exists or cannot be written.
+   * @throws IllegalArgumentException <ul><li>if {@code file} or {@code source} is
+   *                                  {@code null}.</li>
+   *                                  <li>if the dungeon is too large for one file.</li>
+   *                                  <li>if the name of the player is longer than 76 bytes.</li>
+   *                                  <li>if a location holds more than 255 treasures of a kind.
+   *                                  </li></ul>
+   */
+  public static MappedDungeon create(Path file, Dungeon source, boolean isDurable)
+          throws IOException, IllegalArgumentException {
+    if (file == null || source == null) {
+      throw new IllegalArgumentException("File and dungeon cannot be null.");
+    }
+    int rows = source.getRows();
+    int columns = source.getColumns();
+    long locations = (long) rows * columns;
+    long size = size(locations);
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Dungeon too large for a mapped file.");
+    }
+    byte[] name = source.getPlayer().getName().getBytes(StandardCharsets.UTF_8);
+    if (name.length > MAX_NAME_LENGTH) {
+      throw new IllegalArgumentException("Player name too long.");
+    }
+
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      int visitedOffset = CELLS + 4 * (int) locations;
+      int seenOffset = visitedOffset + 4 * (int) ((locations + 31) / 32);
+      int seenCount = 0;
+      Player player = source.getPlayer();
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < columns; j++) {
+          Location location = source.getLocation(i, j);
+          int id = location.getId();
+          buffer.putInt(CELLS + 4 * id, packCell(location));
+          boolean isVisited = player.hasVisited(id);
+          if (isVisited) {
+            buffer.putInt(visitedOffset + 4 * (id / 32),
+                    buffer.getInt(visitedOffset + 4 * (id / 32)) | 1 << (id % 32));
+          }
+          if (isVisited || player.hasSeen(id)) {
+            buffer.putInt(seenOffset + 4 * (id / 32),
+                    buffer.getInt(seenOffset + 4 * (id / 32)) | 1 << (id % 32));
+            seenCount++;
+          }
+        }
+      }
+      buffer.putInt(ROWS, rows);
+      buffer.putInt(COLUMNS, columns);
+      buffer.putInt(WRAPPING, source.isWrapping() ? 1 : 0);
+      buffer.putInt(START, source.getStartingCave().getId());
+      buffer.putInt(END, source.getDestinationCave().getId());
+      buffer.putInt(POSITION, source.getPlayerLocation().getId());
+      buffer.putInt(SEEN_COUNT, seenCount);
+      Map<Treasure, Integer> collected = source.getPlayer().getCollectedTreasures();
+      for (Treasure treasure : Treasure.values()) {
+        buffer.putInt(COLLECTED + 4 * treasure.ordinal(), collected.getOrDefault(treasure, 0));
+      }
+      buffer.putInt(NAME_LENGTH, name.length);
+      buffer.put(NAME, name);
+      buffer.putInt(UNDO_STATE, CLEAN);
+      buffer.force();
+      // the magic number goes last so that a file cut short by a crash is never opened
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.force();
+      return new MappedDungeon(channel, buffer, isDurable);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Opens a dungeon written by {@link #create(Path, Dungeon, boolean)}, rolling back an update
+   * that was cut short. Only the header of the file is read.
+   *
+   * @param file      the file.
+   * @param isDurable {@code true} to force every update to the storage device.
+   * @return the dungeon backed by the file.
+   * @throws IOException              if the file cannot be opened.
+   * @throws IllegalArgumentException <ul><li>if {@code file} is {@code null}.</li>
+   *                                  <li>if the file is not a dungeon written by this version.
+   *                                  </li></ul>
+   */
+  public static MappedDungeon open(Path file, boolean isDurable)
+          throws IOException, IllegalArgumentException {
+    if (file == null) {
+      throw new IllegalArgumentException("File cannot be null.");
+    }
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+    try {
+      long size = channel.size();
+      if (size < CELLS || size > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("Not a dungeon file.");
+      }
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+      long locations = (long) buffer.getInt(ROWS) * buffer.getInt(COLUMNS);
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION
+              || size != size(locations)) {
+        throw new IllegalArgumentException("Not a dungeon file.");
+      }
+      recover(buffer);
+      return new MappedDungeon(channel, buffer, isDurable);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static long size(long locations) {
+    // the cells, then one bitmap of visited and one of seen locations
+    return CELLS + 4 * locations + 8 * ((locations + 31) / 32);
+  }
+
+  private static void recover(MappedByteBuffer buffer) {
+    if (buffer.getInt(UNDO_STATE) != PENDING) {
+      return;
+    }
+    int count = buffer.getInt(UNDO_COUNT);
+    for (int i = 0; i < count; i++) {
+      int entry = UNDO_ENTRIES + 8 * i;
+      buffer.putInt(buffer.getInt(entry), buffer.getInt(entry + 4));
+    }
+    buffer.force();
+    buffer.putInt(UNDO_STATE, CLEAN);
+    buffer.force();
+  }
+
+  private static int exitBit(Direction direction) {
+    switch (direction) {
+      case SOUTH:
+        return SOUTH;
+      case NORTH:
+        return NORTH;
+      case EAST:
+        return EAST;
+      case WEST:
+        return WEST;
+      default:
+        return 0;
+    }
+  }
+
+  private static int packCell(Location location) throws IllegalArgumentException {
+    int exits = 0;
+    for (Direction direction : location.getPossibleMoves()) {
+      exits |= exitBit(direction);
+    }
+    int[] counts = new int[Treasure.values().length];
+    for (Treasure treasure : location.getTreasures()) {
+      counts[treasure.ordinal()]++;
+    }
+    int cell = exits << 24;
+    for (int k = 0; k < counts.length; k++) {
+      if (counts[k] > 255) {
+        throw new IllegalArgumentException("Too many treasures in one location.");
+      }
+      cell |= counts[k] << (16 - 8 * k);
+    }
+    return cell;
+  }
+
+  /**
+   * Forces all the changes to the storage device and closes the file. The mapping itself is
+   * released by the garbage collector; the dungeon must not be used after this.
+   *
+   * @throws IOException if closing the file fails.
+   */
+  @Override
+  public void close() throws IOException {
+    this.buffer.force();
+    this.channel.close();
+  }
+
+  @Override
+  public Player getPlayer() {
+    return this.player;
+  }
+
+  @Override
+  public Location getPlayerLocation() {
+    return new MappedLocation(this.buffer.getInt(POSITION));
+  }
+
+  @Override
+  public Location getStartingCave() {
+    return new MappedLocation(this.buffer.getInt(START));
+  }
+
+  @Override
+  public Location getDestinationCave() {
+    return new MappedLocation(this.buffer.getInt(END));
+  }
+
+  @Override
+  public int getRows() {
+    return this.rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public boolean isWrapping() {
+    return this.isWrapping;
+  }
+
+  @Override
+  public Location getLocation(int row, int column) throws IllegalArgumentException {
+    if (row < 0 || row >= this.rows || column < 0 || column >= this.columns) {
+      throw new IllegalArgumentException("Location is outside the dungeon.");
+    }
+    return new MappedLocation((this.columns * row) + column);
+  }
+
+  @Override
+  public void movePlayer(Direction direction)
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
+    if (direction == null || !move(direction)) {
+      throw new IllegalArgumentException("Invalid direction!");
+    }
+  }
+
+  @Override
+  public void collectAllTreasures() throws IllegalStateException {
+    checkNotDispatching();
+    collect(List.of(Treasure.values()));
+  }
+
+  @Override
+  public void collectTreasure(List<Treasure> treasures)
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
+    if (treasures == null) {
+      throw new IllegalArgumentException("Treasures cannot be null.");
+    }
+    collect(treasures);
+  }
+
+  @Override
+  public boolean isDestinationReached() {
+    return this.buffer.getInt(POSITION) == this.buffer.getInt(END);
+  }
+
+  @Override
+  public CommandResult execute(List<Command> commands)
+          throws IllegalArgumentException, IllegalStateException {
+    checkNotDispatching();
+    if (commands == null) {
+      throw new IllegalArgumentException("Commands cannot be null.");
+    }
+    for (Command command : commands) {
+      if (command == null) {
+        throw new IllegalArgumentException("Command cannot be null.");
+      }
+    }
+    int applied = 0;
+    int steps = 0;
+    int treasures = 0;
+    boolean isComplete = true;
+    for (Command command : commands) {
+      if (command.isMove()) {
+        if (!move(command.getDirection())) {
+          isComplete = false;
+          break;
+        }
+        steps++;
+      } else {
+        treasures += collect(List.of(Treasure.values()));
+      }
+      applied++;
+    }
+    return new CommandResult(applied, steps, treasures, getPlayerLocation(),
+            isDestinationReached(), isComplete);
+  }
+
+  @Override
+  public Direction nextStepToward(Location location) throws IllegalArgumentException {
+    if (location == null) {
+      throw new IllegalArgumentException("Location cannot be null.");
+    }
+    int end = this.buffer.getInt(END);
+    if (this.flowField == null || this.flowField.getTarget() != end) {
+      this.flowField = new FlowField(this.rows, this.columns,
+              (i, j) -> new MappedLocation(this.columns * i + j), end);
+    }
+    return this.flowField.nextStep(location.getId());
+  }
+
+  /**
+   * Returns a copy of the game on the heap: a {@link DungeonImpl} with the locations, the
+   * treasures and the player of this dungeon. The copy does not write to the file and the moves of
+   * either do not change the other. Copying takes time linear in the size of the dungeon.
+   *
+   * @return the copy of the game.
+   */
+  @Override
+  public Dungeon fork() {
+    List<List<LocationUpdateState>> dungeon = new ArrayList<>(this.rows);
+    List<Edge> paths = new ArrayList<>();
+    for (int i = 0; i < this.rows; i++) {
+      List<LocationUpdateState> row = new ArrayList<>(this.columns);
+      for (int j = 0; j < this.columns; j++) {
+        int id = this.columns * i + j;
+        int exits = this.buffer.getInt(CELLS + 4 * id) >>> 24;
+        if ((exits & SOUTH) != 0) {
+          paths.add(new Edge(id, Grid.neighbor(id, Direction.SOUTH, this.rows, this.columns)));
+        }
+        if ((exits & EAST) != 0) {
+          paths.add(new Edge(id, Grid.neighbor(id, Direction.EAST, this.rows, this.columns)));
+        }
+        row.add(new Cave(new MappedLocation(id)));
+      }
+      dungeon.add(row);
+    }
+    int start = this.buffer.getInt(START);
+    int end = this.buffer.getInt(END);
+    int position = this.buffer.getInt(POSITION);
+    return new DungeonImpl(dungeon, this.isWrapping, paths,
+            dungeon.get(start / this.columns).get(start % this.columns),
+            dungeon.get(end / this.columns).get(end % this.columns),
+            new PlayerImpl(this.player,
+                    dungeon.get(position / this.columns).get(position % this.columns),
+                    this.rows * this.columns));
+  }
+
+  @Override
+  public String renderExplored() {
+    return MapRenderer.render(this, true);
+  }
+
+  @Override
+  public void addListener(GameListener listener) throws IllegalArgumentException {
+    if (this.events == null) {
+      this.events = new GameEvents(this);
+    }
+    this.events.add(listener);
+  }
+
+  @Override
+  public void removeListener(GameListener listener) {
+    if (this.events != null) {
+      this.events.remove(listener);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return MapRenderer.render(this, false);
+  }
+
+  private boolean move(Direction direction) {
+    int position = this.buffer.getInt(POSITION);
+    int exits = this.buffer.getInt(CELLS + 4 * position) >>> 24;
+    if ((exits & exitBit(direction)) == 0) {
+      return false;
+    }
+    int next = Grid.neighbor(position, direction, this.rows, this.columns);
+
+    int word = this.visitedOffset + 4 * (next / 32);
+    int bit = 1 << (next % 32);
+    int visited = this.buffer.getInt(word);
+    if ((visited & bit) != 0) {
+      // a single aligned write cannot be torn, no undo record needed
+      this.buffer.putInt(POSITION, next);
+      if (this.isDurable) {
+        this.buffer.force(POSITION, 4);
+      }
+      moved(next, direction);
+      return true;
+    }
+    int seenWord = this.seenOffset + 4 * (next / 32);
+    int seen = this.buffer.getInt(seenWord);
+    if ((seen & bit) != 0) {
+      begin(POSITION, word);
+    } else {
+      begin(POSITION, word, seenWord, SEEN_COUNT);
+      this.buffer.putInt(seenWord, seen | bit);
+      this.buffer.putInt(SEEN_COUNT, this.buffer.getInt(SEEN_COUNT) + 1);
+    }
+    this.buffer.putInt(word, visited | bit);
+    this.buffer.putInt(POSITION, next);
+    commit();
+    moved(next, direction);
+    return true;
+  }
+
+  private void checkNotDispatching() throws IllegalStateException {
+    if (this.events != null) {
+      this.events.checkNotDispatching();
+    }
+  }
+
+  private void moved(int next, Direction direction) {
+    if (this.events != null && this.events.hasListeners()) {
+      this.events.moved(next, direction, next == this.buffer.getInt(END));
+    }
+  }
+
+  private int collect(List<Treasure> treasures) {
+    int position = this.buffer.getInt(POSITION);
+    int cellOffset = CELLS + 4 * position;
+    int cell = this.buffer.getInt(cellOffset);
+    if ((cell & 0xFFFFFF) == 0) {
+      return 0;
+    }
+    begin(cellOffset, COLLECTED, COLLECTED + 4, COLLECTED + 8);
+    int collected = 0;
+    for (Treasure treasure : Treasure.values()) {
+      int shift = 16 - 8 * treasure.ordinal();
+      int count = cell >>> shift & 0xFF;
+      if (count > 0 && treasures.contains(treasure)) {
+        int total = COLLECTED + 4 * treasure.ordinal();
+        this.buffer.putInt(total, this.buffer.getInt(total) + count);
+        cell &= ~(0xFF << shift);
+        collected += count;
+        if (this.events != null) {
+          this.events.addCollected(treasure, count);
+        }
+      }
+    }
+    this.buffer.putInt(cellOffset, cell);
+    commit();
+    if (this.events != null) {
+      this.events.collected(position);
+    }
+    return collected;
+  }
+
+  private void begin(int... offsets) {
+    this.touched = offsets;
+    for (int i = 0; i < offsets.length; i++) {
+      int entry = UNDO_ENTRIES + 8 * i;
+      this.buffer.putInt(entry, offsets[i]);
+      this.buffer.putInt(entry + 4, this.buffer.getInt(offsets[i]));
+    }
+    this.buffer.putInt(UNDO_COUNT, offsets.length);
+    if (this.isDurable) {
+      this.buffer.force(UNDO_COUNT, 4 + 8 * MAX_UNDO_ENTRIES);
+    }
+    this.buffer.putInt(UNDO_STATE, PENDING);
+    if (this.isDurable) {
+      this.buffer.force(UNDO_STATE, 4);
+    }
+  }
+
+  private void commit() {
+    if (this.isDurable) {
+      for (int offset : this.touched) {
+        this.buffer.force(offset, 4);
+      }
+    }
+    this.buffer.putInt(UNDO_STATE, CLEAN);
+    if (this.isDurable) {
+      this.buffer.force(UNDO_STATE, 4);
+    }
+  }
+
+  /**
+   * A location read from the mapping when asked for.
+   */
+  private class MappedLocation implements Location {
+
+    private final int id;
+
+    private MappedLocation(int id) {
+      this.id = id;
+    }
+
+    private int cell() {
+      return buffer.getInt(CELLS + 4 * this.id);
+    }
+
+    @Override
+    public int getId() {
+      return this.id;
+    }
+
+    @Override
+    public Coordinate getCoordinates() {
+      return new CoordinateImpl(this.id / columns, this.id % columns);
+    }
+
+    @Override
+    public List<Treasure> getTreasures() {
+      int cell = cell();
+      List<Treasure> treasures = new ArrayList<>();
+      for (Treasure treasure : Treasure.values()) {
+        int count = cell >>> (16 - 8 * treasure.ordinal()) & 0xFF;
+        for (int k = 0; k < count; k++) {
+          treasures.add(treasure);
+        }
+      }
+      return treasures;
+    }
+
+    @Override
+    public List<Direction> getPossibleMoves() {
+      int exits = cell() >>> 24;
+      List<Direction> moves = new ArrayList<>(4);
+      if ((exits & SOUTH) != 0) {
+        moves.add(Direction.SOUTH);
+      }
+      if ((exits & NORTH) != 0) {
+        moves.add(Direction.NORTH);
+      }
+      if ((exits & EAST) != 0) {
+        moves.add(Direction.EAST);
+      }
+      if ((exits & WEST) != 0) {
+        moves.add(Direction.WEST);
+      }
+      return moves;
+    }
+
+    @Override
+    public boolean isTunnel() {
+      return Integer.bitCount(cell() >>> 24) == 2;
+    }
+
+    @Override
+    public String toString() {
+      return isTunnel() ? "T" : "C";
+    }
+  }
+
+  /**
+   * The player, read from the mapping when asked for.
+   */
+  private class MappedPlayer implements Player {
+
+    @Override
+    public String getName() {
+      return playerName;
+    }
+
+    @Override
+    public Location getLocation() {
+      return getPlayerLocation();
+    }
+
+    @Override
+    public Map<Treasure, Integer> getCollectedTreasures() {
+      Map<Treasure, Integer> collected = new EnumMap<>(Treasure.class);
+      for (Treasure treasure : Treasure.values()) {
+        collected.put(treasure, buffer.getInt(COLLECTED + 4 * treasure.ordinal()));
+      }
+      return collected;
+    }
+
+    @Override
+    public boolean hasVisited(int locationId) {
+      if (locationId < 0 || locationId >= rows * columns) {
+        return false;
+      }
+      return (buffer.getInt(visitedOffset + 4 * (locationId / 32)) & 1 << (locationId % 32))
+              != 0;
+    }
+
+    @Override
+    public boolean hasSeen(int locationId) {
+      if (locationId < 0 || locationId >= rows * columns) {
+        return false;
+      }
+      return (buffer.getInt(seenOffset + 4 * (locationId / 32)) & 1 << (locationId % 32)) != 0;
+    }
+
+    @Override
+    public double getPercentageExplored() {
+      return 100.0 * buffer.getInt(SEEN_COUNT) / (rows * columns);
+    }
+  }
+}
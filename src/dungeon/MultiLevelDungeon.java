@@ -0,0 +1,125 @@
+package dungeon;
+
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+import location.Treasure;
+import player.Player;
+
+/**
+ * This represents a dungeon of stacked floors. Every floor is a grid of caves and tunnels like a
+ * {@link Dungeon}, and floors next to each other are joined by stairs, the exits
+ * {@link Direction#UP} and {@link Direction#DOWN}. The coordinates of every location are a
+ * {@link location.coordinate.LevelCoordinate}.
+ */
+public interface MultiLevelDungeon {
+
+  /**
+   * Returns the player of the dungeon.
+   *
+   * @return the player.
+   */
+  Player getPlayer();
+
+  /**
+   * Returns the current location of the player.
+   *
+   * @return the location.
+   */
+  Location getPlayerLocation();
+
+  /**
+   * Returns the starting cave of the dungeon.
+   *
+   * @return the starting cave.
+   */
+  Location getStartingCave();
+
+  /**
+   * Returns the destination cave of the dungeon.
+   *
+   * @return the destination cave.
+   */
+  Location getDestinationCave();
+
+  /**
+   * Returns the number of floors.
+   *
+   * @return the number of floors.
+   */
+  int getLevels();
+
+  /**
+   * Returns the number of rows of every floor.
+   *
+   * @return the number of rows.
+   */
+  int getRows();
+
+  /**
+   * Returns the number of columns of every floor.
+   *
+   * @return the number of columns.
+   */
+  int getColumns();
+
+  /**
+   * Returns if the floors are wrapping.
+   *
+   * @return {@code true} if the floors are wrapping otherwise {@code false}.
+   */
+  boolean isWrapping();
+
+  /**
+   * Returns the location at the given position.
+   *
+   * @param level  the floor, 0 for the bottom floor.
+   * @param row    the row.
+   * @param column the column.
+   * @return the location.
+   * @throws IllegalArgumentException if the position is outside the dungeon.
+   */
+  Location getLocation(int level, int row, int column);
+
+  /**
+   * Moves the player in the given direction, including up and down the stairs.
+   *
+   * @param direction the direction.
+   * @throws IllegalArgumentException <ul><li>if {@code direction} is {@code null}.</li>
+   *                                  <li>if the location of the player has no exit in that
+   *                                  direction.</li></ul>
+   */
+  void movePlayer(Direction direction);
+
+  /**
+   * Collects all the treasures at the location of the player.
+   */
+  void collectAllTreasures();
+
+  /**
+   * Collects the given kinds of treasures at the location of the player.
+   *
+   * @param treasures the kinds of treasures.
+   * @throws IllegalArgumentException if {@code treasures} is {@code null}.
+   */
+  void collectTreasure(List<Treasure> treasures);
+
+  /**
+   * Returns if the destination cave is reached or not.
+   *
+   * @return {@code true} if current location is destination cave otherwise {@code false}.
+   */
+  boolean isDestinationReached();
+
+  /**
+   * Returns the length of the shortest path between two locations, counting a flight of stairs
+   * as one step.
+   *
+   * @param from the first location.
+   * @param to   the second location.
+   * @return the number of steps.
+   * @throws IllegalArgumentException if either location is {@code null} or not in this dungeon.
+   */
+  int getDistance(Location from, Location to);
+}
@@ -0,0 +1,371 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import location.Cave;
+import location.Direction;
+import location.Location;
+import location.LocationUpdateState;
+import location.Treasure;
+import location.coordinate.LevelCoordinateImpl;
+import player.Player;
+import player.PlayerImpl;
+import player.PlayerUpdateState;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+/**
+ * The dungeon.MultiLevelDungeonImpl implements {@link MultiLevelDungeon}. Every floor is
+ * generated by {@link DungeonImpl} on its own, with its own seed drawn from the given random
+ * generator, and the floors are generated in parallel. The floors are then joined by stairs
+ * between the same row and column of neighbouring floors, which keeps the whole dungeon connected
+ * as every floor is. Finally the starting cave is picked on the bottom floor and the destination
+ * among the caves at least 5 steps away from it on any floor.
+ *
+ * <p>Stairs only go where the extra exit does not turn a cave with treasures into a tunnel.
+ * Shortest paths are found by a breadth-first search over the exits of all floors, stored as
+ * arrays of location ids.
+ */
+public class MultiLevelDungeonImpl implements MultiLevelDungeon {
+
+  private static final int MIN_DISTANCE = 5;
+  private static final int MAX_START_ATTEMPTS = 10;
+
+  private final int levels;
+  private final int rows;
+  private final int columns;
+  private final boolean isWrapping;
+  private final LocationUpdateState[] cells;
+  private final int[] firstExit;
+  private final int[] exits;
+  private final LocationUpdateState start;
+  private final LocationUpdateState end;
+  private final PlayerUpdateState player;
+
+  /**
+   * Constructs a multi-level dungeon.
+   *
+   * @param levels                the number of floors.
+   * @param rows                  the number of rows of every floor.
+   * @param columns               the number of columns of every floor.
+   * @param interconnectivity     the interconnectivity of every floor.
+   * @param isWrapping            {@code true} if the floors are wrapping otherwise {@code false}.
+   * @param percentageOfTreasures the percentage of caves to have treasures.
+   * @param stairs                the number of stairs between two neighbouring floors.
+   * @param playerName            the name of the player.
+   * @param rand                  the random generator.
+   * @param threads               the number of floors generated at the same time.
+   * @throws IllegalArgumentException <ul><li>if {@code levels}, {@code stairs} or
+   *                                  {@code threads} is less than 1.</li>
+   *                                  <li>if a floor of the given configuration is not feasible,
+   *                                  see {@link DungeonImpl#isFeasible(int, int, int, boolean)}.
+   *                                  </li>
+   *                                  <li>if the dungeon has too many locations.</li>
+   *                                  <li>if percentage of treasures is less than 0 or more than
+   *                                  100.</li>
+   *                                  <li>if {@code playerName} is {@code null} or empty.</li>
+   *                                  <li>if {@code rand} is {@code null}.</li>
+   *                                  <li>if the stairs or the destination cannot be placed.</li>
+   *                                  </ul>
+   */
+  public MultiLevelDungeonImpl(int levels, int rows, int columns, int interconnectivity,
+                               boolean isWrapping, double percentageOfTreasures, int stairs,
+                               String playerName, RandomGenerator rand, int threads)
+          throws IllegalArgumentException {
+    if (levels < 1) {
+      throw new IllegalArgumentException("Number of levels must be positive.");
+    }
+    if (stairs < 1) {
+      throw new IllegalArgumentException("Number of stairs must be positive.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+    if (!DungeonImpl.isFeasible(rows, columns, interconnectivity, isWrapping)) {
+      throw new IllegalArgumentException("Invalid configuration of a floor.");
+    }
+    if ((long) levels * rows * columns > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Too many locations.");
+    }
+    if (percentageOfTreasures < 0 || percentageOfTreasures > 100) {
+      throw new IllegalArgumentException("Percentage of caves with treasures cannot be negative.");
+    }
+    if (playerName == null || playerName.equals("")) {
+      throw new IllegalArgumentException("Player name cannot be null or empty");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("Random generator cannot be null.");
+    }
+
+    this.levels = levels;
+    this.rows = rows;
+    this.columns = columns;
+    this.isWrapping = isWrapping;
+
+    long seed = ParallelPathGenerator.seedFrom(rand);
+    RandomFactory randomFactory = new RandomFactory();
+    Dungeon[] floors = new Dungeon[levels];
+    new Stripes(levels, threads).forEach((stripe, firstLevel, endLevel) -> {
+      for (int level = firstLevel; level < endLevel; level++) {
+        floors[level] = new DungeonImpl(rows, columns, interconnectivity, isWrapping,
+                percentageOfTreasures, playerName, randomFactory.getRandomGenerator(seed + level),
+                MAX_START_ATTEMPTS, new KruskalPathGenerator());
+      }
+    });
+
+    this.cells = copyFloors(floors);
+    addStairs(stairs, rand);
+    int perLevel = rows * columns;
+    this.firstExit = new int[this.cells.length + 1];
+    for (int id = 0; id < this.cells.length; id++) {
+      this.firstExit[id + 1] = this.firstExit[id] + this.cells[id].getPossibleMoves().size();
+    }
+    this.exits = new int[this.firstExit[this.cells.length]];
+    for (int id = 0; id < this.cells.length; id++) {
+      int k = this.firstExit[id];
+      for (Direction direction : this.cells[id].getPossibleMoves()) {
+        this.exits[k++] = getNeighbor(id, direction);
+      }
+    }
+
+    LocationUpdateState source = null;
+    LocationUpdateState destination = null;
+    List<LocationUpdateState> bottomCaves = new ArrayList<>();
+    for (int id = 0; id < perLevel; id++) {
+      if (!this.cells[id].isTunnel()) {
+        bottomCaves.add(this.cells[id]);
+      }
+    }
+    for (int attempt = 0; attempt < MAX_START_ATTEMPTS && destination == null
+            && !bottomCaves.isEmpty(); attempt++) {
+      source = bottomCaves.get(rand.getRandom(bottomCaves.size(), 0));
+      int[] distances = distancesFrom(source.getId(), -1);
+      List<LocationUpdateState> farCaves = new ArrayList<>();
+      for (int id = 0; id < this.cells.length; id++) {
+        if (distances[id] >= MIN_DISTANCE && !this.cells[id].isTunnel()) {
+          farCaves.add(this.cells[id]);
+        }
+      }
+      if (!farCaves.isEmpty()) {
+        destination = farCaves.get(rand.getRandom(farCaves.size(), 0));
+      }
+    }
+    if (destination == null) {
+      throw new IllegalArgumentException("Cannot find a destination at least " + MIN_DISTANCE
+              + " away from the start.");
+    }
+    this.start = source;
+    this.end = destination;
+    this.player = new PlayerImpl(playerName, this.start, this.cells.length);
+  }
+
+  private LocationUpdateState[] copyFloors(Dungeon[] floors) {
+    int perLevel = this.rows * this.columns;
+    LocationUpdateState[] copies = new LocationUpdateState[this.levels * perLevel];
+    for (int level = 0; level < this.levels; level++) {
+      for (int i = 0; i < this.rows; i++) {
+        for (int j = 0; j < this.columns; j++) {
+          Location location = floors[level].getLocation(i, j);
+          int id = level * perLevel + i * this.columns + j;
+          Cave cave = new Cave(id, new LevelCoordinateImpl(level, i, j));
+          cave.setValidMoves(new ArrayList<>(location.getPossibleMoves()));
+          cave.addTreasures(location.getTreasures());
+          copies[id] = cave;
+        }
+      }
+    }
+    return copies;
+  }
+
+  private void addStairs(int stairs, RandomGenerator rand) throws IllegalArgumentException {
+    int perLevel = this.rows * this.columns;
+    for (int level = 0; level < this.levels - 1; level++) {
+      List<Integer> candidates = new ArrayList<>();
+      for (int position = 0; position < perLevel; position++) {
+        if (acceptsStairs(this.cells[level * perLevel + position])
+                && acceptsStairs(this.cells[(level + 1) * perLevel + position])) {
+          candidates.add(position);
+        }
+      }
+      if (candidates.isEmpty()) {
+        throw new IllegalArgumentException("Cannot place stairs above level " + level + ".");
+      }
+      OrderStatisticList<Integer> positions = new OrderStatisticList<>(candidates);
+      for (int k = 0; k < stairs && positions.size() > 0; k++) {
+        int position = positions.remove(rand.getRandom(positions.size(), 0));
+        addExit(this.cells[level * perLevel + position], Direction.UP);
+        addExit(this.cells[(level + 1) * perLevel + position], Direction.DOWN);
+      }
+    }
+  }
+
+  private static boolean acceptsStairs(Location location) {
+    return location.getPossibleMoves().size() != 1 || location.getTreasures().isEmpty();
+  }
+
+  private static void addExit(LocationUpdateState location, Direction direction) {
+    List<Direction> moves = new ArrayList<>(location.getPossibleMoves());
+    moves.add(direction);
+    location.setValidMoves(moves);
+  }
+
+  @Override
+  public Player getPlayer() {
+    return this.player;
+  }
+
+  @Override
+  public Location getPlayerLocation() {
+    return this.player.getLocation();
+  }
+
+  @Override
+  public Location getStartingCave() {
+    return this.start;
+  }
+
+  @Override
+  public Location getDestinationCave() {
+    return this.end;
+  }
+
+  @Override
+  public int getLevels() {
+    return this.levels;
+  }
+
+  @Override
+  public int getRows() {
+    return this.rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public boolean isWrapping() {
+    return this.isWrapping;
+  }
+
+  @Override
+  public Location getLocation(int level, int row, int column) throws IllegalArgumentException {
+    if (level < 0 || level >= this.levels || row < 0 || row >= this.rows || column < 0
+            || column >= this.columns) {
+      throw new IllegalArgumentException("Location is outside the dungeon.");
+    }
+    return this.cells[(level * this.rows + row) * this.columns + column];
+  }
+
+  @Override
+  public void movePlayer(Direction direction) throws IllegalArgumentException {
+    if (direction == null || !this.player.getLocation().getPossibleMoves().contains(direction)) {
+      throw new IllegalArgumentException("Invalid direction!");
+    }
+    this.player.move(this.cells[getNeighbor(this.player.getLocation().getId(), direction)]);
+  }
+
+  @Override
+  public void collectAllTreasures() {
+    this.player.collectTreasures(List.of(Treasure.values()));
+  }
+
+  @Override
+  public void collectTreasure(List<Treasure> treasures) throws IllegalArgumentException {
+    if (treasures == null) {
+      throw new IllegalArgumentException("Treasures cannot be null.");
+    }
+    this.player.collectTreasures(new ArrayList<>(treasures));
+  }
+
+  @Override
+  public boolean isDestinationReached() {
+    return this.player.getLocation().getId() == this.end.getId();
+  }
+
+  @Override
+  public int getDistance(Location from, Location to) throws IllegalArgumentException {
+    if (from == null || to == null || !contains(from) || !contains(to)) {
+      throw new IllegalArgumentException("Locations must be in this dungeon.");
+    }
+    return distancesFrom(from.getId(), to.getId())[to.getId()];
+  }
+
+  /**
+   * Returns the floors from the bottom up, drawn like {@link Dungeon#toString()} with stairs up
+   * and down drawn as {@code ^} and {@code v} next to the location.
+   *
+   * @return the drawing.
+   */
+  @Override
+  public String toString() {
+    return render(false);
+  }
+
+  /**
+   * Returns the floors drawn like {@link #toString()}, but with only the locations the player has
+   * seen.
+   *
+   * @return the drawing of the explored part of the dungeon.
+   */
+  public String renderExplored() {
+    return render(true);
+  }
+
+  private String render(boolean exploredOnly) {
+    StringBuilder dungeonBuilder = new StringBuilder();
+    for (int level = 0; level < this.levels; level++) {
+      int offset = level * this.rows * this.columns;
+      dungeonBuilder.append("Level ").append(level).append('\n');
+      MapRenderer.render(dungeonBuilder, this.rows, this.columns,
+          (row, column) -> this.cells[offset + row * this.columns + column], this.player,
+          this.start.getId(), this.end.getId(), exploredOnly);
+    }
+    return dungeonBuilder.toString();
+  }
+
+  private boolean contains(Location location) {
+    int id = location.getId();
+    return id >= 0 && id < this.cells.length && this.cells[id] == location;
+  }
+
+  private int getNeighbor(int id, Direction direction) {
+    int perLevel = this.rows * this.columns;
+    switch (direction) {
+      case UP:
+        return id + perLevel;
+      case DOWN:
+        return id - perLevel;
+      default:
+        return id - id % perLevel
+                + Grid.neighbor(id % perLevel, direction, this.rows, this.columns);
+    }
+  }
+
+  private int[] distancesFrom(int source, int target) {
+    int[] distances = new int[this.cells.length];
+    Arrays.fill(distances, -1);
+    int[] queue = new int[this.cells.length];
+    int head = 0;
+    int tail = 0;
+    distances[source] = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int node = queue[head++];
+      if (node == target) {
+        break;
+      }
+      for (int k = this.firstExit[node]; k < this.firstExit[node + 1]; k++) {
+        int next = this.exits[k];
+        if (distances[next] < 0) {
+          distances[next] = distances[node] + 1;
+          queue[tail++] = next;
+        }
+      }
+    }
+    return distances;
+  }
+}
@@ -0,0 +1,92 @@
+package dungeon;
+
+import java.util.List;
+
+/**
+ * This represents a fixed list from which elements are removed by their current index, as the
+ * random draws of the dungeon generation do. Unlike removing from an {@link java.util.ArrayList},
+ * which shifts every later element, both lookup and removal take logarithmic time, while the
+ * indexes seen by the caller stay exactly the same. A package-private class.
+ *
+ * @param <T> the type of the elements.
+ */
+class OrderStatisticList<T> {
+
+  private final Object[] elements;
+  private final int[] tree;
+  private final int highestBit;
+  private int size;
+
+  /**
+   * Constructs the list with the given elements in order.
+   *
+   * @param elements the elements.
+   */
+  OrderStatisticList(List<? extends T> elements) {
+    this.elements = elements.toArray();
+    this.size = this.elements.length;
+    this.tree = new int[this.size + 1];
+    for (int i = 1; i <= this.size; i++) {
+      this.tree[i]++;
+      int parent = i + (i & -i);
+      if (parent <= this.size) {
+        this.tree[parent] += this.tree[i];
+      }
+    }
+    this.highestBit = this.size == 0 ? 0 : Integer.highestOneBit(this.size);
+  }
+
+  /**
+   * Returns the number of elements left.
+   *
+   * @return the size.
+   */
+  int size() {
+    return this.size;
+  }
+
+  /**
+   * Returns the element at the given index among the elements left.
+   *
+   * @param index the index.
+   * @return the element.
+   * @throws IndexOutOfBoundsException if the index is negative or not less than the size.
+   */
+  @SuppressWarnings("unchecked")
+  T get(int index) throws IndexOutOfBoundsException {
+    return (T) this.elements[position(index)];
+  }
+
+  /**
+   * Removes the element at the given index among the elements left.
+   *
+   * @param index the index.
+   * @return the removed element.
+   * @throws IndexOutOfBoundsException if the index is negative or not less than the size.
+   */
+  @SuppressWarnings("unchecked")
+  T remove(int index) throws IndexOutOfBoundsException {
+    int position = position(index);
+    for (int i = position + 1; i < this.tree.length; i += i & -i) {
+      this.tree[i]--;
+    }
+    this.size--;
+    return (T) this.elements[position];
+  }
+
+  private int position(int index) {
+    if (index < 0 || index >= this.size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+    }
+    int position = 0;
+    int remaining = index;
+    for (int step = this.highestBit; step > 0; step >>= 1) {
+      int next = position + step;
+      if (next < this.tree.length && this.tree[next] <= remaining) {
+        position = next;
+        remaining -= this.tree[next];
+      }
+    }
+    return position;
+  }
+}
@@ -0,0 +1,155 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.ParallelPathGenerator implements {@link PathGenerator} for very large grids. The
+ * rows are split into one stripe per thread. Each stripe gets a random spanning tree of its own
+ * paths in parallel, by Kruskal's algorithm over a shuffled list, leaving out the rows next to
+ * the other stripes. A final pass of Kruskal's algorithm over the paths of those rows and the paths
+ * that cross stripes then joins the stripe trees. As the paths across a seam compete at random
+ * with the paths along it, stripes are joined by many passages, as in a sequential tree, and not
+ * by a single one.
+ *
+ * <p>The generator draws a single seed from the given random generator and derives a separate
+ * stream per stripe from it, so the dungeon is the same for the same seed and number of threads.
+ * A {@link Dungeon} built with this generator also finds exits and places treasures by stripes.
+ */
+public class ParallelPathGenerator implements PathGenerator {
+
+  // the rows on either side of a seam whose paths are chosen in the final pass
+  private static final int SEAM_ROWS = 2;
+
+  private final int threads;
+
+  /**
+   * Constructs a parallel path generator.
+   *
+   * @param threads the number of threads.
+   * @throws IllegalArgumentException if {@code threads} is less than 1.
+   */
+  public ParallelPathGenerator(int threads) throws IllegalArgumentException {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+    this.threads = threads;
+  }
+
+  @Override
+  public int getParallelism() {
+    return this.threads;
+  }
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand, IntConsumer onPath,
+                                       LongConsumer onUnions) {
+    List<Edge> paths = createSpanningTree(rows, columns, potentialPaths, rand);
+    onPath.accept(paths.size());
+    // every potential path is offered to the union-find once, by a stripe or the final pass
+    onUnions.accept(potentialPaths.size());
+    return paths;
+  }
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    long seed = seedFrom(rand);
+    Stripes stripes = new Stripes(rows, this.threads);
+    int[] stripeOfRow = new int[rows];
+    for (int i = 0; i < stripes.count(); i++) {
+      for (int row = stripes.firstRow(i); row < stripes.endRow(i); row++) {
+        stripeOfRow[row] = i;
+      }
+    }
+
+    // the first and last rows only meet at a seam if paths wrap around from one to the other
+    boolean isWrapping = false;
+    for (Edge edge : potentialPaths) {
+      int firstRow = edge.getFirstLocation() / columns;
+      int secondRow = edge.getSecondLocation() / columns;
+      isWrapping |= Math.abs(firstRow - secondRow) > 1;
+    }
+
+    // paths near a seam are left to the final pass, where they compete at random with the paths
+    // across it, so that stripes are joined by as many passages as a sequential tree would have
+    boolean[] isNearSeam = new boolean[rows];
+    for (int i = 0; i < stripes.count() && stripes.count() > 1; i++) {
+      for (int k = 0; k < SEAM_ROWS; k++) {
+        if (i > 0 || isWrapping) {
+          isNearSeam[Math.min(stripes.firstRow(i) + k, rows - 1)] = true;
+        }
+        if (i < stripes.count() - 1 || isWrapping) {
+          isNearSeam[Math.max(stripes.endRow(i) - 1 - k, 0)] = true;
+        }
+      }
+    }
+
+    List<List<Edge>> stripePaths = new ArrayList<>();
+    for (int i = 0; i < stripes.count(); i++) {
+      stripePaths.add(new ArrayList<>());
+    }
+    List<Edge> seamPaths = new ArrayList<>();
+    for (Edge edge : potentialPaths) {
+      int firstRow = edge.getFirstLocation() / columns;
+      int secondRow = edge.getSecondLocation() / columns;
+      if (stripeOfRow[firstRow] == stripeOfRow[secondRow] && !isNearSeam[firstRow]
+              && !isNearSeam[secondRow]) {
+        stripePaths.get(stripeOfRow[firstRow]).add(edge);
+      } else {
+        seamPaths.add(edge);
+      }
+    }
+
+    // stripes only touch the union-find entries of their own locations
+    UnionFind subsets = new UnionFind(rows * columns);
+    List<List<Edge>> trees = new ArrayList<>();
+    for (int i = 0; i < stripes.count(); i++) {
+      trees.add(null);
+    }
+    stripes.forEach((stripe, firstRow, endRow) -> trees.set(stripe,
+            kruskal(stripePaths.get(stripe), subsets, new Random(seed + stripe + 1))));
+
+    List<Edge> paths = new ArrayList<>(rows * columns);
+    for (List<Edge> tree : trees) {
+      paths.addAll(tree);
+    }
+    paths.addAll(kruskal(seamPaths, subsets, new Random(seed)));
+    return paths;
+  }
+
+  private List<Edge> kruskal(List<Edge> candidates, UnionFind subsets, Random random) {
+    Edge[] shuffled = candidates.toArray(new Edge[0]);
+    for (int i = shuffled.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      Edge swap = shuffled[i];
+      shuffled[i] = shuffled[j];
+      shuffled[j] = swap;
+    }
+    List<Edge> tree = new ArrayList<>();
+    for (Edge edge : shuffled) {
+      if (subsets.union(edge.getFirstLocation(), edge.getSecondLocation())) {
+        tree.add(edge);
+      }
+    }
+    return tree;
+  }
+
+  /**
+   * Draws a 62-bit seed from the random generator.
+   *
+   * @param rand the random generator.
+   * @return the seed.
+   */
+  static long seedFrom(RandomGenerator rand) {
+    long high = rand.getRandom(Integer.MAX_VALUE, 0);
+    long low = rand.getRandom(Integer.MAX_VALUE, 0);
+    return (high << 31) | low;
+  }
+}
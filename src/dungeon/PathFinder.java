@@ -0,0 +1,142 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+
+/**
+ * This answers the distance and shortest path queries of a {@link Dungeon} with the search that
+ * is fastest for its map. Distances come from a {@link Bitboard}, which expands a whole layer of
+ * the search per word. Paths come from the {@link CaveGraph} when tunnels make up a large share
+ * of the locations, as on mazes with few extra paths: its search skips every tunnel. On maps
+ * with few tunnels, the graph has nearly as many nodes as the grid and a breadth-first search
+ * that stops at the target is faster. The finder reflects the exits of the dungeon when it was
+ * built and builds each search structure on first use. A package-private class.
+ */
+final class PathFinder {
+
+  // paths go through the cave graph once at least this share of the locations are tunnels
+  private static final double TUNNEL_SHARE = 0.25;
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final int rows;
+  private final int columns;
+  private final LocationGrid grid;
+  private Bitboard bitboard;
+  private CaveGraph caveGraph;
+  private Boolean isContracting;
+
+  /**
+   * Constructs a path finder for the given grid.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @param grid    the locations.
+   */
+  PathFinder(int rows, int columns, LocationGrid grid) {
+    this.rows = rows;
+    this.columns = columns;
+    this.grid = grid;
+  }
+
+  /**
+   * Returns the length of the shortest path between two locations.
+   *
+   * @param source the id of the first location.
+   * @param target the id of the second location.
+   * @return the number of steps, -1 if the target cannot be reached.
+   * @throws IllegalArgumentException if either id is not a location id.
+   */
+  int distance(int source, int target) throws IllegalArgumentException {
+    Bitboard bitboard = this.bitboard;
+    if (bitboard == null) {
+      bitboard = new Bitboard(this.rows, this.columns, this.grid);
+      this.bitboard = bitboard;
+    }
+    return bitboard.distance(source, target);
+  }
+
+  /**
+   * Returns the moves of a shortest path between two locations.
+   *
+   * @param source the id of the first location.
+   * @param target the id of the second location.
+   * @return the moves, empty if the locations are the same, {@code null} if the target cannot
+   *         be reached.
+   * @throws IllegalArgumentException if either id is not a location id.
+   */
+  List<Direction> shortestPath(int source, int target) throws IllegalArgumentException {
+    checkId(source);
+    checkId(target);
+    Boolean isContracting = this.isContracting;
+    if (isContracting == null) {
+      isContracting = countTunnels() >= TUNNEL_SHARE * this.rows * this.columns;
+      this.isContracting = isContracting;
+    }
+    if (!isContracting) {
+      return searchPath(source, target);
+    }
+    CaveGraph caveGraph = this.caveGraph;
+    if (caveGraph == null) {
+      caveGraph = new CaveGraph(this.rows, this.columns, this.grid);
+      this.caveGraph = caveGraph;
+    }
+    return caveGraph.shortestPath(source, target);
+  }
+
+  private int countTunnels() {
+    int tunnels = 0;
+    for (int id = 0; id < this.rows * this.columns; id++) {
+      if (location(id).isTunnel()) {
+        tunnels++;
+      }
+    }
+    return tunnels;
+  }
+
+  private List<Direction> searchPath(int source, int target) {
+    // the move that led to each location, -1 for locations not found yet
+    byte[] cameBy = new byte[this.rows * this.columns];
+    Arrays.fill(cameBy, (byte) -1);
+    int[] queue = new int[cameBy.length];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    cameBy[source] = Byte.MAX_VALUE;
+    while (head < tail && cameBy[target] < 0) {
+      int id = queue[head++];
+      for (Direction direction : location(id).getPossibleMoves()) {
+        int next = Grid.neighbor(id, direction, this.rows, this.columns);
+        if (next >= 0 && cameBy[next] < 0) {
+          cameBy[next] = (byte) direction.ordinal();
+          queue[tail++] = next;
+        }
+      }
+    }
+    if (cameBy[target] < 0) {
+      return null;
+    }
+    List<Direction> moves = new ArrayList<>();
+    for (int id = target; id != source; ) {
+      Direction direction = DIRECTIONS[cameBy[id]];
+      moves.add(direction);
+      id = Grid.neighbor(id, Grid.opposite(direction), this.rows, this.columns);
+    }
+    Collections.reverse(moves);
+    return moves;
+  }
+
+  private Location location(int id) {
+    return this.grid.get(id / this.columns, id % this.columns);
+  }
+
+  private void checkId(int id) throws IllegalArgumentException {
+    if (id < 0 || id >= this.rows * this.columns) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+  }
+}
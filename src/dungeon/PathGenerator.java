@@ -0,0 +1,102 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.PathGenerator represents an algorithm that connects all the locations of the
+ * dungeon grid with a spanning tree of paths. The {@link Dungeon} adds the extra paths for its
+ * interconnectivity afterwards, the same way for every algorithm.
+ */
+public interface PathGenerator {
+
+  /**
+   * Returns a spanning tree over the locations of the grid, chosen from the potential paths.
+   *
+   * @param rows           the number of rows of the grid.
+   * @param columns        the number of columns of the grid. Location ids are
+   *                       {@code row * columns + column}.
+   * @param potentialPaths every path the grid can have.
+   * @param rand           the random generator.
+   * @return the {@code rows * columns - 1} paths of the spanning tree.
+   */
+  List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                RandomGenerator rand);
+
+  /**
+   * Returns a spanning tree like {@link #createSpanningTree(int, int, List, RandomGenerator)} and
+   * tells the given consumer the number of paths chosen so far. Generators that do not track
+   * their progress tell it once, when the tree is done.
+   *
+   * @param rows           the number of rows of the grid.
+   * @param columns        the number of columns of the grid.
+   * @param potentialPaths every path the grid can have.
+   * @param rand           the random generator.
+   * @param onPath         the consumer of the number of paths chosen.
+   * @return the {@code rows * columns - 1} paths of the spanning tree.
+   */
+  default List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                        RandomGenerator rand, IntConsumer onPath) {
+    List<Edge> paths = createSpanningTree(rows, columns, potentialPaths, rand);
+    onPath.accept(paths.size());
+    return paths;
+  }
+
+  /**
+   * Returns a spanning tree like
+   * {@link #createSpanningTree(int, int, List, RandomGenerator, IntConsumer)} and tells the
+   * second consumer the number of union-find operations the generator ran, once the tree is
+   * done. Generators that use no union-find never tell it.
+   *
+   * @param rows           the number of rows of the grid.
+   * @param columns        the number of columns of the grid.
+   * @param potentialPaths every path the grid can have.
+   * @param rand           the random generator.
+   * @param onPath         the consumer of the number of paths chosen.
+   * @param onUnions       the consumer of the number of union-find operations.
+   * @return the {@code rows * columns - 1} paths of the spanning tree.
+   */
+  default List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                        RandomGenerator rand, IntConsumer onPath,
+                                        LongConsumer onUnions) {
+    return createSpanningTree(rows, columns, potentialPaths, rand, onPath);
+  }
+
+  /**
+   * Returns the potential paths left out of a spanning tree this generator returned, in the
+   * order the {@link Dungeon} draws its extra paths from them: at random from the first list
+   * until it runs out, then from the next. This implementation returns a single list of the
+   * potential paths that are not in the tree, in their original order.
+   *
+   * @param potentialPaths every path the grid can have.
+   * @param spanningTree   the spanning tree, as returned by this generator.
+   * @return the lists of candidates for the extra paths.
+   */
+  default List<List<Edge>> extraPathCandidates(List<Edge> potentialPaths,
+                                               List<Edge> spanningTree) {
+    Set<Edge> tree = new HashSet<>(spanningTree);
+    List<Edge> candidates = new ArrayList<>();
+    for (Edge potentialPath : potentialPaths) {
+      if (!tree.contains(potentialPath)) {
+        candidates.add(potentialPath);
+      }
+    }
+    return List.of(candidates);
+  }
+
+  /**
+   * Returns the number of threads the {@link Dungeon} may use for the other stages of generation,
+   * finding the exits and placing the treasures. Generators that run on a single thread return 1.
+   *
+   * @return the number of threads.
+   */
+  default int getParallelism() {
+    return 1;
+  }
+}
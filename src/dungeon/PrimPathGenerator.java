@@ -0,0 +1,50 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.PrimPathGenerator implements {@link PathGenerator} with randomized Prim's
+ * algorithm: the tree grows from a random location by a random path on its frontier. The result
+ * has many short dead ends.
+ */
+public class PrimPathGenerator implements PathGenerator {
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    int nodes = rows * columns;
+    Adjacency adjacency = new Adjacency(nodes, potentialPaths);
+    boolean[] inTree = new boolean[nodes];
+    List<Edge> frontier = new ArrayList<>();
+    List<Edge> paths = new ArrayList<>();
+    addToTree(rand.getRandom(nodes, 0), adjacency, inTree, frontier);
+
+    while (paths.size() < nodes - 1 && !frontier.isEmpty()) {
+      int randomIndex = rand.getRandom(frontier.size(), 0);
+      Edge edge = frontier.get(randomIndex);
+      frontier.set(randomIndex, frontier.get(frontier.size() - 1));
+      frontier.remove(frontier.size() - 1);
+
+      int node = inTree[edge.getFirstLocation()] ? edge.getSecondLocation()
+              : edge.getFirstLocation();
+      if (!inTree[node]) {
+        paths.add(edge);
+        addToTree(node, adjacency, inTree, frontier);
+      }
+    }
+    return paths;
+  }
+
+  private void addToTree(int node, Adjacency adjacency, boolean[] inTree, List<Edge> frontier) {
+    inTree[node] = true;
+    for (int i = 0; i < adjacency.degree(node); i++) {
+      Edge edge = adjacency.edge(node, i);
+      if (!inTree[Adjacency.other(edge, node)]) {
+        frontier.add(edge);
+      }
+    }
+  }
+}
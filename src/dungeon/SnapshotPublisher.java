@@ -0,0 +1,55 @@
+package dungeon;
+
+/**
+ * This lets one writer thread play a {@link Dungeon} while any number of reader threads look at
+ * it. The writer calls {@link #publish()} whenever the readers should see its progress; readers
+ * call {@link #getSnapshot()} and get the latest published {@link DungeonSnapshot} with a single
+ * volatile read. Neither side ever blocks the other and readers share no mutable state, so reads
+ * scale with the number of reader threads.
+ *
+ * <p>Publishing is a {@link Dungeon#fork()}: it takes constant time and afterwards the writer
+ * copies a location, and the exploration state of the player, the first time it changes them.
+ * {@link #publish()} and the dungeon itself must only be used by the writer thread.
+ */
+public class SnapshotPublisher {
+
+  private final Dungeon dungeon;
+  private long version;
+  private volatile DungeonSnapshot snapshot;
+
+  /**
+   * Constructs a publisher and publishes the current state of the dungeon as version 0.
+   *
+   * @param dungeon the dungeon played by the writer.
+   * @throws IllegalArgumentException if {@code dungeon} is {@code null}.
+   */
+  public SnapshotPublisher(Dungeon dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    this.dungeon = dungeon;
+    this.version = 0;
+    this.snapshot = new DungeonSnapshot(0, dungeon.fork());
+  }
+
+  /**
+   * Publishes the current state of the dungeon. Only the writer thread may call this.
+   *
+   * @return the published snapshot.
+   */
+  public DungeonSnapshot publish() {
+    this.version++;
+    DungeonSnapshot published = new DungeonSnapshot(this.version, this.dungeon.fork());
+    this.snapshot = published;
+    return published;
+  }
+
+  /**
+   * Returns the latest published snapshot. Any thread may call this.
+   *
+   * @return the snapshot.
+   */
+  public DungeonSnapshot getSnapshot() {
+    return this.snapshot;
+  }
+}
@@ -0,0 +1,123 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The dungeon.Stripes represents the split of the rows of a grid, such as the dungeon or an image
+ * of it, into horizontal stripes that are processed in parallel, one stripe per thread. The split
+ * only depends on the number of rows and threads, so work done per stripe is deterministic. All
+ * stripes run on one pool of daemon threads shared by every user, so processing a grid creates
+ * no threads of its own once the pool is warm.
+ */
+public class Stripes {
+
+  // shared by every grid; idle threads end after a minute and never keep the JVM alive
+  private static final ExecutorService POOL = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "dungeon-stripes");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final int[] firstRows;
+
+  /**
+   * Constructs the stripes of a grid.
+   *
+   * @param rows    the number of rows.
+   * @param threads the number of threads.
+   */
+  public Stripes(int rows, int threads) {
+    int stripes = Math.max(1, Math.min(rows, threads));
+    this.firstRows = new int[stripes + 1];
+    for (int i = 0; i <= stripes; i++) {
+      this.firstRows[i] = (int) ((long) i * rows / stripes);
+    }
+  }
+
+  /**
+   * Returns the number of stripes.
+   *
+   * @return the number of stripes.
+   */
+  public int count() {
+    return this.firstRows.length - 1;
+  }
+
+  /**
+   * Returns the first row of the stripe.
+   *
+   * @param stripe the index of the stripe.
+   * @return the first row, inclusive.
+   */
+  public int firstRow(int stripe) {
+    return this.firstRows[stripe];
+  }
+
+  /**
+   * Returns the row after the last row of the stripe.
+   *
+   * @param stripe the index of the stripe.
+   * @return the last row, exclusive.
+   */
+  public int endRow(int stripe) {
+    return this.firstRows[stripe + 1];
+  }
+
+  /**
+   * Runs the task for every stripe, in parallel on the shared pool if there is more than one,
+   * and waits for all of them.
+   *
+   * @param task the task.
+   * @throws IllegalStateException if the task fails for any stripe.
+   */
+  public void forEach(StripeTask task) throws IllegalStateException {
+    if (count() == 1) {
+      task.run(0, firstRow(0), endRow(0));
+      return;
+    }
+    List<Future<?>> futures = new ArrayList<>();
+    try {
+      for (int i = 1; i < count(); i++) {
+        int stripe = i;
+        futures.add(POOL.submit(() -> task.run(stripe, firstRow(stripe), endRow(stripe))));
+      }
+      // the calling thread takes the first stripe itself
+      task.run(0, firstRow(0), endRow(0));
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while processing the stripes.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      for (Future<?> future : futures) {
+        future.cancel(true);
+      }
+    }
+  }
+
+  /**
+   * The work done for one stripe.
+   */
+  public interface StripeTask {
+
+    /**
+     * Processes the rows of one stripe.
+     *
+     * @param stripe   the index of the stripe.
+     * @param firstRow the first row, inclusive.
+     * @param endRow   the last row, exclusive.
+     */
+    void run(int stripe, int firstRow, int endRow);
+  }
+}
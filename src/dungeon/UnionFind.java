@@ -0,0 +1,63 @@
+package dungeon;
+
+/**
+ * This represents disjoint sets of the locations of the dungeon grid with union by rank and path
+ * compression. This class is used for building the dungeon grid. A package-private class.
+ */
+class UnionFind {
+
+  private final int[] parent;
+  private final int[] rank;
+
+  /**
+   * Constructs the disjoint sets with every location in its own set.
+   *
+   * @param nodes the number of locations.
+   */
+  UnionFind(int nodes) {
+    this.parent = new int[nodes];
+    this.rank = new int[nodes];
+    for (int i = 0; i < nodes; i++) {
+      this.parent[i] = i;
+    }
+  }
+
+  /**
+   * Returns the root of the set the location belongs to.
+   *
+   * @param i the id of the location.
+   * @return the id of the root location.
+   */
+  int find(int i) {
+    int node = i;
+    while (this.parent[node] != node) {
+      this.parent[node] = this.parent[this.parent[node]];
+      node = this.parent[node];
+    }
+    return node;
+  }
+
+  /**
+   * Merges the sets of the two locations.
+   *
+   * @param x the id of the first location.
+   * @param y the id of the second location.
+   * @return {@code true} if the locations were in different sets otherwise {@code false}.
+   */
+  boolean union(int x, int y) {
+    int rootOfX = find(x);
+    int rootOfY = find(y);
+    if (rootOfX == rootOfY) {
+      return false;
+    }
+    if (this.rank[rootOfX] < this.rank[rootOfY]) {
+      this.parent[rootOfX] = rootOfY;
+    } else if (this.rank[rootOfX] > this.rank[rootOfY]) {
+      this.parent[rootOfY] = rootOfX;
+    } else {
+      this.parent[rootOfY] = rootOfX;
+      this.rank[rootOfX]++;
+    }
+    return true;
+  }
+}
@@ -0,0 +1,46 @@
+package dungeon;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import random.RandomGenerator;
+
+/**
+ * The dungeon.WilsonPathGenerator implements {@link PathGenerator} with Wilson's algorithm:
+ * loop-erased random walks are run from every location until they hit the tree. Every spanning
+ * tree of the grid is equally likely. It needs a truly random generator.
+ */
+public class WilsonPathGenerator implements PathGenerator {
+
+  @Override
+  public List<Edge> createSpanningTree(int rows, int columns, List<Edge> potentialPaths,
+                                       RandomGenerator rand) {
+    int nodes = rows * columns;
+    Adjacency adjacency = new Adjacency(nodes, potentialPaths);
+    boolean[] inTree = new boolean[nodes];
+    Edge[] next = new Edge[nodes];
+    List<Edge> paths = new ArrayList<>();
+    long stepsLeft = Adjacency.maxWalkLength(nodes);
+    inTree[rand.getRandom(nodes, 0)] = true;
+
+    for (int i = 0; i < nodes; i++) {
+      // random walk, remembering only the last exit taken from each location erases the loops
+      int node = i;
+      while (!inTree[node]) {
+        if (stepsLeft-- == 0) {
+          throw new IllegalStateException("Random walk did not reach the tree. The random "
+                  + "generator does not generate random numbers.");
+        }
+        next[node] = adjacency.edge(node, rand.getRandom(adjacency.degree(node), 0));
+        node = Adjacency.other(next[node], node);
+      }
+      node = i;
+      while (!inTree[node]) {
+        inTree[node] = true;
+        paths.add(next[node]);
+        node = Adjacency.other(next[node], node);
+      }
+    }
+    return paths;
+  }
+}
@@ -0,0 +1,131 @@
+package dungeon;
+
+import java.util.List;
+
+import location.Direction;
+import location.Location;
+import location.Treasure;
+
+/**
+ * This derives the Zobrist keys of {@link Dungeon} fingerprints and hashes. A hash is the XOR of
+ * the keys of its parts, so a change to one part, such as a move or a collected treasure, updates
+ * it with two XORs. Keys are not kept in tables but computed by a bijective 64-bit mixer from the
+ * kind of part, the location and the value, so they are the same in every process and distinct
+ * parts never share a key. A package-private class.
+ */
+class Zobrist {
+
+  private static final int SIZE = 1;
+  private static final int WRAPPING = 2;
+  private static final int START = 3;
+  private static final int END = 4;
+  private static final int EXITS = 5;
+  private static final int POSITION = 6;
+  // one kind per treasure from here on
+  private static final int TREASURE = 7;
+
+  private static final Treasure[] TREASURES = Treasure.values();
+
+  private Zobrist() {
+  }
+
+  /**
+   * Returns the key of a part.
+   *
+   * @param lane  the half of a 128-bit fingerprint, 0 for 64-bit hashes.
+   * @param kind  the kind of part.
+   * @param id    the id of the location or another number of up to 31 bits.
+   * @param value the value of the part, of up to 16 bits.
+   * @return the key.
+   */
+  private static long key(int lane, int kind, int id, int value) {
+    long z = (long) lane << 63 | (long) kind << 48 | (long) id << 16 | value & 0xFFFF;
+    // the finalizer of SplitMix64, which maps distinct inputs to distinct keys
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns the fingerprint of the map of a dungeon: its size, whether it wraps, the exits of
+   * every location and the start and destination.
+   *
+   * @param dungeon the dungeon.
+   * @return the fingerprint.
+   */
+  static Fingerprint layout(Dungeon dungeon) {
+    return new Fingerprint(layout(dungeon, 1), layout(dungeon, 0));
+  }
+
+  private static long layout(Dungeon dungeon, int lane) {
+    long hash = key(lane, SIZE, dungeon.getRows(), 0) ^ key(lane, SIZE, dungeon.getColumns(), 1);
+    hash ^= key(lane, WRAPPING, 0, dungeon.isWrapping() ? 1 : 0);
+    hash ^= key(lane, START, dungeon.getStartingCave().getId(), 0);
+    hash ^= key(lane, END, dungeon.getDestinationCave().getId(), 0);
+    for (int i = 0; i < dungeon.getRows(); i++) {
+      for (int j = 0; j < dungeon.getColumns(); j++) {
+        Location location = dungeon.getLocation(i, j);
+        int exits = 0;
+        for (Direction direction : location.getPossibleMoves()) {
+          exits |= 1 << direction.ordinal();
+        }
+        hash ^= key(lane, EXITS, location.getId(), exits);
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the hash of the state of a game from scratch: the lower half of the layout
+   * fingerprint, the location of the player and the treasures left at every location.
+   *
+   * @param dungeon the dungeon.
+   * @param layout  the lower half of the layout fingerprint of the dungeon.
+   * @return the hash.
+   */
+  static long state(Dungeon dungeon, long layout) {
+    long hash = layout ^ position(dungeon.getPlayerLocation().getId());
+    for (int i = 0; i < dungeon.getRows(); i++) {
+      for (int j = 0; j < dungeon.getColumns(); j++) {
+        Location location = dungeon.getLocation(i, j);
+        hash ^= treasures(location.getId(), location.getTreasures());
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the key of the player being at a location.
+   *
+   * @param id the id of the location.
+   * @return the key.
+   */
+  static long position(int id) {
+    return key(0, POSITION, id, 0);
+  }
+
+  /**
+   * Returns the combined key of the treasures at a location. A location without treasures has
+   * the key 0, so only the locations with treasures cost anything.
+   *
+   * @param id        the id of the location.
+   * @param treasures the treasures at the location.
+   * @return the key.
+   */
+  static long treasures(int id, List<Treasure> treasures) {
+    if (treasures.isEmpty()) {
+      return 0;
+    }
+    int[] counts = new int[TREASURES.length];
+    for (Treasure treasure : treasures) {
+      counts[treasure.ordinal()]++;
+    }
+    long hash = 0;
+    for (int t = 0; t < counts.length; t++) {
+      if (counts[t] > 0) {
+        hash ^= key(0, TREASURE + t, id, counts[t]);
+      }
+    }
+    return hash;
+  }
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import location.coordinate.Coordinate;
 import location.coordinate.CoordinateImpl;
+import location.coordinate.LevelCoordinate;
 
 /**
  * The Cave implements {@link LocationUpdateState} and represents a location in the
@@ -34,6 +35,40 @@ public class Cave implements LocationUpdateState {
     this.treasures = new ArrayList<>();
   }
 
+  /**
+   * Constructs a cave at the given coordinates, e.g. a {@link LevelCoordinate} on a floor of a
+   * multi-level dungeon.
+   *
+   * @param id          the id of the cave.
+   * @param coordinates the coordinates of the cave.
+   * @throws IllegalArgumentException if {@code coordinates} is {@code null}.
+   */
+  public Cave(int id, Coordinate coordinates) {
+    if (coordinates == null) {
+      throw new IllegalArgumentException("Coordinates cannot be null.");
+    }
+    this.id = id;
+    this.coordinates = coordinates;
+    this.validMoves = new ArrayList<>();
+    this.treasures = new ArrayList<>();
+  }
+
+  /**
+   * Constructs a copy of the given location with its own copy of the exits and treasures.
+   *
+   * @param location the location to be copied.
+   * @throws IllegalArgumentException if {@code location} is {@code null}.
+   */
+  public Cave(Location location) {
+    if (location == null) {
+      throw new IllegalArgumentException("Location cannot be null.");
+    }
+    this.id = location.getId();
+    this.coordinates = location.getCoordinates();
+    this.validMoves = location.getPossibleMoves();
+    this.treasures = location.getTreasures();
+  }
+
   @Override
   public int getId() {
     return this.id;
@@ -1,10 +1,11 @@
 package location;
 
 /**
- * This represents the four directions East, West, North and South a cave can be connected to.
- * The player travels through the dungeon by selecting a possible direction to exit from each
- * location.
+ * This represents the four directions East, West, North and South a cave can be connected to,
+ * and the stairs Up and Down to the floor above and below in a
+ * {@link dungeon.MultiLevelDungeon}. The player travels through the dungeon by selecting a
+ * possible direction to exit from each location.
  */
 public enum Direction {
-  EAST, WEST, NORTH, SOUTH
+  EAST, WEST, NORTH, SOUTH, UP, DOWN
 }
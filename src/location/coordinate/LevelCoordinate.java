@@ -0,0 +1,16 @@
+package location.coordinate;
+
+/**
+ * The coordinate.LevelCoordinate represents the coordinates of the {@link location.Location} in
+ * a {@link dungeon.MultiLevelDungeon}: the floor, counted from 0 at the bottom, and the x and y
+ * coordinates in the grid of that floor.
+ */
+public interface LevelCoordinate extends Coordinate {
+
+  /**
+   * Returns the floor of the location.
+   *
+   * @return the level. This will never be negative.
+   */
+  int getLevel();
+}
@@ -0,0 +1,31 @@
+package location.coordinate;
+
+/**
+ * The coordinate.LevelCoordinateImpl implements {@link LevelCoordinate} and represents the
+ * coordinates of the {@link location.Location} in a {@link dungeon.MultiLevelDungeon}.
+ */
+public class LevelCoordinateImpl extends CoordinateImpl implements LevelCoordinate {
+
+  private final int level;
+
+  /**
+   * Constructs a co-ordinate on a floor.
+   *
+   * @param level the floor.
+   * @param x     the x coordinate
+   * @param y     the y coordinate
+   * @throws IllegalArgumentException if {@code level}, {@code x} or {@code y} is negative.
+   */
+  public LevelCoordinateImpl(int level, int x, int y) {
+    super(x, y);
+    if (level < 0) {
+      throw new IllegalArgumentException("Level cannot be negative.");
+    }
+    this.level = level;
+  }
+
+  @Override
+  public int getLevel() {
+    return this.level;
+  }
+}
@@ -0,0 +1,67 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics.ConcurrentHeatmap implements {@link Heatmap} with one {@link LongAdder} per count,
+ * so that many players, e.g. forks of one dungeon played on different threads, can record into
+ * it at once without contending on a single counter. A snapshot taken while players record is
+ * not atomic across locations.
+ */
+public class ConcurrentHeatmap implements Heatmap {
+
+  private final int rows;
+  private final int columns;
+  private final LongAdder[] visits;
+  private final LongAdder[] pickups;
+
+  /**
+   * Constructs an empty heatmap.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @throws IllegalArgumentException if {@code rows} or {@code columns} is less than 1.
+   */
+  public ConcurrentHeatmap(int rows, int columns) throws IllegalArgumentException {
+    HeatmapSnapshot.checkSize(rows, columns);
+    this.rows = rows;
+    this.columns = columns;
+    this.visits = new LongAdder[rows * columns];
+    this.pickups = new LongAdder[rows * columns];
+    for (int i = 0; i < this.visits.length; i++) {
+      this.visits[i] = new LongAdder();
+      this.pickups[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  public int getRows() {
+    return this.rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public void recordVisit(int location) {
+    this.visits[location].increment();
+  }
+
+  @Override
+  public void recordPickups(int location, int treasures) {
+    this.pickups[location].add(treasures);
+  }
+
+  @Override
+  public HeatmapSnapshot snapshot() {
+    long[] visits = new long[this.visits.length];
+    long[] pickups = new long[this.pickups.length];
+    for (int i = 0; i < visits.length; i++) {
+      visits[i] = this.visits[i].sum();
+      pickups[i] = this.pickups[i].sum();
+    }
+    return new HeatmapSnapshot(this.rows, this.columns, visits, pickups);
+  }
+}
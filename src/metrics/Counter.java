@@ -0,0 +1,9 @@
+package metrics;
+
+/**
+ * This represents the work counted during the construction of a {@link dungeon.Dungeon} when
+ * metrics are enabled.
+ */
+public enum Counter {
+  BFS_INVOCATIONS, NODES_VISITED, UNION_FIND_OPERATIONS, START_END_RETRIES, PATH_REGENERATIONS
+}
@@ -0,0 +1,39 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * The JFR event committed once per generated dungeon with the work counted during its
+ * construction. A package-private class.
+ */
+@Name("dungeon.GenerationCounters")
+@Label("Dungeon Generation Counters")
+@Category("Dungeon")
+@Description("Work counted during the construction of a dungeon")
+class CountersEvent extends Event {
+
+  @Label("Rows")
+  int rows;
+
+  @Label("Columns")
+  int columns;
+
+  @Label("BFS Invocations")
+  long bfsInvocations;
+
+  @Label("Nodes Visited")
+  long nodesVisited;
+
+  @Label("Union-Find Operations")
+  long unionFindOperations;
+
+  @Label("Start/End Retries")
+  long startEndRetries;
+
+  @Label("Path Regenerations")
+  long pathRegenerations;
+}
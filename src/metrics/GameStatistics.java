@@ -0,0 +1,150 @@
+package metrics;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import location.Treasure;
+
+/**
+ * The metrics.GameStatistics aggregates finished games across any number of threads: the moves
+ * per game, the time to reach the destination, the treasures collected by kind and the share of
+ * caves among the locations of the maps played. Games are recorded once, when they end, into
+ * {@link LongAdder}s and {@link StripedHistogram}s, so game threads never wait for each other
+ * and a monitoring thread can read snapshots at any time without slowing them down.
+ */
+public class GameStatistics {
+
+  private final LongAdder games;
+  private final StripedHistogram moves;
+  private final StripedHistogram nanosToDestination;
+  private final StripedHistogram caveShare;
+  private final LongAdder[] treasures;
+  private final LongAdder caves;
+  private final LongAdder tunnels;
+
+  /**
+   * Constructs empty statistics.
+   */
+  public GameStatistics() {
+    this.games = new LongAdder();
+    this.moves = new StripedHistogram();
+    this.nanosToDestination = new StripedHistogram();
+    this.caveShare = new StripedHistogram();
+    this.treasures = new LongAdder[Treasure.values().length];
+    for (int i = 0; i < this.treasures.length; i++) {
+      this.treasures[i] = new LongAdder();
+    }
+    this.caves = new LongAdder();
+    this.tunnels = new LongAdder();
+  }
+
+  /**
+   * Records a finished game.
+   *
+   * @param moves              the number of moves the player made.
+   * @param nanosToDestination the time the player took to reach the destination in nanoseconds.
+   * @param treasures          the treasures the player collected by kind, as returned by
+   *                           {@link player.Player#getCollectedTreasures()}.
+   * @param caves              the number of caves of the map.
+   * @param tunnels            the number of tunnels of the map.
+   * @throws IllegalArgumentException <ul><li>if {@code treasures} is {@code null}.</li>
+   *                                  <li>if {@code caves} or {@code tunnels} is negative.</li>
+   *                                  </ul>
+   */
+  public void recordGame(long moves, long nanosToDestination, Map<Treasure, Integer> treasures,
+                         int caves, int tunnels) throws IllegalArgumentException {
+    if (treasures == null) {
+      throw new IllegalArgumentException("Treasures cannot be null.");
+    }
+    if (caves < 0 || tunnels < 0) {
+      throw new IllegalArgumentException("Number of caves and tunnels cannot be negative.");
+    }
+    this.games.increment();
+    this.moves.record(moves);
+    this.nanosToDestination.record(nanosToDestination);
+    for (Map.Entry<Treasure, Integer> entry : treasures.entrySet()) {
+      this.treasures[entry.getKey().ordinal()].add(entry.getValue());
+    }
+    this.caves.add(caves);
+    this.tunnels.add(tunnels);
+    if (caves + tunnels > 0) {
+      this.caveShare.record(1000L * caves / (caves + tunnels));
+    }
+  }
+
+  /**
+   * Returns the number of games recorded.
+   *
+   * @return the number of games.
+   */
+  public long getGames() {
+    return this.games.sum();
+  }
+
+  /**
+   * Returns the moves per game.
+   *
+   * @return the snapshot of the moves per game.
+   */
+  public HistogramSnapshot getMoves() {
+    return this.moves.snapshot();
+  }
+
+  /**
+   * Returns the time to reach the destination per game.
+   *
+   * @return the snapshot of the times in nanoseconds.
+   */
+  public HistogramSnapshot getTimeToDestination() {
+    return this.nanosToDestination.snapshot();
+  }
+
+  /**
+   * Returns the share of caves among the locations per map.
+   *
+   * @return the snapshot of the shares in tenths of a percent.
+   */
+  public HistogramSnapshot getCaveShare() {
+    return this.caveShare.snapshot();
+  }
+
+  /**
+   * Returns the number of treasures of a kind collected in all games.
+   *
+   * @param treasure the kind of treasure.
+   * @return the number of treasures.
+   * @throws IllegalArgumentException if {@code treasure} is {@code null}.
+   */
+  public long getTreasures(Treasure treasure) throws IllegalArgumentException {
+    if (treasure == null) {
+      throw new IllegalArgumentException("Treasure cannot be null.");
+    }
+    return this.treasures[treasure.ordinal()].sum();
+  }
+
+  /**
+   * Returns the ratio of caves to tunnels over all the maps played.
+   *
+   * @return the ratio, {@link Double#NaN} if no location was recorded, e.g. before any game, and
+   *         {@link Double#POSITIVE_INFINITY} if caves but no tunnels were, as on fully
+   *         interconnected maps.
+   */
+  public double getCaveToTunnelRatio() {
+    return (double) this.caves.sum() / this.tunnels.sum();
+  }
+
+  /**
+   * Clears the statistics.
+   */
+  public void reset() {
+    this.games.reset();
+    this.moves.reset();
+    this.nanosToDestination.reset();
+    this.caveShare.reset();
+    for (LongAdder treasure : this.treasures) {
+      treasure.reset();
+    }
+    this.caves.reset();
+    this.tunnels.reset();
+  }
+}
@@ -0,0 +1,113 @@
+package metrics;
+
+import jdk.jfr.EventType;
+
+/**
+ * The metrics.GenerationRecorder records the metrics of the construction of a single
+ * {@link dungeon.Dungeon}. Counters are kept in plain fields while the dungeon is being built by
+ * one thread and are published to the {@link MetricsRegistry} and to JFR on {@link #finish()}.
+ */
+public class GenerationRecorder {
+
+  private static final EventType PHASE_EVENT = EventType.getEventType(PhaseEvent.class);
+  private static final EventType COUNTERS_EVENT = EventType.getEventType(CountersEvent.class);
+
+  private final int rows;
+  private final int columns;
+  private final boolean toRegistry;
+  private final long[] counts;
+
+  private GenerationRecorder(int rows, int columns, boolean toRegistry) {
+    this.rows = rows;
+    this.columns = columns;
+    this.toRegistry = toRegistry;
+    this.counts = new long[Counter.values().length];
+  }
+
+  /**
+   * Returns a recorder for a new dungeon if the registry or the JFR events are enabled.
+   *
+   * @param rows    the number of rows of the dungeon.
+   * @param columns the number of columns of the dungeon.
+   * @return the recorder or {@code null} if nothing would be recorded.
+   */
+  public static GenerationRecorder start(int rows, int columns) {
+    boolean toRegistry = MetricsRegistry.getInstance().isEnabled();
+    if (!toRegistry && !PHASE_EVENT.isEnabled() && !COUNTERS_EVENT.isEnabled()) {
+      return null;
+    }
+    return new GenerationRecorder(rows, columns, toRegistry);
+  }
+
+  /**
+   * Marks the start of a phase.
+   *
+   * @return the start time to be passed to {@link #endPhase(Phase, long)}.
+   */
+  public long startPhase() {
+    return System.nanoTime();
+  }
+
+  /**
+   * Marks the end of a phase.
+   *
+   * @param phase     the phase that ended.
+   * @param startTime the value returned by {@link #startPhase()}.
+   */
+  public void endPhase(Phase phase, long startTime) {
+    long nanos = System.nanoTime() - startTime;
+    if (this.toRegistry) {
+      MetricsRegistry.getInstance().record(phase, nanos);
+    }
+    if (PHASE_EVENT.isEnabled()) {
+      PhaseEvent event = new PhaseEvent();
+      event.phase = phase.name();
+      event.rows = this.rows;
+      event.columns = this.columns;
+      event.phaseDuration = nanos;
+      event.commit();
+    }
+  }
+
+  /**
+   * Adds one to the given counter.
+   *
+   * @param counter the counter.
+   */
+  public void increment(Counter counter) {
+    this.counts[counter.ordinal()]++;
+  }
+
+  /**
+   * Adds the given amount to the given counter.
+   *
+   * @param counter the counter.
+   * @param amount  the amount.
+   */
+  public void add(Counter counter, long amount) {
+    this.counts[counter.ordinal()] += amount;
+  }
+
+  /**
+   * Publishes the counters of the dungeon.
+   */
+  public void finish() {
+    if (this.toRegistry) {
+      MetricsRegistry registry = MetricsRegistry.getInstance();
+      for (Counter counter : Counter.values()) {
+        registry.add(counter, this.counts[counter.ordinal()]);
+      }
+    }
+    if (COUNTERS_EVENT.isEnabled()) {
+      CountersEvent event = new CountersEvent();
+      event.rows = this.rows;
+      event.columns = this.columns;
+      event.bfsInvocations = this.counts[Counter.BFS_INVOCATIONS.ordinal()];
+      event.nodesVisited = this.counts[Counter.NODES_VISITED.ordinal()];
+      event.unionFindOperations = this.counts[Counter.UNION_FIND_OPERATIONS.ordinal()];
+      event.startEndRetries = this.counts[Counter.START_END_RETRIES.ordinal()];
+      event.pathRegenerations = this.counts[Counter.PATH_REGENERATIONS.ordinal()];
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package metrics;
+
+/**
+ * The metrics.Heatmap counts, per location of a {@link dungeon.Dungeon}, how often players entered
+ * it and how many treasures they picked up there. Locations are given by their ids,
+ * {@code row * columns + column}.
+ */
+public interface Heatmap {
+
+  /**
+   * Returns the number of rows of the dungeon.
+   *
+   * @return the number of rows.
+   */
+  int getRows();
+
+  /**
+   * Returns the number of columns of the dungeon.
+   *
+   * @return the number of columns.
+   */
+  int getColumns();
+
+  /**
+   * Records one visit of a location.
+   *
+   * @param location the id of the location.
+   */
+  void recordVisit(int location);
+
+  /**
+   * Records the treasures picked up at a location.
+   *
+   * @param location  the id of the location.
+   * @param treasures the number of treasures.
+   */
+  void recordPickups(int location, int treasures);
+
+  /**
+   * Returns a copy of the counts so far.
+   *
+   * @return the snapshot.
+   */
+  HeatmapSnapshot snapshot();
+}
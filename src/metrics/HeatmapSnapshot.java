@@ -0,0 +1,262 @@
+package metrics;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * The metrics.HeatmapSnapshot holds the counts of a {@link Heatmap} at one point in time. Snapshots
+ * of the same dungeon size are merged by adding their counts, and are written in a compact binary
+ * form: the magic number {@code HEAT}, the format version, the number of rows and columns as
+ * {@code int}s and then the visits and the pickups of every location as {@code long}s, all big
+ * endian.
+ */
+public class HeatmapSnapshot {
+
+  private static final int MAGIC = 0x48454154;
+  private static final int VERSION = 1;
+  private static final int READ_BLOCK = 8192;
+
+  private final int rows;
+  private final int columns;
+  private final long[] visits;
+  private final long[] pickups;
+
+  /**
+   * Constructs a snapshot that takes over the given arrays.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @param visits  the visits by location id.
+   * @param pickups the pickups by location id.
+   */
+  HeatmapSnapshot(int rows, int columns, long[] visits, long[] pickups) {
+    this.rows = rows;
+    this.columns = columns;
+    this.visits = visits;
+    this.pickups = pickups;
+  }
+
+  static void checkSize(int rows, int columns) throws IllegalArgumentException {
+    if (rows < 1 || columns < 1) {
+      throw new IllegalArgumentException("Number of rows and columns must be positive.");
+    }
+    if ((long) rows * columns > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Heatmap too large.");
+    }
+  }
+
+  /**
+   * Returns the number of rows.
+   *
+   * @return the number of rows.
+   */
+  public int getRows() {
+    return this.rows;
+  }
+
+  /**
+   * Returns the number of columns.
+   *
+   * @return the number of columns.
+   */
+  public int getColumns() {
+    return this.columns;
+  }
+
+  /**
+   * Returns the number of visits of a location.
+   *
+   * @param location the id of the location.
+   * @return the number of visits.
+   * @throws IllegalArgumentException if {@code location} is not a location id.
+   */
+  public long getVisits(int location) throws IllegalArgumentException {
+    checkLocation(location);
+    return this.visits[location];
+  }
+
+  /**
+   * Returns the number of treasures picked up at a location.
+   *
+   * @param location the id of the location.
+   * @return the number of treasures.
+   * @throws IllegalArgumentException if {@code location} is not a location id.
+   */
+  public long getPickups(int location) throws IllegalArgumentException {
+    checkLocation(location);
+    return this.pickups[location];
+  }
+
+  /**
+   * Returns the sum of the visits of all locations.
+   *
+   * @return the number of visits.
+   */
+  public long getTotalVisits() {
+    long total = 0;
+    for (long count : this.visits) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Returns the sum of the pickups of all locations.
+   *
+   * @return the number of treasures.
+   */
+  public long getTotalPickups() {
+    long total = 0;
+    for (long count : this.pickups) {
+      total += count;
+    }
+    return total;
+  }
+
+  /**
+   * Returns the snapshot with the counts of this and the given snapshot added up.
+   *
+   * @param other the other snapshot.
+   * @return the merged snapshot.
+   * @throws IllegalArgumentException if {@code other} is {@code null} or of another size.
+   */
+  public HeatmapSnapshot merge(HeatmapSnapshot other) throws IllegalArgumentException {
+    checkSameSize(other);
+    HeatmapSnapshot merged = new HeatmapSnapshot(this.rows, this.columns, this.visits.clone(),
+            this.pickups.clone());
+    merged.add(other);
+    return merged;
+  }
+
+  /**
+   * Returns the snapshot with the counts of all the given snapshots added up. Only one pair of
+   * arrays is allocated however many snapshots are merged.
+   *
+   * @param snapshots the snapshots.
+   * @return the merged snapshot.
+   * @throws IllegalArgumentException if {@code snapshots} is {@code null} or empty, or if a
+   *                                  snapshot is {@code null} or of another size than the first.
+   */
+  public static HeatmapSnapshot mergeAll(Collection<HeatmapSnapshot> snapshots)
+          throws IllegalArgumentException {
+    if (snapshots == null || snapshots.isEmpty()) {
+      throw new IllegalArgumentException("Snapshots cannot be null or empty.");
+    }
+    HeatmapSnapshot merged = null;
+    for (HeatmapSnapshot snapshot : snapshots) {
+      if (merged == null) {
+        if (snapshot == null) {
+          throw new IllegalArgumentException("Snapshot cannot be null.");
+        }
+        merged = new HeatmapSnapshot(snapshot.rows, snapshot.columns,
+                new long[snapshot.visits.length], new long[snapshot.pickups.length]);
+      }
+      merged.checkSameSize(snapshot);
+      merged.add(snapshot);
+    }
+    return merged;
+  }
+
+  /**
+   * Writes the snapshot in the binary form.
+   *
+   * @param out the stream. It is flushed but not closed.
+   * @throws IOException              if writing fails.
+   * @throws IllegalArgumentException if {@code out} is {@code null}.
+   */
+  public void writeTo(OutputStream out) throws IOException, IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+    data.writeInt(MAGIC);
+    data.writeInt(VERSION);
+    data.writeInt(this.rows);
+    data.writeInt(this.columns);
+    for (long count : this.visits) {
+      data.writeLong(count);
+    }
+    for (long count : this.pickups) {
+      data.writeLong(count);
+    }
+    data.flush();
+  }
+
+  /**
+   * Reads a snapshot written by {@link #writeTo(OutputStream)}.
+   *
+   * @param in the stream. It is not closed and is read up to the end of the snapshot only, so
+   *           snapshots written one after the other are read back one at a time.
+   * @return the snapshot.
+   * @throws IOException              if reading fails or the stream ends too early.
+   * @throws IllegalArgumentException <ul><li>if {@code in} is {@code null}.</li>
+   *                                  <li>if the stream does not hold a snapshot.</li></ul>
+   */
+  public static HeatmapSnapshot readFrom(InputStream in)
+          throws IOException, IllegalArgumentException {
+    if (in == null) {
+      throw new IllegalArgumentException("Input stream cannot be null.");
+    }
+    DataInputStream data = new DataInputStream(in);
+    if (data.readInt() != MAGIC) {
+      throw new IllegalArgumentException("Not a heatmap snapshot.");
+    }
+    int version = data.readInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException("Unsupported heatmap version " + version + ".");
+    }
+    int rows = data.readInt();
+    int columns = data.readInt();
+    checkSize(rows, columns);
+    long[] visits = readCounts(data, rows * columns);
+    long[] pickups = readCounts(data, rows * columns);
+    return new HeatmapSnapshot(rows, columns, visits, pickups);
+  }
+
+  private static long[] readCounts(DataInputStream data, int length) throws IOException {
+    // the counts are read a block at a time and the array grows with them, so a header that
+    // claims more locations than the stream holds ends in an EOFException, not in allocating
+    // the claimed size
+    long[] counts = new long[Math.min(length, READ_BLOCK)];
+    byte[] block = new byte[8 * Math.min(length, READ_BLOCK)];
+    for (int i = 0; i < length; ) {
+      int n = Math.min(length - i, READ_BLOCK);
+      data.readFully(block, 0, 8 * n);
+      if (i + n > counts.length) {
+        counts = Arrays.copyOf(counts, (int) Math.min(length, Math.max(i + n, 2L * i)));
+      }
+      ByteBuffer.wrap(block, 0, 8 * n).asLongBuffer().get(counts, i, n);
+      i += n;
+    }
+    return counts;
+  }
+
+  private void add(HeatmapSnapshot other) {
+    for (int i = 0; i < this.visits.length; i++) {
+      this.visits[i] += other.visits[i];
+      this.pickups[i] += other.pickups[i];
+    }
+  }
+
+  private void checkSameSize(HeatmapSnapshot other) throws IllegalArgumentException {
+    if (other == null) {
+      throw new IllegalArgumentException("Snapshot cannot be null.");
+    }
+    if (other.rows != this.rows || other.columns != this.columns) {
+      throw new IllegalArgumentException("Snapshots are of different sizes.");
+    }
+  }
+
+  private void checkLocation(int location) throws IllegalArgumentException {
+    if (location < 0 || location >= this.visits.length) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+  }
+}
@@ -0,0 +1,93 @@
+package metrics;
+
+/**
+ * The metrics.HistogramSnapshot holds the counts of a {@link StripedHistogram} at one point in
+ * time, so that several percentiles can be read from the same counts.
+ */
+public class HistogramSnapshot {
+
+  private final long[] counts;
+  private final long count;
+  private final long sum;
+  private final long max;
+
+  /**
+   * Constructs a snapshot that takes over the given counts.
+   *
+   * @param counts the counts of the buckets.
+   * @param sum    the sum of the values.
+   * @param max    the largest value.
+   */
+  HistogramSnapshot(long[] counts, long sum, long max) {
+    long count = 0;
+    for (long bucket : counts) {
+      count += bucket;
+    }
+    this.counts = counts;
+    this.count = count;
+    this.sum = sum;
+    this.max = max;
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return the count.
+   */
+  public long getCount() {
+    return this.count;
+  }
+
+  /**
+   * Returns the sum of the values.
+   *
+   * @return the sum.
+   */
+  public long getSum() {
+    return this.sum;
+  }
+
+  /**
+   * Returns the largest value.
+   *
+   * @return the maximum, {@code 0} if there are no values.
+   */
+  public long getMax() {
+    return this.max;
+  }
+
+  /**
+   * Returns the mean of the values.
+   *
+   * @return the mean, {@code 0} if there are no values.
+   */
+  public double getMean() {
+    return this.count == 0 ? 0 : (double) this.sum / this.count;
+  }
+
+  /**
+   * Returns an upper bound of the given percentile of the values.
+   *
+   * @param percentile the percentile between 0 and 100.
+   * @return the upper bound of the bucket holding the percentile, at most the largest value, or
+   *         {@code 0} if there are no values.
+   * @throws IllegalArgumentException if {@code percentile} is less than 0 or more than 100.
+   */
+  public long getPercentile(double percentile) throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    if (this.count == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(this.count * percentile / 100));
+    long seen = 0;
+    for (int i = 0; i < this.counts.length; i++) {
+      seen += this.counts[i];
+      if (seen >= rank) {
+        return Math.min(StripedHistogram.upperBoundOf(i), this.max);
+      }
+    }
+    return this.max;
+  }
+}
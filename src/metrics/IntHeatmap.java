@@ -0,0 +1,60 @@
+package metrics;
+
+/**
+ * The metrics.IntHeatmap implements {@link Heatmap} with one {@code int} array per count, so that
+ * recording is a single array increment. It is meant for one game played by one thread and is not
+ * thread safe; see {@link ConcurrentHeatmap} for games played in parallel.
+ */
+public class IntHeatmap implements Heatmap {
+
+  private final int rows;
+  private final int columns;
+  private final int[] visits;
+  private final int[] pickups;
+
+  /**
+   * Constructs an empty heatmap.
+   *
+   * @param rows    the number of rows.
+   * @param columns the number of columns.
+   * @throws IllegalArgumentException if {@code rows} or {@code columns} is less than 1.
+   */
+  public IntHeatmap(int rows, int columns) throws IllegalArgumentException {
+    HeatmapSnapshot.checkSize(rows, columns);
+    this.rows = rows;
+    this.columns = columns;
+    this.visits = new int[rows * columns];
+    this.pickups = new int[rows * columns];
+  }
+
+  @Override
+  public int getRows() {
+    return this.rows;
+  }
+
+  @Override
+  public int getColumns() {
+    return this.columns;
+  }
+
+  @Override
+  public void recordVisit(int location) {
+    this.visits[location]++;
+  }
+
+  @Override
+  public void recordPickups(int location, int treasures) {
+    this.pickups[location] += treasures;
+  }
+
+  @Override
+  public HeatmapSnapshot snapshot() {
+    long[] visits = new long[this.visits.length];
+    long[] pickups = new long[this.pickups.length];
+    for (int i = 0; i < visits.length; i++) {
+      visits[i] = Integer.toUnsignedLong(this.visits[i]);
+      pickups[i] = Integer.toUnsignedLong(this.pickups[i]);
+    }
+    return new HeatmapSnapshot(this.rows, this.columns, visits, pickups);
+  }
+}
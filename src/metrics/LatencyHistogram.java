@@ -0,0 +1,117 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics.LatencyHistogram records latencies in nanoseconds into power of two buckets. Bucket
+ * {@code i} holds the latencies in {@code [2^(i-1), 2^i)}, so percentiles are accurate to a
+ * factor of two, which is enough to tell the phases of generation apart. Recording is lock free
+ * and may be done from many threads.
+ */
+public class LatencyHistogram {
+
+  private static final int BUCKETS = 64;
+
+  private final LongAdder[] buckets;
+  private final LongAdder count;
+  private final LongAdder totalNanos;
+  private final LongAccumulator maxNanos;
+
+  /**
+   * Constructs an empty histogram.
+   */
+  public LatencyHistogram() {
+    this.buckets = new LongAdder[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      this.buckets[i] = new LongAdder();
+    }
+    this.count = new LongAdder();
+    this.totalNanos = new LongAdder();
+    this.maxNanos = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * Records one latency.
+   *
+   * @param nanos the latency in nanoseconds. Negative values are recorded as zero.
+   */
+  public void record(long nanos) {
+    long value = Math.max(0, nanos);
+    this.buckets[Long.SIZE - Long.numberOfLeadingZeros(value)].increment();
+    this.count.increment();
+    this.totalNanos.add(value);
+    this.maxNanos.accumulate(value);
+  }
+
+  /**
+   * Returns the number of recorded latencies.
+   *
+   * @return the count.
+   */
+  public long getCount() {
+    return this.count.sum();
+  }
+
+  /**
+   * Returns the sum of all recorded latencies.
+   *
+   * @return the total in nanoseconds.
+   */
+  public long getTotalNanos() {
+    return this.totalNanos.sum();
+  }
+
+  /**
+   * Returns the largest recorded latency.
+   *
+   * @return the maximum in nanoseconds, {@code 0} if nothing was recorded.
+   */
+  public long getMaxNanos() {
+    return this.maxNanos.get();
+  }
+
+  /**
+   * Returns an upper bound of the given percentile of the recorded latencies.
+   *
+   * @param percentile the percentile between 0 and 100.
+   * @return the upper bound of the bucket holding the percentile in nanoseconds, {@code 0} if
+   *         nothing was recorded.
+   * @throws IllegalArgumentException if {@code percentile} is less than 0 or more than 100.
+   */
+  public long getPercentile(double percentile) throws IllegalArgumentException {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+    }
+    long[] snapshot = new long[BUCKETS];
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = this.buckets[i].sum();
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    long rank = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= rank && snapshot[i] > 0) {
+        return Math.min(i == 0 ? 0 : (1L << i) - 1, getMaxNanos());
+      }
+    }
+    return getMaxNanos();
+  }
+
+  /**
+   * Clears all recorded latencies.
+   */
+  public void reset() {
+    for (LongAdder bucket : this.buckets) {
+      bucket.reset();
+    }
+    this.count.reset();
+    this.totalNanos.reset();
+    this.maxNanos.reset();
+  }
+}
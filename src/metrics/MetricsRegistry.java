@@ -0,0 +1,107 @@
+package metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics.MetricsRegistry collects the per-phase latencies and the work counters of every
+ * {@link dungeon.Dungeon} generated in this JVM. Metrics are disabled by default; while disabled
+ * generation does not read the clock or count anything.
+ */
+public class MetricsRegistry {
+
+  private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+  private final Map<Phase, LatencyHistogram> latencies;
+  private final Map<Counter, LongAdder> counters;
+  private volatile boolean enabled;
+
+  private MetricsRegistry() {
+    this.latencies = new EnumMap<>(Phase.class);
+    for (Phase phase : Phase.values()) {
+      this.latencies.put(phase, new LatencyHistogram());
+    }
+    this.counters = new EnumMap<>(Counter.class);
+    for (Counter counter : Counter.values()) {
+      this.counters.put(counter, new LongAdder());
+    }
+    this.enabled = false;
+  }
+
+  /**
+   * Returns the registry shared by all dungeons.
+   *
+   * @return the registry.
+   */
+  public static MetricsRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns if metrics are recorded.
+   *
+   * @return {@code true} if enabled otherwise {@code false}.
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Enables or disables recording. Dungeons that are already being generated keep the setting
+   * they started with.
+   *
+   * @param enabled {@code true} to record metrics otherwise {@code false}.
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the latency histogram of the given phase.
+   *
+   * @param phase the phase.
+   * @return the histogram.
+   * @throws IllegalArgumentException if {@code phase} is {@code null}.
+   */
+  public LatencyHistogram getLatency(Phase phase) throws IllegalArgumentException {
+    if (phase == null) {
+      throw new IllegalArgumentException("Phase cannot be null.");
+    }
+    return this.latencies.get(phase);
+  }
+
+  /**
+   * Returns the total of the given counter over all recorded generations.
+   *
+   * @param counter the counter.
+   * @return the total.
+   * @throws IllegalArgumentException if {@code counter} is {@code null}.
+   */
+  public long getCount(Counter counter) throws IllegalArgumentException {
+    if (counter == null) {
+      throw new IllegalArgumentException("Counter cannot be null.");
+    }
+    return this.counters.get(counter).sum();
+  }
+
+  /**
+   * Clears all recorded latencies and counters.
+   */
+  public void reset() {
+    for (LatencyHistogram histogram : this.latencies.values()) {
+      histogram.reset();
+    }
+    for (LongAdder counter : this.counters.values()) {
+      counter.reset();
+    }
+  }
+
+  void record(Phase phase, long nanos) {
+    this.latencies.get(phase).record(nanos);
+  }
+
+  void add(Counter counter, long value) {
+    this.counters.get(counter).add(value);
+  }
+}
@@ -0,0 +1,9 @@
+package metrics;
+
+/**
+ * This represents the phases of the construction of a {@link dungeon.Dungeon} that are timed when
+ * metrics are enabled.
+ */
+public enum Phase {
+  CREATE_DUNGEON, CREATE_POTENTIAL_PATHS, CREATE_PATHS, VALID_MOVES, ADD_TREASURE, START_AND_END
+}
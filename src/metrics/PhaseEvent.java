@@ -0,0 +1,32 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The JFR event committed at the end of each timed phase of dungeon generation. A
+ * package-private class.
+ */
+@Name("dungeon.GenerationPhase")
+@Label("Dungeon Generation Phase")
+@Category("Dungeon")
+@Description("One phase of the construction of a dungeon")
+class PhaseEvent extends Event {
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Rows")
+  int rows;
+
+  @Label("Columns")
+  int columns;
+
+  @Label("Phase Duration")
+  @Timespan(Timespan.NANOSECONDS)
+  long phaseDuration;
+}
@@ -0,0 +1,89 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The metrics.StripedHistogram records non-negative values into log-linear buckets: values below
+ * 8 have a bucket each, and every power of two above is split into 8 buckets of equal width, so
+ * percentiles are accurate to within 12.5%. Every bucket is a {@link LongAdder}, whose cells are
+ * striped across the threads that record into it, so any number of threads can record without
+ * contending and readers never block them.
+ */
+public class StripedHistogram {
+
+  private static final int SUB_BUCKET_BITS = 3;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = SUB_BUCKETS + (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+  private final LongAdder[] buckets;
+  private final LongAdder sum;
+  private final LongAccumulator max;
+
+  /**
+   * Constructs an empty histogram.
+   */
+  public StripedHistogram() {
+    this.buckets = new LongAdder[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      this.buckets[i] = new LongAdder();
+    }
+    this.sum = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * Records one value.
+   *
+   * @param value the value. Negative values are recorded as zero.
+   */
+  public void record(long value) {
+    long recorded = Math.max(0, value);
+    this.buckets[bucketOf(recorded)].increment();
+    this.sum.add(recorded);
+    this.max.accumulate(recorded);
+  }
+
+  /**
+   * Returns the counts recorded so far. Values recorded while the snapshot is taken may or may
+   * not be in it.
+   *
+   * @return the snapshot.
+   */
+  public HistogramSnapshot snapshot() {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = this.buckets[i].sum();
+    }
+    return new HistogramSnapshot(counts, this.sum.sum(), this.max.get());
+  }
+
+  /**
+   * Clears all recorded values.
+   */
+  public void reset() {
+    for (LongAdder bucket : this.buckets) {
+      bucket.reset();
+    }
+    this.sum.reset();
+    this.max.reset();
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+  }
+
+  static long upperBoundOf(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+    long lower = (long) (SUB_BUCKETS + (bucket - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+    return lower + (1L << shift) - 1;
+  }
+}
@@ -0,0 +1,81 @@
+package player;
+
+import java.util.Arrays;
+
+/**
+ * This represents a set of location ids stored as pages of 4096 bits that copies share until
+ * they write to them. Copying takes constant time; after a copy each side copies the table of
+ * pages once, on its first write, and every page the first time it writes to it, so a fork that
+ * only visits a few new locations copies a few pages and not the whole set. A package-private
+ * class.
+ */
+class PagedBitSet {
+
+  private static final int PAGE_SHIFT = 12;
+  private static final int WORDS_PER_PAGE = 1 << (PAGE_SHIFT - 6);
+  private static final long[][] NO_PAGES = new long[0][];
+
+  private long[][] pages;
+  // the pages this set may write to; null while the table itself is shared with a copy
+  private boolean[] isOwned;
+
+  /**
+   * Constructs an empty set.
+   */
+  PagedBitSet() {
+    this.pages = NO_PAGES;
+    this.isOwned = new boolean[0];
+  }
+
+  /**
+   * Returns if the id is in the set.
+   *
+   * @param id the id, not negative.
+   * @return {@code true} if the id is in the set otherwise {@code false}.
+   */
+  boolean get(int id) {
+    int page = id >>> PAGE_SHIFT;
+    if (page >= this.pages.length || this.pages[page] == null) {
+      return false;
+    }
+    return (this.pages[page][(id >>> 6) & (WORDS_PER_PAGE - 1)] & 1L << id) != 0;
+  }
+
+  /**
+   * Adds the id to the set, copying the page that holds it first if it is shared.
+   *
+   * @param id the id, not negative.
+   */
+  void set(int id) {
+    int page = id >>> PAGE_SHIFT;
+    if (this.isOwned == null) {
+      this.pages = this.pages.clone();
+      this.isOwned = new boolean[this.pages.length];
+    }
+    if (page >= this.pages.length) {
+      int length = Math.max(page + 1, this.pages.length * 2);
+      this.pages = Arrays.copyOf(this.pages, length);
+      this.isOwned = Arrays.copyOf(this.isOwned, length);
+    }
+    if (!this.isOwned[page]) {
+      this.pages[page] = this.pages[page] == null
+              ? new long[WORDS_PER_PAGE] : this.pages[page].clone();
+      this.isOwned[page] = true;
+    }
+    this.pages[page][(id >>> 6) & (WORDS_PER_PAGE - 1)] |= 1L << id;
+  }
+
+  /**
+   * Returns a copy of the set in constant time. The copy and this set share every page until
+   * either writes to it.
+   *
+   * @return the copy.
+   */
+  PagedBitSet copy() {
+    PagedBitSet copy = new PagedBitSet();
+    copy.pages = this.pages;
+    copy.isOwned = null;
+    this.isOwned = null;
+    return copy;
+  }
+}
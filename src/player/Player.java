@@ -29,4 +29,28 @@ public interface Player {
    * @return the treasures collected by the player.
    */
   Map<Treasure, Integer> getCollectedTreasures();
+
+  /**
+   * Returns if the player has been at the location.
+   *
+   * @param locationId the id of the location.
+   * @return {@code true} if visited otherwise {@code false}.
+   */
+  boolean hasVisited(int locationId);
+
+  /**
+   * Returns if the player has seen the location, either by being there or by seeing it through
+   * an exit of a location it has been at.
+   *
+   * @param locationId the id of the location.
+   * @return {@code true} if seen otherwise {@code false}.
+   */
+  boolean hasSeen(int locationId);
+
+  /**
+   * Returns the percentage of the locations of the dungeon the player has seen.
+   *
+   * @return the percentage between 0 and 100, 0 if the size of the dungeon is not known.
+   */
+  double getPercentageExplored();
 }
@@ -19,14 +19,32 @@ public class PlayerImpl implements PlayerUpdateState {
   String name;
   LocationUpdateState currentLocation;
   Map<Treasure, Integer> treasures;
+  int totalLocations;
+  PagedBitSet visited;
+  PagedBitSet seen;
+  int seenCount;
 
   /**
-   * Constructs a player.
+   * Constructs a player in a dungeon of unknown size.
    *
    * @param name            the name of the player.
    * @param currentLocation the current location of teh player.
    */
   public PlayerImpl(String name, LocationUpdateState currentLocation) {
+    this(name, currentLocation, 0);
+  }
+
+  /**
+   * Constructs a player in a dungeon with the given number of locations.
+   *
+   * @param name            the name of the player.
+   * @param currentLocation the current location of teh player.
+   * @param totalLocations  the number of locations in the dungeon, 0 if not known.
+   * @throws IllegalArgumentException <ul><li>if {@code name} is {@code null} or empty.</li>
+   *                                  <li>if {@code currentLocation} is {@code null}.</li>
+   *                                  <li>if {@code totalLocations} is negative.</li></ul>
+   */
+  public PlayerImpl(String name, LocationUpdateState currentLocation, int totalLocations) {
     if (name == null || name.equals("")) {
       throw new IllegalArgumentException("Name cannot be null or empty.");
     }
@@ -39,6 +57,54 @@ public class PlayerImpl implements PlayerUpdateState {
     this.treasures.put(Treasure.RUBY, 0);
     this.treasures.put(Treasure.DIAMOND, 0);
     this.treasures.put(Treasure.SAPPHIRE, 0);
+    if (totalLocations < 0) {
+      throw new IllegalArgumentException("Number of locations cannot be negative.");
+    }
+    this.totalLocations = totalLocations;
+    this.visited = new PagedBitSet();
+    this.seen = new PagedBitSet();
+    markVisited(currentLocation.getId());
+  }
+
+  /**
+   * Constructs a player with the name, the collected treasures and the explored locations of the
+   * given player, e.g. one whose state is not kept on the heap, standing at the given location.
+   *
+   * @param other           the player to be copied.
+   * @param currentLocation the current location of the player.
+   * @param totalLocations  the number of locations in the dungeon.
+   * @throws IllegalArgumentException <ul><li>if {@code other} or {@code currentLocation} is
+   *                                  {@code null}.</li>
+   *                                  <li>if {@code totalLocations} is negative.</li></ul>
+   */
+  public PlayerImpl(Player other, LocationUpdateState currentLocation, int totalLocations)
+          throws IllegalArgumentException {
+    this(other == null ? null : other.getName(), currentLocation, totalLocations);
+    this.treasures.putAll(other.getCollectedTreasures());
+    for (int id = 0; id < totalLocations; id++) {
+      if (other.hasVisited(id)) {
+        this.visited.set(id);
+      }
+      if (other.hasSeen(id)) {
+        reveal(id);
+      }
+    }
+  }
+
+  private PlayerImpl(PlayerImpl other, LocationUpdateState currentLocation)
+          throws IllegalArgumentException {
+    if (currentLocation == null) {
+      throw new IllegalArgumentException("Current location cannot be null");
+    }
+    this.name = other.name;
+    this.currentLocation = currentLocation;
+    this.treasures = new HashMap<>(other.treasures);
+    this.totalLocations = other.totalLocations;
+    // both sides share the pages of the bitsets until they write to them
+    this.visited = other.visited.copy();
+    this.seen = other.seen.copy();
+    this.seenCount = other.seenCount;
+    markVisited(currentLocation.getId());
   }
 
   @Override
@@ -83,11 +149,50 @@ public class PlayerImpl implements PlayerUpdateState {
     this.currentLocation.removeTreasures(filteredTreasures);
   }
 
+  @Override
+  public boolean hasVisited(int locationId) {
+    return locationId >= 0 && this.visited.get(locationId);
+  }
+
+  @Override
+  public boolean hasSeen(int locationId) {
+    return locationId >= 0 && this.seen.get(locationId);
+  }
+
+  @Override
+  public double getPercentageExplored() {
+    if (this.totalLocations == 0) {
+      return 0;
+    }
+    return 100.0 * this.seenCount / this.totalLocations;
+  }
+
+  @Override
+  public PlayerUpdateState copy(LocationUpdateState currentLocation) {
+    return new PlayerImpl(this, currentLocation);
+  }
+
   @Override
   public void move(LocationUpdateState newLocation) throws IllegalArgumentException {
     if (newLocation == null) {
       throw new IllegalArgumentException("Location cannot be null");
     }
     this.currentLocation = newLocation;
+    markVisited(newLocation.getId());
+  }
+
+  @Override
+  public void reveal(int locationId) {
+    if (!this.seen.get(locationId)) {
+      this.seen.set(locationId);
+      this.seenCount++;
+    }
+  }
+
+  private void markVisited(int locationId) {
+    if (!this.visited.get(locationId)) {
+      this.visited.set(locationId);
+    }
+    reveal(locationId);
   }
 }
@@ -26,4 +26,20 @@ public interface PlayerUpdateState extends Player {
    * @param newLocation the new location the player need to be moved to.
    */
   void move(LocationUpdateState newLocation);
+
+  /**
+   * Returns a copy of the player standing at the given location. The copy has its own tally of
+   * collected treasures.
+   *
+   * @param currentLocation the current location of the copy.
+   * @return the copy of the player.
+   */
+  PlayerUpdateState copy(LocationUpdateState currentLocation);
+
+  /**
+   * Marks the location as seen by the player without visiting it.
+   *
+   * @param locationId the id of the location.
+   */
+  void reveal(int locationId);
 }
@@ -20,4 +20,15 @@ public class RandomFactory {
     //not random
     return new RandomFalse();
   }
-}
\ No newline at end of file
+
+  /**
+   * Generates an instance of {@link RandomGenerator} that generates the same numbers for the same
+   * seed.
+   *
+   * @param seed the seed.
+   * @return the instance of {@link RandomGenerator}.
+   */
+  public RandomGenerator getRandomGenerator(long seed) {
+    return new RandomSeeded(seed);
+  }
+}
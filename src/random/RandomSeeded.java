@@ -0,0 +1,49 @@
+package random;
+
+import java.util.Random;
+
+/**
+ * This class implements {@link RandomGenerator} and represents a random number generation class
+ * that generates the same numbers for the same seed.
+ */
+public class RandomSeeded implements RandomGenerator {
+
+  private final long seed;
+  private final Random rand;
+  private long draws;
+
+  /**
+   * Constructs a random generator with the given seed.
+   *
+   * @param seed the seed.
+   */
+  public RandomSeeded(long seed) {
+    this.seed = seed;
+    this.rand = new Random(seed);
+  }
+
+  /**
+   * Returns the seed the generator was constructed with.
+   *
+   * @return the seed.
+   */
+  public long getSeed() {
+    return this.seed;
+  }
+
+  /**
+   * Returns how many numbers were drawn from the generator. The seed alone reproduces what is
+   * built from the generator only if nothing was drawn before.
+   *
+   * @return the number of numbers drawn.
+   */
+  public long getDraws() {
+    return this.draws;
+  }
+
+  @Override
+  public int getRandom(int upperBound, int lowerBound) {
+    this.draws++;
+    return this.rand.nextInt(upperBound - lowerBound) + lowerBound;
+  }
+}
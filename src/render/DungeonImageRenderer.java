@@ -0,0 +1,159 @@
+package render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import dungeon.Dungeon;
+import dungeon.Stripes;
+import location.Direction;
+import location.Location;
+
+/**
+ * The render.DungeonImageRenderer draws a {@link Dungeon} into a raster image, one square tile per
+ * location: caves and tunnels in the middle of the tile, exits as passages to the edges of the
+ * tile, and the start, the destination, the player and the treasures in their own colours. The
+ * image is split into horizontal strips of rows that are drawn in parallel, on the threads of
+ * {@link Stripes} shared with the generation of dungeons, straight into the byte raster of an
+ * indexed image, one byte per pixel, and can be encoded as PNG without a display.
+ */
+public class DungeonImageRenderer {
+
+  static final byte BACKGROUND = 0;
+  static final byte PASSAGE = 1;
+  static final byte CAVE = 2;
+  static final byte TUNNEL = 3;
+  static final byte TREASURE = 4;
+  static final byte START = 5;
+  static final byte DESTINATION = 6;
+  static final byte PLAYER = 7;
+
+  private final int tileSize;
+  private final int threads;
+
+  /**
+   * Constructs a renderer.
+   *
+   * @param tileSize the width and height of the tile of each location in pixels.
+   * @param threads  the number of strips drawn in parallel.
+   * @throws IllegalArgumentException <ul><li>if {@code tileSize} is less than 3.</li>
+   *                                  <li>if {@code threads} is less than 1.</li></ul>
+   */
+  public DungeonImageRenderer(int tileSize, int threads) throws IllegalArgumentException {
+    if (tileSize < 3) {
+      throw new IllegalArgumentException("Tile size must be at least 3 pixels.");
+    }
+    if (threads < 1) {
+      throw new IllegalArgumentException("Number of threads must be positive.");
+    }
+    this.tileSize = tileSize;
+    this.threads = threads;
+  }
+
+  /**
+   * Draws the dungeon.
+   *
+   * @param dungeon the dungeon.
+   * @return the image.
+   * @throws IllegalArgumentException <ul><li>if {@code dungeon} is {@code null}.</li>
+   *                                  <li>if the image would be too large.</li></ul>
+   */
+  public BufferedImage render(Dungeon dungeon) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    long width = (long) dungeon.getColumns() * this.tileSize;
+    long height = (long) dungeon.getRows() * this.tileSize;
+    BufferedImage image = Palettes.createImage(width, height, Palettes.DUNGEON);
+    byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+    new Stripes(dungeon.getRows(), this.threads).forEach((strip, firstRow, endRow) ->
+            drawRows(dungeon, pixels, (int) width, firstRow, endRow));
+    return image;
+  }
+
+  /**
+   * Draws the dungeon and writes it as PNG.
+   *
+   * @param dungeon the dungeon.
+   * @param out     the stream the PNG is written to. It is not closed.
+   * @throws IOException              if the image cannot be written.
+   * @throws IllegalArgumentException if {@code out} is {@code null}, see also
+   *                                  {@link #render(Dungeon)}.
+   */
+  public void writePng(Dungeon dungeon, OutputStream out)
+          throws IOException, IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    ImageIO.write(render(dungeon), "png", out);
+  }
+
+  private void drawRows(Dungeon dungeon, byte[] pixels, int width, int firstRow, int endRow) {
+    int start = dungeon.getStartingCave().getId();
+    int destination = dungeon.getDestinationCave().getId();
+    int player = dungeon.getPlayerLocation().getId();
+    int margin = this.tileSize / 3;
+    int roomEnd = this.tileSize - margin;
+
+    for (int row = firstRow; row < endRow; row++) {
+      for (int column = 0; column < dungeon.getColumns(); column++) {
+        Location location = dungeon.getLocation(row, column);
+        int x = column * this.tileSize;
+        int y = row * this.tileSize;
+        List<Direction> exits = location.getPossibleMoves();
+
+        byte room = location.isTunnel() ? TUNNEL : CAVE;
+        boolean hasTreasure = !location.getTreasures().isEmpty();
+        if (location.getId() == player) {
+          room = PLAYER;
+        } else if (location.getId() == start) {
+          room = START;
+        } else if (location.getId() == destination) {
+          room = DESTINATION;
+        } else if (hasTreasure && this.tileSize < 5) {
+          room = TREASURE;
+        }
+        fill(pixels, width, x + margin, y + margin, x + roomEnd, y + roomEnd, room);
+        if (hasTreasure && this.tileSize >= 5) {
+          fill(pixels, width, x + margin + 1, y + margin + 1, x + roomEnd - 1, y + roomEnd - 1,
+                  TREASURE);
+        }
+
+        for (Direction exit : exits) {
+          switch (exit) {
+            case NORTH:
+              fill(pixels, width, x + margin, y, x + roomEnd, y + margin, PASSAGE);
+              break;
+            case SOUTH:
+              fill(pixels, width, x + margin, y + roomEnd, x + roomEnd, y + this.tileSize,
+                      PASSAGE);
+              break;
+            case WEST:
+              fill(pixels, width, x, y + margin, x + margin, y + roomEnd, PASSAGE);
+              break;
+            case EAST:
+              fill(pixels, width, x + roomEnd, y + margin, x + this.tileSize, y + roomEnd,
+                      PASSAGE);
+              break;
+            default: //No action required.
+          }
+        }
+      }
+    }
+  }
+
+  private static void fill(byte[] pixels, int width, int fromX, int fromY, int toX, int toY,
+                           byte color) {
+    for (int y = fromY; y < toY; y++) {
+      int offset = y * width;
+      for (int x = fromX; x < toX; x++) {
+        pixels[offset + x] = color;
+      }
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import metrics.HeatmapSnapshot;
+
+/**
+ * The render.HeatmapImageRenderer draws a {@link HeatmapSnapshot} into an indexed image, one
+ * square tile per location coloured from black through red and yellow to white. Counts are
+ * scaled logarithmically against the largest count of the snapshot, so that a few locations
+ * every game passes, such as the start, do not wash out the rest of the map.
+ */
+public class HeatmapImageRenderer {
+
+  private final int tileSize;
+
+  /**
+   * Constructs a renderer.
+   *
+   * @param tileSize the width and height of the tile of each location in pixels.
+   * @throws IllegalArgumentException if {@code tileSize} is less than 1.
+   */
+  public HeatmapImageRenderer(int tileSize) throws IllegalArgumentException {
+    if (tileSize < 1) {
+      throw new IllegalArgumentException("Tile size must be positive.");
+    }
+    this.tileSize = tileSize;
+  }
+
+  /**
+   * Draws the visits or the pickups of the snapshot.
+   *
+   * @param snapshot the snapshot.
+   * @param pickups  {@code true} to draw the pickups otherwise the visits.
+   * @return the image.
+   * @throws IllegalArgumentException <ul><li>if {@code snapshot} is {@code null}.</li>
+   *                                  <li>if the image would be too large.</li></ul>
+   */
+  public BufferedImage render(HeatmapSnapshot snapshot, boolean pickups)
+          throws IllegalArgumentException {
+    if (snapshot == null) {
+      throw new IllegalArgumentException("Snapshot cannot be null.");
+    }
+    long width = (long) snapshot.getColumns() * this.tileSize;
+    long height = (long) snapshot.getRows() * this.tileSize;
+    BufferedImage image = Palettes.createImage(width, height, Palettes.HEAT);
+    byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+
+    int locations = snapshot.getRows() * snapshot.getColumns();
+    long max = 0;
+    for (int id = 0; id < locations; id++) {
+      max = Math.max(max, count(snapshot, id, pickups));
+    }
+    double scale = max == 0 ? 0 : 255 / Math.log1p(max);
+    for (int id = 0; id < locations; id++) {
+      byte shade = (byte) Math.round(Math.log1p(count(snapshot, id, pickups)) * scale);
+      int x = id % snapshot.getColumns() * this.tileSize;
+      int y = id / snapshot.getColumns() * this.tileSize;
+      for (int row = y; row < y + this.tileSize; row++) {
+        int offset = (int) (row * width);
+        Arrays.fill(pixels, offset + x, offset + x + this.tileSize, shade);
+      }
+    }
+    return image;
+  }
+
+  /**
+   * Draws the visits or the pickups of the snapshot and writes them as PNG.
+   *
+   * @param snapshot the snapshot.
+   * @param pickups  {@code true} to draw the pickups otherwise the visits.
+   * @param out      the stream the PNG is written to. It is not closed.
+   * @throws IOException              if the image cannot be written.
+   * @throws IllegalArgumentException if {@code out} is {@code null}, see also
+   *                                  {@link #render(HeatmapSnapshot, boolean)}.
+   */
+  public void writePng(HeatmapSnapshot snapshot, boolean pickups, OutputStream out)
+          throws IOException, IllegalArgumentException {
+    if (out == null) {
+      throw new IllegalArgumentException("Output stream cannot be null.");
+    }
+    ImageIO.write(render(snapshot, pickups), "png", out);
+  }
+
+  private static long count(HeatmapSnapshot snapshot, int id, boolean pickups) {
+    return pickups ? snapshot.getPickups(id) : snapshot.getVisits(id);
+  }
+}
@@ -0,0 +1,71 @@
+package render;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+
+/**
+ * This holds the colours of the indexed images drawn by the renderers of this package and
+ * creates the images. The first colour model or image loads the native part of AWT, which reads
+ * {@code java.awt.headless} once, so the class sets it before any palette unless it was given on
+ * the command line; images can then be drawn and encoded without a display. Renderers create
+ * their images through {@link #createImage}, as {@code new BufferedImage(...)} would load AWT
+ * before its arguments reach this class. A package-private class.
+ */
+final class Palettes {
+
+  static {
+    if (System.getProperty("java.awt.headless") == null) {
+      System.setProperty("java.awt.headless", "true");
+    }
+  }
+
+  /**
+   * The colours of {@link DungeonImageRenderer}, indexed by its colour constants.
+   */
+  static final IndexColorModel DUNGEON = new IndexColorModel(8, 8,
+          new byte[] {(byte) 0x20, (byte) 0x9e, (byte) 0xd9, (byte) 0x80, (byte) 0xff,
+                  (byte) 0x2e, (byte) 0xe0, (byte) 0x1e},
+          new byte[] {(byte) 0x20, (byte) 0x9e, (byte) 0xc8, (byte) 0x80, (byte) 0xd7,
+                  (byte) 0xcc, (byte) 0x3a, (byte) 0x90},
+          new byte[] {(byte) 0x28, (byte) 0x9e, (byte) 0xa0, (byte) 0x80, (byte) 0x00,
+                  (byte) 0x71, (byte) 0x3a, (byte) 0xff});
+
+  /**
+   * The colours of {@link HeatmapImageRenderer}, from black through red and yellow to white.
+   */
+  static final IndexColorModel HEAT = createHeat();
+
+  private Palettes() {
+  }
+
+  /**
+   * Creates an indexed image, one byte per pixel.
+   *
+   * @param width   the width in pixels.
+   * @param height  the height in pixels.
+   * @param palette the colours.
+   * @return the image.
+   * @throws IllegalArgumentException if the image would be too large.
+   */
+  static BufferedImage createImage(long width, long height, IndexColorModel palette)
+          throws IllegalArgumentException {
+    if (width * height > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Image too large. Use a smaller tile size.");
+    }
+    return new BufferedImage((int) width, (int) height, BufferedImage.TYPE_BYTE_INDEXED,
+            palette);
+  }
+
+  private static IndexColorModel createHeat() {
+    byte[] red = new byte[256];
+    byte[] green = new byte[256];
+    byte[] blue = new byte[256];
+    for (int i = 0; i < 256; i++) {
+      // black to red, red to yellow, yellow to white over thirds of the range
+      red[i] = (byte) Math.min(255, i * 3);
+      green[i] = (byte) Math.min(255, Math.max(0, i * 3 - 255));
+      blue[i] = (byte) Math.max(0, i * 3 - 510);
+    }
+    return new IndexColorModel(8, 256, red, green, blue);
+  }
+}
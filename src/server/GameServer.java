@@ -0,0 +1,347 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dungeon.Command;
+import dungeon.CommandResult;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import location.Treasure;
+import random.RandomFactory;
+import random.RandomGenerator;
+import render.DungeonImageRenderer;
+
+/**
+ * The server.GameServer hosts games of {@link Dungeon} over HTTP on the loopback interface using
+ * the HTTP server of the JDK. Every request is handled on its own virtual thread where the
+ * runtime supports it. Requests of one session are serialized by the lock of that session only,
+ * there is no lock shared by all the sessions.
+ *
+ * <p>The server understands the following requests, answering with {@code key=value} lines:
+ * <ul>
+ *   <li>{@code POST /sessions?rows=&columns=&interconnectivity=&wrapping=&treasures=&name=} with
+ *   an optional {@code seed} creates a session.</li>
+ *   <li>{@code GET /sessions/{id}} describes the location of the player.</li>
+ *   <li>{@code POST /sessions/{id}/move?direction=} moves the player.</li>
+ *   <li>{@code POST /sessions/{id}/collect} collects all the treasures at the location.</li>
+ *   <li>{@code POST /sessions/{id}/execute?commands=} applies a comma separated batch of
+ *   directions and {@code COLLECT}s, see {@link Dungeon#execute(List)}.</li>
+ *   <li>{@code GET /sessions/{id}/render} renders the dungeon as text, or as PNG with
+ *   {@code format=png} and an optional {@code tile} size.</li>
+ *   <li>{@code DELETE /sessions/{id}} ends the session.</li>
+ * </ul>
+ * Dungeons with more locations than the limit of the server, and PNG renders of more than
+ * {@link #MAX_IMAGE_PIXELS} pixels, are refused with status 400.
+ */
+public class GameServer implements Closeable {
+
+  private static final String PREFIX = "/sessions";
+  private static final int BACKLOG = 4096;
+
+  /**
+   * The default maximum number of locations of a dungeon.
+   */
+  public static final int DEFAULT_MAX_LOCATIONS = 1 << 20;
+
+  /**
+   * The maximum number of pixels of a PNG render, one byte each while it is drawn.
+   */
+  public static final int MAX_IMAGE_PIXELS = 1 << 24;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final Map<Long, Session> sessions;
+  private final AtomicLong nextId;
+  private final RandomFactory randomFactory;
+  private final int maxLocations;
+
+  /**
+   * Constructs a server listening on the given port of the loopback interface with dungeons of
+   * at most {@link #DEFAULT_MAX_LOCATIONS} locations. The server does not accept requests until
+   * it is started.
+   *
+   * @param port the port, {@code 0} for any free port.
+   * @throws IOException              if the port cannot be bound.
+   * @throws IllegalArgumentException if {@code port} is outside 0 to 65535.
+   */
+  public GameServer(int port) throws IOException, IllegalArgumentException {
+    this(port, DEFAULT_MAX_LOCATIONS);
+  }
+
+  /**
+   * Constructs a server listening on the given port of the loopback interface. The server does
+   * not accept requests until it is started.
+   *
+   * @param port         the port, {@code 0} for any free port.
+   * @param maxLocations the maximum number of locations of a dungeon.
+   * @throws IOException              if the port cannot be bound.
+   * @throws IllegalArgumentException <ul><li>if {@code port} is outside 0 to 65535.</li>
+   *                                  <li>if {@code maxLocations} is not positive.</li></ul>
+   */
+  public GameServer(int port, int maxLocations) throws IOException, IllegalArgumentException {
+    if (port < 0 || port > 65535) {
+      throw new IllegalArgumentException("Port must be between 0 and 65535.");
+    }
+    if (maxLocations < 1) {
+      throw new IllegalArgumentException("Maximum number of locations must be positive.");
+    }
+    this.maxLocations = maxLocations;
+    this.server = HttpServer.create(
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), port), BACKLOG);
+    this.executor = SessionExecutors.newPerTaskExecutor(0);
+    this.sessions = new ConcurrentHashMap<>();
+    this.nextId = new AtomicLong();
+    this.randomFactory = new RandomFactory();
+    this.server.setExecutor(this.executor);
+    this.server.createContext(PREFIX, this::handle);
+  }
+
+  /**
+   * Starts accepting requests.
+   */
+  public void start() {
+    this.server.start();
+  }
+
+  /**
+   * Returns the port the server listens on.
+   *
+   * @return the port.
+   */
+  public int getPort() {
+    return this.server.getAddress().getPort();
+  }
+
+  /**
+   * Returns the number of open sessions.
+   *
+   * @return the number of sessions.
+   */
+  public int getSessionCount() {
+    return this.sessions.size();
+  }
+
+  /**
+   * Stops the server and drops all the sessions.
+   */
+  @Override
+  public void close() {
+    this.server.stop(0);
+    this.executor.shutdownNow();
+    this.sessions.clear();
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      exchange.getRequestBody().readAllBytes();
+      String method = exchange.getRequestMethod();
+      Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+      String path = exchange.getRequestURI().getPath().substring(PREFIX.length());
+      String[] parts = path.split("/");
+      try {
+        if (!path.isEmpty() && !path.startsWith("/") || parts.length > 3) {
+          send(exchange, 404, "error=Not found\n");
+          return;
+        }
+        if (parts.length <= 1) {
+          if (!method.equals("POST")) {
+            send(exchange, 405, "error=Method not allowed\n");
+            return;
+          }
+          send(exchange, 201, create(query));
+          return;
+        }
+        Session session = this.sessions.get(Long.parseLong(parts[1]));
+        if (session == null) {
+          send(exchange, 404, "error=No such session\n");
+          return;
+        }
+        String action = parts.length > 2 ? parts[2] : "";
+        if (action.isEmpty() && method.equals("GET")) {
+          send(exchange, 200, session.apply(GameServer::describe));
+        } else if (action.isEmpty() && method.equals("DELETE")) {
+          this.sessions.remove(session.getId());
+          sendBytes(exchange, 204, null);
+        } else if (action.equals("move") && method.equals("POST")) {
+          Direction direction = Direction.valueOf(required(query, "direction").toUpperCase());
+          send(exchange, 200, session.apply(dungeon -> {
+            dungeon.movePlayer(direction);
+            return describe(dungeon);
+          }));
+        } else if (action.equals("execute") && method.equals("POST")) {
+          List<Command> commands = parseCommands(required(query, "commands"));
+          send(exchange, 200, session.apply(dungeon -> {
+            CommandResult result = dungeon.execute(commands);
+            return describe(dungeon) + "applied=" + result.getCommandsApplied() + "\n"
+                    + "steps=" + result.getStepsTaken() + "\n"
+                    + "collected=" + result.getTreasuresCollected() + "\n"
+                    + "complete=" + result.isComplete() + "\n";
+          }));
+        } else if (action.equals("collect") && method.equals("POST")) {
+          send(exchange, 200, session.apply(dungeon -> {
+            dungeon.collectAllTreasures();
+            return describe(dungeon) + "collected="
+                    + formatTreasures(dungeon.getPlayer().getCollectedTreasures()) + "\n";
+          }));
+        } else if (action.equals("render") && method.equals("GET")) {
+          if ("png".equals(query.get("format"))) {
+            int tile = Integer.parseInt(query.getOrDefault("tile", "9"));
+            DungeonImageRenderer renderer = new DungeonImageRenderer(tile, 1);
+            byte[] png = session.apply(dungeon -> {
+              if ((double) dungeon.getRows() * dungeon.getColumns() * tile * tile
+                      > MAX_IMAGE_PIXELS) {
+                throw new IllegalArgumentException("Image cannot have more than "
+                        + MAX_IMAGE_PIXELS + " pixels. Use a smaller tile size.");
+              }
+              ByteArrayOutputStream out = new ByteArrayOutputStream();
+              try {
+                renderer.writePng(dungeon, out);
+              } catch (IOException e) {
+                throw new IllegalStateException(e);
+              }
+              return out.toByteArray();
+            });
+            exchange.getResponseHeaders().set("Content-Type", "image/png");
+            sendBytes(exchange, 200, png);
+          } else {
+            send(exchange, 200, session.apply(Dungeon::toString));
+          }
+        } else {
+          send(exchange, 405, "error=Method not allowed\n");
+        }
+      } catch (IllegalArgumentException e) {
+        send(exchange, 400, "error=" + e.getMessage() + "\n");
+      } catch (RuntimeException e) {
+        send(exchange, 500, "error=" + e + "\n");
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private String create(Map<String, String> query) throws IllegalArgumentException {
+    String seed = query.get("seed");
+    RandomGenerator rand = seed == null
+            ? this.randomFactory.getRandomGenerator(true)
+            : this.randomFactory.getRandomGenerator(Long.parseLong(seed));
+    int rows = Integer.parseInt(required(query, "rows"));
+    int columns = Integer.parseInt(required(query, "columns"));
+    if ((long) rows * columns > this.maxLocations) {
+      throw new IllegalArgumentException("Dungeon cannot have more than " + this.maxLocations
+              + " locations.");
+    }
+    Dungeon dungeon = new DungeonImpl(rows, columns,
+            Integer.parseInt(required(query, "interconnectivity")),
+            query.getOrDefault("wrapping", "n").equalsIgnoreCase("y"),
+            Double.parseDouble(required(query, "treasures")),
+            query.getOrDefault("name", "Player"), rand);
+    long id = this.nextId.incrementAndGet();
+    this.sessions.put(id, new Session(id, dungeon));
+    return "session=" + id + "\n" + describe(dungeon);
+  }
+
+  private static List<Command> parseCommands(String value) throws IllegalArgumentException {
+    List<Command> commands = new ArrayList<>();
+    for (String command : value.split(",")) {
+      if (command.equalsIgnoreCase("COLLECT")) {
+        commands.add(Command.collect());
+      } else {
+        commands.add(Command.move(Direction.valueOf(command.toUpperCase())));
+      }
+    }
+    return commands;
+  }
+
+  private static String describe(Dungeon dungeon) {
+    Location location = dungeon.getPlayerLocation();
+    StringBuilder sb = new StringBuilder();
+    sb.append("location=").append(location.getId()).append('\n');
+    sb.append("row=").append(location.getCoordinates().getX()).append('\n');
+    sb.append("column=").append(location.getCoordinates().getY()).append('\n');
+    sb.append("moves=");
+    List<Direction> moves = location.getPossibleMoves();
+    for (int i = 0; i < moves.size(); i++) {
+      sb.append(i == 0 ? "" : ",").append(moves.get(i));
+    }
+    sb.append('\n');
+    Map<Treasure, Integer> treasures = new HashMap<>();
+    for (Treasure treasure : location.getTreasures()) {
+      treasures.merge(treasure, 1, Integer::sum);
+    }
+    sb.append("treasures=").append(formatTreasures(treasures)).append('\n');
+    sb.append("destination=").append(dungeon.isDestinationReached()).append('\n');
+    return sb.toString();
+  }
+
+  private static String formatTreasures(Map<Treasure, Integer> treasures) {
+    StringBuilder sb = new StringBuilder();
+    for (Treasure treasure : Treasure.values()) {
+      Integer count = treasures.get(treasure);
+      if (count != null && count > 0) {
+        sb.append(sb.length() == 0 ? "" : ",").append(treasure).append(':').append(count);
+      }
+    }
+    return sb.toString();
+  }
+
+  private static String required(Map<String, String> query, String key)
+          throws IllegalArgumentException {
+    String value = query.get(key);
+    if (value == null) {
+      throw new IllegalArgumentException("Missing parameter " + key + ".");
+    }
+    return value;
+  }
+
+  private static Map<String, String> parseQuery(String rawQuery) {
+    Map<String, String> query = new HashMap<>();
+    if (rawQuery == null || rawQuery.isEmpty()) {
+      return query;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int equals = pair.indexOf('=');
+      String key = equals < 0 ? pair : pair.substring(0, equals);
+      String value = equals < 0 ? "" : pair.substring(equals + 1);
+      query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+              URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return query;
+  }
+
+  private static void send(HttpExchange exchange, int status, String body) throws IOException {
+    sendBytes(exchange, status, body.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static void sendBytes(HttpExchange exchange, int status, byte[] body) throws IOException {
+    if (body == null) {
+      exchange.sendResponseHeaders(status, -1);
+      return;
+    }
+    if (!exchange.getResponseHeaders().containsKey("Content-Type")) {
+      exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+    }
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package server;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import metrics.LatencyHistogram;
+
+/**
+ * The server.LoadGenerator plays many concurrent sessions against a {@link GameServer} and
+ * records the latency of every request. Each session creates a small dungeon, makes random valid
+ * moves and ends the session. Sessions run on virtual threads where the runtime supports them.
+ */
+public class LoadGenerator {
+
+  private static final int FALLBACK_THREADS = 256;
+
+  private final URI base;
+  private final int sessions;
+  private final int movesPerSession;
+  private final LatencyHistogram latencies;
+  private final AtomicLong failures;
+
+  /**
+   * Constructs a load generator.
+   *
+   * @param base            the base address of the server, e.g. {@code http://127.0.0.1:8080}.
+   * @param sessions        the number of concurrent sessions.
+   * @param movesPerSession the number of moves made in each session.
+   * @throws IllegalArgumentException <ul><li>if {@code base} is {@code null}.</li>
+   *                                  <li>if {@code sessions} is less than 1.</li>
+   *                                  <li>if {@code movesPerSession} is negative.</li></ul>
+   */
+  public LoadGenerator(URI base, int sessions, int movesPerSession)
+          throws IllegalArgumentException {
+    if (base == null) {
+      throw new IllegalArgumentException("Base address cannot be null.");
+    }
+    if (sessions < 1) {
+      throw new IllegalArgumentException("Number of sessions must be positive.");
+    }
+    if (movesPerSession < 0) {
+      throw new IllegalArgumentException("Number of moves cannot be negative.");
+    }
+    this.base = base;
+    this.sessions = sessions;
+    this.movesPerSession = movesPerSession;
+    this.latencies = new LatencyHistogram();
+    this.failures = new AtomicLong();
+  }
+
+  /**
+   * Plays all the sessions and waits for them to finish.
+   *
+   * @return the latencies of all the requests.
+   * @throws InterruptedException if interrupted while waiting for the sessions.
+   */
+  public LatencyHistogram run() throws InterruptedException {
+    ExecutorService executor = SessionExecutors.newPerTaskExecutor(FALLBACK_THREADS);
+    HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    try {
+      List<Future<?>> futures = new ArrayList<>(this.sessions);
+      for (int i = 0; i < this.sessions; i++) {
+        long seed = i;
+        futures.add(executor.submit(() -> playSession(client, seed)));
+      }
+      for (Future<?> future : futures) {
+        try {
+          future.get();
+        } catch (ExecutionException e) {
+          this.failures.incrementAndGet();
+        }
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+    return this.latencies;
+  }
+
+  /**
+   * Returns the number of requests that failed.
+   *
+   * @return the number of failures.
+   */
+  public long getFailures() {
+    return this.failures.get();
+  }
+
+  private void playSession(HttpClient client, long seed) {
+    try {
+      String response = send(client, "POST",
+              "/sessions?rows=10&columns=10&interconnectivity=2&treasures=20&seed=" + seed);
+      if (response == null) {
+        return;
+      }
+      String session = value(response, "session");
+      for (int i = 0; i < this.movesPerSession && response != null; i++) {
+        String[] moves = value(response, "moves").split(",");
+        String move = moves[ThreadLocalRandom.current().nextInt(moves.length)];
+        response = send(client, "POST", "/sessions/" + session + "/move?direction=" + move);
+      }
+      send(client, "DELETE", "/sessions/" + session);
+    } catch (IOException e) {
+      this.failures.incrementAndGet();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private String send(HttpClient client, String method, String path)
+          throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(this.base.resolve(path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+    long start = System.nanoTime();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    this.latencies.record(System.nanoTime() - start);
+    if (response.statusCode() >= 300) {
+      this.failures.incrementAndGet();
+      return null;
+    }
+    return response.body();
+  }
+
+  private static String value(String response, String key) {
+    for (String line : response.split("\n")) {
+      if (line.startsWith(key + "=")) {
+        return line.substring(key.length() + 1);
+      }
+    }
+    return "";
+  }
+
+  /**
+   * Runs the load generator and prints the latency percentiles.
+   *
+   * @param args the port of the server, optionally followed by the number of sessions (10000 by
+   *             default) and the number of moves per session (10 by default).
+   * @throws InterruptedException if interrupted while waiting for the sessions.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    int port = Integer.parseInt(args[0]);
+    int sessions = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+    int moves = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+    LoadGenerator generator = new LoadGenerator(URI.create("http://127.0.0.1:" + port),
+            sessions, moves);
+    long start = System.nanoTime();
+    LatencyHistogram latencies = generator.run();
+    double seconds = (System.nanoTime() - start) / 1e9;
+    System.out.println("Virtual threads: " + SessionExecutors.hasVirtualThreads());
+    System.out.println("Requests: " + latencies.getCount() + ", failures: "
+            + generator.getFailures());
+    System.out.printf("Throughput: %.0f requests/s%n", latencies.getCount() / seconds);
+    System.out.printf("p50: %.3f ms, p99: %.3f ms, max: %.3f ms%n",
+            latencies.getPercentile(50) / 1e6, latencies.getPercentile(99) / 1e6,
+            latencies.getMaxNanos() / 1e6);
+  }
+}
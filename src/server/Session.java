@@ -0,0 +1,56 @@
+package server;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import dungeon.Dungeon;
+
+/**
+ * This represents one game hosted by the {@link GameServer}. Requests of the same session are
+ * applied one at a time under the lock of the session while requests of different sessions run
+ * independently. A {@link ReentrantLock} is used instead of {@code synchronized} so that a
+ * virtual thread waiting for its turn does not pin its carrier thread. A package-private class.
+ */
+class Session {
+
+  private final long id;
+  private final Dungeon dungeon;
+  private final ReentrantLock lock;
+
+  /**
+   * Constructs a session.
+   *
+   * @param id      the id of the session.
+   * @param dungeon the dungeon being played.
+   */
+  Session(long id, Dungeon dungeon) {
+    this.id = id;
+    this.dungeon = dungeon;
+    this.lock = new ReentrantLock();
+  }
+
+  /**
+   * Returns the id of the session.
+   *
+   * @return the id.
+   */
+  long getId() {
+    return this.id;
+  }
+
+  /**
+   * Applies an action to the dungeon of the session while holding the lock of the session.
+   *
+   * @param action the action.
+   * @param <T>    the type of the result.
+   * @return the result of the action.
+   */
+  <T> T apply(Function<Dungeon, T> action) {
+    this.lock.lock();
+    try {
+      return action.apply(this.dungeon);
+    } finally {
+      this.lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package server;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This creates the executors the server and the load generator run their sessions on. On a
+ * runtime with virtual threads every task gets its own virtual thread, otherwise the tasks run
+ * on platform threads. A package-private class.
+ */
+final class SessionExecutors {
+
+  private SessionExecutors() {
+  }
+
+  /**
+   * Returns an executor that starts one virtual thread per task if the runtime supports it.
+   *
+   * @param fallbackThreads the number of platform threads used without virtual threads, {@code 0}
+   *                        for an unbounded cached pool.
+   * @return the executor.
+   */
+  static ExecutorService newPerTaskExecutor(int fallbackThreads) {
+    try {
+      Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return (ExecutorService) factory.invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return fallbackThreads > 0
+              ? Executors.newFixedThreadPool(fallbackThreads)
+              : Executors.newCachedThreadPool();
+    }
+  }
+
+  /**
+   * Returns whether the executors created here run on virtual threads.
+   *
+   * @return true if virtual threads are available.
+   */
+  static boolean hasVirtualThreads() {
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+}
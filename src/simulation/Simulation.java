@@ -0,0 +1,330 @@
+package simulation;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import dungeon.Dungeon;
+import dungeon.Grid;
+import location.Direction;
+import location.Location;
+import location.Treasure;
+
+/**
+ * The simulation.Simulation moves a large number of agents through one {@link Dungeon} in ticks.
+ * Instead of a {@link player.Player} object per agent, the state of all agents is kept in
+ * parallel primitive arrays: the id of the location of every agent, one array of counts per kind
+ * of treasure and a status flag. The exits of the dungeon are flattened into a transition table of
+ * four entries per location, so a move is a single array lookup.
+ *
+ * <p>Each tick applies one move per agent. The agents are split into one contiguous range per
+ * thread and the ranges are moved in parallel. An agent that moves to a location with treasures
+ * takes all of them; the treasures of a location are packed into one int that is taken
+ * atomically, so no treasure is lost or counted twice when agents of different ranges arrive at
+ * the same location in the same tick, though which of them gets it then depends on timing. An
+ * agent that reaches the destination stops there.
+ *
+ * <p>The simulation holds the threads of its pool until it is closed.
+ */
+public class Simulation implements Closeable {
+
+  /**
+   * The status of an agent that is still moving.
+   */
+  public static final byte ACTIVE = 0;
+
+  /**
+   * The status of an agent that has reached the destination.
+   */
+  public static final byte ARRIVED = 1;
+
+  /**
+   * The move of an agent that stays where it is for a tick.
+   */
+  public static final byte STAY = -1;
+
+  private static final Treasure[] TREASURES = Treasure.values();
+  private static final int EXITS = 4;
+  private static final int BITS_PER_TREASURE = 10;
+  private static final int MAX_TREASURES = (1 << BITS_PER_TREASURE) - 1;
+
+  private final int[] transitions;
+  private final AtomicIntegerArray treasures;
+  private final int destination;
+  private final int[] cells;
+  private final int[][] collected;
+  private final byte[] status;
+  private final int[] firstAgents;
+  private final ExecutorService pool;
+  private long ticks;
+
+  /**
+   * Constructs a simulation with every agent at the starting cave of the dungeon. The treasures
+   * of the dungeon are copied; the dungeon itself is not changed.
+   *
+   * @param dungeon the dungeon.
+   * @param agents  the number of agents.
+   * @param threads the number of threads to move the agents on.
+   * @throws IllegalArgumentException <ul><li>if {@code dungeon} is {@code null}.</li>
+   *                                  <li>if {@code agents} or {@code threads} is less than 1.
+   *                                  </li>
+   *                                  <li>if a location holds more than 1023 treasures of a kind.
+   *                                  </li></ul>
+   */
+  public Simulation(Dungeon dungeon, int agents, int threads) throws IllegalArgumentException {
+    if (dungeon == null) {
+      throw new IllegalArgumentException("Dungeon cannot be null.");
+    }
+    if (agents < 1 || threads < 1) {
+      throw new IllegalArgumentException("Number of agents and threads must be positive.");
+    }
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    this.transitions = new int[rows * columns * EXITS];
+    this.treasures = new AtomicIntegerArray(rows * columns);
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < columns; j++) {
+        Location location = dungeon.getLocation(i, j);
+        int id = location.getId();
+        for (int exit = 0; exit < EXITS; exit++) {
+          this.transitions[id * EXITS + exit] = -1;
+        }
+        for (Direction direction : location.getPossibleMoves()) {
+          if (direction.ordinal() < EXITS) {
+            this.transitions[id * EXITS + direction.ordinal()] = Grid.neighbor(id, direction,
+                    rows, columns);
+          }
+        }
+        this.treasures.set(id, pack(location));
+      }
+    }
+    this.destination = dungeon.getDestinationCave().getId();
+
+    this.cells = new int[agents];
+    Arrays.fill(this.cells, dungeon.getStartingCave().getId());
+    this.collected = new int[TREASURES.length][agents];
+    this.status = new byte[agents];
+
+    int ranges = Math.min(agents, threads);
+    this.firstAgents = new int[ranges + 1];
+    for (int i = 0; i <= ranges; i++) {
+      this.firstAgents[i] = (int) ((long) i * agents / ranges);
+    }
+    // the calling thread moves the first range itself
+    this.pool = ranges > 1 ? Executors.newFixedThreadPool(ranges - 1) : null;
+  }
+
+  private static int pack(Location location) throws IllegalArgumentException {
+    int[] counts = new int[TREASURES.length];
+    for (Treasure treasure : location.getTreasures()) {
+      counts[treasure.ordinal()]++;
+    }
+    int packed = 0;
+    for (int t = 0; t < counts.length; t++) {
+      if (counts[t] > MAX_TREASURES) {
+        throw new IllegalArgumentException("Location holds too many treasures of a kind.");
+      }
+      packed |= counts[t] << (t * BITS_PER_TREASURE);
+    }
+    return packed;
+  }
+
+  /**
+   * Applies one move to every agent that has not arrived yet. A move that is not possible from the
+   * location of the agent leaves it where it is.
+   *
+   * @param moves the move of every agent by index: the {@link Direction#ordinal()} of
+   *              {@code EAST}, {@code WEST}, {@code NORTH} or {@code SOUTH}, or {@link #STAY}.
+   * @return the number of agents that moved.
+   * @throws IllegalArgumentException if {@code moves} is {@code null} or does not have one move
+   *                                  per agent.
+   * @throws IllegalStateException    if the simulation is closed or interrupted.
+   */
+  public int tick(byte[] moves) throws IllegalArgumentException, IllegalStateException {
+    if (moves == null || moves.length != this.cells.length) {
+      throw new IllegalArgumentException("Expected one move per agent.");
+    }
+    int moved;
+    if (this.pool == null) {
+      moved = step(moves, 0, this.cells.length);
+    } else {
+      moved = stepInParallel(moves);
+    }
+    this.ticks++;
+    return moved;
+  }
+
+  private int stepInParallel(byte[] moves) throws IllegalStateException {
+    List<Future<Integer>> futures = new ArrayList<>(this.firstAgents.length - 2);
+    try {
+      for (int range = 1; range < this.firstAgents.length - 1; range++) {
+        int first = this.firstAgents[range];
+        int end = this.firstAgents[range + 1];
+        futures.add(this.pool.submit(() -> step(moves, first, end)));
+      }
+      int moved = step(moves, 0, this.firstAgents[1]);
+      for (Future<Integer> future : futures) {
+        moved += future.get();
+      }
+      return moved;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while moving the agents.", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } catch (RejectedExecutionException e) {
+      throw new IllegalStateException("Simulation is closed.", e);
+    }
+  }
+
+  private int step(byte[] moves, int first, int end) {
+    int[] cells = this.cells;
+    byte[] status = this.status;
+    int[] transitions = this.transitions;
+    int moved = 0;
+    for (int agent = first; agent < end; agent++) {
+      int move = moves[agent];
+      if (move < 0 || move >= EXITS || status[agent] != ACTIVE) {
+        continue;
+      }
+      int next = transitions[cells[agent] * EXITS + move];
+      if (next < 0) {
+        continue;
+      }
+      cells[agent] = next;
+      moved++;
+      if (this.treasures.get(next) != 0) {
+        collect(agent, next);
+      }
+      if (next == this.destination) {
+        status[agent] = ARRIVED;
+      }
+    }
+    return moved;
+  }
+
+  private void collect(int agent, int cell) {
+    int packed = this.treasures.getAndSet(cell, 0);
+    for (int t = 0; t < TREASURES.length; t++) {
+      this.collected[t][agent] += packed >>> (t * BITS_PER_TREASURE) & MAX_TREASURES;
+    }
+  }
+
+  /**
+   * Returns the number of agents.
+   *
+   * @return the number of agents.
+   */
+  public int getAgentCount() {
+    return this.cells.length;
+  }
+
+  /**
+   * Returns the number of ticks applied so far.
+   *
+   * @return the number of ticks.
+   */
+  public long getTicks() {
+    return this.ticks;
+  }
+
+  /**
+   * Returns the id of the location of an agent.
+   *
+   * @param agent the index of the agent.
+   * @return the id of the location.
+   * @throws IllegalArgumentException if {@code agent} is not the index of an agent.
+   */
+  public int getLocationId(int agent) throws IllegalArgumentException {
+    checkAgent(agent);
+    return this.cells[agent];
+  }
+
+  /**
+   * Returns the status of an agent.
+   *
+   * @param agent the index of the agent.
+   * @return {@link #ACTIVE} or {@link #ARRIVED}.
+   * @throws IllegalArgumentException if {@code agent} is not the index of an agent.
+   */
+  public byte getStatus(int agent) throws IllegalArgumentException {
+    checkAgent(agent);
+    return this.status[agent];
+  }
+
+  /**
+   * Returns the number of treasures of a kind an agent has collected.
+   *
+   * @param agent    the index of the agent.
+   * @param treasure the kind of treasure.
+   * @return the number of treasures.
+   * @throws IllegalArgumentException if {@code agent} is not the index of an agent or
+   *                                  {@code treasure} is {@code null}.
+   */
+  public int getCollected(int agent, Treasure treasure) throws IllegalArgumentException {
+    checkAgent(agent);
+    if (treasure == null) {
+      throw new IllegalArgumentException("Treasure cannot be null.");
+    }
+    return this.collected[treasure.ordinal()][agent];
+  }
+
+  /**
+   * Returns the number of treasures of a kind still lying at a location.
+   *
+   * @param id       the id of the location.
+   * @param treasure the kind of treasure.
+   * @return the number of treasures.
+   * @throws IllegalArgumentException if {@code id} is not a location id or {@code treasure} is
+   *                                  {@code null}.
+   */
+  public int getTreasuresAt(int id, Treasure treasure) throws IllegalArgumentException {
+    if (id < 0 || id >= this.treasures.length()) {
+      throw new IllegalArgumentException("Invalid location id.");
+    }
+    if (treasure == null) {
+      throw new IllegalArgumentException("Treasure cannot be null.");
+    }
+    return this.treasures.get(id) >>> (treasure.ordinal() * BITS_PER_TREASURE) & MAX_TREASURES;
+  }
+
+  /**
+   * Returns the number of agents that have reached the destination.
+   *
+   * @return the number of agents.
+   */
+  public int getArrivedCount() {
+    int arrived = 0;
+    for (byte flag : this.status) {
+      arrived += flag == ARRIVED ? 1 : 0;
+    }
+    return arrived;
+  }
+
+  private void checkAgent(int agent) throws IllegalArgumentException {
+    if (agent < 0 || agent >= this.cells.length) {
+      throw new IllegalArgumentException("Invalid agent index.");
+    }
+  }
+
+  /**
+   * Stops the threads of the simulation. Ticks are no longer possible afterwards if the
+   * simulation runs on more than one thread.
+   */
+  @Override
+  public void close() {
+    if (this.pool != null) {
+      this.pool.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package strategy;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+
+import dungeon.Dungeon;
+import dungeon.Grid;
+import location.Direction;
+import location.Location;
+
+/**
+ * The strategy.GreedyTreasureStrategy implements {@link PlayerStrategy} and walks to the nearest
+ * location with treasures, again and again, until no treasure can be reached without passing the
+ * destination; then it takes a shortest path to the destination.
+ *
+ * <p>The path to the next treasure is found by a breadth-first search that does not enter the
+ * destination and is followed to its end before the next search, so a search is run once per
+ * location with treasures rather than once per move.
+ */
+public class GreedyTreasureStrategy implements PlayerStrategy {
+
+  private final Deque<Direction> path;
+
+  /**
+   * Constructs a greedy treasure hunter.
+   */
+  public GreedyTreasureStrategy() {
+    this.path = new ArrayDeque<>();
+  }
+
+  @Override
+  public Direction nextMove(Dungeon dungeon) {
+    if (this.path.isEmpty()) {
+      findNearestTreasure(dungeon);
+    }
+    if (this.path.isEmpty()) {
+      return dungeon.nextStepToward(dungeon.getPlayerLocation());
+    }
+    return this.path.removeFirst();
+  }
+
+  private void findNearestTreasure(Dungeon dungeon) {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    int source = dungeon.getPlayerLocation().getId();
+    int destination = dungeon.getDestinationCave().getId();
+    // the move that led to each location, -1 for locations not found yet
+    byte[] cameBy = new byte[rows * columns];
+    Arrays.fill(cameBy, (byte) -1);
+    int[] queue = new int[rows * columns];
+    int head = 0;
+    int tail = 0;
+    queue[tail++] = source;
+    cameBy[source] = Byte.MAX_VALUE;
+    while (head < tail) {
+      int id = queue[head++];
+      Location location = dungeon.getLocation(id / columns, id % columns);
+      if (id != source && id != destination && !location.getTreasures().isEmpty()) {
+        tracePath(cameBy, source, id, rows, columns);
+        return;
+      }
+      if (id == destination) {
+        continue;
+      }
+      for (Direction direction : location.getPossibleMoves()) {
+        int next = Grid.neighbor(id, direction, rows, columns);
+        if (next >= 0 && cameBy[next] < 0) {
+          cameBy[next] = (byte) direction.ordinal();
+          queue[tail++] = next;
+        }
+      }
+    }
+  }
+
+  private void tracePath(byte[] cameBy, int source, int target, int rows, int columns) {
+    Direction[] directions = Direction.values();
+    int id = target;
+    while (id != source) {
+      Direction direction = directions[cameBy[id]];
+      this.path.addFirst(direction);
+      id = Grid.neighbor(id, Grid.opposite(direction), rows, columns);
+    }
+  }
+}
@@ -0,0 +1,24 @@
+package strategy;
+
+import dungeon.Dungeon;
+import location.Direction;
+
+/**
+ * The strategy.PlayerStrategy chooses the moves of the player of a {@link Dungeon}, one at a time,
+ * until it reaches the destination. The game loop collects the treasures; a strategy only picks
+ * directions.
+ *
+ * <p>A strategy may remember what it saw in earlier moves, so every game gets its own instance.
+ * Strategies of one's own are plugged in by implementing this interface and handing a supplier of
+ * them to a {@link Tournament}.
+ */
+public interface PlayerStrategy {
+
+  /**
+   * Returns the direction the player moves in next.
+   *
+   * @param dungeon the dungeon being played, with the player not yet at the destination.
+   * @return one of the possible moves of the location of the player.
+   */
+  Direction nextMove(Dungeon dungeon);
+}
@@ -0,0 +1,35 @@
+package strategy;
+
+import java.util.List;
+
+import dungeon.Dungeon;
+import location.Direction;
+import random.RandomGenerator;
+
+/**
+ * The strategy.RandomWalkStrategy implements {@link PlayerStrategy} and picks one of the possible
+ * moves of the location of the player at random, each as likely as the others.
+ */
+public class RandomWalkStrategy implements PlayerStrategy {
+
+  private final RandomGenerator rand;
+
+  /**
+   * Constructs a random walk.
+   *
+   * @param rand the random generator for the moves.
+   * @throws IllegalArgumentException if {@code rand} is {@code null}.
+   */
+  public RandomWalkStrategy(RandomGenerator rand) throws IllegalArgumentException {
+    if (rand == null) {
+      throw new IllegalArgumentException("Random generator cannot be null.");
+    }
+    this.rand = rand;
+  }
+
+  @Override
+  public Direction nextMove(Dungeon dungeon) {
+    List<Direction> possibleMoves = dungeon.getPlayerLocation().getPossibleMoves();
+    return possibleMoves.get(this.rand.getRandom(possibleMoves.size(), 0));
+  }
+}
@@ -0,0 +1,17 @@
+package strategy;
+
+import dungeon.Dungeon;
+import location.Direction;
+
+/**
+ * The strategy.ShortestPathStrategy implements {@link PlayerStrategy} and heads straight for the
+ * destination along a shortest path, ignoring treasures off the path. Each move is a lookup in
+ * the flow field of the dungeon, see {@link Dungeon#nextStepToward(location.Location)}.
+ */
+public class ShortestPathStrategy implements PlayerStrategy {
+
+  @Override
+  public Direction nextMove(Dungeon dungeon) {
+    return dungeon.nextStepToward(dungeon.getPlayerLocation());
+  }
+}
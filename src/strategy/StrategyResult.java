@@ -0,0 +1,118 @@
+package strategy;
+
+import java.util.Locale;
+
+/**
+ * This represents how one {@link PlayerStrategy} did in a {@link Tournament}: the games it
+ * finished, its moves and treasures per game and the time it took to choose a move.
+ */
+public class StrategyResult {
+
+  private final String name;
+  private final int games;
+  private final int gamesFinished;
+  private final long moves;
+  private final long treasures;
+  private final long decisionNanos;
+
+  /**
+   * Constructs the result of a strategy.
+   *
+   * @param name          the name of the strategy.
+   * @param games         the number of games played.
+   * @param gamesFinished the number of games that reached the destination.
+   * @param moves         the number of moves made in all games.
+   * @param treasures     the number of treasures collected in all games.
+   * @param decisionNanos the time spent choosing the moves, in nanoseconds.
+   */
+  StrategyResult(String name, int games, int gamesFinished, long moves, long treasures,
+                 long decisionNanos) {
+    this.name = name;
+    this.games = games;
+    this.gamesFinished = gamesFinished;
+    this.moves = moves;
+    this.treasures = treasures;
+    this.decisionNanos = decisionNanos;
+  }
+
+  /**
+   * Returns the name the strategy entered the tournament under.
+   *
+   * @return the name.
+   */
+  public String getName() {
+    return this.name;
+  }
+
+  /**
+   * Returns the number of games played.
+   *
+   * @return the number of games.
+   */
+  public int getGames() {
+    return this.games;
+  }
+
+  /**
+   * Returns the number of games that reached the destination within the limit of moves.
+   *
+   * @return the number of games.
+   */
+  public int getGamesFinished() {
+    return this.gamesFinished;
+  }
+
+  /**
+   * Returns the number of moves made in all games, including those that hit the limit.
+   *
+   * @return the number of moves.
+   */
+  public long getMoves() {
+    return this.moves;
+  }
+
+  /**
+   * Returns the number of treasures collected in all games.
+   *
+   * @return the number of treasures.
+   */
+  public long getTreasures() {
+    return this.treasures;
+  }
+
+  /**
+   * Returns the mean number of moves per game.
+   *
+   * @return the mean, 0 if no game was played.
+   */
+  public double getMeanMoves() {
+    return this.games == 0 ? 0 : (double) this.moves / this.games;
+  }
+
+  /**
+   * Returns the mean number of treasures collected per game.
+   *
+   * @return the mean, 0 if no game was played.
+   */
+  public double getMeanTreasures() {
+    return this.games == 0 ? 0 : (double) this.treasures / this.games;
+  }
+
+  /**
+   * Returns the mean wall-clock time the strategy took to choose a move. It includes the cost of
+   * reading the clock, some tens of nanoseconds.
+   *
+   * @return the mean time in nanoseconds, 0 if no move was made.
+   */
+  public double getNanosPerDecision() {
+    return this.moves == 0 ? 0 : (double) this.decisionNanos / this.moves;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT,
+            "%s games=%d finished=%d moves=%.1f treasures=%.1f ns/decision=%.0f", this.name,
+            this.games, this.gamesFinished, getMeanMoves(), getMeanTreasures(),
+            getNanosPerDecision());
+  }
+}
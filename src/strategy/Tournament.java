@@ -0,0 +1,180 @@
+package strategy;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.LongFunction;
+
+import batch.GameConfig;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import random.RandomFactory;
+
+/**
+ * The strategy.Tournament plays every entered {@link PlayerStrategy} on the same seeded dungeons
+ * and reports the moves, treasures and time per move of each, so that strategies can be compared
+ * on both the quality of their play and their cost.
+ *
+ * <p>Every dungeon is built once and forked for each strategy, and the games run in parallel on
+ * the given executor. A game stops when the player reaches the destination or after the limit of
+ * moves, which keeps strategies that circle a loop from running forever.
+ */
+public class Tournament {
+
+  private final Map<String, LongFunction<PlayerStrategy>> entrants;
+  private final int maxMoves;
+
+  /**
+   * Constructs a tournament.
+   *
+   * @param entrants the strategies by name, each given as a function from the seed of a game to a
+   *                 new strategy for that game. The seed lets random strategies be repeatable.
+   * @param maxMoves the maximum number of moves per game.
+   * @throws IllegalArgumentException <ul><li>if {@code entrants} is {@code null} or empty or has
+   *                                  a {@code null} name or function.</li>
+   *                                  <li>if {@code maxMoves} is not positive.</li></ul>
+   */
+  public Tournament(Map<String, LongFunction<PlayerStrategy>> entrants, int maxMoves)
+          throws IllegalArgumentException {
+    if (entrants == null || entrants.isEmpty()) {
+      throw new IllegalArgumentException("Tournament needs at least one strategy.");
+    }
+    for (Map.Entry<String, LongFunction<PlayerStrategy>> entrant : entrants.entrySet()) {
+      if (entrant.getKey() == null || entrant.getValue() == null) {
+        throw new IllegalArgumentException("Strategy name and function cannot be null.");
+      }
+    }
+    if (maxMoves < 1) {
+      throw new IllegalArgumentException("Maximum number of moves must be positive.");
+    }
+    this.entrants = new LinkedHashMap<>(entrants);
+    this.maxMoves = maxMoves;
+  }
+
+  /**
+   * Returns the strategies that come with the game: a random walk, a wall follower, a greedy
+   * treasure hunter and a shortest path to the destination.
+   *
+   * @return the strategies by name, in that order.
+   */
+  public static Map<String, LongFunction<PlayerStrategy>> builtIns() {
+    Map<String, LongFunction<PlayerStrategy>> strategies = new LinkedHashMap<>();
+    strategies.put("random", seed -> new RandomWalkStrategy(
+            new RandomFactory().getRandomGenerator(seed)));
+    strategies.put("wall-follower", seed -> new WallFollowerStrategy());
+    strategies.put("greedy-treasure", seed -> new GreedyTreasureStrategy());
+    strategies.put("shortest-path", seed -> new ShortestPathStrategy());
+    return strategies;
+  }
+
+  /**
+   * Plays the games of the given parameters with every strategy. Game {@code i} is played on the
+   * dungeon built with seed {@code firstSeed + i}.
+   *
+   * @param config    the parameters of the dungeons and the number of games.
+   * @param firstSeed the seed of the first dungeon.
+   * @param executor  the executor the games run on. The times are wall-clock times, so with more
+   *                  threads than processors they include time a game waited for a processor.
+   * @return the results of the strategies, in the order they were entered.
+   * @throws IllegalArgumentException <ul><li>if {@code config} or {@code executor} is
+   *                                  {@code null}.</li>
+   *                                  <li>if the parameters do not make a valid dungeon.</li>
+   *                                  <li>if a strategy chooses a move that is not possible.</li>
+   *                                  </ul>
+   */
+  public List<StrategyResult> run(GameConfig config, long firstSeed, Executor executor)
+          throws IllegalArgumentException {
+    if (config == null || executor == null) {
+      throw new IllegalArgumentException("Parameters and executor cannot be null.");
+    }
+    List<String> names = new ArrayList<>(this.entrants.keySet());
+    List<CompletableFuture<long[][]>> games = new ArrayList<>(config.getGames());
+    for (int i = 0; i < config.getGames(); i++) {
+      long seed = firstSeed + i;
+      games.add(CompletableFuture.supplyAsync(() -> build(config, seed), executor)
+              .thenCompose(dungeon -> playAll(dungeon, names, seed, executor)));
+    }
+
+    long[][] totals = new long[names.size()][4];
+    for (CompletableFuture<long[][]> game : games) {
+      long[][] outcomes;
+      try {
+        outcomes = game.join();
+      } catch (CompletionException e) {
+        if (e.getCause() instanceof RuntimeException) {
+          throw (RuntimeException) e.getCause();
+        }
+        throw e;
+      }
+      for (int s = 0; s < names.size(); s++) {
+        for (int k = 0; k < 4; k++) {
+          totals[s][k] += outcomes[s][k];
+        }
+      }
+    }
+    List<StrategyResult> results = new ArrayList<>(names.size());
+    for (int s = 0; s < names.size(); s++) {
+      results.add(new StrategyResult(names.get(s), config.getGames(), (int) totals[s][0],
+              totals[s][1], totals[s][2], totals[s][3]));
+    }
+    return results;
+  }
+
+  private static Dungeon build(GameConfig config, long seed) {
+    Dungeon dungeon = new DungeonImpl(config.getRows(), config.getColumns(),
+            config.getInterconnectivity(), config.isWrapping(), config.getPercentageOfTreasures(),
+            config.getPlayerName(), new RandomFactory().getRandomGenerator(seed));
+    // build the flow field once so that the forks share it
+    dungeon.nextStepToward(dungeon.getStartingCave());
+    return dungeon;
+  }
+
+  private CompletableFuture<long[][]> playAll(Dungeon dungeon, List<String> names, long seed,
+                                              Executor executor) {
+    // forking writes to the original, so the forks are all taken on this thread
+    List<CompletableFuture<long[]>> plays = new ArrayList<>(names.size());
+    for (String name : names) {
+      Dungeon fork = dungeon.fork();
+      PlayerStrategy strategy = this.entrants.get(name).apply(seed);
+      plays.add(CompletableFuture.supplyAsync(() -> play(fork, strategy), executor));
+    }
+    return CompletableFuture.allOf(plays.toArray(new CompletableFuture<?>[0]))
+            .thenApply(done -> {
+              long[][] outcomes = new long[plays.size()][];
+              for (int s = 0; s < outcomes.length; s++) {
+                outcomes[s] = plays.get(s).join();
+              }
+              return outcomes;
+            });
+  }
+
+  /**
+   * Plays one game.
+   *
+   * @return 1 if the destination was reached otherwise 0, the moves, the treasures and the time
+   *         spent choosing the moves.
+   */
+  private long[] play(Dungeon dungeon, PlayerStrategy strategy) {
+    dungeon.collectAllTreasures();
+    long moves = 0;
+    long decisionNanos = 0;
+    while (!dungeon.isDestinationReached() && moves < this.maxMoves) {
+      long start = System.nanoTime();
+      Direction move = strategy.nextMove(dungeon);
+      decisionNanos += System.nanoTime() - start;
+      dungeon.movePlayer(move);
+      dungeon.collectAllTreasures();
+      moves++;
+    }
+    long treasures = 0;
+    for (int count : dungeon.getPlayer().getCollectedTreasures().values()) {
+      treasures += count;
+    }
+    return new long[] {dungeon.isDestinationReached() ? 1 : 0, moves, treasures, decisionNanos};
+  }
+}
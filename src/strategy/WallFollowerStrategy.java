@@ -0,0 +1,55 @@
+package strategy;
+
+import java.util.List;
+
+import dungeon.Dungeon;
+import location.Direction;
+
+/**
+ * The strategy.WallFollowerStrategy implements {@link PlayerStrategy} and keeps its right hand on
+ * the wall: it turns right if it can, otherwise goes straight on, otherwise left, and turns back
+ * only at a dead end. In a dungeon without loops this walks every location and so reaches the
+ * destination; with loops it may circle one forever, which a {@link Tournament} stops at its
+ * limit of moves.
+ */
+public class WallFollowerStrategy implements PlayerStrategy {
+
+  private Direction heading;
+
+  @Override
+  public Direction nextMove(Dungeon dungeon) {
+    List<Direction> possibleMoves = dungeon.getPlayerLocation().getPossibleMoves();
+    if (this.heading == null) {
+      this.heading = possibleMoves.get(0);
+      return this.heading;
+    }
+    Direction right = right(this.heading);
+    Direction[] preferences = {right, this.heading, back(right), back(this.heading)};
+    for (Direction direction : preferences) {
+      if (possibleMoves.contains(direction)) {
+        this.heading = direction;
+        return direction;
+      }
+    }
+    // only stairs lead on, which a single floor does not have
+    this.heading = possibleMoves.get(0);
+    return this.heading;
+  }
+
+  private static Direction right(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.EAST;
+      case EAST:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.WEST;
+      default:
+        return Direction.NORTH;
+    }
+  }
+
+  private static Direction back(Direction direction) {
+    return right(right(direction));
+  }
+}
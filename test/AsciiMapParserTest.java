@@ -0,0 +1,149 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import dungeon.AsciiMapParser;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link AsciiMapParser}.
+ */
+public class AsciiMapParserTest {
+
+  AsciiMapParser parser;
+  RandomGenerator rand;
+
+  @Before
+  public void setUp() {
+    parser = new AsciiMapParser("Nishtha");
+    rand = new RandomFactory().getRandomGenerator(false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullName() {
+    new AsciiMapParser(null);
+  }
+
+  @Test
+  public void testRoundTrip() {
+    Dungeon original = new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    Dungeon parsed = parser.parse(original.toString());
+    assertEquals(original.toString(), parsed.toString());
+    assertFalse(parsed.isWrapping());
+    assertEquals(6, parsed.getRows());
+    assertEquals(4, parsed.getColumns());
+    assertEquals(original.getStartingCave().getId(), parsed.getStartingCave().getId());
+    assertEquals(original.getDestinationCave().getId(), parsed.getDestinationCave().getId());
+    assertEquals(original.getPlayerLocation().getId(), parsed.getPlayerLocation().getId());
+    for (int row = 0; row < 6; row++) {
+      for (int column = 0; column < 4; column++) {
+        assertEquals(original.getLocation(row, column).getPossibleMoves(),
+                parsed.getLocation(row, column).getPossibleMoves());
+      }
+    }
+  }
+
+  @Test
+  public void testRoundTripWrapping() {
+    Dungeon original = new DungeonImpl(6, 4, 22, true, 25, "Nishtha", rand);
+    Dungeon parsed = parser.parse(original.toString());
+    assertTrue(parsed.isWrapping());
+    assertEquals(original.toString(), parsed.toString());
+    parsed.movePlayer(Direction.WEST);
+    assertEquals(3, parsed.getPlayerLocation().getId());
+  }
+
+  @Test
+  public void testPlayerAwayFromStart() throws IOException {
+    Dungeon original = new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    original.movePlayer(Direction.SOUTH);
+    Dungeon parsed = parser.parse(new StringReader(original.toString() + "\n\n"));
+    assertEquals(original.toString(), parsed.toString());
+    assertEquals(1, parsed.getStartingCave().getId());
+    assertEquals(5, parsed.getPlayerLocation().getId());
+  }
+
+  @Test
+  public void testRoundTripFinishedGame() {
+    Dungeon original = new DungeonImpl(6, 6, 2, false, 25, "Nishtha",
+            new RandomFactory().getRandomGenerator(3L));
+    while (!original.isDestinationReached()) {
+      original.movePlayer(original.nextStepToward(original.getPlayerLocation()));
+    }
+    Dungeon parsed = parser.parse(original.toString());
+    assertEquals(original.toString(), parsed.toString());
+    assertEquals(original.getStartingCave().getId(), parsed.getStartingCave().getId());
+    assertEquals(original.getDestinationCave().getId(), parsed.getDestinationCave().getId());
+    assertTrue(parsed.isDestinationReached());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlayerInTunnelIsNoDestination() {
+    parser.parse("\n    [S] ------ [P] ------ [C]\n\n");
+  }
+
+  @Test
+  public void testTrimmedLines() {
+    String map = "\n"
+            + "    [S] ------ [T] ------ [T] ------ [T] ------ [D]\n"
+            + "\n";
+    Dungeon dungeon = parser.parse(map);
+    assertEquals(1, dungeon.getRows());
+    assertEquals(5, dungeon.getColumns());
+    assertEquals(4, dungeon.getDestinationCave().getId());
+    for (int i = 0; i < 4; i++) {
+      dungeon.movePlayer(Direction.EAST);
+    }
+    assertTrue(dungeon.isDestinationReached());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyMap() {
+    parser.parse("\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnknownLocation() {
+    parser.parse("\n    [S] ------ [X] ------ [D]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBrokenPassage() {
+    parser.parse("\n    [S] --     [C] ------ [D]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedExits() {
+    parser.parse("\n    [S] ------ [C]        [D]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTunnelDrawnAsCave() {
+    parser.parse("\n    [S] ------ [C] ------ [C] ------ [D]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoDestination() {
+    parser.parse("\n    [S] ------ [T] ------ [C]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTwoStarts() {
+    parser.parse("\n    [S] ------ [T] ------ [S] ------ [D]\n\n");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDifferentRowLengths() {
+    parser.parse("\n    [S] ------ [D]\n     |\n     |\n    [C]\n\n");
+  }
+}
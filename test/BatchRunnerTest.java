@@ -0,0 +1,120 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import batch.BatchRunner;
+import batch.BufferedOutputSink;
+import batch.ChannelOutputSink;
+import batch.GameConfig;
+import batch.OutputSink;
+import batch.Verbosity;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link BatchRunner}.
+ */
+public class BatchRunnerTest {
+
+  ByteArrayOutputStream out;
+  RandomGenerator rand;
+  GameConfig config;
+
+  @Before
+  public void setUp() {
+    out = new ByteArrayOutputStream();
+    rand = new RandomFactory().getRandomGenerator(true);
+    config = new GameConfig(6, 4, 4, false, 25, "Nishtha", 5);
+  }
+
+  @Test
+  public void testSummary() throws IOException {
+    OutputSink sink = new BufferedOutputSink(out, 64);
+    assertEquals(5, new BatchRunner(sink, Verbosity.SUMMARY, rand).run(List.of(config)));
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(6, lines.length);
+    assertTrue(lines[0].startsWith("game 1: 6x4 moves="));
+    assertTrue(lines[0].endsWith("destination reached"));
+    assertTrue(lines[5].startsWith("games: 5, failed: 0, moves: "));
+  }
+
+  @Test
+  public void testMovesAndFrames() throws IOException {
+    OutputSink sink = new ChannelOutputSink(Channels.newChannel(out), 16);
+    new BatchRunner(sink, Verbosity.MOVES, rand).run(List.of(config));
+    String moves = out.toString(StandardCharsets.UTF_8);
+    assertTrue(moves.contains("Nishtha moved to "));
+    out.reset();
+    sink = new ChannelOutputSink(Channels.newChannel(out), 16);
+    new BatchRunner(sink, Verbosity.FRAMES, rand).run(List.of(config));
+    String frames = out.toString(StandardCharsets.UTF_8);
+    assertTrue(frames.contains("Nishtha moved to "));
+    assertTrue(frames.contains("[P]"));
+  }
+
+  @Test
+  public void testChannelSinkKeepsSplitSurrogatePairs() throws IOException {
+    OutputSink sink = new ChannelOutputSink(Channels.newChannel(out), 16);
+    String gem = "\uD83D\uDC8E";
+    sink.write("a" + gem.charAt(0));
+    sink.write(gem.charAt(1) + "b");
+    sink.close();
+    assertEquals("a" + gem + "b", out.toString(StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = IOException.class)
+  public void testChannelSinkRejectsHalfAPairOnClose() throws IOException {
+    OutputSink sink = new ChannelOutputSink(Channels.newChannel(out), 16);
+    sink.write("a\uD83D");
+    sink.close();
+  }
+
+  @Test
+  public void testBufferedSinkLeavesStandardOutputOpen() throws IOException {
+    OutputSink sink = new BufferedOutputSink(System.out, 64);
+    sink.write("");
+    sink.close();
+    System.out.print("");
+    assertFalse(System.out.checkError());
+  }
+
+  @Test
+  public void testFailedGamesAreReported() throws IOException {
+    OutputSink sink = new BufferedOutputSink(out, 64);
+    new BatchRunner(sink, Verbosity.SUMMARY, rand)
+            .run(List.of(new GameConfig(4, 4, 4, false, 25, "Nishtha", 2)));
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertEquals(3, lines.length);
+    assertEquals("games: 2, failed: 2, moves: 0", lines[2]);
+  }
+
+  @Test
+  public void testReadAll() throws IOException {
+    List<GameConfig> configs = GameConfig.readAll(new BufferedReader(new StringReader(
+            "# rows columns interconnectivity wrapping percentage name games\n"
+                    + "6 4 4 n 25 Nishtha 3\n"
+                    + "\n"
+                    + "5 4 0 y 50 Bob\n")), 7);
+    assertEquals(2, configs.size());
+    assertEquals(3, configs.get(0).getGames());
+    assertEquals(7, configs.get(1).getGames());
+    assertTrue(configs.get(1).isWrapping());
+    assertEquals("Bob", configs.get(1).getPlayerName());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParseMissingArguments() {
+    GameConfig.parse(new String[] {"6", "4"}, 1);
+  }
+}
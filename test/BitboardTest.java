@@ -0,0 +1,142 @@
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import dungeon.Bitboard;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link Bitboard}.
+ */
+public class BitboardTest {
+
+  private static Dungeon dungeon(int rows, int columns, int interconnectivity,
+                                 boolean isWrapping, long seed) {
+    return new DungeonImpl(rows, columns, interconnectivity, isWrapping, 20, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static int[] naiveDistances(Dungeon dungeon, int source) {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    int[] distances = new int[rows * columns];
+    Arrays.fill(distances, -1);
+    distances[source] = 0;
+    Queue<Integer> queue = new ArrayDeque<>();
+    queue.add(source);
+    while (!queue.isEmpty()) {
+      int id = queue.remove();
+      int row = id / columns;
+      int column = id % columns;
+      for (Direction direction : dungeon.getLocation(row, column).getPossibleMoves()) {
+        int r = row;
+        int c = column;
+        switch (direction) {
+          case NORTH:
+            r = (row - 1 + rows) % rows;
+            break;
+          case SOUTH:
+            r = (row + 1) % rows;
+            break;
+          case EAST:
+            c = (column + 1) % columns;
+            break;
+          default:
+            c = (column - 1 + columns) % columns;
+            break;
+        }
+        int next = r * columns + c;
+        if (distances[next] < 0) {
+          distances[next] = distances[id] + 1;
+          queue.add(next);
+        }
+      }
+    }
+    return distances;
+  }
+
+  private static void assertMatchesNaive(Dungeon dungeon) {
+    Bitboard bitboard = new Bitboard(dungeon);
+    for (int source = 0; source < bitboard.size(); source++) {
+      int[] expected = naiveDistances(dungeon, source);
+      assertArrayEquals(expected, bitboard.distancesFrom(source));
+      for (int target = 0; target < bitboard.size(); target += 7) {
+        assertEquals(expected[target], bitboard.distance(source, target));
+      }
+    }
+  }
+
+  @Test
+  public void testDistancesNonWrapping() {
+    assertMatchesNaive(dungeon(9, 13, 0, false, 3L));
+    assertMatchesNaive(dungeon(12, 11, 6, false, 4L));
+  }
+
+  @Test
+  public void testDistancesWrapping() {
+    assertMatchesNaive(dungeon(9, 13, 0, true, 5L));
+    assertMatchesNaive(dungeon(10, 20, 12, true, 6L));
+  }
+
+  @Test
+  public void testDistancesAcrossManyWords() {
+    assertMatchesNaive(dungeon(20, 30, 25, true, 8L));
+  }
+
+  @Test
+  public void testReachableWithin() {
+    Dungeon dungeon = dungeon(8, 10, 4, true, 9L);
+    Bitboard bitboard = new Bitboard(dungeon);
+    int source = 17;
+    int[] distances = naiveDistances(dungeon, source);
+    for (int steps = 0; steps < 6; steps++) {
+      long[] near = bitboard.reachableWithin(source, steps);
+      for (int id = 0; id < bitboard.size(); id++) {
+        assertEquals(distances[id] <= steps, Bitboard.contains(near, id));
+      }
+    }
+  }
+
+  @Test
+  public void testStartAndEndApart() {
+    for (long seed = 0; seed < 10; seed++) {
+      Dungeon dungeon = dungeon(6, 8, 3, seed % 2 == 0, seed);
+      Location start = dungeon.getStartingCave();
+      Location end = dungeon.getDestinationCave();
+      Bitboard bitboard = new Bitboard(dungeon);
+      assertTrue(bitboard.distance(start.getId(), end.getId()) >= 5);
+      assertFalse(Bitboard.contains(bitboard.reachableWithin(start.getId(), 4), end.getId()));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDungeon() {
+    new Bitboard(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSource() {
+    new Bitboard(dungeon(6, 8, 0, false, 1L)).distance(48, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidTarget() {
+    new Bitboard(dungeon(6, 8, 0, false, 1L)).distance(0, -1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNegativeDistance() {
+    new Bitboard(dungeon(6, 8, 0, false, 1L)).reachableWithin(0, -1);
+  }
+}
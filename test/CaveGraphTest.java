@@ -0,0 +1,131 @@
+import org.junit.Test;
+
+import java.util.List;
+
+import dungeon.Bitboard;
+import dungeon.CaveGraph;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.Grid;
+import location.Direction;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link CaveGraph}.
+ */
+public class CaveGraphTest {
+
+  private static Dungeon dungeon(int rows, int columns, int interconnectivity,
+                                 boolean isWrapping, long seed) {
+    return new DungeonImpl(rows, columns, interconnectivity, isWrapping, 20, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static void assertMatchesGrid(Dungeon dungeon) {
+    Bitboard bitboard = new Bitboard(dungeon);
+    CaveGraph graph = new CaveGraph(dungeon);
+    for (int source = 0; source < bitboard.size(); source++) {
+      int[] expected = bitboard.distancesFrom(source);
+      assertArrayEquals(expected, graph.distancesFrom(source));
+      for (int target = 0; target < bitboard.size(); target += 5) {
+        assertEquals(expected[target], graph.distance(source, target));
+      }
+    }
+  }
+
+  @Test
+  public void testDistancesNonWrapping() {
+    assertMatchesGrid(dungeon(9, 13, 0, false, 3L));
+    assertMatchesGrid(dungeon(12, 11, 6, false, 4L));
+  }
+
+  @Test
+  public void testDistancesWrapping() {
+    assertMatchesGrid(dungeon(9, 13, 0, true, 5L));
+    assertMatchesGrid(dungeon(10, 20, 12, true, 6L));
+  }
+
+  @Test
+  public void testCounts() {
+    Dungeon dungeon = dungeon(10, 10, 0, false, 7L);
+    CaveGraph graph = new CaveGraph(dungeon);
+    int caves = 0;
+    for (int row = 0; row < 10; row++) {
+      for (int column = 0; column < 10; column++) {
+        caves += dungeon.getLocation(row, column).isTunnel() ? 0 : 1;
+      }
+    }
+    assertEquals(caves, graph.getCaveCount());
+    // a spanning tree stays a tree once its corridors are contracted
+    assertEquals(caves - 1, graph.getCorridorCount());
+  }
+
+  @Test
+  public void testShortestPath() {
+    Dungeon dungeon = dungeon(10, 12, 8, true, 8L);
+    CaveGraph graph = new CaveGraph(dungeon);
+    int start = dungeon.getStartingCave().getId();
+    int end = dungeon.getDestinationCave().getId();
+    List<Direction> path = graph.shortestPath(start, end);
+    assertEquals(graph.distance(start, end), path.size());
+    for (Direction direction : path) {
+      dungeon.movePlayer(direction);
+    }
+    assertTrue(dungeon.isDestinationReached());
+    assertEquals(List.of(), graph.shortestPath(start, start));
+  }
+
+  @Test
+  public void testReachableWithin() {
+    Dungeon dungeon = dungeon(8, 10, 4, true, 9L);
+    Bitboard bitboard = new Bitboard(dungeon);
+    CaveGraph graph = new CaveGraph(dungeon);
+    for (int source = 0; source < 80; source += 7) {
+      for (int steps = 0; steps < 6; steps++) {
+        assertArrayEquals(bitboard.reachableWithin(source, steps),
+                graph.reachableWithin(source, steps));
+      }
+    }
+  }
+
+  @Test
+  public void testShortestPathBetweenAnyLocations() {
+    assertPathsMatchGrid(dungeon(9, 11, 0, false, 10L));
+    assertPathsMatchGrid(dungeon(8, 12, 5, true, 11L));
+    assertPathsMatchGrid(dungeon(1, 9, 0, true, 12L));
+  }
+
+  private static void assertPathsMatchGrid(Dungeon dungeon) {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    Bitboard bitboard = new Bitboard(dungeon);
+    CaveGraph graph = new CaveGraph(dungeon);
+    for (int source = 0; source < rows * columns; source++) {
+      for (int target = 0; target < rows * columns; target += 3) {
+        List<Direction> path = graph.shortestPath(source, target);
+        assertEquals(bitboard.distance(source, target), path.size());
+        int id = source;
+        for (Direction direction : path) {
+          assertTrue(dungeon.getLocation(id / columns, id % columns).getPossibleMoves()
+                  .contains(direction));
+          id = Grid.neighbor(id, direction, rows, columns);
+        }
+        assertEquals(target, id);
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidId() {
+    new CaveGraph(dungeon(6, 8, 0, false, 1L)).distance(0, 48);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDungeon() {
+    new CaveGraph(null);
+  }
+}
@@ -0,0 +1,92 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import random.RandomFactory;
+import render.DungeonImageRenderer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link DungeonImageRenderer}.
+ */
+public class DungeonImageRendererTest {
+
+  private static final int BACKGROUND = 0x202028;
+  private static final int PASSAGE = 0x9e9e9e;
+  private static final int PLAYER = 0x1e90ff;
+
+  Dungeon dungeon;
+
+  @Before
+  public void setUp() {
+    dungeon = new DungeonImpl(6, 4, 4, false, 20, "Player",
+            new RandomFactory().getRandomGenerator(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTileSizeTooSmall() {
+    new DungeonImageRenderer(2, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoThreads() {
+    new DungeonImageRenderer(9, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDungeon() {
+    new DungeonImageRenderer(9, 1).render(null);
+  }
+
+  @Test
+  public void testDimensions() {
+    BufferedImage image = new DungeonImageRenderer(9, 2).render(dungeon);
+    assertEquals(4 * 9, image.getWidth());
+    assertEquals(6 * 9, image.getHeight());
+  }
+
+  @Test
+  public void testTiles() {
+    BufferedImage image = new DungeonImageRenderer(9, 1).render(dungeon);
+    Location player = dungeon.getPlayerLocation();
+    int x = player.getCoordinates().getY() * 9;
+    int y = player.getCoordinates().getX() * 9;
+    assertEquals(BACKGROUND, image.getRGB(x, y) & 0xffffff);
+    assertEquals(PLAYER, image.getRGB(x + 3, y + 3) & 0xffffff);
+    int north = player.getPossibleMoves().contains(Direction.NORTH) ? PASSAGE : BACKGROUND;
+    int south = player.getPossibleMoves().contains(Direction.SOUTH) ? PASSAGE : BACKGROUND;
+    assertEquals(north, image.getRGB(x + 4, y) & 0xffffff);
+    assertEquals(south, image.getRGB(x + 4, y + 8) & 0xffffff);
+  }
+
+  @Test
+  public void testStripsMatchSingleThread() {
+    BufferedImage single = new DungeonImageRenderer(7, 1).render(dungeon);
+    BufferedImage striped = new DungeonImageRenderer(7, 4).render(dungeon);
+    for (int y = 0; y < single.getHeight(); y++) {
+      for (int x = 0; x < single.getWidth(); x++) {
+        assertEquals(single.getRGB(x, y), striped.getRGB(x, y));
+      }
+    }
+  }
+
+  @Test
+  public void testWritePng() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new DungeonImageRenderer(5, 2).writePng(dungeon, out);
+    BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(4 * 5, image.getWidth());
+    assertEquals(6 * 5, image.getHeight());
+  }
+}
@@ -1,25 +1,38 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
 
+import dungeon.Command;
+import dungeon.CommandResult;
 import dungeon.Dungeon;
 import dungeon.DungeonImpl;
+import dungeon.GenerationParameters;
 import location.Direction;
 import location.Treasure;
+import metrics.Phase;
 import player.Player;
 import random.RandomFactory;
 import random.RandomGenerator;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Tests for {@link DungeonImpl}.
@@ -536,6 +549,392 @@ public class DungeonImplTest {
     assertEquals(1, dungeon.getPlayerLocation().getCoordinates().getY());
     assertEquals(1, dungeon.getPlayerLocation().getId());
   }
-}
 
+  @Test
+  public void testForkSharesStateAtForkTime() {
+    dungeon.movePlayer(Direction.SOUTH);
+    Dungeon fork = dungeon.fork();
+    assertEquals(5, fork.getPlayerLocation().getId());
+    assertEquals(dungeon.getStartingCave().getId(), fork.getStartingCave().getId());
+    assertEquals(dungeon.getDestinationCave().getId(), fork.getDestinationCave().getId());
+    assertEquals(dungeon.getPlayer().getCollectedTreasures(),
+            fork.getPlayer().getCollectedTreasures());
+    assertEquals(dungeon.toString(), fork.toString());
+  }
+
+  @Test
+  public void testForkMovesAreIndependent() {
+    Dungeon fork = dungeon.fork();
+    fork.movePlayer(Direction.SOUTH);
+    assertEquals(5, fork.getPlayerLocation().getId());
+    assertEquals(1, dungeon.getPlayerLocation().getId());
+    dungeon.movePlayer(Direction.EAST);
+    assertEquals(2, dungeon.getPlayerLocation().getId());
+    assertEquals(5, fork.getPlayerLocation().getId());
+  }
+
+  @Test
+  public void testForkTreasuresAreCopiedOnWrite() {
+    Dungeon fork = dungeon.fork();
+    fork.collectAllTreasures();
+    assertEquals(Collections.emptyList(), fork.getPlayerLocation().getTreasures());
+    assertEquals(1, (int) fork.getPlayer().getCollectedTreasures().get(Treasure.RUBY));
+    assertEquals(List.of(Treasure.RUBY), dungeon.getPlayerLocation().getTreasures());
+    assertEquals(0, (int) dungeon.getPlayer().getCollectedTreasures().get(Treasure.RUBY));
+
+    Dungeon secondFork = dungeon.fork();
+    dungeon.collectAllTreasures();
+    assertEquals(Collections.emptyList(), dungeon.getPlayerLocation().getTreasures());
+    assertEquals(List.of(Treasure.RUBY), secondFork.getPlayerLocation().getTreasures());
+    assertEquals(Collections.emptyList(), fork.getPlayerLocation().getTreasures());
+  }
+
+  @Test
+  public void testForkCollectingNothingCopiesNothing() {
+    Dungeon fork = dungeon.fork();
+    fork.collectTreasure(List.of(Treasure.DIAMOND));
+    assertSame(dungeon.getPlayerLocation(), fork.getPlayerLocation());
+    fork.collectAllTreasures();
+    assertNotSame(dungeon.getPlayerLocation(), fork.getPlayerLocation());
+    assertEquals(List.of(Treasure.RUBY), dungeon.getPlayerLocation().getTreasures());
+  }
+
+  @Test
+  public void testForkOfFork() {
+    Dungeon fork = dungeon.fork();
+    fork.collectAllTreasures();
+    Dungeon grandChild = fork.fork();
+    assertEquals(Collections.emptyList(), grandChild.getPlayerLocation().getTreasures());
+    grandChild.movePlayer(Direction.SOUTH);
+    grandChild.movePlayer(Direction.NORTH);
+    assertEquals(Collections.emptyList(), grandChild.getPlayerLocation().getTreasures());
+    assertEquals(1, (int) grandChild.getPlayer().getCollectedTreasures().get(Treasure.RUBY));
+    assertEquals(List.of(Treasure.RUBY), dungeon.getPlayerLocation().getTreasures());
+  }
+
+  @Test
+  public void testIsFeasible() {
+    assertTrue(DungeonImpl.isFeasible(6, 4, 4, false));
+    assertTrue(DungeonImpl.isFeasible(3, 4, 0, true));
+    assertTrue(DungeonImpl.isFeasible(6, 4, 25, true));
+    assertTrue(DungeonImpl.isFeasible(5, 4, 12, false));
+    assertFalse(DungeonImpl.isFeasible(3, 4, 13, true));
+    assertFalse(DungeonImpl.isFeasible(4, 4, 4, false));
+    assertFalse(DungeonImpl.isFeasible(2, 4, 0, true));
+    assertFalse(DungeonImpl.isFeasible(5, 4, 13, false));
+    assertFalse(DungeonImpl.isFeasible(6, 4, -1, false));
+  }
+
+  @Test
+  public void testIsFeasibleIsNecessaryOnly() {
+    assertTrue(DungeonImpl.isFeasible(3, 4, 12, true));
+    try {
+      new DungeonImpl(3, 4, 12, true, 0, "Nishtha", new RandomFactory().getRandomGenerator(1L),
+              3);
+      fail("Every layout of 3 by 4 with 12 loops has all caves within 4 steps.");
+    } catch (IllegalArgumentException e) {
+      assertEquals("Dungeon too small or interconnected! Cannot find any path of at length 5"
+              + " between two nodes.", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testGenerationWithAttempts() {
+    dungeon = new DungeonImpl(6, 4, 4, isWrapping, 25, "Nishtha", rand, 3);
+    assertEquals(1, dungeon.getStartingCave().getId());
+    assertEquals(15, dungeon.getDestinationCave().getId());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGenerationWithNoAttempts() {
+    new DungeonImpl(6, 4, 4, isWrapping, 25, "Nishtha", rand, 0);
+  }
+
+  @Test
+  public void testRenderExplored() {
+    StringBuilder dungeonString = new StringBuilder();
+    dungeonString.append("                                            \n"
+            + "           --- [P] ---                      \n"
+            + "                |                           \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n"
+            + "                                            \n");
+    assertEquals(dungeonString.toString(), dungeon.renderExplored());
+  }
+
+  @Test
+  public void testExplorationTracking() {
+    int locations = 24;
+    assertEquals(100.0 / locations, player.getPercentageExplored(), 0.001);
+    dungeon.movePlayer(Direction.SOUTH);
+    assertTrue(player.hasVisited(1));
+    assertTrue(player.hasVisited(5));
+    assertFalse(player.hasSeen(6));
+    assertEquals(200.0 / locations, player.getPercentageExplored(), 0.001);
+  }
+
+  @Test
+  public void testRevealingExits() {
+    ((DungeonImpl) dungeon).setRevealingExits(true);
+    assertTrue(player.hasSeen(0));
+    assertTrue(player.hasSeen(2));
+    assertTrue(player.hasSeen(5));
+    assertFalse(player.hasVisited(5));
+    dungeon.movePlayer(Direction.SOUTH);
+    assertTrue(player.hasSeen(9));
+    assertTrue(player.hasSeen(4));
+    assertTrue(player.hasSeen(6));
+  }
+
+  @Test
+  public void testExecuteMatchesSingleCalls() {
+    Dungeon single = dungeon.fork();
+    List<Command> commands = new ArrayList<>();
+    commands.add(Command.collect());
+    commands.add(Command.move(Direction.SOUTH));
+    commands.add(Command.collect());
+    single.collectAllTreasures();
+    single.movePlayer(Direction.SOUTH);
+    single.collectAllTreasures();
+
+    CommandResult result = dungeon.execute(commands);
+    assertTrue(result.isComplete());
+    assertEquals(3, result.getCommandsApplied());
+    assertEquals(1, result.getStepsTaken());
+    assertEquals(5, result.getFinalLocation().getId());
+    assertEquals(single.getPlayer().getCollectedTreasures(), player.getCollectedTreasures());
+    int collected = 0;
+    for (int count : player.getCollectedTreasures().values()) {
+      collected += count;
+    }
+    assertEquals(collected, result.getTreasuresCollected());
+    assertEquals(single.isDestinationReached(), result.isDestinationReached());
+  }
+
+  @Test
+  public void testExecuteStopsAtInvalidMove() {
+    Direction invalid = null;
+    for (Direction direction : Direction.values()) {
+      if (!player.getLocation().getPossibleMoves().contains(direction)) {
+        invalid = direction;
+      }
+    }
+    CommandResult result = dungeon.execute(List.of(Command.collect(), Command.move(invalid),
+            Command.move(Direction.SOUTH)));
+    assertFalse(result.isComplete());
+    assertEquals(1, result.getCommandsApplied());
+    assertEquals(0, result.getStepsTaken());
+    assertEquals(1, result.getFinalLocation().getId());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testExecuteNullCommand() {
+    dungeon.execute(Arrays.asList(Command.collect(), null));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveCommandNullDirection() {
+    Command.move(null);
+  }
+
+  private static GenerationParameters largeParameters() {
+    return new GenerationParameters(60, 60, 40, true, 30, "Nishtha",
+            new RandomFactory().getRandomGenerator(11L));
+  }
+
+  @Test
+  public void testGenerateAsyncMatchesConstructor() throws Exception {
+    Dungeon generated = DungeonImpl.generateAsync(largeParameters()).get();
+    Dungeon built = new DungeonImpl(60, 60, 40, true, 30, "Nishtha",
+            new RandomFactory().getRandomGenerator(11L));
+    assertEquals(built.toString(), generated.toString());
+  }
+
+  @Test
+  public void testGenerateAsyncReportsProgress() throws Exception {
+    List<Phase> phases = new ArrayList<>();
+    List<Double> pathFractions = new ArrayList<>();
+    DungeonImpl.generateAsync(largeParameters(), (phase, fraction) -> {
+      phases.add(phase);
+      if (phase == Phase.CREATE_PATHS) {
+        pathFractions.add(fraction);
+      }
+    }, null, Runnable::run).get();
+
+    for (Phase phase : Phase.values()) {
+      assertTrue(phases.contains(phase));
+    }
+    assertEquals(Phase.ADD_TREASURE, phases.get(phases.size() - 1));
+    assertTrue(pathFractions.size() > 50);
+    for (int i = 1; i < pathFractions.size(); i++) {
+      assertTrue(pathFractions.get(i) >= pathFractions.get(i - 1));
+    }
+    assertEquals(1.0, pathFractions.get(pathFractions.size() - 1), 0);
+  }
+
+  @Test
+  public void testGenerateAsyncCancelled() {
+    AtomicReference<CompletableFuture<Dungeon>> future = new AtomicReference<>();
+    List<Phase> phases = new ArrayList<>();
+    CompletableFuture<Dungeon> started = new CompletableFuture<>();
+    future.set(DungeonImpl.generateAsync(largeParameters(), (phase, fraction) -> {
+      phases.add(phase);
+      if (phase == Phase.CREATE_PATHS && fraction > 0.3) {
+        future.get().cancel(true);
+      }
+    }, null, runnable -> started.thenRun(runnable)));
+    started.complete(null);
+
+    assertTrue(future.get().isCancelled());
+    assertFalse(phases.contains(Phase.VALID_MOVES));
+  }
+
+  @Test
+  public void testGenerateAsyncTimeout() throws InterruptedException {
+    List<Phase> phases = new ArrayList<>();
+    CompletableFuture<Dungeon> future = DungeonImpl.generateAsync(largeParameters(),
+        (phase, fraction) -> {
+          phases.add(phase);
+          if (phase == Phase.CREATE_DUNGEON && fraction == 0) {
+            try {
+              Thread.sleep(200);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        }, Duration.ofMillis(20), Runnable::run);
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+    assertEquals(List.of(Phase.CREATE_DUNGEON), phases);
+  }
+
+  @Test
+  public void testGenerateAsyncInvalidParameters() throws InterruptedException {
+    CompletableFuture<Dungeon> future = DungeonImpl.generateAsync(new GenerationParameters(2, 2,
+            0, false, 30, "Nishtha", rand));
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalArgumentException);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGenerateAsyncNullParameters() {
+    DungeonImpl.generateAsync(null);
+  }
+
+  @Test
+  public void testMoveToNextCaveFollowsCorridor() {
+    Dungeon maze = new DungeonImpl(10, 10, 0, false, 100, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L));
+    Dungeon stepped = maze.fork();
+    for (Direction direction : maze.getPlayerLocation().getPossibleMoves()) {
+      Dungeon fork = maze.fork();
+      Dungeon single = stepped.fork();
+      int steps = fork.moveToNextCave(direction);
+      assertFalse(fork.getPlayerLocation().isTunnel());
+
+      single.movePlayer(direction);
+      Direction heading = direction;
+      for (int i = 1; i < steps; i++) {
+        assertTrue(single.getPlayerLocation().isTunnel());
+        single.collectAllTreasures();
+        List<Direction> exits = single.getPlayerLocation().getPossibleMoves();
+        exits.remove(opposite(heading));
+        heading = exits.get(0);
+        single.movePlayer(heading);
+      }
+      single.collectAllTreasures();
+      assertEquals(single.getPlayerLocation().getId(), fork.getPlayerLocation().getId());
+      assertEquals(single.getPlayer().getCollectedTreasures(),
+              fork.getPlayer().getCollectedTreasures());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMoveToNextCaveInvalidDirection() {
+    Direction invalid = null;
+    for (Direction direction : Direction.values()) {
+      if (!player.getLocation().getPossibleMoves().contains(direction)) {
+        invalid = direction;
+      }
+    }
+    dungeon.moveToNextCave(invalid);
+  }
 
+  @Test
+  public void testShortestPathReachesDestination() {
+    // a maze, searched over its caves, and a fully interconnected grid without tunnels
+    for (int interconnectivity : new int[] {0, 49}) {
+      Dungeon maze = new DungeonImpl(8, 8, interconnectivity, false, 20, "Nishtha",
+              new RandomFactory().getRandomGenerator(13L));
+      List<Direction> path = maze.getShortestPath(maze.getPlayerLocation(),
+              maze.getDestinationCave());
+      assertEquals(maze.getDistance(maze.getPlayerLocation(), maze.getDestinationCave()),
+              path.size());
+      for (Direction direction : path) {
+        maze.movePlayer(direction);
+      }
+      assertTrue(maze.isDestinationReached());
+      assertEquals(List.of(), maze.getShortestPath(maze.getPlayerLocation(),
+              maze.getPlayerLocation()));
+    }
+  }
+
+  @Test
+  public void testShortestPathFromTunnel() {
+    Dungeon maze = new DungeonImpl(8, 8, 0, true, 20, "Nishtha",
+            new RandomFactory().getRandomGenerator(14L));
+    for (int row = 0; row < 8; row++) {
+      for (int column = 0; column < 8; column++) {
+        if (maze.getLocation(row, column).isTunnel()) {
+          List<Direction> path = maze.getShortestPath(maze.getLocation(row, column),
+                  maze.getDestinationCave());
+          assertEquals(maze.getDistance(maze.getLocation(row, column),
+                  maze.getDestinationCave()), path.size());
+        }
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortestPathNullLocation() {
+    dungeon.getShortestPath(null, dungeon.getDestinationCave());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDistanceNullLocation() {
+    dungeon.getDistance(dungeon.getPlayerLocation(), null);
+  }
+
+  private static Direction opposite(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+}
@@ -0,0 +1,244 @@
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dungeon.Dungeon;
+import dungeon.DungeonDescriptor;
+import dungeon.DungeonImpl;
+import dungeon.DungeonLoader;
+import dungeon.ParallelPathGenerator;
+import dungeon.PathGenerator;
+import dungeon.WilsonPathGenerator;
+import location.Direction;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link DungeonDescriptor} and {@link DungeonLoader}.
+ */
+public class DungeonLoaderTest {
+
+  private static DungeonImpl dungeon(long seed) {
+    return new DungeonImpl(10, 12, 6, true, 40, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static byte[] bytesOf(DungeonDescriptor descriptor) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    descriptor.writeTo(out);
+    return out.toByteArray();
+  }
+
+  private static DungeonDescriptor roundTrip(DungeonDescriptor descriptor) throws IOException {
+    return DungeonDescriptor.readFrom(new ByteArrayInputStream(bytesOf(descriptor)));
+  }
+
+  @Test
+  public void testLoadRebuildsTheSameDungeon() throws IOException {
+    DungeonImpl original = dungeon(1L);
+    String map = original.toString();
+    DungeonDescriptor descriptor = roundTrip(original.getDescriptor());
+    assertEquals(original.getDescriptor(), descriptor);
+    assertEquals(1L, descriptor.getSeed());
+    assertEquals(original.getLayoutFingerprint(), descriptor.getLayoutFingerprint());
+    assertEquals(original.getStateHash(), descriptor.getStateHash());
+
+    Dungeon loaded = new DungeonLoader(0).load(descriptor);
+    assertEquals(map, loaded.toString());
+    assertEquals(original.getStartingCave().getId(), loaded.getStartingCave().getId());
+    assertEquals(original.getDestinationCave().getId(), loaded.getDestinationCave().getId());
+  }
+
+  @Test
+  public void testDescriptorIsCompact() throws IOException {
+    byte[] bytes = bytesOf(dungeon(2L).getDescriptor());
+    assertTrue(bytes.length < 80);
+  }
+
+  @Test
+  public void testDescriptorsFollowEachOtherInAStream() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DungeonDescriptor first = dungeon(3L).getDescriptor();
+    DungeonDescriptor second = dungeon(4L).getDescriptor();
+    first.writeTo(out);
+    second.writeTo(out);
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    assertEquals(first, DungeonDescriptor.readFrom(in));
+    assertEquals(second, DungeonDescriptor.readFrom(in));
+    assertEquals(0, in.available());
+  }
+
+  @Test
+  public void testOtherPathGenerators() {
+    PathGenerator[] generators = {new WilsonPathGenerator(), new ParallelPathGenerator(3)};
+    for (PathGenerator generator : generators) {
+      DungeonImpl original = new DungeonImpl(12, 12, 4, false, 30, "Nishtha",
+              new RandomFactory().getRandomGenerator(5L), 3, generator);
+      Dungeon loaded = new DungeonLoader(0).load(original.getDescriptor());
+      assertEquals(original.toString(), loaded.toString());
+    }
+  }
+
+  @Test
+  public void testDescriptorSurvivesPlay() {
+    DungeonImpl original = dungeon(6L);
+    DungeonDescriptor descriptor = original.getDescriptor();
+    original.collectAllTreasures();
+    Direction move = original.getPlayerLocation().getPossibleMoves().get(0);
+    original.movePlayer(move);
+    original.collectAllTreasures();
+    assertEquals(descriptor, original.getDescriptor());
+    assertEquals(descriptor, ((DungeonImpl) original.fork()).getDescriptor());
+    new DungeonLoader(0).load(descriptor);
+  }
+
+  @Test
+  public void testCacheIsLeastRecentlyUsed() {
+    DungeonLoader loader = new DungeonLoader(2);
+    DungeonDescriptor a = dungeon(7L).getDescriptor();
+    DungeonDescriptor b = dungeon(8L).getDescriptor();
+    DungeonDescriptor c = dungeon(9L).getDescriptor();
+    loader.load(a);
+    loader.load(b);
+    loader.load(a);
+    loader.load(c);
+    assertEquals(2, loader.size());
+    assertEquals(1, loader.getHits());
+    assertEquals(3, loader.getMisses());
+    loader.load(a);
+    assertEquals(2, loader.getHits());
+    loader.load(b);
+    assertEquals(4, loader.getMisses());
+  }
+
+  @Test
+  public void testConcurrentLoadsBuildOnce() throws Exception {
+    DungeonLoader loader = new DungeonLoader(4);
+    DungeonDescriptor descriptor = dungeon(11L).getDescriptor();
+    String map = dungeon(11L).toString();
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Dungeon>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(pool.submit(() -> loader.load(descriptor)));
+      }
+      for (Future<Dungeon> future : futures) {
+        assertEquals(map, future.get().toString());
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    // loads that came while the dungeon was built waited for it
+    assertEquals(1, loader.getMisses());
+    assertEquals(7, loader.getHits());
+  }
+
+  @Test
+  public void testCachedLoadsAreFreshGames() {
+    DungeonLoader loader = new DungeonLoader(1);
+    DungeonDescriptor descriptor = dungeon(10L).getDescriptor();
+    Dungeon first = loader.load(descriptor);
+    String map = first.toString();
+    first.collectAllTreasures();
+    first.movePlayer(first.getPlayerLocation().getPossibleMoves().get(0));
+    first.collectAllTreasures();
+    Dungeon second = loader.load(descriptor);
+    assertEquals(map, second.toString());
+    assertEquals(second.getStartingCave().getId(), second.getPlayerLocation().getId());
+  }
+
+  @Test
+  public void testUndescribableDungeons() {
+    Dungeon[] dungeons = {
+        new DungeonImpl(10, 12, 6, true, 40, "Nishtha",
+                new RandomFactory().getRandomGenerator(false)),
+        new DungeonImpl(10, 12, 6, true, 40, "Nishtha", used(11L)),
+        new DungeonImpl(10, 12, 6, true, 40, "Nishtha",
+                new RandomFactory().getRandomGenerator(12L), 1,
+                (rows, columns, potentialPaths, rand) -> new WilsonPathGenerator()
+                        .createSpanningTree(rows, columns, potentialPaths, rand))};
+    for (Dungeon dungeon : dungeons) {
+      try {
+        ((DungeonImpl) dungeon).getDescriptor();
+        fail("Expected IllegalStateException");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    }
+  }
+
+  @Test
+  public void testOtherGeneratorVersion() throws IOException {
+    byte[] bytes = bytesOf(dungeon(13L).getDescriptor());
+    ByteBuffer.wrap(bytes).putShort(4, (short) (DungeonDescriptor.GENERATOR_VERSION + 1));
+    DungeonDescriptor descriptor = DungeonDescriptor.readFrom(new ByteArrayInputStream(bytes));
+    try {
+      new DungeonLoader(1).load(descriptor);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testFingerprintMismatch() throws IOException {
+    // the layout fingerprint, high and low, then the state hash end the descriptor
+    for (int offset : new int[] {24, 16, 8}) {
+      byte[] bytes = bytesOf(dungeon(14L).getDescriptor());
+      ByteBuffer buffer = ByteBuffer.wrap(bytes);
+      buffer.putLong(bytes.length - offset, buffer.getLong(bytes.length - offset) ^ 1);
+      DungeonDescriptor descriptor = DungeonDescriptor.readFrom(new ByteArrayInputStream(bytes));
+      DungeonLoader loader = new DungeonLoader(1);
+      try {
+        loader.load(descriptor);
+        fail("Expected IllegalStateException");
+      } catch (IllegalStateException e) {
+        // expected
+      }
+      assertEquals(0, loader.size());
+    }
+  }
+
+  @Test
+  public void testInvalidArguments() throws IOException {
+    try {
+      new DungeonLoader(-1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new DungeonLoader(1).load(null);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      DungeonDescriptor.readFrom(new ByteArrayInputStream(new byte[] {1, 2, 3, 4}));
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    byte[] bytes = bytesOf(dungeon(15L).getDescriptor());
+    assertArrayEquals(bytes, bytesOf(roundTrip(dungeon(15L).getDescriptor())));
+  }
+
+  private static RandomGenerator used(long seed) {
+    RandomGenerator rand = new RandomFactory().getRandomGenerator(seed);
+    rand.getRandom(10, 0);
+    return rand;
+  }
+}
@@ -0,0 +1,141 @@
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import dungeon.AsciiMapParser;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.Fingerprint;
+import dungeon.MappedDungeon;
+import location.Direction;
+import location.Treasure;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ * Tests for {@link Dungeon#getLayoutFingerprint()} and {@link Dungeon#getStateHash()}.
+ */
+public class FingerprintTest {
+
+  private static Dungeon dungeon(long seed) {
+    return new DungeonImpl(9, 11, 5, true, 70, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static Direction back(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+
+  @Test
+  public void testSameMapSameFingerprint() {
+    assertEquals(dungeon(1L).getLayoutFingerprint(), dungeon(1L).getLayoutFingerprint());
+    Set<Fingerprint> fingerprints = new HashSet<>();
+    for (long seed = 0; seed < 50; seed++) {
+      fingerprints.add(dungeon(seed).getLayoutFingerprint());
+    }
+    assertEquals(50, fingerprints.size());
+  }
+
+  @Test
+  public void testFingerprintIgnoresTheGame() {
+    Dungeon dungeon = dungeon(2L);
+    Dungeon fresh = dungeon(2L);
+    Fingerprint before = dungeon.getLayoutFingerprint();
+    dungeon.collectAllTreasures();
+    dungeon.movePlayer(dungeon.getPlayerLocation().getPossibleMoves().get(0));
+    dungeon.collectAllTreasures();
+    assertEquals(before, dungeon.getLayoutFingerprint());
+    assertEquals(fresh.getLayoutFingerprint(), dungeon.getLayoutFingerprint());
+    assertEquals(before, dungeon.fork().getLayoutFingerprint());
+  }
+
+  @Test
+  public void testFingerprintAcrossImplementations() {
+    Dungeon dungeon = dungeon(3L);
+    // maps drawn as text keep the exits, start and destination but not the treasures
+    Dungeon parsed = new AsciiMapParser("Nishtha").parse(dungeon.toString());
+    assertEquals(dungeon.getLayoutFingerprint(), parsed.getLayoutFingerprint());
+  }
+
+  @Test
+  public void testStateHashFollowsMovesAndCollections() {
+    Dungeon dungeon = dungeon(4L);
+    long start = dungeon.getStateHash();
+    Direction move = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+    dungeon.movePlayer(move);
+    long moved = dungeon.getStateHash();
+    assertNotEquals(start, moved);
+    dungeon.movePlayer(back(move));
+    // back in the same state, as in a transposition
+    assertEquals(start, dungeon.getStateHash());
+
+    Dungeon other = dungeon(4L);
+    other.movePlayer(move);
+    assertEquals(moved, other.getStateHash());
+  }
+
+  @Test
+  public void testIncrementalHashMatchesFromScratch() throws IOException {
+    Dungeon dungeon = dungeon(5L);
+    dungeon.getStateHash();
+    Path directory = Files.createTempDirectory("dungeon");
+    Path file = directory.resolve("world.dgn");
+    Random random = new Random(6L);
+    try (MappedDungeon mapped = MappedDungeon.create(file, dungeon, false)) {
+      assertEquals(dungeon.getLayoutFingerprint(), mapped.getLayoutFingerprint());
+      for (int step = 0; step < 300 && !dungeon.isDestinationReached(); step++) {
+        List<Direction> moves = dungeon.getPlayerLocation().getPossibleMoves();
+        Direction move = moves.get(random.nextInt(moves.size()));
+        dungeon.movePlayer(move);
+        mapped.movePlayer(move);
+        if (random.nextBoolean()) {
+          dungeon.collectTreasure(List.of(Treasure.RUBY));
+          mapped.collectTreasure(List.of(Treasure.RUBY));
+        } else {
+          dungeon.collectAllTreasures();
+          mapped.collectAllTreasures();
+        }
+        // the mapped dungeon hashes from scratch every time
+        assertEquals(mapped.getStateHash(), dungeon.getStateHash());
+      }
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  @Test
+  public void testForksHashTheirOwnGames() {
+    Dungeon dungeon = dungeon(7L);
+    long start = dungeon.getStateHash();
+    Dungeon fork = dungeon.fork();
+    assertEquals(start, fork.getStateHash());
+    fork.collectAllTreasures();
+    fork.movePlayer(fork.getPlayerLocation().getPossibleMoves().get(0));
+    fork.collectAllTreasures();
+    assertEquals(start, dungeon.getStateHash());
+    assertNotEquals(start, fork.getStateHash());
+  }
+
+  @Test
+  public void testToString() {
+    assertEquals("00000000000000ff0000000000000001", new Fingerprint(255, 1).toString());
+  }
+}
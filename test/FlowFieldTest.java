@@ -0,0 +1,124 @@
+import org.junit.Test;
+
+import dungeon.Bitboard;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.FlowField;
+import location.Direction;
+import location.Location;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link FlowField} and {@link Dungeon#nextStepToward(Location)}.
+ */
+public class FlowFieldTest {
+
+  private static Dungeon dungeon(int rows, int columns, int interconnectivity,
+                                 boolean isWrapping, long seed) {
+    return new DungeonImpl(rows, columns, interconnectivity, isWrapping, 20, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static void assertMatchesGrid(Dungeon dungeon) {
+    int end = dungeon.getDestinationCave().getId();
+    FlowField field = new FlowField(dungeon, end);
+    int[] expected = new Bitboard(dungeon).distancesFrom(end);
+    for (int id = 0; id < expected.length; id++) {
+      assertEquals(expected[id], field.distance(id));
+      Direction step = field.nextStep(id);
+      if (id == end) {
+        assertNull(step);
+      } else {
+        // the step is an exit of the location, and the dungeon hands out the same one
+        Location location = dungeon.getLocation(id / dungeon.getColumns(),
+                id % dungeon.getColumns());
+        assertTrue(location.getPossibleMoves().contains(step));
+        assertEquals(step, dungeon.nextStepToward(location));
+      }
+    }
+  }
+
+  @Test
+  public void testDistancesNonWrapping() {
+    assertMatchesGrid(dungeon(9, 13, 0, false, 3L));
+    assertMatchesGrid(dungeon(12, 11, 6, false, 4L));
+  }
+
+  @Test
+  public void testDistancesWrapping() {
+    assertMatchesGrid(dungeon(9, 13, 0, true, 5L));
+    assertMatchesGrid(dungeon(10, 20, 12, true, 6L));
+  }
+
+  @Test
+  public void testFollowingStepsReachesDestination() {
+    Dungeon dungeon = dungeon(10, 12, 8, true, 8L);
+    FlowField field = new FlowField(dungeon, dungeon.getDestinationCave().getId());
+    int expected = field.distance(dungeon.getStartingCave().getId());
+    int steps = 0;
+    Direction step;
+    while ((step = dungeon.nextStepToward(dungeon.getPlayerLocation())) != null) {
+      dungeon.movePlayer(step);
+      steps++;
+    }
+    assertEquals(expected, steps);
+    assertTrue(dungeon.isDestinationReached());
+  }
+
+  @Test
+  public void testForkAgreesWithOriginal() {
+    Dungeon dungeon = dungeon(8, 8, 4, false, 9L);
+    Location start = dungeon.getStartingCave();
+    Direction step = dungeon.nextStepToward(start);
+    Dungeon fork = dungeon.fork();
+    assertSame(step, fork.nextStepToward(start));
+    fork.movePlayer(step);
+    assertSame(step, dungeon.nextStepToward(start));
+  }
+
+  @Test
+  public void testTargetOtherThanDestination() {
+    Dungeon dungeon = dungeon(8, 8, 4, false, 10L);
+    int start = dungeon.getStartingCave().getId();
+    FlowField field = new FlowField(dungeon, start);
+    assertEquals(start, field.getTarget());
+    assertEquals(0, field.distance(start));
+    assertNull(field.nextStep(start));
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Dungeon dungeon = dungeon(6, 6, 0, false, 11L);
+    try {
+      new FlowField(null, 0);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new FlowField(dungeon, 36);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    FlowField field = new FlowField(dungeon, 0);
+    try {
+      field.nextStep(-1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      dungeon.nextStepToward(null);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+}
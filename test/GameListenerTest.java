@@ -0,0 +1,286 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import dungeon.Bitboard;
+import dungeon.Command;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.GameEvent;
+import dungeon.GameEventType;
+import dungeon.GameListener;
+import dungeon.MappedDungeon;
+import location.Direction;
+import location.Treasure;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GameListener} and {@link GameEvent}.
+ */
+public class GameListenerTest {
+
+  Dungeon dungeon;
+  List<String> log;
+  List<GameEvent> objects;
+  GameListener recorder;
+
+  @Before
+  public void setUp() {
+    dungeon = new DungeonImpl(6, 4, 4, false, 100, "Nishtha",
+            new RandomFactory().getRandomGenerator(false));
+    log = new ArrayList<>();
+    objects = new ArrayList<>();
+    recorder = event -> {
+      objects.add(event);
+      StringBuilder entry = new StringBuilder(event.getType() + " " + event.getLocationId());
+      if (event.getDirection() != null) {
+        entry.append(" ").append(event.getDirection());
+      }
+      for (Treasure treasure : Treasure.values()) {
+        if (event.getCollected(treasure) > 0) {
+          entry.append(" ").append(treasure).append("=").append(event.getCollected(treasure));
+        }
+      }
+      log.add(entry.toString());
+    };
+  }
+
+  private static int neighbor(Dungeon dungeon, int id, Direction direction) {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    int row = id / columns;
+    int column = id % columns;
+    switch (direction) {
+      case NORTH:
+        return (row - 1 + rows) % rows * columns + column;
+      case SOUTH:
+        return (row + 1) % rows * columns + column;
+      case EAST:
+        return row * columns + (column + 1) % columns;
+      default:
+        return row * columns + (column - 1 + columns) % columns;
+    }
+  }
+
+  private static List<Direction> pathToDestination(Dungeon dungeon) {
+    int[] distances = new Bitboard(dungeon).distancesFrom(dungeon.getDestinationCave().getId());
+    List<Direction> path = new ArrayList<>();
+    int id = dungeon.getStartingCave().getId();
+    while (distances[id] > 0) {
+      int columns = dungeon.getColumns();
+      for (Direction direction : dungeon.getLocation(id / columns, id % columns)
+              .getPossibleMoves()) {
+        int next = neighbor(dungeon, id, direction);
+        if (distances[next] == distances[id] - 1) {
+          path.add(direction);
+          id = next;
+          break;
+        }
+      }
+    }
+    return path;
+  }
+
+  @Test
+  public void testMoveEvents() {
+    dungeon.addListener(recorder);
+    Direction move = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+    dungeon.movePlayer(move);
+    assertEquals(List.of("MOVED " + dungeon.getPlayerLocation().getId() + " " + move), log);
+  }
+
+  @Test
+  public void testDestinationReached() {
+    dungeon.addListener(recorder);
+    List<Direction> path = pathToDestination(dungeon);
+    for (Direction direction : path) {
+      dungeon.movePlayer(direction);
+    }
+    int end = dungeon.getDestinationCave().getId();
+    Direction last = path.get(path.size() - 1);
+    assertEquals(path.size() + 1, log.size());
+    assertEquals("MOVED " + end + " " + last, log.get(log.size() - 2));
+    assertEquals("DESTINATION_REACHED " + end + " " + last, log.get(log.size() - 1));
+  }
+
+  @Test
+  public void testCollectEvents() {
+    dungeon.addListener(recorder);
+    int start = dungeon.getPlayerLocation().getId();
+    dungeon.collectAllTreasures();
+    dungeon.collectAllTreasures();
+
+    Map<Treasure, Integer> collected = dungeon.getPlayer().getCollectedTreasures();
+    StringBuilder expected = new StringBuilder("TREASURE_COLLECTED " + start);
+    for (Treasure treasure : Treasure.values()) {
+      if (collected.get(treasure) > 0) {
+        expected.append(" ").append(treasure).append("=").append(collected.get(treasure));
+      }
+    }
+    assertEquals(List.of(expected.toString()), log);
+    // the counts only hold while the listeners are called
+    assertEquals(0, objects.get(0).getTotalCollected());
+  }
+
+  @Test
+  public void testExecuteEventsMatchSingleCalls() {
+    Dungeon fork = dungeon.fork();
+    dungeon.addListener(recorder);
+    List<String> single = log;
+    List<Command> commands = new ArrayList<>();
+    for (Direction direction : pathToDestination(dungeon)) {
+      commands.add(Command.collect());
+      commands.add(Command.move(direction));
+      dungeon.collectAllTreasures();
+      dungeon.movePlayer(direction);
+    }
+
+    log = new ArrayList<>();
+    fork.addListener(recorder);
+    fork.execute(commands);
+    assertEquals(single, log);
+  }
+
+  @Test
+  public void testEventObjectIsReused() {
+    dungeon.addListener(recorder);
+    dungeon.collectAllTreasures();
+    dungeon.movePlayer(dungeon.getPlayerLocation().getPossibleMoves().get(0));
+    assertEquals(2, objects.size());
+    assertSame(objects.get(0), objects.get(1));
+    assertSame(dungeon, objects.get(0).getDungeon());
+    assertEquals(GameEventType.MOVED, objects.get(1).getType());
+    assertEquals(0, objects.get(1).getTotalCollected());
+  }
+
+  @Test
+  public void testRemoveListenerAndForks() {
+    dungeon.addListener(recorder);
+    Dungeon fork = dungeon.fork();
+    fork.movePlayer(fork.getPlayerLocation().getPossibleMoves().get(0));
+    dungeon.removeListener(recorder);
+    dungeon.removeListener(event -> { });
+    dungeon.movePlayer(dungeon.getPlayerLocation().getPossibleMoves().get(0));
+    assertEquals(0, log.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testListenerMustNotChangeTheDungeon() {
+    dungeon.addListener(event -> {
+      if (event.getType() == GameEventType.MOVED) {
+        Direction back = event.getDirection() == Direction.SOUTH ? Direction.NORTH
+                : event.getDirection() == Direction.NORTH ? Direction.SOUTH
+                : event.getDirection() == Direction.EAST ? Direction.WEST : Direction.EAST;
+        dungeon.movePlayer(back);
+      }
+    });
+    dungeon.movePlayer(dungeon.getPlayerLocation().getPossibleMoves().get(0));
+  }
+
+  @Test
+  public void testListenerChangeLeavesTheDungeonUnchanged() {
+    int[] failures = new int[1];
+    dungeon.addListener(event -> {
+      for (Runnable change : List.<Runnable>of(
+          () -> dungeon.movePlayer(dungeon.getPlayerLocation().getPossibleMoves().get(0)),
+          () -> dungeon.collectAllTreasures(),
+          () -> dungeon.collectTreasure(List.of(Treasure.RUBY)),
+          () -> dungeon.execute(List.of(Command.collect())))) {
+        try {
+          change.run();
+        } catch (IllegalStateException e) {
+          failures[0]++;
+        }
+      }
+    });
+    Dungeon fork = dungeon.fork();
+    Direction direction = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+    dungeon.movePlayer(direction);
+    dungeon.collectAllTreasures();
+    fork.movePlayer(direction);
+    fork.collectAllTreasures();
+
+    assertEquals(fork.getPlayerLocation().getId(), dungeon.getPlayerLocation().getId());
+    assertEquals(fork.getPlayer().getCollectedTreasures(),
+            dungeon.getPlayer().getCollectedTreasures());
+    assertEquals(fork.toString(), dungeon.toString());
+    // every change was refused, once per event
+    assertTrue(failures[0] >= 4);
+    assertEquals(0, failures[0] % 4);
+  }
+
+  @Test
+  public void testMappedListenerChangeLeavesTheDungeonUnchanged() throws IOException {
+    Path directory = Files.createTempDirectory("dungeon");
+    Path file = directory.resolve("world.dgn");
+    try (MappedDungeon mapped = MappedDungeon.create(file, dungeon, false)) {
+      int[] failures = new int[1];
+      mapped.addListener(event -> {
+        try {
+          mapped.movePlayer(mapped.getPlayerLocation().getPossibleMoves().get(0));
+        } catch (IllegalStateException e) {
+          failures[0]++;
+        }
+        try {
+          mapped.collectAllTreasures();
+        } catch (IllegalStateException e) {
+          failures[0]++;
+        }
+      });
+      Direction direction = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+      dungeon.movePlayer(direction);
+      mapped.movePlayer(direction);
+      dungeon.collectAllTreasures();
+      mapped.collectAllTreasures();
+      assertEquals(dungeon.getPlayerLocation().getId(), mapped.getPlayerLocation().getId());
+      assertEquals(dungeon.getPlayer().getCollectedTreasures(),
+              mapped.getPlayer().getCollectedTreasures());
+      assertEquals(dungeon.toString(), mapped.toString());
+      assertTrue(failures[0] >= 2);
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(directory);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullListener() {
+    dungeon.addListener(null);
+  }
+
+  @Test
+  public void testMappedDungeonEvents() throws IOException {
+    Dungeon fork = dungeon.fork();
+    dungeon.addListener(recorder);
+    List<String> expected = log;
+    for (Direction direction : pathToDestination(dungeon)) {
+      dungeon.collectAllTreasures();
+      dungeon.movePlayer(direction);
+    }
+
+    Path directory = Files.createTempDirectory("dungeon");
+    Path file = directory.resolve("world.dgn");
+    try (MappedDungeon mapped = MappedDungeon.create(file, fork, false)) {
+      log = new ArrayList<>();
+      mapped.addListener(recorder);
+      for (Direction direction : pathToDestination(mapped)) {
+        mapped.collectAllTreasures();
+        mapped.movePlayer(direction);
+      }
+      assertEquals(expected, log);
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(directory);
+    }
+  }
+}
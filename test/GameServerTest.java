@@ -0,0 +1,131 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import metrics.LatencyHistogram;
+import server.GameServer;
+import server.LoadGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GameServer} and {@link LoadGenerator}.
+ */
+public class GameServerTest {
+
+  GameServer server;
+  HttpClient client;
+
+  @Before
+  public void setUp() throws IOException {
+    server = new GameServer(0);
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @After
+  public void tearDown() {
+    server.close();
+  }
+
+  private HttpResponse<String> send(String method, String path)
+          throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + server.getPort() + path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPort() throws IOException {
+    new GameServer(70000);
+  }
+
+  @Test
+  public void testOnlySessionPathsAreServed() throws IOException, InterruptedException {
+    String query = "?rows=6&columns=4&interconnectivity=4&treasures=100&seed=7";
+    assertEquals(404, send("POST", "/sessionsX" + query).statusCode());
+    assertEquals(404, send("POST", "/sessions/1/move/north").statusCode());
+    assertEquals(0, server.getSessionCount());
+    assertEquals(201, send("POST", "/sessions/" + query).statusCode());
+    assertEquals(1, server.getSessionCount());
+  }
+
+  @Test
+  public void testDungeonSizeIsLimited() throws IOException, InterruptedException {
+    server.close();
+    server = new GameServer(0, 100);
+    server.start();
+    HttpResponse<String> refused = send("POST",
+            "/sessions?rows=100000&columns=100000&interconnectivity=0&treasures=0");
+    assertEquals(400, refused.statusCode());
+    assertEquals("error=Dungeon cannot have more than 100 locations.\n", refused.body());
+    assertEquals(201, send("POST",
+            "/sessions?rows=10&columns=10&interconnectivity=0&treasures=0").statusCode());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxLocations() throws IOException {
+    new GameServer(0, 0);
+  }
+
+  @Test
+  public void testSession() throws IOException, InterruptedException {
+    HttpResponse<String> created = send("POST",
+            "/sessions?rows=6&columns=4&interconnectivity=4&treasures=100&name=Nishtha&seed=7");
+    assertEquals(201, created.statusCode());
+    assertTrue(created.body().startsWith("session=1\n"));
+    assertEquals(1, server.getSessionCount());
+
+    String moves = created.body().split("moves=")[1].split("\n")[0];
+    HttpResponse<String> moved = send("POST",
+            "/sessions/1/move?direction=" + moves.split(",")[0]);
+    assertEquals(200, moved.statusCode());
+    assertTrue(moved.body().contains("destination="));
+
+    HttpResponse<String> executed = send("POST", "/sessions/1/execute?commands=COLLECT,SIDEWAYS");
+    assertEquals(400, executed.statusCode());
+    executed = send("POST", "/sessions/1/execute?commands=COLLECT");
+    assertEquals(200, executed.statusCode());
+    assertTrue(executed.body().contains("complete=true"));
+
+    HttpResponse<String> collected = send("POST", "/sessions/1/collect");
+    assertEquals(200, collected.statusCode());
+    assertTrue(collected.body().contains("collected="));
+
+    assertEquals(200, send("GET", "/sessions/1/render").statusCode());
+    assertEquals(200, send("GET", "/sessions/1/render?format=png&tile=5").statusCode());
+    // 24 locations of 1000 by 1000 pixels are over the budget of the server
+    assertEquals(400, send("GET", "/sessions/1/render?format=png&tile=1000").statusCode());
+    assertEquals(204, send("DELETE", "/sessions/1").statusCode());
+    assertEquals(0, server.getSessionCount());
+  }
+
+  @Test
+  public void testErrors() throws IOException, InterruptedException {
+    assertEquals(404, send("GET", "/sessions/42").statusCode());
+    assertEquals(405, send("GET", "/sessions").statusCode());
+    assertEquals(400, send("POST", "/sessions?rows=6").statusCode());
+    send("POST", "/sessions?rows=6&columns=4&interconnectivity=0&treasures=20");
+    assertEquals(400, send("POST", "/sessions/1/move?direction=SIDEWAYS").statusCode());
+  }
+
+  @Test
+  public void testLoadGenerator() throws InterruptedException {
+    LoadGenerator generator = new LoadGenerator(
+            URI.create("http://127.0.0.1:" + server.getPort()), 20, 5);
+    LatencyHistogram latencies = generator.run();
+    assertEquals(0, generator.getFailures());
+    assertEquals(20 * 7, latencies.getCount());
+    assertTrue(latencies.getPercentile(99) >= latencies.getPercentile(50));
+    assertEquals(0, server.getSessionCount());
+  }
+}
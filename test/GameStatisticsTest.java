@@ -0,0 +1,191 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import batch.BatchRunner;
+import batch.BufferedOutputSink;
+import batch.GameConfig;
+import batch.OutputSink;
+import batch.Verbosity;
+import location.Treasure;
+import metrics.GameStatistics;
+import metrics.HistogramSnapshot;
+import metrics.StripedHistogram;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link GameStatistics} and {@link StripedHistogram}.
+ */
+public class GameStatisticsTest {
+
+  GameStatistics statistics;
+
+  @Before
+  public void setUp() {
+    statistics = new GameStatistics();
+  }
+
+  @Test
+  public void testEmpty() {
+    HistogramSnapshot moves = statistics.getMoves();
+    assertEquals(0, moves.getCount());
+    assertEquals(0, moves.getPercentile(50));
+    assertEquals(0, moves.getMean(), 0);
+    assertEquals(0, statistics.getGames());
+    assertTrue(Double.isNaN(statistics.getCaveToTunnelRatio()));
+  }
+
+  @Test
+  public void testCaveToTunnelRatioWithoutTunnels() {
+    statistics.recordGame(10, 1000, Map.of(), 24, 0);
+    assertEquals(Double.POSITIVE_INFINITY, statistics.getCaveToTunnelRatio(), 0);
+  }
+
+  @Test
+  public void testPercentilesWithinAnEighth() {
+    StripedHistogram histogram = new StripedHistogram();
+    for (long value = 1; value <= 100000; value++) {
+      histogram.record(value);
+    }
+    HistogramSnapshot snapshot = histogram.snapshot();
+    assertEquals(100000, snapshot.getCount());
+    assertEquals(100000, snapshot.getMax());
+    assertEquals(50000.5, snapshot.getMean(), 0.001);
+    for (double percentile : new double[] {1, 10, 50, 90, 99, 99.9}) {
+      long exact = (long) Math.ceil(100000 * percentile / 100);
+      long reported = snapshot.getPercentile(percentile);
+      assertTrue(reported >= exact);
+      assertTrue(reported <= exact * 1.125);
+    }
+    assertEquals(100000, snapshot.getPercentile(100));
+  }
+
+  @Test
+  public void testSmallValuesAreExact() {
+    StripedHistogram histogram = new StripedHistogram();
+    for (int value = 0; value < 8; value++) {
+      histogram.record(value);
+    }
+    histogram.record(-5);
+    HistogramSnapshot snapshot = histogram.snapshot();
+    assertEquals(0, snapshot.getPercentile(20));
+    assertEquals(3, snapshot.getPercentile(50));
+    assertEquals(7, snapshot.getPercentile(100));
+    histogram.record(Long.MAX_VALUE);
+    assertEquals(Long.MAX_VALUE, histogram.snapshot().getPercentile(100));
+  }
+
+  @Test
+  public void testRecordGame() {
+    statistics.recordGame(10, 2000, Map.of(Treasure.RUBY, 2, Treasure.DIAMOND, 0,
+            Treasure.SAPPHIRE, 1), 15, 5);
+    statistics.recordGame(30, 4000, Map.of(Treasure.RUBY, 1, Treasure.DIAMOND, 4,
+            Treasure.SAPPHIRE, 0), 10, 10);
+    assertEquals(2, statistics.getGames());
+    assertEquals(20, statistics.getMoves().getMean(), 0);
+    assertEquals(30, statistics.getMoves().getMax());
+    assertEquals(4000, statistics.getTimeToDestination().getMax());
+    assertEquals(3, statistics.getTreasures(Treasure.RUBY));
+    assertEquals(4, statistics.getTreasures(Treasure.DIAMOND));
+    assertEquals(1, statistics.getTreasures(Treasure.SAPPHIRE));
+    assertEquals(25.0 / 15, statistics.getCaveToTunnelRatio(), 1e-9);
+    assertEquals(750, statistics.getCaveShare().getMax());
+
+    statistics.reset();
+    assertEquals(0, statistics.getGames());
+    assertEquals(0, statistics.getTreasures(Treasure.RUBY));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullTreasures() {
+    statistics.recordGame(1, 1, null, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidPercentile() {
+    statistics.getMoves().getPercentile(101);
+  }
+
+  @Test
+  public void testConcurrentRecording() throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    Map<Treasure, Integer> treasures = Map.of(Treasure.RUBY, 1, Treasure.DIAMOND, 2,
+            Treasure.SAPPHIRE, 3);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        futures.add(pool.submit(() -> {
+          for (int game = 0; game < 10000; game++) {
+            statistics.recordGame(game % 100, game, treasures, 3, 1);
+          }
+        }));
+      }
+      // a reader in the meantime only ever sees complete games
+      while (!futures.stream().allMatch(Future::isDone)) {
+        assertTrue(statistics.getMoves().getPercentile(50) < 100);
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(40000, statistics.getGames());
+    assertEquals(40000, statistics.getMoves().getCount());
+    assertEquals(80000, statistics.getTreasures(Treasure.DIAMOND));
+    assertEquals(3.0, statistics.getCaveToTunnelRatio(), 0);
+  }
+
+  @Test
+  public void testBatchRunnerRecordsGames() throws IOException {
+    BatchRunner runner = new BatchRunner(new BufferedOutputSink(new ByteArrayOutputStream(), 64),
+            Verbosity.SUMMARY, new RandomFactory().getRandomGenerator(true));
+    runner.setStatistics(statistics);
+    runner.run(List.of(new GameConfig(6, 4, 4, false, 25, "Nishtha", 7)));
+    assertEquals(7, statistics.getGames());
+    assertTrue(statistics.getMoves().getPercentile(50) >= 5);
+    assertEquals(7, statistics.getCaveShare().getCount());
+  }
+
+  @Test
+  public void testTimeToDestinationLeavesOutTheOutput() throws IOException {
+    // every write takes 2 ms and a game writes a line per move, at least 10 writes
+    OutputSink slow = new OutputSink() {
+      @Override
+      public void write(CharSequence text) {
+        try {
+          Thread.sleep(2);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      @Override
+      public void flush() {
+        // Nothing to flush.
+      }
+
+      @Override
+      public void close() {
+        // Nothing to close.
+      }
+    };
+    BatchRunner runner = new BatchRunner(slow, Verbosity.MOVES,
+            new RandomFactory().getRandomGenerator(true));
+    runner.setStatistics(statistics);
+    runner.run(List.of(new GameConfig(6, 4, 4, false, 25, "Nishtha", 1)));
+    assertEquals(1, statistics.getGames());
+    assertTrue(statistics.getTimeToDestination().getMax() < 10_000_000);
+  }
+}
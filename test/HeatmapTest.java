@@ -0,0 +1,225 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dungeon.Command;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import location.Direction;
+import location.Location;
+import metrics.ConcurrentHeatmap;
+import metrics.Heatmap;
+import metrics.HeatmapSnapshot;
+import metrics.IntHeatmap;
+import random.RandomFactory;
+import render.HeatmapImageRenderer;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for {@link IntHeatmap}, {@link ConcurrentHeatmap}, {@link HeatmapSnapshot} and
+ * {@link HeatmapImageRenderer}.
+ */
+public class HeatmapTest {
+
+  DungeonImpl dungeon;
+
+  @Before
+  public void setUp() {
+    dungeon = new DungeonImpl(6, 4, 4, false, 100, "Nishtha",
+            new RandomFactory().getRandomGenerator(false));
+  }
+
+  private static void walk(Dungeon dungeon, int steps) {
+    for (int i = 0; i < steps; i++) {
+      dungeon.collectAllTreasures();
+      List<Direction> moves = dungeon.getPlayerLocation().getPossibleMoves();
+      dungeon.movePlayer(moves.get(i % moves.size()));
+    }
+  }
+
+  @Test
+  public void testCountsMovesAndPickups() {
+    IntHeatmap heatmap = new IntHeatmap(6, 4);
+    dungeon.setHeatmap(heatmap);
+    int treasures = dungeon.getPlayerLocation().getTreasures().size();
+    dungeon.collectAllTreasures();
+    Direction move = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+    dungeon.movePlayer(move);
+    Location location = dungeon.getPlayerLocation();
+
+    HeatmapSnapshot snapshot = heatmap.snapshot();
+    assertEquals(1, snapshot.getTotalVisits());
+    assertEquals(1, snapshot.getVisits(location.getId()));
+    assertEquals(treasures, snapshot.getPickups(dungeon.getStartingCave().getId()));
+    assertEquals(treasures, snapshot.getTotalPickups());
+  }
+
+  @Test
+  public void testExecuteCountsLikeSingleCalls() {
+    IntHeatmap single = new IntHeatmap(6, 4);
+    IntHeatmap batched = new IntHeatmap(6, 4);
+    Dungeon fork = dungeon.fork();
+    dungeon.setHeatmap(single);
+    ((DungeonImpl) fork).setHeatmap(batched);
+
+    List<Command> commands = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      dungeon.collectAllTreasures();
+      commands.add(Command.collect());
+      Direction move = dungeon.getPlayerLocation().getPossibleMoves().get(0);
+      dungeon.movePlayer(move);
+      commands.add(Command.move(move));
+    }
+    fork.execute(commands);
+
+    HeatmapSnapshot expected = single.snapshot();
+    HeatmapSnapshot actual = batched.snapshot();
+    for (int id = 0; id < 24; id++) {
+      assertEquals(expected.getVisits(id), actual.getVisits(id));
+      assertEquals(expected.getPickups(id), actual.getPickups(id));
+    }
+  }
+
+  @Test
+  public void testDetach() {
+    IntHeatmap heatmap = new IntHeatmap(6, 4);
+    dungeon.setHeatmap(heatmap);
+    dungeon.setHeatmap(null);
+    walk(dungeon, 5);
+    assertEquals(0, heatmap.snapshot().getTotalVisits());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongSize() {
+    dungeon.setHeatmap(new IntHeatmap(4, 6));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidSize() {
+    new ConcurrentHeatmap(0, 4);
+  }
+
+  @Test
+  public void testConcurrentForks() throws Exception {
+    ConcurrentHeatmap heatmap = new ConcurrentHeatmap(6, 4);
+    dungeon.setHeatmap(heatmap);
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        Dungeon fork = dungeon.fork();
+        futures.add(pool.submit(() -> walk(fork, 1000)));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+    assertEquals(8000, heatmap.snapshot().getTotalVisits());
+  }
+
+  @Test
+  public void testMergeAndBinaryRoundTrip() throws IOException {
+    Heatmap first = new IntHeatmap(6, 4);
+    Heatmap second = new ConcurrentHeatmap(6, 4);
+    Dungeon fork = dungeon.fork();
+    dungeon.setHeatmap(first);
+    ((DungeonImpl) fork).setHeatmap(second);
+    walk(dungeon, 30);
+    walk(fork, 50);
+
+    HeatmapSnapshot merged = first.snapshot().merge(second.snapshot());
+    assertEquals(80, merged.getTotalVisits());
+    HeatmapSnapshot all = HeatmapSnapshot.mergeAll(List.of(first.snapshot(), second.snapshot()));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    all.writeTo(out);
+    assertEquals(16 + 2 * 8 * 24, out.size());
+    HeatmapSnapshot read = HeatmapSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(6, read.getRows());
+    assertEquals(4, read.getColumns());
+    for (int id = 0; id < 24; id++) {
+      assertEquals(merged.getVisits(id), read.getVisits(id));
+      assertEquals(merged.getPickups(id), read.getPickups(id));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMergeDifferentSizes() {
+    new IntHeatmap(6, 4).snapshot().merge(new IntHeatmap(4, 6).snapshot());
+  }
+
+  @Test
+  public void testReadSnapshotsOneAfterTheOther() throws IOException {
+    IntHeatmap first = new IntHeatmap(6, 4);
+    dungeon.setHeatmap(first);
+    walk(dungeon, 20);
+    HeatmapSnapshot large = new IntHeatmap(100, 120).snapshot();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    first.snapshot().writeTo(out);
+    large.writeTo(out);
+    first.snapshot().writeTo(out);
+
+    ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+    HeatmapSnapshot read = HeatmapSnapshot.readFrom(in);
+    assertEquals(20, read.getTotalVisits());
+    assertEquals(120, HeatmapSnapshot.readFrom(in).getColumns());
+    assertEquals(20, HeatmapSnapshot.readFrom(in).getTotalVisits());
+    assertEquals(0, in.available());
+  }
+
+  @Test(expected = EOFException.class)
+  public void testReadSnapshotShorterThanItsHeader() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeInt(0x48454154);
+    data.writeInt(1);
+    data.writeInt(40000);
+    data.writeInt(40000);
+    data.writeLong(1);
+    HeatmapSnapshot.readFrom(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testReadNotASnapshot() throws IOException {
+    HeatmapSnapshot.readFrom(new ByteArrayInputStream(new byte[16]));
+  }
+
+  @Test
+  public void testImage() {
+    IntHeatmap heatmap = new IntHeatmap(6, 4);
+    dungeon.setHeatmap(heatmap);
+    walk(dungeon, 40);
+    HeatmapSnapshot snapshot = heatmap.snapshot();
+    BufferedImage image = new HeatmapImageRenderer(5).render(snapshot, false);
+    assertEquals(20, image.getWidth());
+    assertEquals(30, image.getHeight());
+
+    int hottest = 0;
+    for (int id = 0; id < 24; id++) {
+      if (snapshot.getVisits(id) > snapshot.getVisits(hottest)) {
+        hottest = id;
+      }
+    }
+    assertEquals(0xffffff, image.getRGB(hottest % 4 * 5 + 2, hottest / 4 * 5 + 2) & 0xffffff);
+    for (int id = 0; id < 24; id++) {
+      if (snapshot.getVisits(id) == 0) {
+        assertEquals(0, image.getRGB(id % 4 * 5, id / 4 * 5) & 0xffffff);
+      }
+    }
+    assertEquals(40, snapshot.getTotalVisits());
+  }
+}
@@ -0,0 +1,209 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import dungeon.Command;
+import dungeon.CommandResult;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.MappedDungeon;
+import location.Direction;
+import location.Treasure;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MappedDungeon}.
+ */
+public class MappedDungeonTest {
+
+  Path directory;
+  Path file;
+  Dungeon source;
+
+  @Before
+  public void setUp() throws IOException {
+    directory = Files.createTempDirectory("dungeon");
+    file = directory.resolve("world.dgn");
+    source = new DungeonImpl(6, 4, 4, false, 100, "Nishtha",
+            new RandomFactory().getRandomGenerator(false));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(directory);
+  }
+
+  @Test
+  public void testCreateCopiesTheDungeon() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      assertEquals(source.toString(), mapped.toString());
+      assertEquals(source.getStartingCave().getId(), mapped.getStartingCave().getId());
+      assertEquals(source.getDestinationCave().getId(), mapped.getDestinationCave().getId());
+      assertEquals("Nishtha", mapped.getPlayer().getName());
+      for (int row = 0; row < 6; row++) {
+        for (int column = 0; column < 4; column++) {
+          assertEquals(source.getLocation(row, column).getPossibleMoves(),
+                  mapped.getLocation(row, column).getPossibleMoves());
+          assertEquals(source.getLocation(row, column).getTreasures().size(),
+                  mapped.getLocation(row, column).getTreasures().size());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testPlayMatchesHeapDungeon() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, true)) {
+      source.collectAllTreasures();
+      mapped.collectAllTreasures();
+      source.movePlayer(Direction.SOUTH);
+      mapped.movePlayer(Direction.SOUTH);
+      source.collectTreasure(List.of(Treasure.RUBY));
+      mapped.collectTreasure(List.of(Treasure.RUBY));
+      assertEquals(source.getPlayer().getCollectedTreasures(),
+              mapped.getPlayer().getCollectedTreasures());
+      assertEquals(source.getPlayerLocation().getId(), mapped.getPlayerLocation().getId());
+      assertEquals(source.toString(), mapped.toString());
+      assertEquals(source.getPlayer().getPercentageExplored(),
+              mapped.getPlayer().getPercentageExplored(), 0.001);
+      assertTrue(mapped.getPlayer().hasVisited(5));
+      assertFalse(mapped.getPlayer().hasVisited(6));
+    }
+  }
+
+  @Test
+  public void testNextStepTowardMatchesHeapDungeon() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      for (int row = 0; row < 6; row++) {
+        for (int column = 0; column < 4; column++) {
+          assertEquals(source.nextStepToward(source.getLocation(row, column)),
+                  mapped.nextStepToward(mapped.getLocation(row, column)));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReopenResumesTheWorld() throws IOException {
+    String expected;
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      CommandResult result = mapped.execute(List.of(Command.collect(),
+              Command.move(Direction.SOUTH), Command.collect()));
+      assertTrue(result.isComplete());
+      assertEquals(5, result.getFinalLocation().getId());
+      expected = mapped.toString();
+    }
+    try (MappedDungeon mapped = MappedDungeon.open(file, false)) {
+      assertEquals(expected, mapped.toString());
+      assertEquals(5, mapped.getPlayerLocation().getId());
+      assertTrue(mapped.getLocation(0, 1).getTreasures().isEmpty());
+      assertTrue(mapped.getPlayer().hasVisited(1));
+    }
+  }
+
+  @Test
+  public void testOpenRollsBackAnInterruptedUpdate() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      mapped.movePlayer(Direction.SOUTH);
+    }
+    // an update cut short after the undo record was written: position at offset 28 was 1
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+      ByteBuffer record = ByteBuffer.allocate(16);
+      record.putInt(1).putInt(1).putInt(28).putInt(1).flip();
+      channel.write(record, 128);
+    }
+    try (MappedDungeon mapped = MappedDungeon.open(file, false)) {
+      assertEquals(1, mapped.getPlayerLocation().getId());
+    }
+    try (MappedDungeon mapped = MappedDungeon.open(file, false)) {
+      assertEquals(1, mapped.getPlayerLocation().getId());
+      mapped.movePlayer(Direction.SOUTH);
+      assertEquals(5, mapped.getPlayerLocation().getId());
+    }
+  }
+
+  @Test(expected = IOException.class)
+  public void testCreateExistingFile() throws IOException {
+    Files.createFile(file);
+    MappedDungeon.create(file, source, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOpenNotADungeon() throws IOException {
+    Files.write(file, new byte[256]);
+    MappedDungeon.open(file, false);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMove() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      mapped.movePlayer(Direction.NORTH);
+    }
+  }
+
+  @Test
+  public void testForkCopiesTheGame() throws IOException {
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, true)) {
+      mapped.collectAllTreasures();
+      mapped.movePlayer(Direction.SOUTH);
+      String expected = mapped.toString();
+      Dungeon fork = mapped.fork();
+      assertEquals(expected, fork.toString());
+      assertEquals(mapped.getPlayerLocation().getId(), fork.getPlayerLocation().getId());
+      assertEquals(mapped.getStartingCave().getId(), fork.getStartingCave().getId());
+      assertEquals(mapped.getDestinationCave().getId(), fork.getDestinationCave().getId());
+      assertEquals(mapped.getPlayer().getCollectedTreasures(),
+              fork.getPlayer().getCollectedTreasures());
+      assertEquals(mapped.getPlayer().getPercentageExplored(),
+              fork.getPlayer().getPercentageExplored(), 0.001);
+      assertTrue(fork.getPlayer().hasVisited(1));
+      assertFalse(fork.getPlayer().hasVisited(6));
+      for (int row = 0; row < 6; row++) {
+        for (int column = 0; column < 4; column++) {
+          assertEquals(mapped.nextStepToward(mapped.getLocation(row, column)),
+                  fork.nextStepToward(fork.getLocation(row, column)));
+        }
+      }
+
+      fork.collectAllTreasures();
+      fork.movePlayer(fork.nextStepToward(fork.getPlayerLocation()));
+      assertEquals(expected, mapped.toString());
+      assertEquals(5, mapped.getPlayerLocation().getId());
+    }
+  }
+
+  @Test
+  public void testSeenIsPersisted() throws IOException {
+    ((DungeonImpl) source).setRevealingExits(true);
+    try (MappedDungeon mapped = MappedDungeon.create(file, source, false)) {
+      assertEquals(source.getPlayer().getPercentageExplored(),
+              mapped.getPlayer().getPercentageExplored(), 0.001);
+    }
+    try (MappedDungeon mapped = MappedDungeon.open(file, false)) {
+      for (int id = 0; id < 24; id++) {
+        assertEquals(source.getPlayer().hasSeen(id), mapped.getPlayer().hasSeen(id));
+        assertEquals(source.getPlayer().hasVisited(id), mapped.getPlayer().hasVisited(id));
+      }
+      assertTrue(mapped.getPlayer().hasSeen(5));
+      assertFalse(mapped.getPlayer().hasVisited(5));
+      double explored = mapped.getPlayer().getPercentageExplored();
+      // moving to a seen location visits it without seeing anything new
+      mapped.movePlayer(Direction.SOUTH);
+      assertTrue(mapped.getPlayer().hasVisited(5));
+      assertEquals(explored, mapped.getPlayer().getPercentageExplored(), 0.001);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dungeon.DungeonImpl;
+import dungeon.ParallelPathGenerator;
+import dungeon.WilsonPathGenerator;
+import metrics.Counter;
+import metrics.LatencyHistogram;
+import metrics.MetricsRegistry;
+import metrics.Phase;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MetricsRegistry} and {@link LatencyHistogram}.
+ */
+public class MetricsRegistryTest {
+
+  MetricsRegistry registry;
+  RandomGenerator rand;
+
+  @Before
+  public void setUp() {
+    registry = MetricsRegistry.getInstance();
+    registry.reset();
+    rand = new RandomFactory().getRandomGenerator(false);
+  }
+
+  @After
+  public void tearDown() {
+    registry.setEnabled(false);
+    registry.reset();
+  }
+
+  @Test
+  public void testDisabledByDefault() {
+    assertFalse(registry.isEnabled());
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    for (Phase phase : Phase.values()) {
+      assertEquals(0, registry.getLatency(phase).getCount());
+    }
+    for (Counter counter : Counter.values()) {
+      assertEquals(0, registry.getCount(counter));
+    }
+  }
+
+  @Test
+  public void testEveryPhaseIsTimed() {
+    registry.setEnabled(true);
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    for (Phase phase : Phase.values()) {
+      assertEquals(2, registry.getLatency(phase).getCount());
+    }
+  }
+
+  @Test
+  public void testCounters() {
+    registry.setEnabled(true);
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand);
+    assertTrue(registry.getCount(Counter.UNION_FIND_OPERATIONS) >= 23);
+    assertTrue(registry.getCount(Counter.BFS_INVOCATIONS) >= 1);
+    assertTrue(registry.getCount(Counter.NODES_VISITED)
+            >= registry.getCount(Counter.BFS_INVOCATIONS));
+    assertEquals(0, registry.getCount(Counter.START_END_RETRIES));
+  }
+
+  @Test
+  public void testUnionFindCountedByGenerator() {
+    registry.setEnabled(true);
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand, 1, new WilsonPathGenerator());
+    assertEquals(0, registry.getCount(Counter.UNION_FIND_OPERATIONS));
+    new DungeonImpl(6, 4, 4, false, 25, "Nishtha", rand, 1, new ParallelPathGenerator(2));
+    // 6 * 3 horizontal and 5 * 4 vertical potential paths, each offered once
+    assertEquals(38, registry.getCount(Counter.UNION_FIND_OPERATIONS));
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(0, histogram.getPercentile(50));
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1000L);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(5050000, histogram.getTotalNanos());
+    assertEquals(100000, histogram.getMaxNanos());
+    long median = histogram.getPercentile(50);
+    assertTrue(median >= 50000 && median < 100000);
+    assertEquals(100000, histogram.getPercentile(100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testHistogramInvalidPercentile() {
+    new LatencyHistogram().getPercentile(101);
+  }
+}
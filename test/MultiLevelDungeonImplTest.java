@@ -0,0 +1,162 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import dungeon.MultiLevelDungeon;
+import dungeon.MultiLevelDungeonImpl;
+import location.Direction;
+import location.Location;
+import location.coordinate.LevelCoordinate;
+import random.RandomFactory;
+import random.RandomGenerator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link MultiLevelDungeonImpl}.
+ */
+public class MultiLevelDungeonImplTest {
+
+  MultiLevelDungeon dungeon;
+
+  @Before
+  public void setUp() {
+    dungeon = new MultiLevelDungeonImpl(3, 6, 5, 2, false, 50, 2, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L), 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoLevels() {
+    new MultiLevelDungeonImpl(0, 6, 5, 2, false, 50, 2, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoStairs() {
+    new MultiLevelDungeonImpl(2, 6, 5, 2, false, 50, 0, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L), 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInfeasibleFloor() {
+    new MultiLevelDungeonImpl(2, 2, 2, 0, false, 50, 1, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L), 1);
+  }
+
+  @Test
+  public void testCoordinatesAndStairs() {
+    int up = 0;
+    int down = 0;
+    for (int level = 0; level < 3; level++) {
+      for (int row = 0; row < 6; row++) {
+        for (int column = 0; column < 5; column++) {
+          Location location = dungeon.getLocation(level, row, column);
+          LevelCoordinate coordinates = (LevelCoordinate) location.getCoordinates();
+          assertEquals(level, coordinates.getLevel());
+          assertEquals(row, coordinates.getX());
+          assertEquals(column, coordinates.getY());
+          List<Direction> moves = location.getPossibleMoves();
+          if (moves.contains(Direction.UP)) {
+            up++;
+            assertTrue(dungeon.getLocation(level + 1, row, column).getPossibleMoves()
+                    .contains(Direction.DOWN));
+          }
+          if (moves.contains(Direction.DOWN)) {
+            down++;
+          }
+          if (location.isTunnel()) {
+            assertTrue(location.getTreasures().isEmpty());
+          }
+        }
+      }
+    }
+    assertEquals(4, up);
+    assertEquals(4, down);
+  }
+
+  @Test
+  public void testConnectedAndDistance() {
+    Set<Integer> seen = new HashSet<>();
+    Queue<Location> queue = new ArrayDeque<>();
+    Location start = dungeon.getStartingCave();
+    queue.add(start);
+    seen.add(start.getId());
+    while (!queue.isEmpty()) {
+      Location location = queue.remove();
+      for (int level = 0; level < 3; level++) {
+        for (int row = 0; row < 6; row++) {
+          for (int column = 0; column < 5; column++) {
+            Location other = dungeon.getLocation(level, row, column);
+            if (!seen.contains(other.getId()) && dungeon.getDistance(location, other) == 1) {
+              seen.add(other.getId());
+              queue.add(other);
+            }
+          }
+        }
+      }
+    }
+    assertEquals(3 * 6 * 5, seen.size());
+    assertEquals(0, ((LevelCoordinate) start.getCoordinates()).getLevel());
+    assertTrue(dungeon.getDistance(start, dungeon.getDestinationCave()) >= 5);
+    assertFalse(dungeon.getDestinationCave().isTunnel());
+  }
+
+  @Test
+  public void testClimbStairs() {
+    Location stairs = null;
+    for (int row = 0; row < 6 && stairs == null; row++) {
+      for (int column = 0; column < 5 && stairs == null; column++) {
+        if (dungeon.getLocation(0, row, column).getPossibleMoves().contains(Direction.UP)) {
+          stairs = dungeon.getLocation(0, row, column);
+        }
+      }
+    }
+    int distance = dungeon.getDistance(dungeon.getPlayerLocation(), stairs);
+    while (dungeon.getPlayerLocation() != stairs) {
+      for (Direction direction : dungeon.getPlayerLocation().getPossibleMoves()) {
+        dungeon.movePlayer(direction);
+        if (dungeon.getDistance(dungeon.getPlayerLocation(), stairs) < distance) {
+          distance--;
+          break;
+        }
+        dungeon.movePlayer(opposite(direction));
+      }
+    }
+    dungeon.movePlayer(Direction.UP);
+    assertEquals(1, ((LevelCoordinate) dungeon.getPlayerLocation().getCoordinates()).getLevel());
+    assertTrue(dungeon.getPlayer().hasVisited(stairs.getId()));
+    assertTrue(dungeon.toString().contains("Level 2"));
+    assertTrue(dungeon.toString().contains("[P]"));
+  }
+
+  @Test
+  public void testSameSeedSameDungeon() {
+    MultiLevelDungeon single = new MultiLevelDungeonImpl(3, 6, 5, 2, false, 50, 2, "Nishtha",
+            new RandomFactory().getRandomGenerator(7L), 1);
+    assertEquals(single.toString(), dungeon.toString());
+  }
+
+  private static Direction opposite(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      case WEST:
+        return Direction.EAST;
+      case UP:
+        return Direction.DOWN;
+      default:
+        return Direction.UP;
+    }
+  }
+}
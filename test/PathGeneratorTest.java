@@ -0,0 +1,177 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+import dungeon.AldousBroderPathGenerator;
+import dungeon.BacktrackerPathGenerator;
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.KruskalPathGenerator;
+import dungeon.ParallelPathGenerator;
+import dungeon.PathGenerator;
+import dungeon.PrimPathGenerator;
+import dungeon.WilsonPathGenerator;
+import location.Direction;
+import random.RandomFactory;
+import random.RandomGenerator;
+import random.RandomSeeded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for the {@link PathGenerator} implementations.
+ */
+public class PathGeneratorTest {
+
+  RandomGenerator rand;
+  List<PathGenerator> generators;
+
+  @Before
+  public void setUp() {
+    rand = new RandomFactory().getRandomGenerator(true);
+    generators = List.of(new KruskalPathGenerator(), new WilsonPathGenerator(),
+            new PrimPathGenerator(), new BacktrackerPathGenerator(),
+            new AldousBroderPathGenerator(), new ParallelPathGenerator(3));
+  }
+
+  @Test
+  public void testSeededKruskalLayoutsAreStable() {
+    // start and destination as drawn before path generators were pluggable
+    int[][] wrapping = {{64, 33}, {15, 80}, {6, 50}};
+    int[][] nonWrapping = {{22, 8}, {50, 19}, {70, 32}};
+    for (int seed = 0; seed < 3; seed++) {
+      Dungeon dungeon = new DungeonImpl(10, 12, 20, true, 50, "Nishtha",
+              new RandomSeeded(seed));
+      assertEquals(wrapping[seed][0], dungeon.getStartingCave().getId());
+      assertEquals(wrapping[seed][1], dungeon.getDestinationCave().getId());
+      dungeon = new DungeonImpl(8, 9, 5, false, 50, "Nishtha", new RandomSeeded(seed));
+      assertEquals(nonWrapping[seed][0], dungeon.getStartingCave().getId());
+      assertEquals(nonWrapping[seed][1], dungeon.getDestinationCave().getId());
+    }
+  }
+
+  @Test
+  public void testSpanningTreeNonWrapping() {
+    for (PathGenerator generator : generators) {
+      Dungeon dungeon = new DungeonImpl(8, 7, 0, false, 20, "Nishtha", rand, 10, generator);
+      assertEquals(56, countLocations(dungeon));
+      assertEquals(2 * 55, countExits(dungeon));
+    }
+  }
+
+  @Test
+  public void testSpanningTreeWrapping() {
+    for (PathGenerator generator : generators) {
+      Dungeon dungeon = new DungeonImpl(6, 9, 0, true, 20, "Nishtha", rand, 10, generator);
+      assertEquals(54, countLocations(dungeon));
+      assertEquals(2 * 53, countExits(dungeon));
+    }
+  }
+
+  @Test
+  public void testInterconnectivityAppliedToEveryGenerator() {
+    for (PathGenerator generator : generators) {
+      Dungeon dungeon = new DungeonImpl(8, 7, 6, false, 20, "Nishtha", rand, 10, generator);
+      assertEquals(56, countLocations(dungeon));
+      assertEquals(2 * (55 + 6), countExits(dungeon));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullGenerator() {
+    new DungeonImpl(8, 7, 0, false, 20, "Nishtha", rand, 10, null);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testGeneratorMustCreateSpanningTree() {
+    new DungeonImpl(8, 7, 0, false, 20, "Nishtha", rand, 10,
+            (rows, columns, potentialPaths, random) -> potentialPaths.subList(0, 10));
+  }
+
+  @Test
+  public void testParallelGeneratorIsDeterministic() {
+    Dungeon first = new DungeonImpl(40, 30, 10, true, 50, "Nishtha", new RandomSeeded(7), 10,
+            new ParallelPathGenerator(4));
+    Dungeon second = new DungeonImpl(40, 30, 10, true, 50, "Nishtha", new RandomSeeded(7), 10,
+            new ParallelPathGenerator(4));
+    assertEquals(first.toString(), second.toString());
+    assertEquals(first.getStartingCave().getId(), second.getStartingCave().getId());
+    assertEquals(first.getDestinationCave().getId(), second.getDestinationCave().getId());
+    assertEquals(first.getPlayerLocation().getTreasures(),
+            second.getPlayerLocation().getTreasures());
+  }
+
+  @Test
+  public void testParallelGeneratorPlacesTreasures() {
+    Dungeon dungeon = new DungeonImpl(20, 20, 0, false, 100, "Nishtha", new RandomSeeded(3), 10,
+            new ParallelPathGenerator(4));
+    assertTrue(dungeon.getPlayerLocation().getTreasures().size() > 0);
+  }
+
+  @Test
+  public void testParallelGeneratorJoinsStripesLikeKruskal() {
+    // 4 stripes of 10 rows, so the seams are below rows 9, 19 and 29
+    double sequential = passagesPerSeam(new KruskalPathGenerator());
+    double parallel = passagesPerSeam(new ParallelPathGenerator(4));
+    assertTrue(sequential > 5);
+    assertTrue("Parallel " + parallel + " against sequential " + sequential,
+            parallel > 0.8 * sequential && parallel < 1.2 * sequential);
+  }
+
+  private double passagesPerSeam(PathGenerator generator) {
+    int passages = 0;
+    int seams = 0;
+    for (int seed = 0; seed < 10; seed++) {
+      Dungeon dungeon = new DungeonImpl(40, 40, 0, false, 0, "Nishtha", new RandomSeeded(seed),
+              10, generator);
+      for (int row = 9; row < 39; row += 10) {
+        for (int column = 0; column < 40; column++) {
+          if (dungeon.getLocation(row, column).getPossibleMoves().contains(Direction.SOUTH)) {
+            passages++;
+          }
+        }
+        seams++;
+      }
+    }
+    return (double) passages / seams;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testParallelGeneratorNoThreads() {
+    new ParallelPathGenerator(0);
+  }
+
+  private int countLocations(Dungeon dungeon) {
+    return explore(dungeon, false);
+  }
+
+  private int countExits(Dungeon dungeon) {
+    return explore(dungeon, true);
+  }
+
+  private int explore(Dungeon dungeon, boolean countExits) {
+    Set<Integer> visited = new HashSet<>();
+    Queue<Dungeon> queue = new LinkedList<>();
+    queue.add(dungeon);
+    visited.add(dungeon.getPlayerLocation().getId());
+    int exits = 0;
+    while (!queue.isEmpty()) {
+      Dungeon current = queue.remove();
+      for (Direction direction : current.getPlayerLocation().getPossibleMoves()) {
+        exits++;
+        Dungeon next = current.fork();
+        next.movePlayer(direction);
+        if (visited.add(next.getPlayerLocation().getId())) {
+          queue.add(next);
+        }
+      }
+    }
+    return countExits ? exits : visited.size();
+  }
+}
@@ -14,6 +14,8 @@ import player.PlayerImpl;
 import player.PlayerUpdateState;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Tests for {@link PlayerImpl}.
@@ -100,4 +102,84 @@ public class PlayerImplTest {
   public void testMoveNullLocation() {
     player.move(null);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testHasVisited() {
+    player = new PlayerImpl("Nishtha", location, 4);
+    assertTrue(player.hasVisited(1));
+    assertFalse(player.hasVisited(2));
+    player.move(nextLocation);
+    assertTrue(player.hasVisited(1));
+    assertTrue(player.hasVisited(2));
+    assertFalse(player.hasVisited(-1));
+  }
+
+  @Test
+  public void testReveal() {
+    player = new PlayerImpl("Nishtha", location, 4);
+    assertTrue(player.hasSeen(1));
+    assertFalse(player.hasSeen(3));
+    player.reveal(3);
+    assertTrue(player.hasSeen(3));
+    assertFalse(player.hasVisited(3));
+  }
+
+  @Test
+  public void testGetPercentageExplored() {
+    assertEquals(0, player.getPercentageExplored(), 0.001);
+    player = new PlayerImpl("Nishtha", location, 4);
+    assertEquals(25, player.getPercentageExplored(), 0.001);
+    player.move(nextLocation);
+    assertEquals(50, player.getPercentageExplored(), 0.001);
+    player.reveal(3);
+    player.reveal(3);
+    assertEquals(75, player.getPercentageExplored(), 0.001);
+  }
+
+  @Test
+  public void testCopyExplorationIsIndependent() {
+    player = new PlayerImpl("Nishtha", location, 4);
+    PlayerUpdateState copy = player.copy(location);
+    copy.move(nextLocation);
+    assertTrue(copy.hasVisited(2));
+    assertFalse(player.hasVisited(2));
+    player.reveal(3);
+    assertTrue(player.hasSeen(3));
+    assertFalse(copy.hasSeen(3));
+    assertEquals(50, player.getPercentageExplored(), 0.001);
+    assertEquals(50, copy.getPercentageExplored(), 0.001);
+  }
+
+  @Test
+  public void testCopiesOfCopiesAcrossPages() {
+    player = new PlayerImpl("Nishtha", location, 100000);
+    player.move(new Cave(50000, 500, 0));
+    PlayerUpdateState copy = player.copy(new Cave(99999, 999, 99));
+    PlayerUpdateState grandCopy = copy.copy(new Cave(4096, 40, 96));
+    player.reveal(70000);
+
+    assertTrue(copy.hasVisited(50000));
+    assertTrue(copy.hasVisited(99999));
+    assertFalse(copy.hasVisited(4096));
+    assertFalse(copy.hasSeen(70000));
+    assertTrue(grandCopy.hasVisited(1));
+    assertTrue(grandCopy.hasVisited(99999));
+    assertTrue(grandCopy.hasVisited(4096));
+    assertFalse(player.hasVisited(99999));
+    assertFalse(player.hasVisited(4096));
+    assertTrue(player.hasSeen(70000));
+    assertEquals(0.003, player.getPercentageExplored(), 1e-9);
+    assertEquals(0.003, copy.getPercentageExplored(), 1e-9);
+    assertEquals(0.004, grandCopy.getPercentageExplored(), 1e-9);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCopyNullLocation() {
+    player.copy(null);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPlayerImplNegativeLocations() {
+    new PlayerImpl("Nishtha", location, -1);
+  }
+}
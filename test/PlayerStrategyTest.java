@@ -0,0 +1,171 @@
+import org.junit.Test;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.FlowField;
+import location.Direction;
+import location.Treasure;
+import random.RandomFactory;
+import strategy.GreedyTreasureStrategy;
+import strategy.PlayerStrategy;
+import strategy.RandomWalkStrategy;
+import strategy.ShortestPathStrategy;
+import strategy.WallFollowerStrategy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for the {@link PlayerStrategy} implementations.
+ */
+public class PlayerStrategyTest {
+
+  private static Dungeon dungeon(int interconnectivity, boolean isWrapping, long seed) {
+    return new DungeonImpl(10, 12, interconnectivity, isWrapping, 50, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  /**
+   * Plays until the destination or the limit, collecting every treasure on the way.
+   *
+   * @return the number of moves, -1 if the limit was hit.
+   */
+  private static int play(Dungeon dungeon, PlayerStrategy strategy, int maxMoves) {
+    dungeon.collectAllTreasures();
+    int moves = 0;
+    while (!dungeon.isDestinationReached()) {
+      if (moves == maxMoves) {
+        return -1;
+      }
+      Direction move = strategy.nextMove(dungeon);
+      assertTrue(dungeon.getPlayerLocation().getPossibleMoves().contains(move));
+      dungeon.movePlayer(move);
+      dungeon.collectAllTreasures();
+      moves++;
+    }
+    return moves;
+  }
+
+  private static boolean[] reachableAvoidingDestination(Dungeon dungeon) {
+    int rows = dungeon.getRows();
+    int columns = dungeon.getColumns();
+    int destination = dungeon.getDestinationCave().getId();
+    boolean[] reachable = new boolean[rows * columns];
+    Deque<Integer> queue = new ArrayDeque<>();
+    queue.add(dungeon.getStartingCave().getId());
+    reachable[queue.peek()] = true;
+    while (!queue.isEmpty()) {
+      int id = queue.remove();
+      int row = id / columns;
+      int column = id % columns;
+      for (Direction direction : dungeon.getLocation(row, column).getPossibleMoves()) {
+        int next;
+        switch (direction) {
+          case NORTH:
+            next = (row - 1 + rows) % rows * columns + column;
+            break;
+          case SOUTH:
+            next = (row + 1) % rows * columns + column;
+            break;
+          case EAST:
+            next = row * columns + (column + 1) % columns;
+            break;
+          default:
+            next = row * columns + (column - 1 + columns) % columns;
+            break;
+        }
+        if (!reachable[next] && next != destination) {
+          reachable[next] = true;
+          queue.add(next);
+        }
+      }
+    }
+    return reachable;
+  }
+
+  @Test
+  public void testRandomWalkIsRepeatable() {
+    int first = play(dungeon(5, false, 1L),
+            new RandomWalkStrategy(new RandomFactory().getRandomGenerator(9L)), 1_000_000);
+    int second = play(dungeon(5, false, 1L),
+            new RandomWalkStrategy(new RandomFactory().getRandomGenerator(9L)), 1_000_000);
+    assertTrue(first > 0);
+    assertEquals(first, second);
+  }
+
+  @Test
+  public void testRandomWalkFollowsTheGenerator() {
+    Dungeon dungeon = dungeon(0, false, 2L);
+    PlayerStrategy strategy = new RandomWalkStrategy(new RandomFactory().getRandomGenerator(false));
+    assertEquals(dungeon.getPlayerLocation().getPossibleMoves().get(0),
+            strategy.nextMove(dungeon));
+  }
+
+  @Test
+  public void testWallFollowerSolvesMazes() {
+    // without loops, keeping a hand on the wall walks every location at most twice
+    for (long seed = 3; seed < 8; seed++) {
+      Dungeon dungeon = dungeon(0, seed % 2 == 0, seed);
+      int moves = play(dungeon, new WallFollowerStrategy(), 2 * 10 * 12);
+      assertTrue(moves > 0);
+    }
+  }
+
+  @Test
+  public void testGreedyTreasureCollectsEverythingOnTheWay() {
+    for (long seed = 8; seed < 12; seed++) {
+      Dungeon dungeon = dungeon(4, seed % 2 == 0, seed);
+      int moves = play(dungeon, new GreedyTreasureStrategy(), 100_000);
+      assertTrue(moves > 0);
+      // what is left lies behind the destination
+      boolean[] reachable = reachableAvoidingDestination(dungeon);
+      for (int id = 0; id < reachable.length; id++) {
+        if (reachable[id]) {
+          assertEquals(0, dungeon.getLocation(id / 12, id % 12).getTreasures().size());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testGreedyTreasureBeatsShortestPathOnTreasure() {
+    Dungeon greedy = dungeon(6, false, 12L);
+    Dungeon shortest = dungeon(6, false, 12L);
+    play(greedy, new GreedyTreasureStrategy(), 100_000);
+    play(shortest, new ShortestPathStrategy(), 100_000);
+    assertTrue(total(greedy) >= total(shortest));
+  }
+
+  @Test
+  public void testShortestPathTakesTheShortestPath() {
+    for (long seed = 13; seed < 17; seed++) {
+      Dungeon dungeon = dungeon(8, seed % 2 == 0, seed);
+      int expected = new FlowField(dungeon, dungeon.getDestinationCave().getId())
+              .distance(dungeon.getStartingCave().getId());
+      assertEquals(expected, play(dungeon, new ShortestPathStrategy(), 1000));
+    }
+  }
+
+  @Test
+  public void testInvalidRandomGenerator() {
+    try {
+      new RandomWalkStrategy(null);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static int total(Dungeon dungeon) {
+    int total = 0;
+    for (Treasure treasure : Treasure.values()) {
+      Integer count = dungeon.getPlayer().getCollectedTreasures().get(treasure);
+      total += count == null ? 0 : count;
+    }
+    return total;
+  }
+}
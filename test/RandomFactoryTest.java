@@ -4,6 +4,7 @@ import org.junit.Test;
 import random.RandomFactory;
 import random.RandomFalse;
 import random.RandomGenerator;
+import random.RandomSeeded;
 import random.RandomTrue;
 
 import static org.junit.Assert.assertTrue;
@@ -32,4 +33,10 @@ public class RandomFactoryTest {
     rand = randomFactory.getRandomGenerator(false);
     assertTrue(rand instanceof RandomFalse);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testGetRandomGeneratorSeeded() {
+    rand = randomFactory.getRandomGenerator(42L);
+    assertTrue(rand instanceof RandomSeeded);
+  }
+}
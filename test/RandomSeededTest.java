@@ -0,0 +1,48 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import random.RandomGenerator;
+import random.RandomSeeded;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link RandomSeeded}.
+ */
+public class RandomSeededTest {
+
+  RandomSeeded rand;
+
+  @Before
+  public void setUp() {
+    rand = new RandomSeeded(42);
+  }
+
+  @Test
+  public void getRandom() {
+    int random = rand.getRandom(12, 6);
+    assertTrue(random >= 6 && random < 12);
+  }
+
+  @Test
+  public void testSameSeedSameNumbers() {
+    RandomGenerator other = new RandomSeeded(42);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(other.getRandom(1000, 0), rand.getRandom(1000, 0));
+    }
+  }
+
+  @Test
+  public void testGetSeed() {
+    assertEquals(42, rand.getSeed());
+  }
+
+  @Test
+  public void testGetDraws() {
+    assertEquals(0, rand.getDraws());
+    rand.getRandom(10, 0);
+    rand.getRandom(10, 0);
+    assertEquals(2, rand.getDraws());
+  }
+}
@@ -0,0 +1,170 @@
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.FlowField;
+import location.Direction;
+import location.Location;
+import location.Treasure;
+import random.RandomFactory;
+import simulation.Simulation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link Simulation}.
+ */
+public class SimulationTest {
+
+  private static Dungeon dungeon(long seed) {
+    return new DungeonImpl(12, 14, 10, true, 60, "Nishtha",
+            new RandomFactory().getRandomGenerator(seed));
+  }
+
+  private static byte[] randomMoves(Random random, int agents) {
+    byte[] moves = new byte[agents];
+    for (int i = 0; i < agents; i++) {
+      moves[i] = (byte) (random.nextInt(5) - 1);
+    }
+    return moves;
+  }
+
+  private static int treasuresIn(Dungeon dungeon) {
+    int total = 0;
+    for (int row = 0; row < dungeon.getRows(); row++) {
+      for (int column = 0; column < dungeon.getColumns(); column++) {
+        total += dungeon.getLocation(row, column).getTreasures().size();
+      }
+    }
+    return total;
+  }
+
+  @Test
+  public void testAgentMatchesPlayer() {
+    Dungeon dungeon = dungeon(1L);
+    Dungeon fork = dungeon.fork();
+    Random random = new Random(2L);
+    try (Simulation simulation = new Simulation(dungeon, 1, 1)) {
+      for (int tick = 0; tick < 500 && !fork.isDestinationReached(); tick++) {
+        byte[] moves = randomMoves(random, 1);
+        Location location = fork.getPlayerLocation();
+        boolean isPossible = moves[0] >= 0
+                && location.getPossibleMoves().contains(Direction.values()[moves[0]]);
+        assertEquals(isPossible ? 1 : 0, simulation.tick(moves));
+        if (isPossible) {
+          fork.movePlayer(Direction.values()[moves[0]]);
+          fork.collectAllTreasures();
+        }
+        assertEquals(fork.getPlayerLocation().getId(), simulation.getLocationId(0));
+      }
+      for (Treasure treasure : Treasure.values()) {
+        assertEquals((int) fork.getPlayer().getCollectedTreasures().get(treasure),
+                simulation.getCollected(0, treasure));
+      }
+      assertEquals(fork.isDestinationReached() ? Simulation.ARRIVED : Simulation.ACTIVE,
+              simulation.getStatus(0));
+    }
+  }
+
+  @Test
+  public void testParallelTicksConserveTreasures() {
+    Dungeon dungeon = dungeon(3L);
+    int agents = 5000;
+    Random random = new Random(4L);
+    try (Simulation sequential = new Simulation(dungeon, agents, 1);
+         Simulation parallel = new Simulation(dungeon, agents, 4)) {
+      for (int tick = 0; tick < 200; tick++) {
+        byte[] moves = randomMoves(random, agents);
+        assertEquals(sequential.tick(moves), parallel.tick(moves));
+      }
+      assertEquals(200, parallel.getTicks());
+      int collected = 0;
+      int left = 0;
+      for (int agent = 0; agent < agents; agent++) {
+        // the moves do not depend on who got the treasures, so the agents end up alike
+        assertEquals(sequential.getLocationId(agent), parallel.getLocationId(agent));
+        assertEquals(sequential.getStatus(agent), parallel.getStatus(agent));
+        for (Treasure treasure : Treasure.values()) {
+          collected += parallel.getCollected(agent, treasure);
+        }
+      }
+      for (int id = 0; id < dungeon.getRows() * dungeon.getColumns(); id++) {
+        for (Treasure treasure : Treasure.values()) {
+          left += parallel.getTreasuresAt(id, treasure);
+        }
+      }
+      assertEquals(treasuresIn(dungeon), collected + left);
+      assertEquals(sequential.getArrivedCount(), parallel.getArrivedCount());
+    }
+  }
+
+  @Test
+  public void testAgentsFollowingTheFlowFieldArrive() {
+    Dungeon dungeon = dungeon(5L);
+    FlowField field = new FlowField(dungeon, dungeon.getDestinationCave().getId());
+    int agents = 100;
+    try (Simulation simulation = new Simulation(dungeon, agents, 2)) {
+      byte[] moves = new byte[agents];
+      int distance = field.distance(dungeon.getStartingCave().getId());
+      for (int tick = 0; tick < distance; tick++) {
+        for (int agent = 0; agent < agents; agent++) {
+          Direction step = field.nextStep(simulation.getLocationId(agent));
+          moves[agent] = step == null ? Simulation.STAY : (byte) step.ordinal();
+        }
+        assertEquals(agents, simulation.tick(moves));
+      }
+      assertEquals(agents, simulation.getArrivedCount());
+      // arrived agents stay put
+      Arrays.fill(moves, (byte) Direction.NORTH.ordinal());
+      assertEquals(0, simulation.tick(moves));
+    }
+  }
+
+  @Test
+  public void testTreasuresAreCopied() {
+    Dungeon dungeon = dungeon(6L);
+    int before = treasuresIn(dungeon);
+    try (Simulation simulation = new Simulation(dungeon, 1000, 1)) {
+      Random random = new Random(7L);
+      for (int tick = 0; tick < 100; tick++) {
+        simulation.tick(randomMoves(random, 1000));
+      }
+    }
+    assertEquals(before, treasuresIn(dungeon));
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    Dungeon dungeon = dungeon(8L);
+    try {
+      new Simulation(null, 1, 1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new Simulation(dungeon, 0, 1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try (Simulation simulation = new Simulation(dungeon, 3, 1)) {
+      try {
+        simulation.tick(new byte[2]);
+        fail("Expected IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+      try {
+        simulation.getStatus(3);
+        fail("Expected IllegalArgumentException");
+      } catch (IllegalArgumentException e) {
+        // expected
+      }
+    }
+  }
+}
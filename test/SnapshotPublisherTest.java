@@ -0,0 +1,146 @@
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import dungeon.Dungeon;
+import dungeon.DungeonImpl;
+import dungeon.DungeonSnapshot;
+import dungeon.SnapshotPublisher;
+import location.Direction;
+import location.Location;
+import random.RandomFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link SnapshotPublisher} and {@link DungeonSnapshot}.
+ */
+public class SnapshotPublisherTest {
+
+  Dungeon dungeon;
+  SnapshotPublisher publisher;
+
+  @Before
+  public void setUp() {
+    dungeon = new DungeonImpl(6, 4, 4, false, 100, "Nishtha",
+            new RandomFactory().getRandomGenerator(false));
+    publisher = new SnapshotPublisher(dungeon);
+  }
+
+  private static int treasuresLeft(Dungeon dungeon) {
+    int count = 0;
+    for (int row = 0; row < dungeon.getRows(); row++) {
+      for (int column = 0; column < dungeon.getColumns(); column++) {
+        count += dungeon.getLocation(row, column).getTreasures().size();
+      }
+    }
+    return count;
+  }
+
+  private static int treasuresCollected(Dungeon dungeon) {
+    int count = 0;
+    for (int treasures : dungeon.getPlayer().getCollectedTreasures().values()) {
+      count += treasures;
+    }
+    return count;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullDungeon() {
+    new SnapshotPublisher(null);
+  }
+
+  @Test
+  public void testSnapshotIsStable() {
+    DungeonSnapshot first = publisher.getSnapshot();
+    assertEquals(0, first.getVersion());
+    int treasures = treasuresLeft(first);
+
+    dungeon.collectAllTreasures();
+    dungeon.movePlayer(Direction.SOUTH);
+    assertEquals(1, first.getPlayerLocation().getId());
+    assertEquals(treasures, treasuresLeft(first));
+    assertEquals(0, treasuresCollected(first));
+
+    DungeonSnapshot second = publisher.publish();
+    assertEquals(1, second.getVersion());
+    assertEquals(second, publisher.getSnapshot());
+    assertEquals(5, second.getPlayerLocation().getId());
+    assertEquals(treasures, treasuresLeft(second) + treasuresCollected(second));
+    assertTrue(treasuresCollected(second) > 0);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotMove() {
+    publisher.getSnapshot().movePlayer(Direction.SOUTH);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotCollect() {
+    publisher.getSnapshot().collectAllTreasures();
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testSnapshotFork() {
+    publisher.getSnapshot().fork();
+  }
+
+  @Test
+  public void testManyPublications() {
+    int treasures = treasuresLeft(dungeon);
+    List<DungeonSnapshot> snapshots = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      dungeon.collectAllTreasures();
+      Location location = dungeon.getPlayerLocation();
+      dungeon.movePlayer(location.getPossibleMoves().get(i % location.getPossibleMoves().size()));
+      snapshots.add(publisher.publish());
+    }
+    for (DungeonSnapshot snapshot : snapshots) {
+      assertEquals(treasures, treasuresLeft(snapshot) + treasuresCollected(snapshot));
+    }
+    assertEquals(treasuresCollected(dungeon), treasuresCollected(snapshots.get(99)));
+  }
+
+  @Test
+  public void testConcurrentReaders() throws InterruptedException {
+    int treasures = treasuresLeft(dungeon);
+    AtomicBoolean done = new AtomicBoolean(false);
+    AtomicReference<String> failure = new AtomicReference<>();
+    List<Thread> readers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      Thread reader = new Thread(() -> {
+        long lastVersion = -1;
+        while (!done.get()) {
+          DungeonSnapshot snapshot = publisher.getSnapshot();
+          if (snapshot.getVersion() < lastVersion) {
+            failure.set("version went back");
+          }
+          lastVersion = snapshot.getVersion();
+          if (treasuresLeft(snapshot) + treasuresCollected(snapshot) != treasures) {
+            failure.set("inconsistent snapshot " + snapshot.getVersion());
+          }
+          snapshot.toString();
+        }
+      });
+      readers.add(reader);
+      reader.start();
+    }
+    for (int i = 0; i < 2000; i++) {
+      dungeon.collectAllTreasures();
+      Location location = dungeon.getPlayerLocation();
+      dungeon.movePlayer(location.getPossibleMoves().get(i % location.getPossibleMoves().size()));
+      publisher.publish();
+    }
+    done.set(true);
+    for (Thread reader : readers) {
+      reader.join();
+    }
+    assertNull(failure.get());
+  }
+}
@@ -0,0 +1,134 @@
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
+import java.util.stream.Collectors;
+
+import batch.GameConfig;
+import dungeon.Dungeon;
+import location.Direction;
+import strategy.PlayerStrategy;
+import strategy.StrategyResult;
+import strategy.Tournament;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests for {@link Tournament}.
+ */
+public class TournamentTest {
+
+  private static final GameConfig CONFIG = new GameConfig(8, 9, 3, false, 50, "Bot", 6);
+
+  @Test
+  public void testBuiltInsPlayTheSameDungeons() {
+    Tournament tournament = new Tournament(Tournament.builtIns(), 100_000);
+    List<StrategyResult> results = tournament.run(CONFIG, 1, Runnable::run);
+    assertEquals(List.of("random", "wall-follower", "greedy-treasure", "shortest-path"),
+            results.stream().map(StrategyResult::getName).collect(Collectors.toList()));
+    StrategyResult greedy = results.get(2);
+    StrategyResult shortest = results.get(3);
+    assertEquals(6, shortest.getGames());
+    assertEquals(6, shortest.getGamesFinished());
+    assertEquals(6, greedy.getGamesFinished());
+    // the same dungeons for both, and none has a shorter way to the destination
+    for (StrategyResult result : results) {
+      assertTrue(result.getMoves() >= shortest.getMoves());
+    }
+    assertTrue(greedy.getTreasures() >= shortest.getTreasures());
+    assertTrue(shortest.getNanosPerDecision() > 0);
+  }
+
+  @Test
+  public void testParallelMatchesSequential() {
+    Tournament tournament = new Tournament(Tournament.builtIns(), 100_000);
+    List<StrategyResult> sequential = tournament.run(CONFIG, 7, Runnable::run);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<StrategyResult> parallel;
+    try {
+      parallel = tournament.run(CONFIG, 7, executor);
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < sequential.size(); i++) {
+      assertEquals(sequential.get(i).getGamesFinished(), parallel.get(i).getGamesFinished());
+      assertEquals(sequential.get(i).getMoves(), parallel.get(i).getMoves());
+      assertEquals(sequential.get(i).getTreasures(), parallel.get(i).getTreasures());
+    }
+  }
+
+  @Test
+  public void testPlugInAndMoveLimit() {
+    Map<String, LongFunction<PlayerStrategy>> entrants = new LinkedHashMap<>();
+    // back and forth between the start and its first neighbour, never arriving
+    entrants.put("pacer", seed -> new PlayerStrategy() {
+      private Direction last;
+
+      @Override
+      public Direction nextMove(Dungeon dungeon) {
+        List<Direction> moves = dungeon.getPlayerLocation().getPossibleMoves();
+        Direction move = last == null ? moves.get(0) : back(last);
+        last = move;
+        return move;
+      }
+    });
+    StrategyResult result = new Tournament(entrants, 50).run(CONFIG, 1, Runnable::run).get(0);
+    assertEquals("pacer", result.getName());
+    assertEquals(0, result.getGamesFinished());
+    assertEquals(6 * 50, result.getMoves());
+    assertEquals(50.0, result.getMeanMoves(), 0.001);
+  }
+
+  @Test
+  public void testInvalidMoveIsReported() {
+    Map<String, LongFunction<PlayerStrategy>> entrants = new LinkedHashMap<>();
+    entrants.put("stairs", seed -> dungeon -> Direction.UP);
+    try {
+      new Tournament(entrants, 10).run(CONFIG, 1, Runnable::run);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  @Test
+  public void testInvalidArguments() {
+    try {
+      new Tournament(Map.of(), 10);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new Tournament(Tournament.builtIns(), 0);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+    try {
+      new Tournament(Tournament.builtIns(), 10).run(null, 1, Runnable::run);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      // expected
+    }
+  }
+
+  private static Direction back(Direction direction) {
+    switch (direction) {
+      case NORTH:
+        return Direction.SOUTH;
+      case SOUTH:
+        return Direction.NORTH;
+      case EAST:
+        return Direction.WEST;
+      default:
+        return Direction.EAST;
+    }
+  }
+}